@@ -0,0 +1,25 @@
+package com.XuebaoMaster.backend.CacheStats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheStatsController {
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    // 二级缓存与服务缓存的命中统计
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getCacheStats());
+    }
+}
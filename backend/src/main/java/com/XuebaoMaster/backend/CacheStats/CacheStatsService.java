@@ -0,0 +1,9 @@
+package com.XuebaoMaster.backend.CacheStats;
+
+import java.util.Map;
+
+public interface CacheStatsService {
+
+    // Hibernate 二级缓存/查询缓存的累计命中情况，以及每个缓存的命中率、条目数、淘汰数
+    Map<String, Object> getCacheStats();
+}
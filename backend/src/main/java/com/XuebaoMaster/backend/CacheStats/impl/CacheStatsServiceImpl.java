@@ -0,0 +1,71 @@
+package com.XuebaoMaster.backend.CacheStats.impl;
+
+import com.XuebaoMaster.backend.CacheStats.CacheStatsService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Service
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+    @Autowired
+    private CacheManager jCacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hibernate", hibernateStats());
+        result.put("caches", cacheStats());
+        return result;
+    }
+
+    private Map<String, Object> hibernateStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        stats.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        stats.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        stats.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        stats.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        // 实际发往 MySQL 的语句数，与命中数对比可看出缓存挡住了多少读请求
+        stats.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        stats.put("entityLoadCount", statistics.getEntityLoadCount());
+        stats.put("startTime", statistics.getStartTime());
+        return stats;
+    }
+
+    private Map<String, Object> cacheStats() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        TreeSet<String> names = new TreeSet<>();
+        jCacheManager.getCacheNames().forEach(names::add);
+        for (String name : names) {
+            Cache<Object, Object> cache = jCacheManager.getCache(name);
+            if (cache == null) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats cacheStats = caffeine.stats();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hitCount", cacheStats.hitCount());
+            stats.put("missCount", cacheStats.missCount());
+            stats.put("hitRate", cacheStats.hitRate());
+            stats.put("evictionCount", cacheStats.evictionCount());
+            stats.put("size", caffeine.estimatedSize());
+            caches.put(name, stats);
+        }
+        return caches;
+    }
+}
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/courses")
@@ -129,6 +130,17 @@ public class CourseController {
         }
     }
 
+    /**
+     * 获取课程关联的RAG ID（读取内存索引）
+     * 
+     * @param courseId 课程ID
+     * @return RAG ID集合
+     */
+    @GetMapping("/{courseId}/rag-ids")
+    public ResponseEntity<Set<Long>> getCourseRagIds(@PathVariable Long courseId) {
+        return ResponseEntity.ok(courseRagMappingService.findRagIdsByCourseId(courseId));
+    }
+
     /**
      * 将RAG关联到课程
      * 
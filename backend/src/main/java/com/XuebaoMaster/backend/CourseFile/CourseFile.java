@@ -8,7 +8,9 @@ import com.XuebaoMaster.backend.Course.Course;
 import com.XuebaoMaster.backend.File.FileEntity;
 
 @Entity
-@Table(name = "course_files")
+@Table(name = "course_files", indexes = {
+        @Index(name = "idx_course_files_course_order", columnList = "course_id, display_order")
+})
 @Data
 public class CourseFile {
     @Id
@@ -209,6 +209,30 @@ public class CourseFileController {
         }
     }
 
+    /**
+     * 按给定顺序整体重排课程文件
+     */
+    @PutMapping("/course/{courseId}/reorder")
+    public ResponseEntity<?> reorderCourseFiles(
+            @PathVariable Long courseId,
+            @RequestBody Map<String, List<Long>> request) {
+        try {
+            List<Long> courseFileIds = request.get("courseFileIds");
+            if (courseFileIds == null || courseFileIds.isEmpty()) {
+                throw new RuntimeException("课程文件ID列表不能为空");
+            }
+            List<CourseFile> courseFiles = courseFileService.reorderCourseFiles(courseId, courseFileIds);
+            List<CourseFileDTO> dtos = courseFiles.stream()
+                    .map(CourseFileDTO::fromEntity)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(dtos);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
     /**
      * 更新课程文件的可见性
      */
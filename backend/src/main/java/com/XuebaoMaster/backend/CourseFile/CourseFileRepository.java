@@ -1,7 +1,11 @@
 package com.XuebaoMaster.backend.CourseFile;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +36,12 @@ public interface CourseFileRepository extends JpaRepository<CourseFile, Long> {
 
     // 根据课程ID和可见性排序查找课程文件
     List<CourseFile> findByCourse_CourseIdAndIsVisibleOrderByDisplayOrderAsc(Long courseId, boolean isVisible);
-}
\ No newline at end of file
+
+    // 候选文件中已关联到课程的文件ID（批量关联时一次查出）
+    @Query("SELECT cf.file.id FROM CourseFile cf WHERE cf.course.courseId = :courseId AND cf.file.id IN :fileIds")
+    List<Long> findAssociatedFileIds(@Param("courseId") Long courseId, @Param("fileIds") Collection<Long> fileIds);
+
+    // 按文件ID批量取回课程文件关联，同时加载课程和文件
+    @EntityGraph(attributePaths = { "course", "file" })
+    List<CourseFile> findByCourse_CourseIdAndFile_IdIn(Long courseId, Collection<Long> fileIds);
+}
@@ -85,14 +85,23 @@ public interface CourseFileService {
         CourseFile updateCourseFile(Long courseFileId, Map<String, Object> updates);
 
         /**
-         * 更新课程文件的显示顺序
+         * 把课程文件移动到课程中的目标位置
          * 
          * @param courseFileId 课程文件关联ID
-         * @param displayOrder 新的显示顺序
+         * @param displayOrder 目标位置(从 0 开始)
          * @return 更新后的课程文件关联
          */
         CourseFile updateCourseFileOrder(Long courseFileId, int displayOrder);
 
+        /**
+         * 按给定顺序整体重排课程文件，未列出的文件按原顺序排在后面
+         * 
+         * @param courseId      课程ID
+         * @param courseFileIds 按新顺序排列的课程文件关联ID
+         * @return 重排后的课程文件列表
+         */
+        List<CourseFile> reorderCourseFiles(Long courseId, List<Long> courseFileIds);
+
         /**
          * 更新课程文件的可见性
          * 
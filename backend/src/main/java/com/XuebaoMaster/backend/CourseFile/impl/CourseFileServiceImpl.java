@@ -7,12 +7,19 @@ import com.XuebaoMaster.backend.Course.Course;
 import com.XuebaoMaster.backend.Course.CourseRepository;
 import com.XuebaoMaster.backend.File.FileEntity;
 import com.XuebaoMaster.backend.File.FileRepository;
+import com.XuebaoMaster.backend.util.BatchOrderUpdater;
+import com.XuebaoMaster.backend.util.LongHashSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -29,6 +36,21 @@ public class CourseFileServiceImpl implements CourseFileService {
     @Autowired
     private FileRepository fileRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BatchOrderUpdater batchOrderUpdater;
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private static final String INSERT_COURSE_FILE_SQL = "INSERT INTO course_files (course_id, file_id, " +
+            "resource_type, description, is_visible, display_order, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final BatchOrderUpdater.OrderedTable ORDERED_TABLE = new BatchOrderUpdater.OrderedTable(
+            CourseFile.class, "course_files", "id", "display_order", "course_id");
+
     @Override
     @Transactional
     public CourseFile associateFileToCourse(Long courseId, Long fileId, String resourceType, String description,
@@ -56,9 +78,8 @@ public class CourseFileServiceImpl implements CourseFileService {
         courseFile.setDescription(description);
         courseFile.setVisible(isVisible);
 
-        // 获取当前课程文件数量作为新文件的顺序
-        List<CourseFile> existingFiles = courseFileRepository.findByCourse_CourseId(courseId);
-        courseFile.setDisplayOrder(existingFiles.size());
+        // 排在课程现有文件之后
+        courseFile.setDisplayOrder(batchOrderUpdater.keysForAppend(ORDERED_TABLE, courseId, 1).get(0));
 
         return courseFileRepository.save(courseFile);
     }
@@ -67,43 +88,34 @@ public class CourseFileServiceImpl implements CourseFileService {
     @Transactional
     public List<CourseFile> associateFilesToCourse(Long courseId, List<Long> fileIds, String resourceType,
             boolean isVisible) {
-        List<CourseFile> result = new ArrayList<>();
-
         // 验证课程是否存在
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("课程不存在"));
 
-        // 获取当前课程文件数量作为新文件的起始顺序
-        List<CourseFile> existingFiles = courseFileRepository.findByCourse_CourseId(courseId);
-        int startOrder = existingFiles.size();
-
-        for (int i = 0; i < fileIds.size(); i++) {
-            Long fileId = fileIds.get(i);
-
-            // 验证文件是否存在
-            FileEntity file = fileRepository.findById(fileId)
-                    .orElseThrow(() -> new RuntimeException("文件ID " + fileId + " 不存在"));
-
-            // 检查是否已经存在关联
-            Optional<CourseFile> existingAssociation = courseFileRepository.findByCourse_CourseIdAndFile_Id(courseId,
-                    fileId);
-            if (existingAssociation.isPresent()) {
-                continue; // 跳过已存在的关联
+        // 去重后一次查出所有候选文件，保持请求中的顺序
+        List<Long> requestedIds = new ArrayList<>(fileIds.size());
+        LongHashSet requested = new LongHashSet(fileIds.size());
+        for (Object rawId : fileIds) {
+            // 请求体中的数字可能被反序列化为 Integer
+            long fileId = ((Number) rawId).longValue();
+            if (requested.add(fileId)) {
+                requestedIds.add(fileId);
             }
-
-            // 创建新的关联
-            CourseFile courseFile = new CourseFile();
-            courseFile.setCourse(course);
-            courseFile.setFile(file);
-            courseFile.setResourceType(resourceType);
-            courseFile.setDescription(file.getFileName()); // 使用文件名作为默认描述
-            courseFile.setVisible(isVisible);
-            courseFile.setDisplayOrder(startOrder + i);
-
-            result.add(courseFileRepository.save(courseFile));
+        }
+        Map<Long, FileEntity> filesById = new HashMap<>();
+        for (FileEntity file : fileRepository.findAllById(requestedIds)) {
+            filesById.put(file.getId(), file);
+        }
+        List<FileEntity> candidates = new ArrayList<>(requestedIds.size());
+        for (Long fileId : requestedIds) {
+            FileEntity file = filesById.get(fileId);
+            if (file == null) {
+                throw new RuntimeException("文件ID " + fileId + " 不存在");
+            }
+            candidates.add(file);
         }
 
-        return result;
+        return bulkAssociate(course, candidates, resourceType, isVisible);
     }
 
     @Override
@@ -123,44 +135,68 @@ public class CourseFileServiceImpl implements CourseFileService {
             throw new RuntimeException("指定的ID不是文件夹");
         }
 
-        List<CourseFile> result = new ArrayList<>();
-
-        // 获取文件夹内所有文件（包括子文件夹中的文件）
+        // 获取文件夹内所有文件（包括子文件夹中的文件），只关联文件
         List<FileEntity> allFiles = getAllFilesInFolder(folder);
 
-        // 获取当前课程文件数量作为新文件的起始顺序
-        List<CourseFile> existingFiles = courseFileRepository.findByCourse_CourseId(courseId);
-        int startOrder = existingFiles.size();
+        return bulkAssociate(course, allFiles, resourceType, isVisible);
+    }
 
-        // 批量关联文件
-        for (int i = 0; i < allFiles.size(); i++) {
-            FileEntity file = allFiles.get(i);
+    /**
+     * 批量关联：一次查询已有关联，用基本类型集合求差，
+     * 新关联按课程当前最大显示顺序依次排在后面，用 JDBC 批量插入
+     */
+    private List<CourseFile> bulkAssociate(Course course, List<FileEntity> candidates, String resourceType,
+            boolean isVisible) {
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Long courseId = course.getCourseId();
 
-            // 跳过文件夹本身，只关联文件
-            if (file.isDirectory()) {
-                continue;
-            }
+        List<Long> candidateIds = new ArrayList<>(candidates.size());
+        for (FileEntity file : candidates) {
+            candidateIds.add(file.getId());
+        }
+        List<Long> associatedIds = courseFileRepository.findAssociatedFileIds(courseId, candidateIds);
+        LongHashSet existing = new LongHashSet(associatedIds.size());
+        for (Long fileId : associatedIds) {
+            existing.add(fileId);
+        }
 
-            // 检查是否已经存在关联
-            Optional<CourseFile> existingAssociation = courseFileRepository.findByCourse_CourseIdAndFile_Id(courseId,
-                    file.getId());
-            if (existingAssociation.isPresent()) {
-                continue; // 跳过已存在的关联
+        List<FileEntity> newFiles = new ArrayList<>();
+        for (FileEntity file : candidates) {
+            // 跳过已存在的关联和文件夹
+            if (!file.isDirectory() && !existing.contains(file.getId())) {
+                newFiles.add(file);
             }
-
-            // 创建新的关联
-            CourseFile courseFile = new CourseFile();
-            courseFile.setCourse(course);
-            courseFile.setFile(file);
-            courseFile.setResourceType(resourceType);
-            courseFile.setDescription(file.getFileName()); // 使用文件名作为默认描述
-            courseFile.setVisible(isVisible);
-            courseFile.setDisplayOrder(startOrder + i);
-
-            result.add(courseFileRepository.save(courseFile));
+        }
+        if (newFiles.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return result;
+        Iterator<Integer> orders = batchOrderUpdater.keysForAppend(ORDERED_TABLE, courseId, newFiles.size())
+                .iterator();
+        Map<Long, Integer> orderByFileId = new HashMap<>();
+        for (FileEntity file : newFiles) {
+            orderByFileId.put(file.getId(), orders.next());
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_COURSE_FILE_SQL, newFiles, INSERT_BATCH_SIZE, (ps, file) -> {
+            ps.setLong(1, courseId);
+            ps.setLong(2, file.getId());
+            ps.setString(3, resourceType);
+            // 使用文件名作为默认描述
+            ps.setString(4, file.getFileName());
+            ps.setBoolean(5, isVisible);
+            ps.setInt(6, orderByFileId.get(file.getId()));
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+
+        // 取回新建的关联（含生成的ID），按显示顺序返回
+        List<CourseFile> created = courseFileRepository.findByCourse_CourseIdAndFile_IdIn(courseId,
+                orderByFileId.keySet());
+        created.sort((a, b) -> Integer.compare(a.getDisplayOrder(), b.getDisplayOrder()));
+        return created;
     }
 
     /**
@@ -240,10 +276,24 @@ public class CourseFileServiceImpl implements CourseFileService {
         CourseFile courseFile = courseFileRepository.findById(courseFileId)
                 .orElseThrow(() -> new RuntimeException("课程文件关联不存在"));
 
-        courseFile.setDisplayOrder(displayOrder);
+        // 目标位置换算为前后两个文件之间的稀疏排序键，通常只改写这一行
+        Long courseId = courseFile.getCourse().getCourseId();
+        courseFile.setDisplayOrder(batchOrderUpdater.keyForPosition(ORDERED_TABLE, courseId, courseFileId,
+                displayOrder));
         return courseFileRepository.save(courseFile);
     }
 
+    @Override
+    @Transactional
+    public List<CourseFile> reorderCourseFiles(Long courseId, List<Long> courseFileIds) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new RuntimeException("课程不存在");
+        }
+        // 整体顺序用一条批量 UPDATE 写入
+        batchOrderUpdater.renumber(ORDERED_TABLE, courseId, courseFileIds);
+        return courseFileRepository.findByCourse_CourseIdOrderByDisplayOrderAsc(courseId);
+    }
+
     @Override
     @Transactional
     public CourseFile updateCourseFileVisibility(Long courseFileId, boolean isVisible) {
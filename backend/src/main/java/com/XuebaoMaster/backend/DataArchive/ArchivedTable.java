@@ -0,0 +1,47 @@
+package com.XuebaoMaster.backend.DataArchive;
+
+/**
+ * 只追加写入、按时间归档的表
+ * 热表只保存保留期内的数据，超过保留期的行移入 {table}_archive，
+ * {table}_all 视图合并两者，只在重建汇总和历史报表中显式使用
+ */
+public enum ArchivedTable {
+
+    PRACTICE_RECORDS("practice_records", "submitted_at"),
+    MODULE_USAGE("module_usage", "access_time"),
+    LOGIN_RECORDS("login_records", "time"),
+    STUDY_DURATIONS("study_durations", "current_time_stamp"),
+    // 聊天消息按会话最后活动时间整体归档
+    CHAT_MESSAGES("chat_messages", "created_at");
+
+    private final String table;
+    private final String timeColumn;
+
+    ArchivedTable(String table, String timeColumn) {
+        this.table = table;
+        this.timeColumn = timeColumn;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public String timeColumn() {
+        return timeColumn;
+    }
+
+    public String archiveTable() {
+        return table + "_archive";
+    }
+
+    public String allView() {
+        return table + "_all";
+    }
+
+    /**
+     * 查询使用的表名，默认只查热表
+     */
+    public String source(boolean includeArchive) {
+        return includeArchive ? allView() : table;
+    }
+}
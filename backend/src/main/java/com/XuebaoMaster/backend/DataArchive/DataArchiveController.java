@@ -0,0 +1,38 @@
+package com.XuebaoMaster.backend.DataArchive;
+
+import com.XuebaoMaster.backend.DataArchive.dto.ArchiveTableStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/archive")
+@PreAuthorize("hasRole('ADMIN')")
+public class DataArchiveController {
+
+    @Autowired
+    private DataArchiveService dataArchiveService;
+
+    // 各表保留期、热表和归档表行数
+    @GetMapping("/status")
+    public ResponseEntity<List<ArchiveTableStatus>> getStatus() {
+        return ResponseEntity.ok(dataArchiveService.getStatus());
+    }
+
+    // 立即执行归档，不指定表时归档全部
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Long>> runArchive(@RequestParam(required = false) ArchivedTable table) {
+        if (table == null) {
+            return ResponseEntity.ok(dataArchiveService.archiveExpiredRows());
+        }
+        return ResponseEntity.ok(Map.of(table.table(), dataArchiveService.archiveTable(table)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.XuebaoMaster.backend.DataArchive;
+
+import com.XuebaoMaster.backend.DataArchive.dto.ArchiveTableStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 冷数据归档服务
+ * 按各表的保留天数把旧行分批移入归档表，每批一个事务；保留天数为 0 时不归档该表
+ */
+public interface DataArchiveService {
+
+    /**
+     * 归档所有表，返回各表移动的行数
+     */
+    Map<String, Long> archiveExpiredRows();
+
+    /**
+     * 归档单个表，返回移动的行数
+     */
+    long archiveTable(ArchivedTable table);
+
+    /**
+     * 归档分界时间，早于它的行可能已在归档表中；该表不归档时返回 null
+     */
+    LocalDateTime archiveCutoff(ArchivedTable table);
+
+    /**
+     * 各表的保留期、热表和归档表行数
+     */
+    List<ArchiveTableStatus> getStatus();
+}
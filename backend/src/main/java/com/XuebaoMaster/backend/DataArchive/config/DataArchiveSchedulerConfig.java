@@ -0,0 +1,34 @@
+package com.XuebaoMaster.backend.DataArchive.config;
+
+import com.XuebaoMaster.backend.DataArchive.DataArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+
+/**
+ * 冷数据归档定时任务配置
+ */
+@Configuration
+@EnableScheduling
+public class DataArchiveSchedulerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataArchiveSchedulerConfig.class);
+
+    @Autowired
+    private DataArchiveService dataArchiveService;
+
+    /**
+     * 每天凌晨把超过保留期的数据移入归档表
+     */
+    @Scheduled(cron = "${archive.cron:0 30 3 * * ?}")
+    public void scheduleArchive() {
+        logger.info("开始归档过期数据");
+        Map<String, Long> moved = dataArchiveService.archiveExpiredRows();
+        logger.info("过期数据归档完成: {}", moved);
+    }
+}
@@ -0,0 +1,14 @@
+package com.XuebaoMaster.backend.DataArchive.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单个表的归档状态，行数为 information_schema 中的估计值
+ */
+public record ArchiveTableStatus(
+        String table,
+        int retentionDays,
+        Long hotRows,
+        Long archivedRows,
+        LocalDateTime oldestHotRow) {
+}
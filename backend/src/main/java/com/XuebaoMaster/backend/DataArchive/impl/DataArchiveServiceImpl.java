@@ -0,0 +1,183 @@
+package com.XuebaoMaster.backend.DataArchive.impl;
+
+import com.XuebaoMaster.backend.DataArchive.ArchivedTable;
+import com.XuebaoMaster.backend.DataArchive.DataArchiveService;
+import com.XuebaoMaster.backend.DataArchive.dto.ArchiveTableStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 冷数据归档服务
+ * 每批按时间索引选出一批主键并加锁，在同一事务中 INSERT ... SELECT 到归档表后从热表删除，
+ * 单个事务的锁范围和 undo 日志大小由批大小限制；汇总表在写入时增量维护，归档不影响看板统计
+ */
+@Service
+public class DataArchiveServiceImpl implements DataArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataArchiveServiceImpl.class);
+
+    // 按时间索引选出一批待归档的主键并加锁，表名和时间列来自 ArchivedTable
+    public static final String BATCH_IDS_SQL = "SELECT id FROM %s WHERE %s < ? LIMIT ? FOR UPDATE";
+
+    // 选出一批长期无活动、消息仍在热表的会话并加锁
+    public static final String CONVERSATION_BATCH_IDS_SQL = "SELECT id FROM chat_conversations "
+            + "WHERE updated_at < ? AND messages_archived = 0 LIMIT ? FOR UPDATE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${archive.chat-conversation-batch-size:100}")
+    private int conversationBatchSize;
+
+    @Value("${archive.practice-records.retention-days:365}")
+    private int practiceRecordsRetentionDays;
+
+    @Value("${archive.module-usage.retention-days:90}")
+    private int moduleUsageRetentionDays;
+
+    @Value("${archive.login-records.retention-days:180}")
+    private int loginRecordsRetentionDays;
+
+    @Value("${archive.study-durations.retention-days:365}")
+    private int studyDurationsRetentionDays;
+
+    @Value("${archive.chat-messages.retention-days:180}")
+    private int chatMessagesRetentionDays;
+
+    @Override
+    public Map<String, Long> archiveExpiredRows() {
+        Map<String, Long> moved = new LinkedHashMap<>();
+        for (ArchivedTable table : ArchivedTable.values()) {
+            try {
+                moved.put(table.table(), archiveTable(table));
+            } catch (Exception e) {
+                // 单个表失败不影响其他表，已提交的批次保持有效，下次继续
+                logger.error("归档表 {} 失败", table.table(), e);
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public long archiveTable(ArchivedTable table) {
+        LocalDateTime cutoff = archiveCutoff(table);
+        if (cutoff == null) {
+            return 0;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        long total = 0;
+        if (table == ArchivedTable.CHAT_MESSAGES) {
+            ConversationBatch batch;
+            do {
+                batch = transactionTemplate.execute(status -> archiveConversationBatch(cutoff));
+                total += batch.messages();
+            } while (batch.conversations() == conversationBatchSize);
+        } else {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveBatch(table, cutoff));
+                total += moved;
+            } while (moved == batchSize);
+        }
+        logger.info("归档 {} 中 {} 之前的数据 {} 行", table.table(), cutoff, total);
+        return total;
+    }
+
+    @Override
+    public LocalDateTime archiveCutoff(ArchivedTable table) {
+        int retentionDays = retentionDays(table);
+        if (retentionDays <= 0) {
+            return null;
+        }
+        // 按整天归档，同一天的数据要么都在热表，要么都在归档表
+        return LocalDate.now().minusDays(retentionDays).atStartOfDay();
+    }
+
+    @Override
+    public List<ArchiveTableStatus> getStatus() {
+        List<ArchiveTableStatus> statuses = new ArrayList<>();
+        for (ArchivedTable table : ArchivedTable.values()) {
+            LocalDateTime oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(" + table.timeColumn() + ") FROM " + table.table(), LocalDateTime.class);
+            statuses.add(new ArchiveTableStatus(table.table(), retentionDays(table),
+                    estimateRows(table.table()), estimateRows(table.archiveTable()), oldest));
+        }
+        return statuses;
+    }
+
+    private int archiveBatch(ArchivedTable table, LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(String.format(BATCH_IDS_SQL, table.table(), table.timeColumn()),
+                Long.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = placeholders(ids.size());
+        Object[] args = ids.toArray();
+        jdbcTemplate.update("INSERT INTO " + table.archiveTable() + " SELECT * FROM " + table.table()
+                + " WHERE id IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM " + table.table() + " WHERE id IN (" + in + ")", args);
+        return ids.size();
+    }
+
+    /**
+     * 移走一批长期无活动会话的全部消息并标记会话，读取时从合并视图查询，继续对话时由会话服务移回热表
+     */
+    private ConversationBatch archiveConversationBatch(LocalDateTime cutoff) {
+        List<Long> conversationIds = jdbcTemplate.queryForList(CONVERSATION_BATCH_IDS_SQL, Long.class,
+                cutoff, conversationBatchSize);
+        if (conversationIds.isEmpty()) {
+            return new ConversationBatch(0, 0);
+        }
+        String in = placeholders(conversationIds.size());
+        Object[] args = conversationIds.toArray();
+        jdbcTemplate.update("INSERT INTO chat_messages_archive SELECT * FROM chat_messages "
+                + "WHERE conversation_id IN (" + in + ")", args);
+        int moved = jdbcTemplate.update("DELETE FROM chat_messages WHERE conversation_id IN (" + in + ")", args);
+        jdbcTemplate.update("UPDATE chat_conversations SET messages_archived = 1 WHERE id IN (" + in + ")", args);
+        return new ConversationBatch(conversationIds.size(), moved);
+    }
+
+    private Long estimateRows(String table) {
+        List<Long> rows = jdbcTemplate.queryForList("SELECT TABLE_ROWS FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private int retentionDays(ArchivedTable table) {
+        return switch (table) {
+            case PRACTICE_RECORDS -> practiceRecordsRetentionDays;
+            case MODULE_USAGE -> moduleUsageRetentionDays;
+            case LOGIN_RECORDS -> loginRecordsRetentionDays;
+            case STUDY_DURATIONS -> studyDurationsRetentionDays;
+            case CHAT_MESSAGES -> chatMessagesRetentionDays;
+        };
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record ConversationBatch(int conversations, int messages) {
+    }
+}
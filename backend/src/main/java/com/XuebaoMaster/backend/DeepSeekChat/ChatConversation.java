@@ -13,12 +13,18 @@ import java.util.List;
  * 每个会话包含多条消息，代表一次完整的对话
  */
 @Entity
-@Table(name = "chat_conversations")
+@Table(name = "chat_conversations", indexes = {
+        @Index(name = "idx_chat_conversations_user_created", columnList = "user_id, created_at, id")
+})
 @Data
 public class ChatConversation {
 
+    public static final int PREVIEW_LENGTH = 200;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "chat_conversations_id")
+    @TableGenerator(name = "chat_conversations_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "chat_conversations", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -33,6 +39,13 @@ public class ChatConversation {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // 最后一条消息的摘要和消息总数，写入消息时维护，列表接口不必加载消息集合
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    @Column(name = "message_count")
+    private Integer messageCount;
+
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OrderBy("messageIndex ASC")
     @JsonManagedReference
@@ -58,6 +71,12 @@ public class ChatConversation {
         message.setConversation(this);
         message.setMessageIndex(this.messages.size());
         this.messages.add(message);
+        this.messageCount = this.messages.size();
+        String content = message.getContent();
+        if (content != null && content.length() > PREVIEW_LENGTH) {
+            content = content.substring(0, PREVIEW_LENGTH);
+        }
+        this.lastMessagePreview = content;
     }
 
     /**
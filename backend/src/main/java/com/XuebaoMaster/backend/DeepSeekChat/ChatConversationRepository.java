@@ -1,11 +1,18 @@
 package com.XuebaoMaster.backend.DeepSeekChat;
 
+import com.XuebaoMaster.backend.DeepSeekChat.dto.ChatConversationSummary;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -44,4 +51,63 @@ public interface ChatConversationRepository extends JpaRepository<ChatConversati
      */
     @Query("SELECT c FROM ChatConversation c WHERE c.userId = :userId ORDER BY c.updatedAt DESC")
     List<ChatConversation> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 按 (createdAt, id) 倒序的游标分页查询会话摘要
+     * 
+     * @param userId     用户ID
+     * @param cursorTime 上一页最后一条的创建时间
+     * @param cursorId   上一页最后一条的ID
+     * @param pageable   只用于限制条数
+     * @return 会话摘要列表
+     */
+    @Query("SELECT new com.XuebaoMaster.backend.DeepSeekChat.dto.ChatConversationSummary(" +
+            "c.id, c.title, c.createdAt, c.updatedAt, c.lastMessagePreview, c.messageCount) " +
+            "FROM ChatConversation c WHERE c.userId = :userId " +
+            "AND (c.createdAt < :cursorTime OR (c.createdAt = :cursorTime AND c.id < :cursorId)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ChatConversationSummary> findSummariesByUserId(
+            @Param("userId") Long userId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * 为摘要列上线前的会话补齐消息数和最后一条消息摘要
+     * 
+     * @return 更新的会话数
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_conversations"))
+    @Transactional
+    @Query(value = "UPDATE chat_conversations c SET " +
+            "c.message_count = (SELECT COUNT(*) FROM chat_messages m WHERE m.conversation_id = c.id), " +
+            "c.last_message_preview = (SELECT LEFT(m.content, " + ChatConversation.PREVIEW_LENGTH + ") " +
+            "FROM chat_messages m WHERE m.conversation_id = c.id " +
+            "ORDER BY m.message_index DESC, m.id DESC LIMIT 1) " +
+            "WHERE c.message_count IS NULL", nativeQuery = true)
+    int backfillSummaryColumns();
+
+    /**
+     * 在给定会话中找出消息已归档的会话
+     * 
+     * @param conversationIds 会话ID
+     * @return 消息在归档表中的会话ID
+     */
+    @Query(value = "SELECT id FROM chat_conversations WHERE id IN (:conversationIds) AND messages_archived = 1",
+            nativeQuery = true)
+    List<Long> findArchivedIds(@Param("conversationIds") Collection<Long> conversationIds);
+
+    /**
+     * 清除会话的消息归档标记，返回 1 表示会话的消息在归档表中、需要由调用方移回
+     * 
+     * @param conversationId 会话ID
+     * @return 更新的会话数
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_conversations"))
+    @Transactional
+    @Query(value = "UPDATE chat_conversations SET messages_archived = 0 " +
+            "WHERE id = :conversationId AND messages_archived = 1", nativeQuery = true)
+    int clearMessagesArchived(@Param("conversationId") Long conversationId);
+}
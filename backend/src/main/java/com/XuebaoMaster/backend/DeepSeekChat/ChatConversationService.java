@@ -1,5 +1,8 @@
 package com.XuebaoMaster.backend.DeepSeekChat;
 
+import com.XuebaoMaster.backend.DeepSeekChat.dto.ChatConversationSummary;
+import com.XuebaoMaster.backend.util.KeysetPage;
+
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -95,4 +98,16 @@ public interface ChatConversationService {
      * @return 会话列表
      */
     List<ChatConversation> getUserConversationsBetween(Long userId, LocalDateTime startTime, LocalDateTime endTime);
-}
\ No newline at end of file
+
+    /**
+     * 游标分页获取用户会话摘要，按创建时间倒序
+     * 
+     * @param userId     用户ID
+     * @param cursorTime 上一页返回的 nextCursorTime，首页为空
+     * @param cursorId   上一页返回的 nextCursorId，首页为空
+     * @param limit      每页数量
+     * @return 会话摘要分页
+     */
+    KeysetPage<ChatConversationSummary> getUserConversationSummaries(Long userId, LocalDateTime cursorTime,
+            Long cursorId, Integer limit);
+}
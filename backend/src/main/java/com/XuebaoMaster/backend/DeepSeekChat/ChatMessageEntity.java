@@ -11,12 +11,18 @@ import java.time.LocalDateTime;
  * 用于存储用户的聊天记录
  */
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_messages_conversation_index", columnList = "conversation_id, message_index"),
+        @Index(name = "idx_chat_messages_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_chat_messages_created", columnList = "created_at")
+})
 @Data
 public class ChatMessageEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "chat_messages_id")
+    @TableGenerator(name = "chat_messages_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "chat_messages", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -1,10 +1,16 @@
 package com.XuebaoMaster.backend.DeepSeekChat;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -46,4 +52,39 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessageEntity,
     List<ChatMessageEntity> findByCreatedAtBetween(
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
-}
\ No newline at end of file
+
+    /**
+     * 从热表和归档表合并的视图中查询会话的消息，供读取已归档会话使用
+     * 
+     * @param conversationIds 会话ID
+     * @return 按会话和消息顺序排列的消息
+     */
+    @Query(value = "SELECT * FROM chat_messages_all WHERE conversation_id IN (:conversationIds) " +
+            "ORDER BY conversation_id, message_index", nativeQuery = true)
+    List<ChatMessageEntity> findAllIncludingArchived(@Param("conversationIds") Collection<Long> conversationIds);
+
+    /**
+     * 把会话的已归档消息复制回热表
+     * 
+     * @param conversationId 会话ID
+     * @return 复制的消息数
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_messages"))
+    @Transactional
+    @Query(value = "INSERT INTO chat_messages SELECT * FROM chat_messages_archive " +
+            "WHERE conversation_id = :conversationId", nativeQuery = true)
+    int copyArchivedMessages(@Param("conversationId") Long conversationId);
+
+    /**
+     * 删除会话的已归档消息
+     * 
+     * @param conversationId 会话ID
+     * @return 删除的消息数
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_messages_archive"))
+    @Transactional
+    @Query(value = "DELETE FROM chat_messages_archive WHERE conversation_id = :conversationId", nativeQuery = true)
+    int deleteArchivedMessages(@Param("conversationId") Long conversationId);
+}
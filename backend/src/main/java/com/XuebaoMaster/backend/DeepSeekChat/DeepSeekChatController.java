@@ -1,9 +1,13 @@
 package com.XuebaoMaster.backend.DeepSeekChat;
 
+import com.XuebaoMaster.backend.DeepSeekChat.dto.ChatConversationSummary;
+import com.XuebaoMaster.backend.util.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -122,6 +126,25 @@ public class DeepSeekChatController {
         return ResponseEntity.ok(chatConversationService.getUserConversations(userId));
     }
 
+    /**
+     * 游标分页获取用户的会话摘要（不含消息内容）
+     * 
+     * @param userId     用户ID
+     * @param cursorTime 上一页返回的 nextCursorTime
+     * @param cursorId   上一页返回的 nextCursorId
+     * @param limit      每页数量
+     * @return 会话摘要分页
+     */
+    @GetMapping("/conversations/user/{userId}/page")
+    public ResponseEntity<KeysetPage<ChatConversationSummary>> getUserConversationPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTime,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(chatConversationService.getUserConversationSummaries(userId, cursorTime, cursorId,
+                limit));
+    }
+
     /**
      * 获取用户的最近会话
      * 
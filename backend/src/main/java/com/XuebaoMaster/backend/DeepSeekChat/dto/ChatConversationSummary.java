@@ -0,0 +1,15 @@
+package com.XuebaoMaster.backend.DeepSeekChat.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 会话列表摘要，不加载消息集合
+ */
+public record ChatConversationSummary(
+        Long id,
+        String title,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String lastMessagePreview,
+        Integer messageCount) {
+}
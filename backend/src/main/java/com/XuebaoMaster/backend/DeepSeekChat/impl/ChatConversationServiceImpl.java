@@ -4,6 +4,10 @@ import com.XuebaoMaster.backend.DeepSeekChat.ChatConversation;
 import com.XuebaoMaster.backend.DeepSeekChat.ChatConversationRepository;
 import com.XuebaoMaster.backend.DeepSeekChat.ChatConversationService;
 import com.XuebaoMaster.backend.DeepSeekChat.ChatMessageEntity;
+import com.XuebaoMaster.backend.DeepSeekChat.ChatMessageRepository;
+import com.XuebaoMaster.backend.DeepSeekChat.dto.ChatConversationSummary;
+import com.XuebaoMaster.backend.util.KeysetPage;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,9 +26,26 @@ public class ChatConversationServiceImpl implements ChatConversationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatConversationServiceImpl.class);
 
+    // 首页游标，MySQL DATETIME 上限
+    private static final LocalDateTime FIRST_PAGE_CURSOR_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     @Autowired
     private ChatConversationRepository chatConversationRepository;
 
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    /**
+     * 为旧会话补齐摘要列
+     */
+    @PostConstruct
+    public void backfillSummaryColumns() {
+        int updated = chatConversationRepository.backfillSummaryColumns();
+        if (updated > 0) {
+            logger.info("补齐 {} 个会话的消息摘要", updated);
+        }
+    }
+
     @Override
     @Transactional
     public ChatConversation createConversation(Long userId) {
@@ -60,6 +82,7 @@ public class ChatConversationServiceImpl implements ChatConversationService {
     @Override
     @Transactional
     public ChatConversation addMessagesToConversation(Long conversationId, List<Map<String, String>> messages) {
+        restoreArchivedMessages(conversationId);
         ChatConversation conversation = chatConversationRepository.findById(conversationId)
                 .orElseThrow(() -> new RuntimeException("会话不存在: " + conversationId));
 
@@ -81,6 +104,7 @@ public class ChatConversationServiceImpl implements ChatConversationService {
     @Override
     @Transactional
     public ChatConversation addMessageToConversation(Long conversationId, String role, String content) {
+        restoreArchivedMessages(conversationId);
         ChatConversation conversation = chatConversationRepository.findById(conversationId)
                 .orElseThrow(() -> new RuntimeException("会话不存在: " + conversationId));
 
@@ -97,25 +121,29 @@ public class ChatConversationServiceImpl implements ChatConversationService {
     @Override
     @Transactional(readOnly = true)
     public ChatConversation getConversationWithMessages(Long conversationId) {
-        return chatConversationRepository.findById(conversationId)
+        ChatConversation conversation = chatConversationRepository.findById(conversationId)
                 .orElseThrow(() -> new RuntimeException("会话不存在: " + conversationId));
+        attachArchivedMessages(List.of(conversation));
+        return conversation;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ChatConversation> getUserConversations(Long userId) {
-        return chatConversationRepository.findByUserId(userId);
+        return attachArchivedMessages(chatConversationRepository.findByUserId(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ChatConversation> getRecentUserConversations(Long userId, int count) {
-        return chatConversationRepository.findRecentByUserId(userId, PageRequest.of(0, count));
+        return attachArchivedMessages(
+                chatConversationRepository.findRecentByUserId(userId, PageRequest.of(0, count)));
     }
 
     @Override
     @Transactional
     public void deleteConversation(Long conversationId) {
+        chatMessageRepository.deleteArchivedMessages(conversationId);
         chatConversationRepository.deleteById(conversationId);
     }
 
@@ -133,6 +161,61 @@ public class ChatConversationServiceImpl implements ChatConversationService {
     @Transactional(readOnly = true)
     public List<ChatConversation> getUserConversationsBetween(Long userId, LocalDateTime startTime,
             LocalDateTime endTime) {
-        return chatConversationRepository.findByUserIdAndCreatedAtBetween(userId, startTime, endTime);
+        return attachArchivedMessages(
+                chatConversationRepository.findByUserIdAndCreatedAtBetween(userId, startTime, endTime));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ChatConversationSummary> getUserConversationSummaries(Long userId, LocalDateTime cursorTime,
+            Long cursorId, Integer limit) {
+        int pageSize = KeysetPage.normalizeLimit(limit);
+        List<ChatConversationSummary> rows = chatConversationRepository.findSummariesByUserId(userId,
+                cursorTime != null ? cursorTime : FIRST_PAGE_CURSOR_TIME,
+                cursorId != null ? cursorId : Long.MAX_VALUE,
+                PageRequest.of(0, pageSize + 1));
+        return KeysetPage.of(rows, pageSize, ChatConversationSummary::createdAt, ChatConversationSummary::id);
+    }
+
+    /**
+     * 返回的会话会序列化消息集合，已归档会话的消息从合并视图读取后放入集合，不移回热表；
+     * 只读事务中加载的实体不会被刷新回数据库
+     */
+    private List<ChatConversation> attachArchivedMessages(List<ChatConversation> conversations) {
+        if (conversations.isEmpty()) {
+            return conversations;
+        }
+        List<Long> ids = new ArrayList<>(conversations.size());
+        for (ChatConversation conversation : conversations) {
+            ids.add(conversation.getId());
+        }
+        List<Long> archivedIds = chatConversationRepository.findArchivedIds(ids);
+        if (archivedIds.isEmpty()) {
+            return conversations;
+        }
+        Map<Long, List<ChatMessageEntity>> messagesByConversation = new HashMap<>();
+        for (ChatMessageEntity message : chatMessageRepository.findAllIncludingArchived(archivedIds)) {
+            messagesByConversation.computeIfAbsent(message.getConversation().getId(), id -> new ArrayList<>())
+                    .add(message);
+        }
+        for (ChatConversation conversation : conversations) {
+            if (archivedIds.contains(conversation.getId())) {
+                conversation.setMessages(
+                        messagesByConversation.getOrDefault(conversation.getId(), new ArrayList<>()));
+            }
+        }
+        return conversations;
+    }
+
+    /**
+     * 长期无活动的会话消息会被归档，继续对话前移回热表；
+     * 先在会话行上清除标记，并发请求中只有一个会执行移动
+     */
+    private void restoreArchivedMessages(Long conversationId) {
+        if (chatConversationRepository.clearMessagesArchived(conversationId) > 0) {
+            int restored = chatMessageRepository.copyArchivedMessages(conversationId);
+            chatMessageRepository.deleteArchivedMessages(conversationId);
+            logger.info("会话 {} 的 {} 条已归档消息移回热表", conversationId, restored);
+        }
     }
-}
\ No newline at end of file
+}
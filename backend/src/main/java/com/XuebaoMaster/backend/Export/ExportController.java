@@ -0,0 +1,91 @@
+package com.XuebaoMaster.backend.Export;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * 统计数据 Excel 导出
+ * 工作簿在异步线程中边查询边写入响应，不在内存中生成完整文件
+ */
+@RestController
+@RequestMapping("/exports")
+@PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+public class ExportController {
+
+    private static final MediaType XLSX = MediaType
+            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * 导出班级练习记录
+     */
+    @GetMapping("/practice-records")
+    public ResponseEntity<StreamingResponseBody> exportPracticeRecords(
+            @RequestParam Long classId,
+            @RequestParam(required = false) Long homeworkId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchive) {
+        return xlsx("practice-records-class-" + classId + ".xlsx",
+                out -> exportService.exportPracticeRecords(classId, homeworkId, startDate, endDate, includeArchive,
+                        out));
+    }
+
+    /**
+     * 导出班级知识点掌握情况（按学生）
+     */
+    @GetMapping("/knowledge-points/class/{classId}")
+    public ResponseEntity<StreamingResponseBody> exportClassKnowledgePoints(@PathVariable Long classId) {
+        return xlsx("knowledge-points-class-" + classId + ".xlsx",
+                out -> exportService.exportClassKnowledgePoints(classId, out));
+    }
+
+    /**
+     * 导出班级学习时长记录
+     */
+    @GetMapping("/study-durations")
+    public ResponseEntity<StreamingResponseBody> exportStudyDurations(
+            @RequestParam Long classId,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchive) {
+        return xlsx("study-durations-class-" + classId + ".xlsx",
+                out -> exportService.exportStudyDurations(classId, courseId, startDate, endDate, includeArchive,
+                        out));
+    }
+
+    /**
+     * 导出情绪记录，按班级或单个学生
+     */
+    @GetMapping("/student-emotions")
+    public ResponseEntity<StreamingResponseBody> exportEmotionHistory(
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        if (classId == null && userId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        String filename = userId != null ? "student-emotions-user-" + userId + ".xlsx"
+                : "student-emotions-class-" + classId + ".xlsx";
+        return xlsx(filename, out -> exportService.exportEmotionHistory(classId, userId, startDate, endDate, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> xlsx(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(XLSX)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
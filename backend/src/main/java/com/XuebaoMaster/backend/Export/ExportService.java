@@ -0,0 +1,35 @@
+package com.XuebaoMaster.backend.Export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * 统计数据 Excel 导出服务
+ * 数据逐行从数据库流式读取并写入输出流，内存占用与导出行数无关
+ */
+public interface ExportService {
+
+    /**
+     * 导出班级练习记录，可按作业和提交时间过滤；includeArchive 为 true 时包括已归档的记录
+     */
+    void exportPracticeRecords(Long classId, Long homeworkId, LocalDateTime startDate, LocalDateTime endDate,
+            boolean includeArchive, OutputStream out) throws IOException;
+
+    /**
+     * 导出班级每个学生的知识点掌握情况
+     */
+    void exportClassKnowledgePoints(Long classId, OutputStream out) throws IOException;
+
+    /**
+     * 导出班级学习时长记录，可按课程和上课时间过滤；includeArchive 为 true 时包括已归档的记录
+     */
+    void exportStudyDurations(Long classId, Long courseId, LocalDateTime startDate, LocalDateTime endDate,
+            boolean includeArchive, OutputStream out) throws IOException;
+
+    /**
+     * 导出情绪记录，按班级或单个学生
+     */
+    void exportEmotionHistory(Long classId, Long userId, LocalDateTime startDate, LocalDateTime endDate,
+            OutputStream out) throws IOException;
+}
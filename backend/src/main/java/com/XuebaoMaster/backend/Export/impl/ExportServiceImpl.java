@@ -0,0 +1,243 @@
+package com.XuebaoMaster.backend.Export.impl;
+
+import com.XuebaoMaster.backend.DataArchive.ArchivedTable;
+import com.XuebaoMaster.backend.Export.ExportService;
+import com.XuebaoMaster.backend.config.AnalyticsQuery;
+import com.XuebaoMaster.backend.config.StatementTimeout;
+import jakarta.annotation.PostConstruct;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    // xlsx 单个工作表的最大行数（含表头）
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${export.row-window:200}")
+    private int rowWindow;
+
+    // 专用于导出的 JdbcTemplate：MySQL 驱动在 fetchSize 为 Integer.MIN_VALUE 时逐行流式返回结果；
+    // 导出在只读事务中走分析副本，流式读取期间取消会话的语句超时
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @PostConstruct
+    public void initStreamingTemplate() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
+    public void exportPracticeRecords(Long classId, Long homeworkId, LocalDateTime startDate, LocalDateTime endDate,
+            boolean includeArchive, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT pr.id, u.username, u.name, u.student_number, pr.homework_id, hw.title, pr.question_id, " +
+                        "pr.score, pr.is_correct, pr.attempt_count, pr.time_spent, pr.submitted_at " +
+                        "FROM " + ArchivedTable.PRACTICE_RECORDS.source(includeArchive) + " pr " +
+                        "JOIN users u ON u.id = pr.student_id " +
+                        "LEFT JOIN homeworks hw ON hw.id = pr.homework_id " +
+                        "WHERE u.class_id = ? AND pr.submitted_at BETWEEN ? AND ?");
+        List<Object> args = new ArrayList<>(List.of(classId, periodStart(startDate), periodEnd(endDate)));
+        if (homeworkId != null) {
+            sql.append(" AND pr.homework_id = ?");
+            args.add(homeworkId);
+        }
+        sql.append(" ORDER BY u.id, pr.submitted_at");
+
+        writeWorkbook("练习记录", new String[] { "记录ID", "用户名", "姓名", "学号", "作业ID", "作业标题", "题目ID",
+                "分数", "是否正确", "尝试次数", "用时(秒)", "提交时间" }, sql.toString(), args.toArray(), out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
+    public void exportClassKnowledgePoints(Long classId, OutputStream out) throws IOException {
+        String sql = "SELECT u.username, u.name, u.student_number, c.knowledge_point, " +
+                "SUM(c.score_sum) / SUM(c.attempt_count), SUM(c.attempt_count), " +
+                "SUM(c.correct_count) / SUM(c.attempt_count) " +
+                "FROM knowledge_point_cube c JOIN users u ON u.id = c.student_id " +
+                "WHERE c.class_id = ? AND c.knowledge_point IS NOT NULL " +
+                "GROUP BY u.id, u.username, u.name, u.student_number, c.knowledge_point " +
+                "ORDER BY u.id, c.knowledge_point";
+
+        writeWorkbook("知识点掌握情况", new String[] { "用户名", "姓名", "学号", "知识点", "平均分", "作答次数", "正确率" },
+                sql, new Object[] { classId }, out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
+    public void exportStudyDurations(Long classId, Long courseId, LocalDateTime startDate, LocalDateTime endDate,
+            boolean includeArchive, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT sd.id, u.username, u.name, u.student_number, c.name, sd.lesson_start_time_stamp, " +
+                        "sd.current_time_stamp, sd.length " +
+                        "FROM " + ArchivedTable.STUDY_DURATIONS.source(includeArchive) + " sd " +
+                        "JOIN users u ON u.id = sd.user_id " +
+                        "JOIN courses c ON c.course_id = sd.course_id " +
+                        "WHERE u.class_id = ? AND sd.lesson_start_time_stamp BETWEEN ? AND ?");
+        List<Object> args = new ArrayList<>(List.of(classId, periodStart(startDate), periodEnd(endDate)));
+        if (courseId != null) {
+            sql.append(" AND sd.course_id = ?");
+            args.add(courseId);
+        }
+        sql.append(" ORDER BY u.id, sd.lesson_start_time_stamp");
+
+        writeWorkbook("学习时长", new String[] { "记录ID", "用户名", "姓名", "学号", "课程", "上课时间", "记录时间",
+                "时长(分钟)" }, sql.toString(), args.toArray(), out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
+    public void exportEmotionHistory(Long classId, Long userId, LocalDateTime startDate, LocalDateTime endDate,
+            OutputStream out) throws IOException {
+        if (classId == null && userId == null) {
+            throw new IllegalArgumentException("需要提供classId或userId");
+        }
+        String filter = userId != null ? "se.user_id = ?" : "u.class_id = ?";
+        String sql = "SELECT se.id, u.username, u.name, u.student_number, se.mark, se.created_at " +
+                "FROM student_emotions se JOIN users u ON u.id = se.user_id " +
+                "WHERE " + filter + " AND se.created_at BETWEEN ? AND ? " +
+                "ORDER BY u.id, se.created_at";
+
+        writeWorkbook("情绪记录", new String[] { "记录ID", "用户名", "姓名", "学号", "情绪分", "记录时间" }, sql,
+                new Object[] { userId != null ? userId : classId, periodStart(startDate), periodEnd(endDate) }, out);
+    }
+
+    /**
+     * 流式查询并写入 SXSSF 工作簿：内存中只保留最近 rowWindow 行，其余行写入临时文件，
+     * 超过单表行数上限时自动续写到新的工作表
+     */
+    private void writeWorkbook(String sheetName, String[] headers, String sql, Object[] args, OutputStream out)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            SheetWriter writer = new SheetWriter(workbook, sheetName, headers);
+            StatementTimeout.unlimited(streamingJdbcTemplate,
+                    () -> streamingJdbcTemplate.query(sql, writer::writeRow, args));
+            workbook.write(out);
+            out.flush();
+            logger.info("导出 {} 完成，共 {} 行，耗时 {} ms", sheetName, writer.totalRows,
+                    System.currentTimeMillis() - startTime);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private Timestamp periodStart(LocalDateTime startDate) {
+        return Timestamp.valueOf(startDate != null ? startDate : EARLIEST);
+    }
+
+    private Timestamp periodEnd(LocalDateTime endDate) {
+        return Timestamp.valueOf(endDate != null ? endDate : LATEST);
+    }
+
+    /**
+     * 按结果集列类型写单元格，数字写为数值、时间写为日期格式
+     */
+    private static class SheetWriter {
+
+        private final SXSSFWorkbook workbook;
+        private final String sheetName;
+        private final String[] headers;
+        private final CellStyle headerStyle;
+        private final CellStyle dateStyle;
+        private SXSSFSheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+        private long totalRows;
+
+        SheetWriter(SXSSFWorkbook workbook, String sheetName, String[] headers) {
+            this.workbook = workbook;
+            this.sheetName = sheetName;
+            this.headers = headers;
+
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            this.headerStyle = workbook.createCellStyle();
+            this.headerStyle.setFont(bold);
+
+            this.dateStyle = workbook.createCellStyle();
+            this.dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat()
+                    .getFormat("yyyy-mm-dd hh:mm:ss"));
+            nextSheet();
+        }
+
+        void writeRow(ResultSet rs) throws SQLException {
+            if (rowIndex >= MAX_ROWS_PER_SHEET) {
+                nextSheet();
+            }
+            ResultSetMetaData metaData = rs.getMetaData();
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                Object value = rs.getObject(i);
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(i - 1);
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else if (value instanceof Boolean bool) {
+                    cell.setCellValue(bool ? "是" : "否");
+                } else if (value instanceof Timestamp timestamp) {
+                    cell.setCellValue(timestamp.toLocalDateTime());
+                    cell.setCellStyle(dateStyle);
+                } else if (value instanceof LocalDateTime dateTime) {
+                    cell.setCellValue(dateTime);
+                    cell.setCellStyle(dateStyle);
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+            }
+            totalRows++;
+        }
+
+        private void nextSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + "_" + sheetCount);
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+            }
+            rowIndex = 1;
+        }
+    }
+}
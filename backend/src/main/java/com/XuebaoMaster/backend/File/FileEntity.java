@@ -5,11 +5,16 @@ import java.time.LocalDateTime;
 import lombok.Data;
 
 @Entity
-@Table(name = "files")
+@Table(name = "files", indexes = {
+        @Index(name = "idx_files_parent_path", columnList = "parent_path"),
+        @Index(name = "idx_files_path_name", columnList = "file_path, file_name")
+})
 @Data
 public class FileEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "files_id")
+    @TableGenerator(name = "files_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "files", allocationSize = 50)
     private Long id;
     @Column(nullable = false, length = 255)
     private String fileName;
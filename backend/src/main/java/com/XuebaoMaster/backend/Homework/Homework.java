@@ -1,11 +1,17 @@
 package com.XuebaoMaster.backend.Homework;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "homeworks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "homeworks", indexes = {
+        @Index(name = "idx_homeworks_course", columnList = "course_id")
+})
 @Data
 public class Homework {
     @Id
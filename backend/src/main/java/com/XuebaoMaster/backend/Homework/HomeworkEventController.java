@@ -0,0 +1,43 @@
+package com.XuebaoMaster.backend.Homework;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/homework-events")
+@PreAuthorize("hasRole('ADMIN')")
+public class HomeworkEventController {
+
+    @Autowired
+    private HomeworkEventService homeworkEventService;
+
+    // Outbox size, retrying events and dead-letter count
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getPipelineStats() {
+        return ResponseEntity.ok(homeworkEventService.getPipelineStats());
+    }
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<HomeworkEventDeadLetter>> getDeadLetters() {
+        return ResponseEntity.ok(homeworkEventService.getDeadLetters());
+    }
+
+    @PostMapping("/dead-letters/{id}/replay")
+    public ResponseEntity<Void> replayDeadLetter(@PathVariable Long id) {
+        homeworkEventService.replayDeadLetter(id);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<Map<String, Object>> replayAllDeadLetters() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("replayed", homeworkEventService.replayAllDeadLetters());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,47 @@
+package com.XuebaoMaster.backend.Homework;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 重试耗尽仍处理失败的作业事件，可查看并重放
+ */
+@Entity
+@Table(name = "homework_event_dead_letters")
+@Data
+public class HomeworkEventDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private HomeworkSubmissionEvent.Type eventType;
+
+    @Column(name = "submission_id", nullable = false)
+    private Long submissionId;
+
+    @Column(name = "homework_id")
+    private Long homeworkId;
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
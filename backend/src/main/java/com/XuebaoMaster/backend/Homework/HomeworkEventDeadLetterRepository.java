@@ -0,0 +1,10 @@
+package com.XuebaoMaster.backend.Homework;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface HomeworkEventDeadLetterRepository extends JpaRepository<HomeworkEventDeadLetter, Long> {
+
+    List<HomeworkEventDeadLetter> findAllByOrderByCreatedAtDesc();
+}
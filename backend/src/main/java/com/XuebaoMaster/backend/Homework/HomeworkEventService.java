@@ -0,0 +1,24 @@
+package com.XuebaoMaster.backend.Homework;
+
+import java.util.List;
+import java.util.Map;
+
+public interface HomeworkEventService {
+
+    // Write events to the outbox, joining the caller's transaction when there is one
+    void enqueueEvents(List<HomeworkSubmissionEvent> events);
+
+    // Claim one batch of due outbox events and build their notifications, returns events handled
+    int processPendingEvents();
+
+    // Outbox size, retrying events and dead-letter count
+    Map<String, Long> getPipelineStats();
+
+    List<HomeworkEventDeadLetter> getDeadLetters();
+
+    // Put a dead-lettered event back into the outbox
+    void replayDeadLetter(Long id);
+
+    // Put every dead-lettered event back into the outbox, returns the number replayed
+    int replayAllDeadLetters();
+}
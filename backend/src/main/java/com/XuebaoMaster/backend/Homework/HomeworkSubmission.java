@@ -1,11 +1,15 @@
 package com.XuebaoMaster.backend.Homework;
 
+import com.XuebaoMaster.backend.util.CompressedTextConverter;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "homework_submissions")
+@Table(name = "homework_submissions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_homework_submissions_student_homework", columnNames = { "student_id",
+                "homework_id" })
+})
 @Data
 public class HomeworkSubmission {
     @Id
@@ -19,6 +23,7 @@ public class HomeworkSubmission {
     private Long studentId;
 
     // 可能为空，如果是文件提交则内容可能在文件中
+    @Convert(converter = CompressedTextConverter.class)
     @Column(columnDefinition = "TEXT")
     private String content;
 
@@ -52,6 +57,10 @@ public class HomeworkSubmission {
     @Column(name = "is_late")
     private Boolean isLate = false;
 
+    // 客户端生成的幂等键，网络重试时相同键的请求不会重复写入
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.XuebaoMaster.backend.Homework.dto.SubmissionIngestResult;
+
 import java.util.List;
 import java.util.Map;
 import java.time.LocalDateTime;
@@ -15,6 +17,9 @@ public class HomeworkSubmissionController {
     @Autowired
     private HomeworkSubmissionService submissionService;
 
+    @Autowired
+    private HomeworkSubmissionIngestService submissionIngestService;
+
     // 创建作业提交
     @PostMapping
     public ResponseEntity<HomeworkSubmission> createSubmission(@RequestBody HomeworkSubmission submission) {
@@ -23,6 +28,14 @@ public class HomeworkSubmissionController {
         return ResponseEntity.ok(submissionService.createSubmission(submission));
     }
 
+    // 提交或覆盖作业（按学生+作业唯一），客户端重试时携带相同的 Idempotency-Key
+    @PostMapping("/ingest")
+    public ResponseEntity<SubmissionIngestResult> ingestSubmission(
+            @RequestBody HomeworkSubmission submission,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(submissionIngestService.submit(submission, idempotencyKey));
+    }
+
     // 获取所有提交（管理员功能）
     @GetMapping
     public ResponseEntity<List<HomeworkSubmission>> getAllSubmissions() {
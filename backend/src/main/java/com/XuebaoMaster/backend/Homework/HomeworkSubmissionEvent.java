@@ -0,0 +1,22 @@
+package com.XuebaoMaster.backend.Homework;
+
+import java.time.LocalDateTime;
+
+/**
+ * 作业提交领域事件，提交后由后台批量消费生成通知
+ * 只携带ID，消费时重新读取最新的提交、作业和用户信息
+ */
+public record HomeworkSubmissionEvent(Type type, Long submissionId, Long homeworkId, Long studentId,
+        LocalDateTime occurredAt) {
+
+    public enum Type {
+        SUBMISSION_CREATED,
+        SUBMISSION_UPDATED,
+        SUBMISSION_GRADED
+    }
+
+    public static HomeworkSubmissionEvent of(Type type, HomeworkSubmission submission) {
+        return new HomeworkSubmissionEvent(type, submission.getId(), submission.getHomeworkId(),
+                submission.getStudentId(), LocalDateTime.now());
+    }
+}
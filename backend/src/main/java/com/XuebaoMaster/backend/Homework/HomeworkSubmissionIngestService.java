@@ -0,0 +1,9 @@
+package com.XuebaoMaster.backend.Homework;
+
+import com.XuebaoMaster.backend.Homework.dto.SubmissionIngestResult;
+
+public interface HomeworkSubmissionIngestService {
+
+    // Upsert a submission by (student, homework); a retry with the same idempotency key is a no-op
+    SubmissionIngestResult submit(HomeworkSubmission submission, String idempotencyKey);
+}
@@ -0,0 +1,28 @@
+package com.XuebaoMaster.backend.Homework.config;
+
+import com.XuebaoMaster.backend.Homework.HomeworkEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 作业事件消费定时任务
+ */
+@Configuration
+@EnableScheduling
+public class HomeworkEventSchedulerConfig {
+
+    @Autowired
+    private HomeworkEventService homeworkEventService;
+
+    /**
+     * 定期按批领取发件箱中到期的事件，直到没有可处理的事件
+     */
+    @Scheduled(fixedDelayString = "${homework-events.poll-interval-ms:1000}")
+    public void scheduleEventProcessing() {
+        while (homeworkEventService.processPendingEvents() > 0) {
+            // 继续处理下一批
+        }
+    }
+}
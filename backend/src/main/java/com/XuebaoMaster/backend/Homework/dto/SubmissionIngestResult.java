@@ -0,0 +1,16 @@
+package com.XuebaoMaster.backend.Homework.dto;
+
+/**
+ * 作业提交写入结果
+ *
+ * @param outcome CREATED 新提交，UPDATED 覆盖已有提交，DUPLICATE 相同幂等键的重复请求
+ */
+public record SubmissionIngestResult(Long submissionId, Long homeworkId, Long studentId, boolean late,
+        Outcome outcome) {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DUPLICATE
+    }
+}
@@ -0,0 +1,56 @@
+package com.XuebaoMaster.backend.Homework.impl;
+
+import com.XuebaoMaster.backend.Homework.Homework;
+import com.XuebaoMaster.backend.Homework.HomeworkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 作业截止时间和所属课程的短期缓存
+ * 截止前的集中提交只需读一次作业表；作业修改或删除时由 HomeworkServiceImpl 主动失效
+ */
+@Component
+public class HomeworkDeadlineCache {
+
+    @Autowired
+    private HomeworkRepository homeworkRepository;
+
+    @Value("${homework.deadline-cache-ttl-ms:60000}")
+    private long ttlMs;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 获取作业的截止时间和课程，作业不存在时返回 null
+     */
+    public Entry get(Long homeworkId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(homeworkId);
+        if (entry != null && entry.loadedAt() + ttlMs > now) {
+            return entry;
+        }
+        Homework homework = homeworkRepository.findById(homeworkId).orElse(null);
+        if (homework == null) {
+            entries.remove(homeworkId);
+            return null;
+        }
+        entry = new Entry(homework.getId(), homework.getCourseId(), homework.getDueDate(), now);
+        entries.put(homeworkId, entry);
+        return entry;
+    }
+
+    public void invalidate(Long homeworkId) {
+        entries.remove(homeworkId);
+    }
+
+    public record Entry(Long homeworkId, Long courseId, LocalDateTime dueDate, long loadedAt) {
+
+        public boolean isLateAt(LocalDateTime time) {
+            return dueDate != null && time.isAfter(dueDate);
+        }
+    }
+}
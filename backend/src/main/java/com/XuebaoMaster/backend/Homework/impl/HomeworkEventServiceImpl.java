@@ -0,0 +1,391 @@
+package com.XuebaoMaster.backend.Homework.impl;
+
+import com.XuebaoMaster.backend.Course.Course;
+import com.XuebaoMaster.backend.Course.CourseRepository;
+import com.XuebaoMaster.backend.Homework.Homework;
+import com.XuebaoMaster.backend.Homework.HomeworkEventDeadLetter;
+import com.XuebaoMaster.backend.Homework.HomeworkEventDeadLetterRepository;
+import com.XuebaoMaster.backend.Homework.HomeworkEventService;
+import com.XuebaoMaster.backend.Homework.HomeworkRepository;
+import com.XuebaoMaster.backend.Homework.HomeworkSubmission;
+import com.XuebaoMaster.backend.Homework.HomeworkSubmissionEvent;
+import com.XuebaoMaster.backend.Homework.HomeworkSubmissionRepository;
+import com.XuebaoMaster.backend.Message.Message;
+import com.XuebaoMaster.backend.Message.MessageService;
+import com.XuebaoMaster.backend.Notification.NotificationEvent;
+import com.XuebaoMaster.backend.Notification.NotificationPushService;
+import com.XuebaoMaster.backend.User.User;
+import com.XuebaoMaster.backend.User.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 作业事件管道
+ * 事件在提交/评分的同一事务内写入发件箱表，进程崩溃或重启不会丢失。定时任务按批领取到期事件，
+ * 批量加载提交、作业、学生和课程，一次性写入通知消息，成功后删除发件箱记录。
+ * 领取时顺延 available_at 作为租期，处理中途崩溃的事件在租期过后重新投递，因此通知至少投递一次，
+ * 极端情况下可能重复。失败的事件按间隔重试若干次后写入死信表
+ */
+@Service
+public class HomeworkEventServiceImpl implements HomeworkEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeworkEventServiceImpl.class);
+
+    private static final int ERROR_MESSAGE_LENGTH = 1000;
+
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO homework_event_outbox "
+            + "(event_type, submission_id, homework_id, student_id, occurred_at, attempts, available_at, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // SKIP LOCKED 让多个节点同时轮询时各自领取不同的事件
+    private static final String CLAIM_OUTBOX_SQL = "SELECT id, event_type, submission_id, homework_id, student_id, "
+            + "occurred_at, attempts FROM homework_event_outbox WHERE available_at <= ? "
+            + "ORDER BY available_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    @Autowired
+    private HomeworkSubmissionRepository submissionRepository;
+
+    @Autowired
+    private HomeworkRepository homeworkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    @Autowired
+    private HomeworkEventDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${homework-events.batch-size:200}")
+    private int batchSize;
+
+    @Value("${homework-events.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${homework-events.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${homework-events.lease-ms:60000}")
+    private long leaseMs;
+
+    /**
+     * 在发布方的事务内同步写入发件箱，事件与业务数据一起提交或回滚
+     */
+    @EventListener
+    public void onSubmissionEvent(HomeworkSubmissionEvent event) {
+        enqueueEvents(List.of(event));
+    }
+
+    @Override
+    public void enqueueEvents(List<HomeworkSubmissionEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (HomeworkSubmissionEvent event : events) {
+            rows.add(outboxRow(event, now));
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, rows);
+    }
+
+    @Override
+    public synchronized int processPendingEvents() {
+        List<PendingEvent> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            handleBatch(batch);
+            deleteOutbox(batch.stream().map(PendingEvent::id).toList());
+        } catch (Exception batchError) {
+            // 整批失败时逐条处理，只让真正出错的事件进入重试
+            logger.warn("作业事件批处理失败，改为逐条处理: {}", batchError.getMessage());
+            for (PendingEvent pending : batch) {
+                try {
+                    handleBatch(List.of(pending));
+                    deleteOutbox(List.of(pending.id()));
+                } catch (Exception e) {
+                    retryOrDeadLetter(pending, e);
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * 短事务内锁定一批到期事件并顺延租期，通知的生成在事务外进行
+     */
+    private List<PendingEvent> claimBatch() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<PendingEvent> batch = jdbcTemplate.query(CLAIM_OUTBOX_SQL, (rs, rowNum) -> new PendingEvent(
+                    rs.getLong("id"),
+                    new HomeworkSubmissionEvent(HomeworkSubmissionEvent.Type.valueOf(rs.getString("event_type")),
+                            rs.getLong("submission_id"), rs.getObject("homework_id", Long.class),
+                            rs.getObject("student_id", Long.class),
+                            rs.getTimestamp("occurred_at").toLocalDateTime()),
+                    rs.getInt("attempts")), Timestamp.valueOf(now), batchSize);
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            args.add(Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000)));
+            for (PendingEvent pending : batch) {
+                args.add(pending.id());
+            }
+            jdbcTemplate.update("UPDATE homework_event_outbox SET available_at = ? WHERE id IN ("
+                    + placeholders(batch.size()) + ")", args.toArray());
+            return batch;
+        });
+    }
+
+    private void deleteOutbox(List<Long> ids) {
+        jdbcTemplate.update("DELETE FROM homework_event_outbox WHERE id IN (" + placeholders(ids.size()) + ")",
+                ids.toArray());
+    }
+
+    private void handleBatch(List<PendingEvent> batch) {
+        Set<Long> submissionIds = new HashSet<>();
+        for (PendingEvent pending : batch) {
+            submissionIds.add(pending.event().submissionId());
+        }
+        Map<Long, HomeworkSubmission> submissions = toMap(submissionRepository.findAllById(submissionIds),
+                HomeworkSubmission::getId);
+
+        Set<Long> homeworkIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (HomeworkSubmission submission : submissions.values()) {
+            homeworkIds.add(submission.getHomeworkId());
+            studentIds.add(submission.getStudentId());
+        }
+        Map<Long, Homework> homeworks = toMap(homeworkRepository.findAllById(homeworkIds), Homework::getId);
+        Map<Long, User> students = toMap(userRepository.findAllById(studentIds), User::getId);
+        Set<Long> courseIds = homeworks.values().stream().map(Homework::getCourseId).collect(Collectors.toSet());
+        Map<Long, Course> courses = toMap(courseRepository.findAllById(courseIds), Course::getCourseId);
+
+        List<Message> messages = new ArrayList<>(batch.size());
+        List<HomeworkSubmission> graded = new ArrayList<>();
+        for (PendingEvent pending : batch) {
+            HomeworkSubmissionEvent event = pending.event();
+            HomeworkSubmission submission = submissions.get(event.submissionId());
+            Homework homework = submission == null ? null : homeworks.get(submission.getHomeworkId());
+            if (submission == null || homework == null) {
+                // 提交或作业已被删除，通知没有意义
+                logger.debug("跳过作业事件 {}，提交 {} 或其作业已不存在", event.type(), event.submissionId());
+                continue;
+            }
+            if (event.type() == HomeworkSubmissionEvent.Type.SUBMISSION_GRADED) {
+                messages.add(buildGradeMessage(submission, homework));
+                graded.add(submission);
+            } else {
+                Course course = courses.get(homework.getCourseId());
+                if (course == null || course.getTeacherId() == null) {
+                    logger.debug("跳过作业事件 {}，课程 {} 没有教师", event.type(), homework.getCourseId());
+                    continue;
+                }
+                messages.add(buildSubmissionMessage(submission, homework, students.get(submission.getStudentId()),
+                        course.getTeacherId(), event.type()));
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            messageService.createMessages(messages);
+        }
+        for (HomeworkSubmission submission : graded) {
+            pushGraded(submission, homeworks.get(submission.getHomeworkId()));
+        }
+    }
+
+    private Message buildSubmissionMessage(HomeworkSubmission submission, Homework homework, User student,
+            Long teacherId, HomeworkSubmissionEvent.Type type) {
+        // 学生记录缺失时用ID代替用户名
+        String studentName = student != null ? student.getUsername() : "ID " + submission.getStudentId();
+        String title;
+        String content;
+        if (type == HomeworkSubmissionEvent.Type.SUBMISSION_CREATED) {
+            title = "新作业提交: " + homework.getTitle();
+            content = String.format("学生 %s (ID: %d) 提交了作业 '%s'",
+                    studentName, submission.getStudentId(), homework.getTitle());
+        } else {
+            title = "作业提交更新: " + homework.getTitle();
+            content = String.format("学生 %s (ID: %d) 更新了对作业 '%s' 的提交",
+                    studentName, submission.getStudentId(), homework.getTitle());
+        }
+        if (Boolean.TRUE.equals(submission.getIsLate())) {
+            content += "\n注意: 此提交已超过截止日期。";
+        }
+
+        Message message = new Message();
+        message.setTitle(title);
+        message.setContent(content);
+        message.setTargetType(Message.MessageTargetType.SPECIFIC);
+        message.setTargetIds(teacherId.toString());
+        message.setActive(true);
+        return message;
+    }
+
+    private Message buildGradeMessage(HomeworkSubmission submission, Homework homework) {
+        Message message = new Message();
+        message.setTitle("作业评分通知: " + homework.getTitle());
+        message.setContent(String.format("你的作业 '%s' 已评分。\n分数: %d\n反馈: %s",
+                homework.getTitle(), submission.getScore(), submission.getFeedback()));
+        message.setTargetType(Message.MessageTargetType.SPECIFIC);
+        message.setTargetIds(submission.getStudentId().toString());
+        message.setActive(true);
+        return message;
+    }
+
+    private void pushGraded(HomeworkSubmission submission, Homework homework) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("submissionId", submission.getId());
+        payload.put("homeworkId", homework.getId());
+        payload.put("homeworkTitle", homework.getTitle());
+        payload.put("score", submission.getScore());
+        notificationPushService.pushToUsers(NotificationEvent.TYPE_HOMEWORK_GRADED,
+                List.of(submission.getStudentId()), payload);
+    }
+
+    private void retryOrDeadLetter(PendingEvent pending, Exception error) {
+        int attempts = pending.attempts() + 1;
+        String message = truncate(error.getMessage());
+        if (attempts < maxAttempts) {
+            jdbcTemplate.update("UPDATE homework_event_outbox SET attempts = ?, available_at = ?, last_error = ? "
+                    + "WHERE id = ?", attempts,
+                    Timestamp.valueOf(LocalDateTime.now().plusNanos(retryDelayMs * 1_000_000)), message,
+                    pending.id());
+            logger.warn("作业事件 {} (提交 {}) 第 {} 次处理失败，稍后重试", pending.event().type(),
+                    pending.event().submissionId(), attempts);
+            return;
+        }
+        deadLetter(pending, attempts, message);
+    }
+
+    /**
+     * 写入死信表并删除发件箱记录在同一事务内完成；失败时事件留在发件箱，租期过后重新处理
+     */
+    private void deadLetter(PendingEvent pending, int attempts, String error) {
+        HomeworkSubmissionEvent event = pending.event();
+        HomeworkEventDeadLetter deadLetter = new HomeworkEventDeadLetter();
+        deadLetter.setEventType(event.type());
+        deadLetter.setSubmissionId(event.submissionId());
+        deadLetter.setHomeworkId(event.homeworkId());
+        deadLetter.setStudentId(event.studentId());
+        deadLetter.setOccurredAt(event.occurredAt());
+        deadLetter.setAttempts(attempts);
+        deadLetter.setLastError(error);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                deadLetterRepository.save(deadLetter);
+                deleteOutbox(List.of(pending.id()));
+            });
+            logger.error("作业事件 {} (提交 {}) 处理失败，已写入死信表: {}", event.type(), event.submissionId(), error);
+        } catch (Exception e) {
+            logger.error("写入作业事件死信失败，事件保留在发件箱: {}", event, e);
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error != null && error.length() > ERROR_MESSAGE_LENGTH) {
+            return error.substring(0, ERROR_MESSAGE_LENGTH);
+        }
+        return error;
+    }
+
+    @Override
+    public Map<String, Long> getPipelineStats() {
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("pendingEvents", jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM homework_event_outbox", Long.class));
+        stats.put("retryingEvents", jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM homework_event_outbox WHERE attempts > 0", Long.class));
+        stats.put("deadLetters", deadLetterRepository.count());
+        return stats;
+    }
+
+    @Override
+    public List<HomeworkEventDeadLetter> getDeadLetters() {
+        return deadLetterRepository.findAllByOrderByCreatedAtDesc();
+    }
+
+    @Override
+    @Transactional
+    public void replayDeadLetter(Long id) {
+        HomeworkEventDeadLetter deadLetter = deadLetterRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("死信记录不存在: " + id));
+        replay(deadLetter);
+    }
+
+    @Override
+    @Transactional
+    public int replayAllDeadLetters() {
+        int replayed = 0;
+        for (HomeworkEventDeadLetter deadLetter : deadLetterRepository.findAllByOrderByCreatedAtDesc()) {
+            replay(deadLetter);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private void replay(HomeworkEventDeadLetter deadLetter) {
+        HomeworkSubmissionEvent event = new HomeworkSubmissionEvent(deadLetter.getEventType(),
+                deadLetter.getSubmissionId(), deadLetter.getHomeworkId(), deadLetter.getStudentId(),
+                deadLetter.getOccurredAt());
+        enqueueEvents(List.of(event));
+        deadLetterRepository.delete(deadLetter);
+    }
+
+    private static Object[] outboxRow(HomeworkSubmissionEvent event, Timestamp now) {
+        return new Object[] { event.type().name(), event.submissionId(), event.homeworkId(), event.studentId(),
+                Timestamp.valueOf(event.occurredAt()), 0, now, now };
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static <T> Map<Long, T> toMap(Iterable<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> map = new HashMap<>();
+        for (T entity : entities) {
+            map.put(idOf.apply(entity), entity);
+        }
+        return map;
+    }
+
+    private record PendingEvent(Long id, HomeworkSubmissionEvent event, int attempts) {
+    }
+}
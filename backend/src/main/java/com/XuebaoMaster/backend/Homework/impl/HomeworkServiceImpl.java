@@ -24,6 +24,9 @@ public class HomeworkServiceImpl implements HomeworkService {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private HomeworkDeadlineCache homeworkDeadlineCache;
+
     @Override
     public Homework createHomework(Homework homework) {
         // Set default values if not provided
@@ -58,6 +61,7 @@ public class HomeworkServiceImpl implements HomeworkService {
 
         // Save updated homework
         Homework updatedHomework = homeworkRepository.save(existingHomework);
+        homeworkDeadlineCache.invalidate(updatedHomework.getId());
 
         // Send notification to students in the course
         sendHomeworkNotification(updatedHomework, "UPDATED");
@@ -73,6 +77,7 @@ public class HomeworkServiceImpl implements HomeworkService {
 
         // Delete the homework
         homeworkRepository.deleteById(homeworkId);
+        homeworkDeadlineCache.invalidate(homeworkId);
 
         // Send notification to students in the course
         sendHomeworkNotification(homework, "DELETED");
@@ -0,0 +1,404 @@
+package com.XuebaoMaster.backend.Homework.impl;
+
+import com.XuebaoMaster.backend.Homework.HomeworkEventService;
+import com.XuebaoMaster.backend.Homework.HomeworkSubmission;
+import com.XuebaoMaster.backend.Homework.HomeworkSubmissionEvent;
+import com.XuebaoMaster.backend.Homework.HomeworkSubmissionIngestService;
+import com.XuebaoMaster.backend.Homework.dto.SubmissionIngestResult;
+import com.XuebaoMaster.backend.util.CompressedTextConverter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 截止前集中提交的写入路径
+ * 请求线程只做校验并入队，单个写线程在很短的时间窗口内收集一批提交，
+ * 用一条多行 INSERT ... ON DUPLICATE KEY UPDATE 写入，(student_id, homework_id) 唯一约束保证不会重复；
+ * 用过的幂等键记录在 homework_submission_keys，整批写入失败时逐个学生作业重试
+ */
+@Service
+public class HomeworkSubmissionIngestServiceImpl implements HomeworkSubmissionIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeworkSubmissionIngestServiceImpl.class);
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    private static final String INSERT_PREFIX = "INSERT INTO homework_submissions " +
+            "(homework_id, student_id, content, file_id, submission_date, status, is_late, idempotency_key, " +
+            "created_at, updated_at) VALUES ";
+
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, 'SUBMITTED', ?, ?, ?, ?)";
+
+    // 与 updateSubmission 一致：文件未提供时保留原文件，迟交标记只增不减，已评分/退回的重新变为已提交
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE " +
+            "content = VALUES(content), " +
+            "file_id = COALESCE(VALUES(file_id), file_id), " +
+            "submission_date = VALUES(submission_date), " +
+            "is_late = is_late OR VALUES(is_late), " +
+            "status = IF(status IN ('GRADED', 'RETURNED'), 'SUBMITTED', status), " +
+            "idempotency_key = VALUES(idempotency_key), " +
+            "updated_at = VALUES(updated_at)";
+
+    @Autowired
+    private HomeworkDeadlineCache homeworkDeadlineCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private HomeworkEventService homeworkEventService;
+
+    @Value("${homework.ingest.batch-window-ms:20}")
+    private long batchWindowMs;
+
+    @Value("${homework.ingest.batch-size:100}")
+    private int batchSize;
+
+    @Value("${homework.ingest.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    private final BlockingQueue<PendingSubmission> queue;
+
+    private volatile boolean running = true;
+
+    private Thread writerThread;
+
+    public HomeworkSubmissionIngestServiceImpl(@Value("${homework.ingest.queue-capacity:5000}") int queueCapacity) {
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void startWriter() {
+        writerThread = new Thread(this::writeLoop, "SubmissionIngest-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stopWriter() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public SubmissionIngestResult submit(HomeworkSubmission submission, String idempotencyKey) {
+        if (submission.getStudentId() == null || submission.getHomeworkId() == null) {
+            throw new RuntimeException("学生ID和作业ID不能为空");
+        }
+        if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new RuntimeException("幂等键长度不能超过 " + MAX_IDEMPOTENCY_KEY_LENGTH);
+        }
+        HomeworkDeadlineCache.Entry homework = homeworkDeadlineCache.get(submission.getHomeworkId());
+        if (homework == null) {
+            throw new RuntimeException("作业不存在");
+        }
+
+        // 迟交按请求到达时间判断，不受排队时间影响
+        LocalDateTime receivedAt = LocalDateTime.now();
+        PendingSubmission pending = new PendingSubmission(submission.getStudentId(), submission.getHomeworkId(),
+                submission.getContent(), submission.getFileId(), idempotencyKey, receivedAt,
+                homework.isLateAt(receivedAt), new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new RuntimeException("提交繁忙，请稍后重试");
+        }
+
+        try {
+            return pending.result().get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("提交处理超时，请使用相同的幂等键重试");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("提交失败: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("提交被中断");
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSubmission first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 第一条到达后最多再等一个时间窗口，凑成一批
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingSubmission next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("批量写入作业提交失败，共 {} 条", batch.size(), e);
+                for (PendingSubmission pending : batch) {
+                    pending.result().completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingSubmission> batch) {
+        // 同一学生同一作业在一批内出现多次时按到达顺序合并
+        Map<SubmissionKey, List<PendingSubmission>> groups = new LinkedHashMap<>();
+        for (PendingSubmission pending : batch) {
+            groups.computeIfAbsent(new SubmissionKey(pending.studentId(), pending.homeworkId()),
+                    k -> new ArrayList<>()).add(pending);
+        }
+
+        Map<PendingSubmission, SubmissionIngestResult.Outcome> outcomes = new HashMap<>();
+        Map<SubmissionKey, WrittenGroup> written;
+        try {
+            written = writeGroups(groups, outcomes);
+        } catch (DataAccessException e) {
+            if (groups.size() == 1) {
+                throw e;
+            }
+            // 一行出错(如内容超长)会使整条多行 INSERT 失败，逐个学生作业重试，只拒绝出错的那一组
+            logger.warn("批量写入作业提交失败，逐条重试: {}", e.getMostSpecificCause().getMessage());
+            written = new LinkedHashMap<>();
+            for (Map.Entry<SubmissionKey, List<PendingSubmission>> group : groups.entrySet()) {
+                try {
+                    written.putAll(writeGroups(Map.of(group.getKey(), group.getValue()), outcomes));
+                } catch (DataAccessException rowError) {
+                    logger.warn("学生 {} 作业 {} 的提交写入失败", group.getKey().studentId(),
+                            group.getKey().homeworkId(), rowError);
+                    for (PendingSubmission pending : group.getValue()) {
+                        pending.result().completeExceptionally(rowError);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<SubmissionKey, WrittenGroup> entry : written.entrySet()) {
+            SubmissionKey key = entry.getKey();
+            WrittenGroup group = entry.getValue();
+            for (PendingSubmission pending : groups.get(key)) {
+                pending.result().complete(new SubmissionIngestResult(group.submissionId(), pending.homeworkId(),
+                        pending.studentId(), pending.late(), outcomes.get(pending)));
+            }
+        }
+        logger.debug("批量写入作业提交 {} 条请求，{} 个学生作业", batch.size(), groups.size());
+    }
+
+    /**
+     * 在一个事务中判定每条请求的结果并写入；幂等键与该学生该作业用过的所有键比对，较早的重试也识别为重复
+     */
+    private Map<SubmissionKey, WrittenGroup> writeGroups(Map<SubmissionKey, List<PendingSubmission>> groups,
+            Map<PendingSubmission, SubmissionIngestResult.Outcome> outcomes) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return transactionTemplate.execute(status -> {
+            Map<SubmissionKey, Long> existing = loadExisting(groups.keySet());
+            Map<SubmissionKey, Set<String>> usedKeys = loadUsedKeys(groups);
+
+            Map<SubmissionKey, SubmissionIngestResult.Outcome> groupOutcomes = new LinkedHashMap<>();
+            List<PendingSubmission> rowsToWrite = new ArrayList<>();
+            List<PendingSubmission> keysToRecord = new ArrayList<>();
+            for (Map.Entry<SubmissionKey, List<PendingSubmission>> group : groups.entrySet()) {
+                boolean exists = existing.containsKey(group.getKey());
+                Set<String> seen = usedKeys.getOrDefault(group.getKey(), new HashSet<>());
+                PendingSubmission lastWrite = null;
+                SubmissionIngestResult.Outcome groupOutcome = SubmissionIngestResult.Outcome.DUPLICATE;
+                for (PendingSubmission pending : group.getValue()) {
+                    SubmissionIngestResult.Outcome outcome;
+                    if (!exists) {
+                        outcome = SubmissionIngestResult.Outcome.CREATED;
+                        exists = true;
+                    } else if (pending.idempotencyKey() != null && seen.contains(pending.idempotencyKey())) {
+                        outcome = SubmissionIngestResult.Outcome.DUPLICATE;
+                    } else {
+                        outcome = SubmissionIngestResult.Outcome.UPDATED;
+                    }
+                    outcomes.put(pending, outcome);
+                    if (outcome != SubmissionIngestResult.Outcome.DUPLICATE) {
+                        if (pending.idempotencyKey() != null) {
+                            seen.add(pending.idempotencyKey());
+                            keysToRecord.add(pending);
+                        }
+                        lastWrite = pending;
+                        if (groupOutcome != SubmissionIngestResult.Outcome.CREATED) {
+                            groupOutcome = outcome;
+                        }
+                    }
+                }
+                groupOutcomes.put(group.getKey(), groupOutcome);
+                if (lastWrite != null) {
+                    rowsToWrite.add(lastWrite);
+                }
+            }
+
+            if (!rowsToWrite.isEmpty()) {
+                upsert(rowsToWrite);
+            }
+            if (!keysToRecord.isEmpty()) {
+                recordKeys(keysToRecord);
+            }
+            Map<SubmissionKey, Long> ids = loadExisting(groups.keySet());
+            Map<SubmissionKey, WrittenGroup> written = new LinkedHashMap<>();
+            List<HomeworkSubmissionEvent> events = new ArrayList<>();
+            for (Map.Entry<SubmissionKey, SubmissionIngestResult.Outcome> entry : groupOutcomes.entrySet()) {
+                SubmissionKey key = entry.getKey();
+                Long submissionId = ids.get(key);
+                written.put(key, new WrittenGroup(submissionId, entry.getValue()));
+                if (submissionId != null && entry.getValue() != SubmissionIngestResult.Outcome.DUPLICATE) {
+                    HomeworkSubmissionEvent.Type type = entry.getValue() == SubmissionIngestResult.Outcome.CREATED
+                            ? HomeworkSubmissionEvent.Type.SUBMISSION_CREATED
+                            : HomeworkSubmissionEvent.Type.SUBMISSION_UPDATED;
+                    events.add(new HomeworkSubmissionEvent(type, submissionId, key.homeworkId(), key.studentId(),
+                            LocalDateTime.now()));
+                }
+            }
+            // 通知事件与提交一起写入发件箱，同事务提交
+            homeworkEventService.enqueueEvents(events);
+            return written;
+        });
+    }
+
+    private void upsert(List<PendingSubmission> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(rows.size() * 9);
+        for (int i = 0; i < rows.size(); i++) {
+            PendingSubmission row = rows.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_ROW);
+            Timestamp receivedAt = Timestamp.valueOf(row.receivedAt());
+            args.add(row.homeworkId());
+            args.add(row.studentId());
+            // 与实体写入使用相同的压缩格式
+            args.add(CompressedTextConverter.compress(row.content()));
+            args.add(row.fileId());
+            args.add(receivedAt);
+            args.add(row.late());
+            args.add(row.idempotencyKey());
+            args.add(receivedAt);
+            args.add(receivedAt);
+        }
+        sql.append(UPSERT_SUFFIX);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void recordKeys(List<PendingSubmission> rows) {
+        StringBuilder sql = new StringBuilder("INSERT IGNORE INTO homework_submission_keys " +
+                "(student_id, homework_id, idempotency_key, created_at) VALUES ");
+        List<Object> args = new ArrayList<>(rows.size() * 4);
+        for (PendingSubmission row : rows) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?)");
+            args.add(row.studentId());
+            args.add(row.homeworkId());
+            args.add(row.idempotencyKey());
+            args.add(Timestamp.valueOf(row.receivedAt()));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * 本批请求携带的幂等键中，已经被这个学生这份作业使用过的
+     */
+    private Map<SubmissionKey, Set<String>> loadUsedKeys(Map<SubmissionKey, List<PendingSubmission>> groups) {
+        StringBuilder sql = new StringBuilder("SELECT student_id, homework_id, idempotency_key " +
+                "FROM homework_submission_keys WHERE (student_id, homework_id, idempotency_key) IN (");
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<SubmissionKey, List<PendingSubmission>> group : groups.entrySet()) {
+            for (PendingSubmission pending : group.getValue()) {
+                if (pending.idempotencyKey() == null) {
+                    continue;
+                }
+                if (!args.isEmpty()) {
+                    sql.append(", ");
+                }
+                sql.append("(?, ?, ?)");
+                args.add(pending.studentId());
+                args.add(pending.homeworkId());
+                args.add(pending.idempotencyKey());
+            }
+        }
+        Map<SubmissionKey, Set<String>> used = new HashMap<>();
+        if (args.isEmpty()) {
+            return used;
+        }
+        sql.append(")");
+        jdbcTemplate.query(sql.toString(), rs -> {
+            used.computeIfAbsent(new SubmissionKey(rs.getLong("student_id"), rs.getLong("homework_id")),
+                    k -> new HashSet<>()).add(rs.getString("idempotency_key"));
+        }, args.toArray());
+        return used;
+    }
+
+    private Map<SubmissionKey, Long> loadExisting(Iterable<SubmissionKey> keys) {
+        StringBuilder sql = new StringBuilder("SELECT id, student_id, homework_id " +
+                "FROM homework_submissions WHERE (student_id, homework_id) IN (");
+        List<Object> args = new ArrayList<>();
+        for (SubmissionKey key : keys) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?)");
+            args.add(key.studentId());
+            args.add(key.homeworkId());
+        }
+        sql.append(")");
+
+        Map<SubmissionKey, Long> rows = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            SubmissionKey key = new SubmissionKey(rs.getLong("student_id"), rs.getLong("homework_id"));
+            rows.put(key, rs.getLong("id"));
+        }, args.toArray());
+        return rows;
+    }
+
+    private record SubmissionKey(Long studentId, Long homeworkId) {
+    }
+
+    private record WrittenGroup(Long submissionId, SubmissionIngestResult.Outcome outcome) {
+    }
+
+    private record PendingSubmission(Long studentId, Long homeworkId, String content, Long fileId,
+            String idempotencyKey, LocalDateTime receivedAt, boolean late,
+            CompletableFuture<SubmissionIngestResult> result) {
+    }
+}
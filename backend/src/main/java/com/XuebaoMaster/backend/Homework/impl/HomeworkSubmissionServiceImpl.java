@@ -1,17 +1,14 @@
 package com.XuebaoMaster.backend.Homework.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import com.XuebaoMaster.backend.Homework.Homework;
-import com.XuebaoMaster.backend.Homework.HomeworkRepository;
+import org.springframework.transaction.annotation.Transactional;
 import com.XuebaoMaster.backend.Homework.HomeworkSubmission;
+import com.XuebaoMaster.backend.Homework.HomeworkSubmissionEvent;
 import com.XuebaoMaster.backend.Homework.HomeworkSubmissionRepository;
 import com.XuebaoMaster.backend.Homework.HomeworkSubmissionService;
-import com.XuebaoMaster.backend.Message.Message;
-import com.XuebaoMaster.backend.Message.MessageService;
-import com.XuebaoMaster.backend.User.User;
-import com.XuebaoMaster.backend.User.UserService;
-import com.XuebaoMaster.backend.Course.CourseService;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,18 +19,13 @@ public class HomeworkSubmissionServiceImpl implements HomeworkSubmissionService
     private HomeworkSubmissionRepository submissionRepository;
 
     @Autowired
-    private HomeworkRepository homeworkRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    private MessageService messageService;
-
-    @Autowired
-    private UserService userService;
-
-    @Autowired
-    private CourseService courseService;
+    private HomeworkDeadlineCache homeworkDeadlineCache;
 
     @Override
+    @Transactional
     public HomeworkSubmission createSubmission(HomeworkSubmission submission) {
         // 检查是否为重复提交
         submissionRepository.findByStudentIdAndHomeworkId(submission.getStudentId(), submission.getHomeworkId())
@@ -42,37 +34,44 @@ public class HomeworkSubmissionServiceImpl implements HomeworkSubmissionService
                 });
 
         // 获取作业信息，检查截止日期
-        Homework homework = homeworkRepository.findById(submission.getHomeworkId())
-                .orElseThrow(() -> new RuntimeException("作业不存在"));
+        HomeworkDeadlineCache.Entry homework = homeworkDeadlineCache.get(submission.getHomeworkId());
+        if (homework == null) {
+            throw new RuntimeException("作业不存在");
+        }
 
         // 如果有截止日期且当前时间晚于截止日期，标记为迟交
-        if (homework.getDueDate() != null && LocalDateTime.now().isAfter(homework.getDueDate())) {
-            submission.setIsLate(true);
-        } else {
-            submission.setIsLate(false);
-        }
+        submission.setIsLate(homework.isLateAt(LocalDateTime.now()));
 
         // 设置默认状态为已提交
         submission.setStatus("SUBMITTED");
 
-        // 保存提交
-        HomeworkSubmission savedSubmission = submissionRepository.save(submission);
+        // 保存提交，并发的重复提交由唯一约束拦截
+        HomeworkSubmission savedSubmission;
+        try {
+            savedSubmission = submissionRepository.save(submission);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("你已经提交过该作业，请使用更新功能");
+        }
 
-        // 发送通知给教师
-        sendSubmissionNotification(savedSubmission, homework, "CREATED");
+        // 通知事件在同一事务内写入发件箱，由事件管道异步处理
+        eventPublisher.publishEvent(
+                HomeworkSubmissionEvent.of(HomeworkSubmissionEvent.Type.SUBMISSION_CREATED, savedSubmission));
 
         return savedSubmission;
     }
 
     @Override
+    @Transactional
     public HomeworkSubmission updateSubmission(HomeworkSubmission submission) {
         // 检查提交是否存在
         HomeworkSubmission existingSubmission = submissionRepository.findById(submission.getId())
                 .orElseThrow(() -> new RuntimeException("提交记录不存在"));
 
         // 获取作业信息
-        Homework homework = homeworkRepository.findById(existingSubmission.getHomeworkId())
-                .orElseThrow(() -> new RuntimeException("作业不存在"));
+        HomeworkDeadlineCache.Entry homework = homeworkDeadlineCache.get(existingSubmission.getHomeworkId());
+        if (homework == null) {
+            throw new RuntimeException("作业不存在");
+        }
 
         // 更新内容和文件ID
         existingSubmission.setContent(submission.getContent());
@@ -84,7 +83,7 @@ public class HomeworkSubmissionServiceImpl implements HomeworkSubmissionService
         existingSubmission.setSubmissionDate(LocalDateTime.now());
 
         // 如果有截止日期且当前时间晚于截止日期，标记为迟交
-        if (homework.getDueDate() != null && LocalDateTime.now().isAfter(homework.getDueDate())) {
+        if (homework.isLateAt(LocalDateTime.now())) {
             existingSubmission.setIsLate(true);
         }
 
@@ -96,8 +95,9 @@ public class HomeworkSubmissionServiceImpl implements HomeworkSubmissionService
         // 保存更新
         HomeworkSubmission updatedSubmission = submissionRepository.save(existingSubmission);
 
-        // 发送通知给教师
-        sendSubmissionNotification(updatedSubmission, homework, "UPDATED");
+        // 通知事件在同一事务内写入发件箱，由事件管道异步处理
+        eventPublisher.publishEvent(
+                HomeworkSubmissionEvent.of(HomeworkSubmissionEvent.Type.SUBMISSION_UPDATED, updatedSubmission));
 
         return updatedSubmission;
     }
@@ -140,6 +140,7 @@ public class HomeworkSubmissionServiceImpl implements HomeworkSubmissionService
     }
 
     @Override
+    @Transactional
     public HomeworkSubmission gradeSubmission(Long submissionId, Integer score, String feedback) {
         // 检查提交是否存在
         HomeworkSubmission submission = submissionRepository.findById(submissionId)
@@ -153,12 +154,9 @@ public class HomeworkSubmissionServiceImpl implements HomeworkSubmissionService
         // 保存更新
         HomeworkSubmission gradedSubmission = submissionRepository.save(submission);
 
-        // 获取作业信息
-        Homework homework = homeworkRepository.findById(submission.getHomeworkId())
-                .orElseThrow(() -> new RuntimeException("作业不存在"));
-
-        // 发送通知给学生
-        sendGradeNotification(gradedSubmission, homework);
+        // 通知事件在同一事务内写入发件箱，由事件管道异步处理
+        eventPublisher.publishEvent(
+                HomeworkSubmissionEvent.of(HomeworkSubmissionEvent.Type.SUBMISSION_GRADED, gradedSubmission));
 
         return gradedSubmission;
     }
@@ -190,90 +188,4 @@ public class HomeworkSubmissionServiceImpl implements HomeworkSubmissionService
         // 保存更新
         return submissionRepository.save(submission);
     }
-
-    /**
-     * 发送作业提交通知给教师
-     * 
-     * @param submission 提交记录
-     * @param homework   作业
-     * @param action     操作类型（CREATED, UPDATED）
-     */
-    private void sendSubmissionNotification(HomeworkSubmission submission, Homework homework, String action) {
-        try {
-            // 获取学生信息
-            User student = userService.getUserById(submission.getStudentId());
-
-            // 创建通知内容
-            String title = "";
-            String content = "";
-
-            switch (action) {
-                case "CREATED":
-                    title = "新作业提交: " + homework.getTitle();
-                    content = String.format("学生 %s (ID: %d) 提交了作业 '%s'",
-                            student.getUsername(), student.getId(), homework.getTitle());
-                    break;
-                case "UPDATED":
-                    title = "作业提交更新: " + homework.getTitle();
-                    content = String.format("学生 %s (ID: %d) 更新了对作业 '%s' 的提交",
-                            student.getUsername(), student.getId(), homework.getTitle());
-                    break;
-                default:
-                    title = "作业提交通知";
-                    content = String.format("学生 %s 的作业 '%s' 有更新",
-                            student.getUsername(), homework.getTitle());
-            }
-
-            if (submission.getIsLate()) {
-                content += "\n注意: 此提交已超过截止日期。";
-            }
-
-            // 创建消息
-            Message message = new Message();
-            message.setTitle(title);
-            message.setContent(content);
-            message.setTargetType(Message.MessageTargetType.SPECIFIC);
-
-            // 获取教师ID（通过课程ID）
-            Long teacherId = courseService.getCourseById(homework.getCourseId()).getTeacherId();
-            message.setTargetIds(teacherId.toString());
-
-            message.setActive(true);
-
-            // 保存消息
-            messageService.createMessage(message);
-        } catch (Exception e) {
-            // 记录错误但不影响作业提交
-            System.err.println("发送作业提交通知失败: " + e.getMessage());
-        }
-    }
-
-    /**
-     * 发送评分通知给学生
-     * 
-     * @param submission 提交记录
-     * @param homework   作业
-     */
-    private void sendGradeNotification(HomeworkSubmission submission, Homework homework) {
-        try {
-            // 创建通知内容
-            String title = "作业评分通知: " + homework.getTitle();
-            String content = String.format("你的作业 '%s' 已评分。\n分数: %d\n反馈: %s",
-                    homework.getTitle(), submission.getScore(), submission.getFeedback());
-
-            // 创建消息
-            Message message = new Message();
-            message.setTitle(title);
-            message.setContent(content);
-            message.setTargetType(Message.MessageTargetType.SPECIFIC);
-            message.setTargetIds(submission.getStudentId().toString());
-            message.setActive(true);
-
-            // 保存消息
-            messageService.createMessage(message);
-        } catch (Exception e) {
-            // 记录错误但不影响评分过程
-            System.err.println("发送评分通知失败: " + e.getMessage());
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.XuebaoMaster.backend.HomeworkQuestion;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import java.time.LocalDateTime;
 
@@ -9,11 +11,17 @@ import java.time.LocalDateTime;
  * 实现一个作业包含多个题目的关联关系
  */
 @Entity
-@Table(name = "homework_questions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "homework_questions", indexes = {
+        @Index(name = "idx_homework_questions_homework_order", columnList = "homework_id, order_index")
+})
 @Data
 public class HomeworkQuestion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "homework_questions_id")
+    @TableGenerator(name = "homework_questions_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "homework_questions", allocationSize = 50)
     private Long id;
 
     @Column(name = "homework_id", nullable = false)
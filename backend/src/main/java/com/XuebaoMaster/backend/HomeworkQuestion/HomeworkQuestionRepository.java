@@ -1,6 +1,8 @@
 package com.XuebaoMaster.backend.HomeworkQuestion;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +28,10 @@ public interface HomeworkQuestionRepository extends JpaRepository<HomeworkQuesti
     // 检查题目是否已存在于作业中
     boolean existsByHomeworkIdAndQuestionId(Long homeworkId, Long questionId);
 
+    // 查询作业下的关联ID与题目ID，用于整体重排时不加载实体
+    @Query("SELECT hq.id, hq.questionId FROM HomeworkQuestion hq WHERE hq.homeworkId = :homeworkId")
+    List<Object[]> findLinkIdsByHomeworkId(@Param("homeworkId") Long homeworkId);
+
     // 查询作业下最大的orderIndex
     Optional<HomeworkQuestion> findTopByHomeworkIdOrderByOrderIndexDesc(Long homeworkId);
 }
\ No newline at end of file
@@ -10,7 +10,7 @@ public interface HomeworkQuestionService {
     // 批量添加题目到作业
     List<HomeworkQuestion> addQuestionsToHomework(Long homeworkId, List<Long> questionIds);
 
-    // 更新题目顺序
+    // 把题目移动到作业中的目标位置(从 0 开始)
     HomeworkQuestion updateQuestionOrder(Long id, Integer newOrderIndex);
 
     // 调整作业中多个题目的顺序
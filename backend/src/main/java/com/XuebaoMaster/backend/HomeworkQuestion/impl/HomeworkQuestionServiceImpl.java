@@ -1,33 +1,50 @@
 package com.XuebaoMaster.backend.HomeworkQuestion.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.XuebaoMaster.backend.HomeworkQuestion.HomeworkQuestion;
 import com.XuebaoMaster.backend.HomeworkQuestion.HomeworkQuestionRepository;
 import com.XuebaoMaster.backend.HomeworkQuestion.HomeworkQuestionService;
+import com.XuebaoMaster.backend.config.CacheConfig;
+import com.XuebaoMaster.backend.util.BatchOrderUpdater;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class HomeworkQuestionServiceImpl implements HomeworkQuestionService {
 
+    private static final BatchOrderUpdater.OrderedTable ORDERED_TABLE = new BatchOrderUpdater.OrderedTable(
+            HomeworkQuestion.class, "homework_questions", "id", "order_index", "homework_id");
+
     @Autowired
     private HomeworkQuestionRepository homeworkQuestionRepository;
 
+    @Autowired
+    private BatchOrderUpdater batchOrderUpdater;
+
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_MEMBERSHIP,
+                    key = "#homeworkQuestion.homeworkId + ':' + #homeworkQuestion.questionId"),
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_COUNT, key = "#homeworkQuestion.homeworkId")
+    })
+    @Transactional
     public HomeworkQuestion createHomeworkQuestion(HomeworkQuestion homeworkQuestion) {
         // 如果没有指定顺序，则将其添加到末尾
         if (homeworkQuestion.getOrderIndex() == null) {
-            Optional<HomeworkQuestion> lastQuestion = homeworkQuestionRepository
-                    .findTopByHomeworkIdOrderByOrderIndexDesc(homeworkQuestion.getHomeworkId());
-
-            int orderIndex = lastQuestion.map(q -> q.getOrderIndex() + 1).orElse(0);
-            homeworkQuestion.setOrderIndex(orderIndex);
+            homeworkQuestion.setOrderIndex(
+                    batchOrderUpdater.keysForAppend(ORDERED_TABLE, homeworkQuestion.getHomeworkId(), 1).get(0));
         }
 
         return homeworkQuestionRepository.save(homeworkQuestion);
@@ -35,24 +52,32 @@ public class HomeworkQuestionServiceImpl implements HomeworkQuestionService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_MEMBERSHIP, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_COUNT, key = "#homeworkId")
+    })
     public List<HomeworkQuestion> addQuestionsToHomework(Long homeworkId, List<Long> questionIds) {
         List<HomeworkQuestion> result = new ArrayList<>();
 
-        // 获取当前最大顺序值
-        Optional<HomeworkQuestion> lastQuestion = homeworkQuestionRepository
-                .findTopByHomeworkIdOrderByOrderIndexDesc(homeworkId);
-        int nextOrderIndex = lastQuestion.map(q -> q.getOrderIndex() + 1).orElse(0);
-
+        // 跳过已存在于作业中的题目
+        Set<Long> newQuestionIds = new LinkedHashSet<>();
         for (Long questionId : questionIds) {
-            // 检查题目是否已存在于作业中
-            if (homeworkQuestionRepository.existsByHomeworkIdAndQuestionId(homeworkId, questionId)) {
-                continue;
+            if (!homeworkQuestionRepository.existsByHomeworkIdAndQuestionId(homeworkId, questionId)) {
+                newQuestionIds.add(questionId);
             }
+        }
+        if (newQuestionIds.isEmpty()) {
+            return result;
+        }
 
+        // 新题目排在末尾，之间保留稀疏间隔
+        Iterator<Integer> orderIndexes = batchOrderUpdater
+                .keysForAppend(ORDERED_TABLE, homeworkId, newQuestionIds.size()).iterator();
+        for (Long questionId : newQuestionIds) {
             HomeworkQuestion homeworkQuestion = new HomeworkQuestion();
             homeworkQuestion.setHomeworkId(homeworkId);
             homeworkQuestion.setQuestionId(questionId);
-            homeworkQuestion.setOrderIndex(nextOrderIndex++);
+            homeworkQuestion.setOrderIndex(orderIndexes.next());
             homeworkQuestion.setWeight(1.0); // 默认权重
 
             result.add(homeworkQuestionRepository.save(homeworkQuestion));
@@ -63,97 +88,64 @@ public class HomeworkQuestionServiceImpl implements HomeworkQuestionService {
 
     @Override
     @Transactional
-    public HomeworkQuestion updateQuestionOrder(Long id, Integer newOrderIndex) {
+    public HomeworkQuestion updateQuestionOrder(Long id, Integer newPosition) {
         HomeworkQuestion homeworkQuestion = homeworkQuestionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("HomeworkQuestion not found with id: " + id));
 
-        int oldOrderIndex = homeworkQuestion.getOrderIndex();
-
-        // 更新其他题目的顺序以保持连续性
-        List<HomeworkQuestion> questions = homeworkQuestionRepository
-                .findByHomeworkIdOrderByOrderIndexAsc(homeworkQuestion.getHomeworkId());
-
-        for (HomeworkQuestion q : questions) {
-            if (q.getId().equals(id)) {
-                continue; // 跳过当前正在更新的题目
-            }
-
-            int currentIndex = q.getOrderIndex();
-
-            if (oldOrderIndex < newOrderIndex) {
-                // 向下移动
-                if (currentIndex > oldOrderIndex && currentIndex <= newOrderIndex) {
-                    q.setOrderIndex(currentIndex - 1);
-                    homeworkQuestionRepository.save(q);
-                }
-            } else if (oldOrderIndex > newOrderIndex) {
-                // 向上移动
-                if (currentIndex >= newOrderIndex && currentIndex < oldOrderIndex) {
-                    q.setOrderIndex(currentIndex + 1);
-                    homeworkQuestionRepository.save(q);
-                }
-            }
-        }
-
-        // 更新当前题目的顺序
-        homeworkQuestion.setOrderIndex(newOrderIndex);
+        // 参数是题目在作业中的目标位置，换算为前后两题之间的稀疏排序键，通常只改写这一行
+        int orderIndex = batchOrderUpdater.keyForPosition(ORDERED_TABLE, homeworkQuestion.getHomeworkId(), id,
+                newPosition);
+        homeworkQuestion.setOrderIndex(orderIndex);
         return homeworkQuestionRepository.save(homeworkQuestion);
     }
 
     @Override
     @Transactional
     public List<HomeworkQuestion> reorderHomeworkQuestions(Long homeworkId, List<Long> questionIdsInOrder) {
-        List<HomeworkQuestion> result = new ArrayList<>();
-        Map<Long, HomeworkQuestion> questionMap = new HashMap<>();
-
-        // 获取作业中所有的题目
-        List<HomeworkQuestion> existingQuestions = homeworkQuestionRepository
-                .findByHomeworkIdOrderByOrderIndexAsc(homeworkId);
-        for (HomeworkQuestion q : existingQuestions) {
-            questionMap.put(q.getQuestionId(), q);
+        Map<Long, Long> linkIdByQuestionId = new HashMap<>();
+        for (Object[] row : homeworkQuestionRepository.findLinkIdsByHomeworkId(homeworkId)) {
+            linkIdByQuestionId.put((Long) row[1], (Long) row[0]);
         }
 
-        // 根据提供的顺序重新排序
-        int orderIndex = 0;
+        List<Long> linkIdsInOrder = new ArrayList<>();
         for (Long questionId : questionIdsInOrder) {
-            HomeworkQuestion question = questionMap.get(questionId);
-            if (question != null) {
-                question.setOrderIndex(orderIndex++);
-                result.add(homeworkQuestionRepository.save(question));
+            Long linkId = linkIdByQuestionId.get(questionId);
+            if (linkId != null) {
+                linkIdsInOrder.add(linkId);
             }
         }
 
+        // 整体顺序用一条批量 UPDATE 写入，未列出的题目按原顺序排在后面
+        batchOrderUpdater.renumber(ORDERED_TABLE, homeworkId, linkIdsInOrder);
+
+        Set<Long> reorderedQuestionIds = new HashSet<>(questionIdsInOrder);
+        List<HomeworkQuestion> result = new ArrayList<>();
+        for (HomeworkQuestion question : homeworkQuestionRepository.findByHomeworkIdOrderByOrderIndexAsc(homeworkId)) {
+            if (reorderedQuestionIds.contains(question.getQuestionId())) {
+                result.add(question);
+            }
+        }
         return result;
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_MEMBERSHIP, key = "#homeworkId + ':' + #questionId"),
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_COUNT, key = "#homeworkId")
+    })
     public void removeQuestionFromHomework(Long homeworkId, Long questionId) {
-        Optional<HomeworkQuestion> question = homeworkQuestionRepository
-                .findByHomeworkIdAndQuestionId(homeworkId, questionId);
-
-        if (question.isPresent()) {
-            HomeworkQuestion homeworkQuestion = question.get();
-            int orderIndex = homeworkQuestion.getOrderIndex();
-
-            // 删除题目
-            homeworkQuestionRepository.delete(homeworkQuestion);
-
-            // 更新其他题目的顺序
-            List<HomeworkQuestion> questions = homeworkQuestionRepository
-                    .findByHomeworkIdOrderByOrderIndexAsc(homeworkId);
-
-            for (HomeworkQuestion q : questions) {
-                if (q.getOrderIndex() > orderIndex) {
-                    q.setOrderIndex(q.getOrderIndex() - 1);
-                    homeworkQuestionRepository.save(q);
-                }
-            }
-        }
+        // 排序键只表示相对顺序，删除后无需调整其余题目
+        homeworkQuestionRepository.findByHomeworkIdAndQuestionId(homeworkId, questionId)
+                .ifPresent(homeworkQuestionRepository::delete);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_MEMBERSHIP, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.HOMEWORK_QUESTION_COUNT, key = "#homeworkId")
+    })
     public void removeAllQuestionsFromHomework(Long homeworkId) {
         homeworkQuestionRepository.deleteByHomeworkId(homeworkId);
     }
@@ -164,11 +156,13 @@ public class HomeworkQuestionServiceImpl implements HomeworkQuestionService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.HOMEWORK_QUESTION_MEMBERSHIP, key = "#homeworkId + ':' + #questionId")
     public boolean isQuestionInHomework(Long homeworkId, Long questionId) {
         return homeworkQuestionRepository.existsByHomeworkIdAndQuestionId(homeworkId, questionId);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.HOMEWORK_QUESTION_COUNT, key = "#homeworkId")
     public Long getQuestionCountByHomeworkId(Long homeworkId) {
         return homeworkQuestionRepository.countByHomeworkId(homeworkId);
     }
@@ -0,0 +1,23 @@
+package com.XuebaoMaster.backend.LoginRecord;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+/**
+ * 用户登录活跃位图，每天一位
+ * 第 0 位对应 originWord * 64 这一天(epoch day)，按 long 小端序存储
+ */
+@Entity
+@Table(name = "login_activity")
+@Data
+public class LoginActivity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    @Column(name = "origin_word", nullable = false)
+    private Long originWord;
+    @Lob
+    @Column(name = "bits", nullable = false, columnDefinition = "BLOB")
+    private byte[] bits;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
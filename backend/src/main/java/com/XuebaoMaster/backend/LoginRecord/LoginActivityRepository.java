@@ -0,0 +1,4 @@
+package com.XuebaoMaster.backend.LoginRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+public interface LoginActivityRepository extends JpaRepository<LoginActivity, Long> {
+}
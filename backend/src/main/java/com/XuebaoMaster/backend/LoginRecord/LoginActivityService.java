@@ -0,0 +1,13 @@
+package com.XuebaoMaster.backend.LoginRecord;
+import java.time.LocalDate;
+import java.util.Map;
+public interface LoginActivityService {
+    void recordLogin(Long userId, LocalDate day);
+    void recomputeDay(Long userId, LocalDate day);
+    boolean isActiveOn(Long userId, LocalDate day);
+    int getCurrentStreak(Long userId, LocalDate today);
+    long countActiveUsers(LocalDate day);
+    long countActiveUsersBetween(LocalDate startDate, LocalDate endDate);
+    Map<String, Long> getActivitySummary();
+    void rebuildFromLoginRecords();
+}
@@ -4,15 +4,20 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import lombok.Data;
 @Entity
-@Table(name = "login_records")
+@Table(name = "login_records", indexes = {
+        @Index(name = "idx_login_records_user_time", columnList = "user_id, time"),
+        @Index(name = "idx_login_records_time", columnList = "time")
+})
 @Data
 public class LoginRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "login_records_id")
+    @TableGenerator(name = "login_records_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "login_records", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private LocalDateTime time;
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 }
@@ -3,9 +3,14 @@ package com.XuebaoMaster.backend.LoginRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.XuebaoMaster.backend.LoginRecord.dto.LoginRecordView;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,6 +19,8 @@ import java.util.Map;
 public class LoginRecordController {
     @Autowired
     private LoginRecordService loginRecordService;
+    @Autowired
+    private LoginActivityService loginActivityService;
 
     /**
      * 创建登录记录
@@ -43,8 +50,8 @@ public class LoginRecordController {
      * @return 登录记录列表
      */
     @GetMapping
-    public ResponseEntity<List<LoginRecord>> getAllLoginRecords() {
-        return ResponseEntity.ok(loginRecordService.getAllLoginRecords());
+    public ResponseEntity<List<LoginRecordView>> getAllLoginRecords() {
+        return ResponseEntity.ok(loginRecordService.getAllLoginRecordViews());
     }
 
     /**
@@ -65,8 +72,8 @@ public class LoginRecordController {
      * @return 登录记录列表
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<LoginRecord>> getLoginRecordsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(loginRecordService.getLoginRecordsByUserId(userId));
+    public ResponseEntity<List<LoginRecordView>> getLoginRecordsByUserId(@PathVariable Long userId) {
+        return ResponseEntity.ok(loginRecordService.getLoginRecordViewsByUserId(userId));
     }
 
     /**
@@ -77,10 +84,10 @@ public class LoginRecordController {
      * @return 登录记录列表
      */
     @GetMapping("/time")
-    public ResponseEntity<List<LoginRecord>> getLoginRecordsByTimeBetween(
+    public ResponseEntity<List<LoginRecordView>> getLoginRecordsByTimeBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        return ResponseEntity.ok(loginRecordService.getLoginRecordsByTimeBetween(startTime, endTime));
+        return ResponseEntity.ok(loginRecordService.getLoginRecordViewsByTimeBetween(startTime, endTime));
     }
 
     /**
@@ -92,11 +99,11 @@ public class LoginRecordController {
      * @return 登录记录列表
      */
     @GetMapping("/user/{userId}/time")
-    public ResponseEntity<List<LoginRecord>> getLoginRecordsByUserIdAndTimeBetween(
+    public ResponseEntity<List<LoginRecordView>> getLoginRecordsByUserIdAndTimeBetween(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        return ResponseEntity.ok(loginRecordService.getLoginRecordsByUserIdAndTimeBetween(userId, startTime, endTime));
+        return ResponseEntity.ok(loginRecordService.getLoginRecordViewsByUserIdAndTimeBetween(userId, startTime, endTime));
     }
 
     /**
@@ -143,14 +150,60 @@ public class LoginRecordController {
      * @return 登录记录列表
      */
     @GetMapping("/recent/{count}")
-    public ResponseEntity<List<LoginRecord>> getRecentLoginRecords(@PathVariable int count) {
-        List<LoginRecord> allRecords = loginRecordService.getAllLoginRecords();
-        // 按时间降序排序
-        allRecords.sort((a, b) -> b.getTime().compareTo(a.getTime()));
-        // 获取前count条记录
-        List<LoginRecord> recentRecords = allRecords.stream()
-                .limit(count)
-                .toList();
-        return ResponseEntity.ok(recentRecords);
+    public ResponseEntity<List<LoginRecordView>> getRecentLoginRecords(@PathVariable int count) {
+        return ResponseEntity.ok(loginRecordService.getRecentLoginRecordViews(count));
+    }
+
+    /**
+     * 获取日活、周活、月活用户数
+     * 
+     * @return 统计信息
+     */
+    @GetMapping("/activity/summary")
+    public ResponseEntity<Map<String, Long>> getActivitySummary() {
+        return ResponseEntity.ok(loginActivityService.getActivitySummary());
+    }
+
+    /**
+     * 获取指定日期范围内的活跃用户数
+     * 
+     * @param startDate 开始日期
+     * @param endDate   结束日期
+     * @return 统计信息
+     */
+    @GetMapping("/activity/range")
+    public ResponseEntity<Map<String, Long>> getActiveUsersBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Map<String, Long> result = new HashMap<>();
+        result.put("activeUsers", loginActivityService.countActiveUsersBetween(startDate, endDate));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 获取用户的连续登录天数和今日是否活跃
+     * 
+     * @param userId 用户ID
+     * @return 活跃信息
+     */
+    @GetMapping("/user/{userId}/activity")
+    public ResponseEntity<Map<String, Object>> getUserActivity(@PathVariable Long userId) {
+        LocalDate today = LocalDate.now();
+        Map<String, Object> result = new HashMap<>();
+        result.put("activeToday", loginActivityService.isActiveOn(userId, today));
+        result.put("currentStreak", loginActivityService.getCurrentStreak(userId, today));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 从登录记录重建活跃位图
+     * 
+     * @return 无内容响应
+     */
+    @PostMapping("/activity/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildActivityIndex() {
+        loginActivityService.rebuildFromLoginRecords();
+        return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,35 @@
 package com.XuebaoMaster.backend.LoginRecord;
+import com.XuebaoMaster.backend.LoginRecord.dto.LoginRecordView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 public interface LoginRecordRepository extends JpaRepository<LoginRecord, Long> {
+    String VIEW_SELECT = "SELECT new com.XuebaoMaster.backend.LoginRecord.dto.LoginRecordView(" +
+            "l.id, l.time, u.id, u.username, u.name) FROM LoginRecord l JOIN l.user u ";
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT l FROM LoginRecord l WHERE l.id = :id")
+    Optional<LoginRecord> findWithUserById(@Param("id") Long id);
+    @Query(VIEW_SELECT)
+    List<LoginRecordView> findAllViews();
+    @Query(VIEW_SELECT + "WHERE u.id = :userId")
+    List<LoginRecordView> findViewsByUserId(@Param("userId") Long userId);
+    @Query(VIEW_SELECT + "WHERE l.time BETWEEN :startTime AND :endTime")
+    List<LoginRecordView> findViewsByTimeBetween(@Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+    @Query(VIEW_SELECT + "WHERE u.id = :userId AND l.time BETWEEN :startTime AND :endTime")
+    List<LoginRecordView> findViewsByUserIdAndTimeBetween(@Param("userId") Long userId,
+            @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+    @Query(VIEW_SELECT + "ORDER BY l.time DESC")
+    List<LoginRecordView> findRecentViews(Pageable pageable);
     @Query("SELECT l FROM LoginRecord l WHERE l.user.id = :userId")
     List<LoginRecord> findByUserId(@Param("userId") Long userId);
     @Query("SELECT l FROM LoginRecord l WHERE l.time BETWEEN :startTime AND :endTime")
@@ -18,4 +43,16 @@ public interface LoginRecordRepository extends JpaRepository<LoginRecord, Long>
     Long countByUserId(@Param("userId") Long userId);
     @Query("SELECT COUNT(l) FROM LoginRecord l WHERE l.time BETWEEN :startTime AND :endTime")
     Long countByTimeBetween(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-} 
+    @Query("SELECT COUNT(l) FROM LoginRecord l WHERE l.user.id = :userId AND l.time BETWEEN :startTime AND :endTime")
+    Long countByUserIdAndTimeBetween(@Param("userId") Long userId, @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+    // 用户在 [startTime, endTime) 内的登录次数(包括已归档的记录)
+    @Query(value = "SELECT COUNT(*) FROM login_records_all l WHERE l.user_id = :userId " +
+            "AND l.time >= :startTime AND l.time < :endTime", nativeQuery = true)
+    long countAllByUserIdAndTimeRange(@Param("userId") Long userId, @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+    // 逐行流式读取每个用户有登录的日期(包括已归档的记录)，用于重建活跃位图
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(value = "SELECT l.user_id, DATE(l.time) FROM login_records_all l GROUP BY l.user_id, DATE(l.time)", nativeQuery = true)
+    Stream<Object[]> streamLoginDays();
+}
@@ -1,4 +1,5 @@
 package com.XuebaoMaster.backend.LoginRecord;
+import com.XuebaoMaster.backend.LoginRecord.dto.LoginRecordView;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +12,11 @@ public interface LoginRecordService {
     List<LoginRecord> getLoginRecordsByTimeBetween(LocalDateTime startTime, LocalDateTime endTime);
     List<LoginRecord> getLoginRecordsByUserIdAndTimeBetween(Long userId, LocalDateTime startTime, LocalDateTime endTime);
     List<LoginRecord> getAllLoginRecords();
+    List<LoginRecordView> getAllLoginRecordViews();
+    List<LoginRecordView> getLoginRecordViewsByUserId(Long userId);
+    List<LoginRecordView> getLoginRecordViewsByTimeBetween(LocalDateTime startTime, LocalDateTime endTime);
+    List<LoginRecordView> getLoginRecordViewsByUserIdAndTimeBetween(Long userId, LocalDateTime startTime, LocalDateTime endTime);
+    List<LoginRecordView> getRecentLoginRecordViews(int count);
     Map<String, Long> getLoginStatistics(Long userId);
     Map<String, Long> getLoginStatistics(LocalDateTime startTime, LocalDateTime endTime);
 } 
@@ -0,0 +1,16 @@
+package com.XuebaoMaster.backend.LoginRecord.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登录记录列表投影，只携带登录时间和用户标识信息
+ */
+public record LoginRecordView(Long id, LocalDateTime time, UserRef user) {
+
+    public LoginRecordView(Long id, LocalDateTime time, Long userId, String username, String name) {
+        this(id, time, new UserRef(userId, username, name));
+    }
+
+    public record UserRef(Long id, String username, String name) {
+    }
+}
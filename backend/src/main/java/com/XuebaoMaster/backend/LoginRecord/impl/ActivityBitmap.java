@@ -0,0 +1,144 @@
+package com.XuebaoMaster.backend.LoginRecord.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 单个用户的按天活跃位图
+ * 位下标按 epoch day 对齐到 64 天一个 long，originWord 为第一个 long 对应的 epochDay / 64
+ * 非线程安全，由调用方按用户加锁
+ */
+final class ActivityBitmap {
+
+    private long originWord;
+    private long[] words;
+
+    private ActivityBitmap(long originWord, long[] words) {
+        this.originWord = originWord;
+        this.words = words;
+    }
+
+    static ActivityBitmap forDay(long epochDay) {
+        return new ActivityBitmap(Math.floorDiv(epochDay, 64), new long[1]);
+    }
+
+    static ActivityBitmap fromBytes(long originWord, byte[] bytes) {
+        long[] words = new long[Math.max(1, bytes.length / Long.BYTES)];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words, 0, bytes.length / Long.BYTES);
+        return new ActivityBitmap(originWord, words);
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(words);
+        return buffer.array();
+    }
+
+    long getOriginWord() {
+        return originWord;
+    }
+
+    /**
+     * 置位，返回该天此前是否未置位
+     */
+    boolean set(long epochDay) {
+        ensureCapacity(epochDay);
+        long index = epochDay - (originWord << 6);
+        int word = (int) (index >>> 6);
+        long bit = 1L << (index & 63);
+        if ((words[word] & bit) != 0) {
+            return false;
+        }
+        words[word] |= bit;
+        return true;
+    }
+
+    /**
+     * 清除该天的位，返回该天此前是否已置位
+     */
+    boolean clear(long epochDay) {
+        if (!get(epochDay)) {
+            return false;
+        }
+        long index = epochDay - (originWord << 6);
+        words[(int) (index >>> 6)] &= ~(1L << (index & 63));
+        return true;
+    }
+
+    boolean get(long epochDay) {
+        long index = epochDay - (originWord << 6);
+        if (index < 0 || index >= (long) words.length << 6) {
+            return false;
+        }
+        return (words[(int) (index >>> 6)] & (1L << (index & 63))) != 0;
+    }
+
+    /**
+     * 以 epochDay 结尾的连续置位天数
+     */
+    int streakEndingAt(long epochDay) {
+        long index = epochDay - (originWord << 6);
+        if (index < 0 || index >= (long) words.length << 6) {
+            return 0;
+        }
+        int word = (int) (index >>> 6);
+        int bit = (int) (index & 63);
+        long mask = bit == 63 ? -1L : (1L << (bit + 1)) - 1;
+        long zeros = ~words[word] & mask;
+        if (zeros != 0) {
+            return bit - (63 - Long.numberOfLeadingZeros(zeros));
+        }
+        int streak = bit + 1;
+        for (int i = word - 1; i >= 0; i--) {
+            if (words[i] == -1L) {
+                streak += 64;
+                continue;
+            }
+            streak += Long.numberOfLeadingZeros(~words[i]);
+            break;
+        }
+        return streak;
+    }
+
+    /**
+     * [startDay, endDay] 内是否有任意一天置位
+     */
+    boolean anyBetween(long startDay, long endDay) {
+        long base = originWord << 6;
+        long from = Math.max(startDay, base) - base;
+        long to = Math.min(endDay, base + ((long) words.length << 6) - 1) - base;
+        if (from > to) {
+            return false;
+        }
+        int firstWord = (int) (from >>> 6);
+        int lastWord = (int) (to >>> 6);
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = -1L;
+            if (i == firstWord) {
+                mask &= -1L << (from & 63);
+            }
+            if (i == lastWord) {
+                int lastBit = (int) (to & 63);
+                mask &= lastBit == 63 ? -1L : (1L << (lastBit + 1)) - 1;
+            }
+            if ((words[i] & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureCapacity(long epochDay) {
+        long word = Math.floorDiv(epochDay, 64);
+        if (word < originWord) {
+            int shift = (int) (originWord - word);
+            long[] grown = new long[words.length + shift];
+            System.arraycopy(words, 0, grown, shift, words.length);
+            words = grown;
+            originWord = word;
+        } else if (word - originWord >= words.length) {
+            words = Arrays.copyOf(words, (int) (word - originWord + 1));
+        }
+    }
+}
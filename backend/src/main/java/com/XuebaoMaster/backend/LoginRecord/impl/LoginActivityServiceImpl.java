@@ -0,0 +1,369 @@
+package com.XuebaoMaster.backend.LoginRecord.impl;
+
+import com.XuebaoMaster.backend.LoginRecord.LoginActivity;
+import com.XuebaoMaster.backend.LoginRecord.LoginActivityRepository;
+import com.XuebaoMaster.backend.LoginRecord.LoginActivityService;
+import com.XuebaoMaster.backend.LoginRecord.LoginRecordRepository;
+import com.XuebaoMaster.backend.config.StatementTimeout;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 登录活跃位图索引
+ * 每个用户一份按天的 long[] 位图(内存 + login_activity 表)，
+ * 另外为最近若干天各保留一份按用户ID的 BitSet，用于 DAU/WAU/MAU 统计。
+ * 重建期间的登录和删除记入日志，换入新索引前在写锁下重放，不会被重建覆盖
+ */
+@Service
+public class LoginActivityServiceImpl implements LoginActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginActivityServiceImpl.class);
+
+    private static final int REBUILD_SAVE_BATCH = 500;
+
+    @Autowired
+    private LoginActivityRepository loginActivityRepository;
+
+    @Autowired
+    private LoginRecordRepository loginRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${login-activity.population-days:90}")
+    private int populationDays;
+
+    private volatile ConcurrentHashMap<Long, ActivityBitmap> userBitmaps = new ConcurrentHashMap<>();
+
+    // epochDay -> 当天活跃的用户ID集合
+    private volatile ConcurrentHashMap<Long, BitSet> dailyPopulation = new ConcurrentHashMap<>();
+
+    // 登录/删除持读锁，重建开始和换入新索引时持写锁
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    // 重建进行中时非空，记录重建期间的变更
+    private volatile Queue<ActivityChange> rebuildJournal;
+
+    @PostConstruct
+    public void loadIndex() {
+        List<LoginActivity> rows = loginActivityRepository.findAll();
+        if (rows.isEmpty()) {
+            if (loginRecordRepository.count() > 0) {
+                logger.info("登录活跃位图为空，从登录记录重建");
+                rebuildFromLoginRecords();
+            }
+            return;
+        }
+        ConcurrentHashMap<Long, ActivityBitmap> bitmaps = new ConcurrentHashMap<>();
+        for (LoginActivity row : rows) {
+            bitmaps.put(row.getUserId(), ActivityBitmap.fromBytes(row.getOriginWord(), row.getBits()));
+        }
+        userBitmaps = bitmaps;
+        dailyPopulation = buildPopulation(bitmaps);
+        logger.info("加载登录活跃位图 {} 个用户", rows.size());
+    }
+
+    @Override
+    public void recordLogin(Long userId, LocalDate day) {
+        long epochDay = day.toEpochDay();
+        indexLock.readLock().lock();
+        try {
+            ActivityBitmap bitmap = userBitmaps.computeIfAbsent(userId, id -> ActivityBitmap.forDay(epochDay));
+            synchronized (bitmap) {
+                // 在用户锁内记日志，与删除的重放顺序一致
+                journal(new ActivityChange(userId, epochDay, true));
+                if (!bitmap.set(epochDay)) {
+                    return;
+                }
+                // 每个用户每天最多写一次
+                persist(userId, bitmap);
+            }
+            BitSet population = populationFor(epochDay);
+            if (population != null && userId <= Integer.MAX_VALUE) {
+                synchronized (population) {
+                    population.set(userId.intValue());
+                }
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 登录记录删除后按剩余记录重新判断该天是否活跃，没有其他登录时清除该天的位。
+     * 计数在用户锁内进行，并发的新登录要么已计入，要么在之后重新置位
+     */
+    @Override
+    public void recomputeDay(Long userId, LocalDate day) {
+        long epochDay = day.toEpochDay();
+        LocalDateTime startOfDay = day.atStartOfDay();
+        indexLock.readLock().lock();
+        try {
+            ActivityBitmap bitmap = userBitmaps.computeIfAbsent(userId, id -> ActivityBitmap.forDay(epochDay));
+            synchronized (bitmap) {
+                if (loginRecordRepository.countAllByUserIdAndTimeRange(userId, startOfDay,
+                        startOfDay.plusDays(1)) > 0) {
+                    return;
+                }
+                journal(new ActivityChange(userId, epochDay, false));
+                if (!bitmap.clear(epochDay)) {
+                    return;
+                }
+                persist(userId, bitmap);
+            }
+            BitSet population = dailyPopulation.get(epochDay);
+            if (population != null && userId <= Integer.MAX_VALUE) {
+                synchronized (population) {
+                    population.clear(userId.intValue());
+                }
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isActiveOn(Long userId, LocalDate day) {
+        ActivityBitmap bitmap = userBitmaps.get(userId);
+        if (bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            return bitmap.get(day.toEpochDay());
+        }
+    }
+
+    @Override
+    public int getCurrentStreak(Long userId, LocalDate today) {
+        ActivityBitmap bitmap = userBitmaps.get(userId);
+        if (bitmap == null) {
+            return 0;
+        }
+        synchronized (bitmap) {
+            return bitmap.streakEndingAt(today.toEpochDay());
+        }
+    }
+
+    @Override
+    public long countActiveUsers(LocalDate day) {
+        return countActiveUsersBetween(day, day);
+    }
+
+    @Override
+    public long countActiveUsersBetween(LocalDate startDate, LocalDate endDate) {
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        if (start > end) {
+            throw new RuntimeException("开始日期不能晚于结束日期");
+        }
+        if (start >= populationStartDay()) {
+            BitSet union = new BitSet();
+            for (long day = start; day <= end; day++) {
+                BitSet population = dailyPopulation.get(day);
+                if (population != null) {
+                    synchronized (population) {
+                        union.or(population);
+                    }
+                }
+            }
+            return union.cardinality();
+        }
+        // 超出按天集合保留范围时，逐个用户做区间位运算
+        long count = 0;
+        for (ActivityBitmap bitmap : userBitmaps.values()) {
+            synchronized (bitmap) {
+                if (bitmap.anyBetween(start, end)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getActivitySummary() {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> summary = new HashMap<>();
+        summary.put("dailyActiveUsers", countActiveUsers(today));
+        summary.put("weeklyActiveUsers", countActiveUsersBetween(today.minusDays(6), today));
+        summary.put("monthlyActiveUsers", countActiveUsersBetween(today.minusDays(29), today));
+        return summary;
+    }
+
+    @Override
+    public synchronized void rebuildFromLoginRecords() {
+        Queue<ActivityChange> journal = new ConcurrentLinkedQueue<>();
+        // 先开始记日志再读取登录记录，读取快照之后的变更都会在换入前重放
+        indexLock.writeLock().lock();
+        try {
+            rebuildJournal = journal;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        try {
+            ConcurrentHashMap<Long, ActivityBitmap> bitmaps = readLoginDays();
+            saveAll(bitmaps);
+
+            indexLock.writeLock().lock();
+            try {
+                Set<Long> changedUsers = new HashSet<>();
+                for (ActivityChange change : journal) {
+                    long epochDay = change.epochDay();
+                    if (change.active()) {
+                        bitmaps.computeIfAbsent(change.userId(), id -> ActivityBitmap.forDay(epochDay)).set(epochDay);
+                    } else if (bitmaps.containsKey(change.userId())) {
+                        bitmaps.get(change.userId()).clear(epochDay);
+                    } else {
+                        continue;
+                    }
+                    changedUsers.add(change.userId());
+                }
+                // 重建保存的行可能覆盖了这些用户在重建期间写入的位图
+                for (Long userId : changedUsers) {
+                    persist(userId, bitmaps.get(userId));
+                }
+                userBitmaps = bitmaps;
+                dailyPopulation = buildPopulation(bitmaps);
+                logger.info("登录活跃位图重建完成，共 {} 个用户，重放重建期间的 {} 个用户的变更",
+                        bitmaps.size(), changedUsers.size());
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        } finally {
+            rebuildJournal = null;
+        }
+    }
+
+    private ConcurrentHashMap<Long, ActivityBitmap> readLoginDays() {
+        ConcurrentHashMap<Long, ActivityBitmap> bitmaps = new ConcurrentHashMap<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            // 全表流式读取的耗时随数据量增长，不受连接池的语句超时限制
+            StatementTimeout.unlimited(jdbcTemplate, () -> {
+                try (Stream<Object[]> rows = loginRecordRepository.streamLoginDays()) {
+                    rows.forEach(row -> {
+                        Long userId = ((Number) row[0]).longValue();
+                        long epochDay = toLocalDate(row[1]).toEpochDay();
+                        bitmaps.computeIfAbsent(userId, id -> ActivityBitmap.forDay(epochDay)).set(epochDay);
+                    });
+                }
+            });
+        });
+        return bitmaps;
+    }
+
+    private void saveAll(Map<Long, ActivityBitmap> bitmaps) {
+        loginActivityRepository.deleteAllInBatch();
+        List<LoginActivity> batch = new ArrayList<>(REBUILD_SAVE_BATCH);
+        for (Map.Entry<Long, ActivityBitmap> entry : bitmaps.entrySet()) {
+            batch.add(toEntity(entry.getKey(), entry.getValue()));
+            if (batch.size() == REBUILD_SAVE_BATCH) {
+                loginActivityRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            loginActivityRepository.saveAll(batch);
+        }
+    }
+
+    private void journal(ActivityChange change) {
+        Queue<ActivityChange> journal = rebuildJournal;
+        if (journal != null) {
+            journal.add(change);
+        }
+    }
+
+    private void persist(Long userId, ActivityBitmap bitmap) {
+        try {
+            loginActivityRepository.save(toEntity(userId, bitmap));
+        } catch (Exception e) {
+            // 内存索引已更新，持久化失败只影响重启后的恢复，可通过重建修复
+            logger.error("保存用户 {} 的登录活跃位图失败", userId, e);
+        }
+    }
+
+    private LoginActivity toEntity(Long userId, ActivityBitmap bitmap) {
+        LoginActivity activity = new LoginActivity();
+        activity.setUserId(userId);
+        activity.setOriginWord(bitmap.getOriginWord());
+        activity.setBits(bitmap.toBytes());
+        activity.setUpdatedAt(LocalDateTime.now());
+        return activity;
+    }
+
+    private long populationStartDay() {
+        return LocalDate.now().toEpochDay() - populationDays + 1;
+    }
+
+    private BitSet populationFor(long epochDay) {
+        long startDay = populationStartDay();
+        if (epochDay < startDay) {
+            return null;
+        }
+        BitSet population = dailyPopulation.get(epochDay);
+        if (population == null) {
+            // 新的一天开始时顺带清理超出保留范围的集合
+            dailyPopulation.keySet().removeIf(existing -> existing < startDay);
+            population = dailyPopulation.computeIfAbsent(epochDay, day -> new BitSet());
+        }
+        return population;
+    }
+
+    private ConcurrentHashMap<Long, BitSet> buildPopulation(Map<Long, ActivityBitmap> bitmaps) {
+        ConcurrentHashMap<Long, BitSet> population = new ConcurrentHashMap<>();
+        long startDay = populationStartDay();
+        long today = LocalDate.now().toEpochDay();
+        for (Map.Entry<Long, ActivityBitmap> entry : bitmaps.entrySet()) {
+            if (entry.getKey() > Integer.MAX_VALUE) {
+                continue;
+            }
+            int userIndex = entry.getKey().intValue();
+            ActivityBitmap bitmap = entry.getValue();
+            for (long day = startDay; day <= today; day++) {
+                if (bitmap.get(day)) {
+                    population.computeIfAbsent(day, d -> new BitSet()).set(userIndex);
+                }
+            }
+        }
+        return population;
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        return ((Date) value).toLocalDate();
+    }
+
+    private record ActivityChange(Long userId, long epochDay, boolean active) {
+    }
+}
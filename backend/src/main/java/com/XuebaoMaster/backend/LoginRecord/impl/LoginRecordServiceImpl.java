@@ -1,9 +1,12 @@
 package com.XuebaoMaster.backend.LoginRecord.impl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import com.XuebaoMaster.backend.LoginRecord.LoginActivityService;
 import com.XuebaoMaster.backend.LoginRecord.LoginRecord;
 import com.XuebaoMaster.backend.LoginRecord.LoginRecordRepository;
 import com.XuebaoMaster.backend.LoginRecord.LoginRecordService;
+import com.XuebaoMaster.backend.LoginRecord.dto.LoginRecordView;
 import com.XuebaoMaster.backend.User.User;
 import com.XuebaoMaster.backend.User.UserRepository;
 import java.time.LocalDateTime;
@@ -16,12 +19,16 @@ public class LoginRecordServiceImpl implements LoginRecordService {
     private LoginRecordRepository loginRecordRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private LoginActivityService loginActivityService;
     @Override
     public LoginRecord createLoginRecord(LoginRecord loginRecord) {
         if (loginRecord.getTime() == null) {
             loginRecord.setTime(LocalDateTime.now());
         }
-        return loginRecordRepository.save(loginRecord);
+        LoginRecord saved = loginRecordRepository.save(loginRecord);
+        loginActivityService.recordLogin(saved.getUser().getId(), saved.getTime().toLocalDate());
+        return saved;
     }
     @Override
     public LoginRecord createLoginRecord(Long userId) {
@@ -30,15 +37,21 @@ public class LoginRecordServiceImpl implements LoginRecordService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         loginRecord.setUser(user);
-        return loginRecordRepository.save(loginRecord);
+        LoginRecord saved = loginRecordRepository.save(loginRecord);
+        loginActivityService.recordLogin(userId, saved.getTime().toLocalDate());
+        return saved;
     }
     @Override
     public void deleteLoginRecord(Long id) {
-        loginRecordRepository.deleteById(id);
+        loginRecordRepository.findWithUserById(id).ifPresent(loginRecord -> {
+            loginRecordRepository.delete(loginRecord);
+            // 当天没有其他登录时清除活跃位
+            loginActivityService.recomputeDay(loginRecord.getUser().getId(), loginRecord.getTime().toLocalDate());
+        });
     }
     @Override
     public LoginRecord getLoginRecordById(Long id) {
-        return loginRecordRepository.findById(id)
+        return loginRecordRepository.findWithUserById(id)
                 .orElseThrow(() -> new RuntimeException("Login record not found"));
     }
     @Override
@@ -58,14 +71,38 @@ public class LoginRecordServiceImpl implements LoginRecordService {
         return loginRecordRepository.findAll();
     }
     @Override
+    public List<LoginRecordView> getAllLoginRecordViews() {
+        return loginRecordRepository.findAllViews();
+    }
+    @Override
+    public List<LoginRecordView> getLoginRecordViewsByUserId(Long userId) {
+        return loginRecordRepository.findViewsByUserId(userId);
+    }
+    @Override
+    public List<LoginRecordView> getLoginRecordViewsByTimeBetween(LocalDateTime startTime, LocalDateTime endTime) {
+        return loginRecordRepository.findViewsByTimeBetween(startTime, endTime);
+    }
+    @Override
+    public List<LoginRecordView> getLoginRecordViewsByUserIdAndTimeBetween(Long userId, LocalDateTime startTime, LocalDateTime endTime) {
+        return loginRecordRepository.findViewsByUserIdAndTimeBetween(userId, startTime, endTime);
+    }
+    @Override
+    public List<LoginRecordView> getRecentLoginRecordViews(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        return loginRecordRepository.findRecentViews(PageRequest.of(0, count));
+    }
+    @Override
     public Map<String, Long> getLoginStatistics(Long userId) {
         Map<String, Long> statistics = new HashMap<>();
         Long totalLogins = loginRecordRepository.countByUserId(userId);
         LocalDateTime startOfToday = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
         LocalDateTime endOfToday = startOfToday.plusDays(1).minusNanos(1);
-        List<LoginRecord> todayLogins = loginRecordRepository.findByUserIdAndTimeBetween(userId, startOfToday, endOfToday);
+        Long todayLogins = loginRecordRepository.countByUserIdAndTimeBetween(userId, startOfToday, endOfToday);
         statistics.put("totalLogins", totalLogins);
-        statistics.put("todayLogins", (long) todayLogins.size());
+        statistics.put("todayLogins", todayLogins);
+        statistics.put("currentStreak", (long) loginActivityService.getCurrentStreak(userId, startOfToday.toLocalDate()));
         return statistics;
     }
     @Override
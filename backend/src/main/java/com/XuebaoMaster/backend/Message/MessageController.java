@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.XuebaoMaster.backend.Notification.NotificationInboxService;
+import com.XuebaoMaster.backend.Notification.dto.InboxEntryView;
 import com.XuebaoMaster.backend.User.User;
 import com.XuebaoMaster.backend.User.UserService;
 import com.XuebaoMaster.backend.util.JwtUtil;
@@ -19,6 +21,9 @@ public class MessageController {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private NotificationInboxService notificationInboxService;
+
     @Autowired
     private UserService userService;
 
@@ -89,19 +94,66 @@ public class MessageController {
     // Get count of unread messages for current user
     @GetMapping("/count")
     public ResponseEntity<Map<String, Object>> getMessageCount(@RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        String username = jwtUtil.extractUsername(token);
-        User user = userService.getUserByUsername(username);
+        User user = resolveUser(authHeader);
 
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Message> messages = messageService.getMessagesForUser(user);
+        // 单行读取未读计数
+        Map<String, Long> counts = notificationInboxService.getUnreadCounts(user.getId());
 
         Map<String, Object> response = new HashMap<>();
-        response.put("count", messages.size());
+        response.put("count", counts.get("unreadMessages"));
+        response.put("unreadPrivateMessages", counts.get("unreadPrivateMessages"));
 
         return ResponseEntity.ok(response);
     }
+
+    // Get materialized inbox with read state for current user
+    @GetMapping("/inbox")
+    public ResponseEntity<List<InboxEntryView>> getInbox(@RequestHeader("Authorization") String authHeader) {
+        User user = resolveUser(authHeader);
+
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(notificationInboxService.getInbox(user.getId()));
+    }
+
+    // Mark a message as read for current user
+    @PutMapping("/{id}/read")
+    public ResponseEntity<Map<String, Object>> markAsRead(@PathVariable Long id,
+            @RequestHeader("Authorization") String authHeader) {
+        User user = resolveUser(authHeader);
+
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", notificationInboxService.markMessageRead(user.getId(), id));
+        return ResponseEntity.ok(response);
+    }
+
+    // Mark all messages as read for current user
+    @PutMapping("/read-all")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@RequestHeader("Authorization") String authHeader) {
+        User user = resolveUser(authHeader);
+
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", notificationInboxService.markAllMessagesRead(user.getId()));
+        return ResponseEntity.ok(response);
+    }
+
+    private User resolveUser(String authHeader) {
+        String token = authHeader.substring(7); // Remove "Bearer " prefix
+        String username = jwtUtil.extractUsername(token);
+        return userService.getUserByUsername(username);
+    }
 }
\ No newline at end of file
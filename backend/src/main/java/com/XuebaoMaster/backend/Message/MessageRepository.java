@@ -16,25 +16,31 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
         @Query("SELECT m FROM Message m WHERE m.active = true AND (m.expiresAt IS NULL OR m.expiresAt > :currentTime) ORDER BY m.createdAt DESC")
         List<Message> findActiveMessages(@Param("currentTime") LocalDateTime currentTime);
 
-        // Find messages for a specific user based on role and specific targeting
-        @Query("SELECT m FROM Message m WHERE m.active = true AND " +
-                        "(m.expiresAt IS NULL OR m.expiresAt > :currentTime) AND " +
-                        "(m.targetType = :targetType OR m.targetType = 'ALL' OR " +
-                        "(m.targetType = 'SPECIFIC' AND m.targetIds LIKE CONCAT('%', :userId, '%'))) " +
-                        "ORDER BY m.createdAt DESC")
+        // Messages visible to a user, resolved through the message_targets index in
+        // one query. Pass -1 for classId/studentId when class and course targeting
+        // does not apply to the user.
+        String USER_TARGET_FILTER = "m.active = true AND " +
+                        "(m.expiresAt IS NULL OR m.expiresAt > :currentTime) AND EXISTS (" +
+                        "SELECT t.id FROM MessageTarget t WHERE t.messageId = m.id AND (" +
+                        "t.targetType = 'ALL' OR t.targetType = :roleType OR " +
+                        "(t.targetType = 'SPECIFIC' AND t.targetId = :userId) OR " +
+                        "(t.targetType = 'CLASS' AND t.targetId = :classId) OR " +
+                        "(t.targetType = 'COURSE' AND t.targetId IN " +
+                        "(SELECT sc.courseId FROM StudentCourse sc WHERE sc.studentId = :studentId))))";
+
+        @Query("SELECT m FROM Message m WHERE " + USER_TARGET_FILTER + " ORDER BY m.createdAt DESC")
         List<Message> findMessagesForUser(@Param("currentTime") LocalDateTime currentTime,
-                        @Param("targetType") Message.MessageTargetType targetType,
-                        @Param("userId") String userId);
-
-        // Find active messages for a specific target type and target ID (for CLASS or
-        // COURSE)
-        @Query("SELECT m FROM Message m WHERE m.active = true AND " +
-                        "(m.expiresAt IS NULL OR m.expiresAt > :currentTime) AND " +
-                        "m.targetType = :targetType AND m.targetIds LIKE CONCAT('%', :targetId, '%') " +
-                        "ORDER BY m.createdAt DESC")
-        List<Message> findActiveMessagesByTargetType(@Param("currentTime") LocalDateTime currentTime,
-                        @Param("targetType") Message.MessageTargetType targetType,
-                        @Param("targetId") String targetId);
+                        @Param("roleType") Message.MessageTargetType roleType,
+                        @Param("userId") Long userId,
+                        @Param("classId") Long classId,
+                        @Param("studentId") Long studentId);
+
+        @Query("SELECT COUNT(m) FROM Message m WHERE " + USER_TARGET_FILTER)
+        long countMessagesForUser(@Param("currentTime") LocalDateTime currentTime,
+                        @Param("roleType") Message.MessageTargetType roleType,
+                        @Param("userId") Long userId,
+                        @Param("classId") Long classId,
+                        @Param("studentId") Long studentId);
 
         // Search messages by title or content
         List<Message> findByTitleContainingOrContentContainingOrderByCreatedAtDesc(String title, String content);
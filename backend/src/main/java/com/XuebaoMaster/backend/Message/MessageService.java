@@ -1,32 +1,84 @@
 package com.XuebaoMaster.backend.Message;
 
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+import com.XuebaoMaster.backend.Notification.MessageCreatedEvent;
+import com.XuebaoMaster.backend.Notification.NotificationInboxService;
 import com.XuebaoMaster.backend.User.User;
-import com.XuebaoMaster.backend.SchoolClass.SchoolClassService;
-import com.XuebaoMaster.backend.StudentCourse.StudentCourseService;
 
 @Service
 public class MessageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
+
+    // 不适用班级/课程匹配时的占位ID
+    private static final Long NO_TARGET_ID = -1L;
+
     @Autowired
     private MessageRepository messageRepository;
 
     @Autowired
-    private SchoolClassService schoolClassService;
+    private MessageTargetRepository messageTargetRepository;
+
+    @Autowired
+    private NotificationInboxService notificationInboxService;
 
     @Autowired
-    private StudentCourseService studentCourseService;
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 为索引表上线前创建的消息补齐投递目标
+     */
+    @PostConstruct
+    public void backfillMessageTargets() {
+        List<Message> messages = messageTargetRepository.findMessagesWithoutTargets();
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<MessageTarget> targets = new ArrayList<>();
+        for (Message message : messages) {
+            targets.addAll(buildTargets(message));
+        }
+        messageTargetRepository.saveAll(targets);
+        logger.info("为 {} 条消息补齐投递目标 {} 条", messages.size(), targets.size());
+    }
 
     // Create a new message
+    @Transactional
     public Message createMessage(Message message) {
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        messageTargetRepository.saveAll(buildTargets(saved));
+        // 提交后异步写入接收人收件箱
+        eventPublisher.publishEvent(new MessageCreatedEvent(saved.getId()));
+        return saved;
+    }
+
+    // Create several messages in one transaction, used by batched notification consumers
+    @Transactional
+    public List<Message> createMessages(List<Message> messages) {
+        List<Message> saved = messageRepository.saveAll(messages);
+        List<MessageTarget> targets = new ArrayList<>();
+        for (Message message : saved) {
+            targets.addAll(buildTargets(message));
+        }
+        messageTargetRepository.saveAll(targets);
+        for (Message message : saved) {
+            eventPublisher.publishEvent(new MessageCreatedEvent(message.getId()));
+        }
+        return saved;
     }
 
     // Get all messages (for admin)
@@ -40,16 +92,26 @@ public class MessageService {
     }
 
     // Update message
+    @Transactional
     public Message updateMessage(Message message) {
         // Check if message exists
         if (message.getId() != null && messageRepository.existsById(message.getId())) {
-            return messageRepository.save(message);
+            Message saved = messageRepository.save(message);
+            // 投递范围可能变化，整体替换目标行
+            messageTargetRepository.deleteByMessageId(saved.getId());
+            messageTargetRepository.saveAll(buildTargets(saved));
+            // 只补发给新增的接收人，已有条目保留已读状态
+            eventPublisher.publishEvent(new MessageCreatedEvent(saved.getId()));
+            return saved;
         }
         throw new RuntimeException("Message not found with id: " + message.getId());
     }
 
     // Delete message
+    @Transactional
     public void deleteMessage(Long id) {
+        notificationInboxService.removeMessage(id);
+        messageTargetRepository.deleteByMessageId(id);
         messageRepository.deleteById(id);
     }
 
@@ -60,66 +122,106 @@ public class MessageService {
 
     // Get messages for a specific user based on their role
     public List<Message> getMessagesForUser(User user) {
-        LocalDateTime now = LocalDateTime.now();
-        Message.MessageTargetType targetType;
+        TargetQuery query = targetQueryFor(user);
+        return messageRepository.findMessagesForUser(LocalDateTime.now(), query.roleType(), user.getId(),
+                query.classId(), query.studentId());
+    }
+
+    // Count messages visible to a user without loading them
+    public long countMessagesForUser(User user) {
+        TargetQuery query = targetQueryFor(user);
+        return messageRepository.countMessagesForUser(LocalDateTime.now(), query.roleType(), user.getId(),
+                query.classId(), query.studentId());
+    }
+
+    // Get active messages (not expired and active flag is true)
+    public List<Message> getActiveMessages() {
+        return messageRepository.findActiveMessages(LocalDateTime.now());
+    }
+
+    // Toggle message active status
+    public Message toggleMessageStatus(Long id) {
+        Optional<Message> messageOpt = messageRepository.findById(id);
+        if (messageOpt.isPresent()) {
+            Message message = messageOpt.get();
+            message.setActive(!message.isActive());
+            return messageRepository.save(message);
+        }
+        throw new RuntimeException("Message not found with id: " + id);
+    }
+
+    private TargetQuery targetQueryFor(User user) {
+        Message.MessageTargetType roleType;
 
         // Determine target type based on user role
         switch (user.getUserRole()) {
             case ADMIN:
-                targetType = Message.MessageTargetType.ADMINS;
+                roleType = Message.MessageTargetType.ADMINS;
                 break;
             case TEACHER:
-                targetType = Message.MessageTargetType.TEACHERS;
+                roleType = Message.MessageTargetType.TEACHERS;
                 break;
             case STUDENT:
-                targetType = Message.MessageTargetType.STUDENTS;
+                roleType = Message.MessageTargetType.STUDENTS;
                 break;
             default:
-                targetType = Message.MessageTargetType.ALL;
+                roleType = Message.MessageTargetType.ALL;
                 break;
         }
 
-        List<Message> userMessages = messageRepository.findMessagesForUser(now, targetType, user.getId().toString());
-
-        // 如果用户是学生，查找他们所属班级的消息
+        // 班级和课程消息只投递给学生
+        Long classId = NO_TARGET_ID;
+        Long studentId = NO_TARGET_ID;
         if (user.getUserRole() == User.UserRoleType.STUDENT) {
-            // 获取班级消息
+            studentId = user.getId();
             if (user.getSchoolClass() != null) {
-                String classId = user.getSchoolClass().getId().toString();
-                List<Message> classMessages = messageRepository.findActiveMessagesByTargetType(
-                        now, Message.MessageTargetType.CLASS, classId);
-                userMessages.addAll(classMessages);
-            }
-
-            // 获取课程消息
-            List<Long> userCourseIds = studentCourseService.getStudentCourses(user.getId())
-                    .stream()
-                    .map(sc -> sc.getCourseId())
-                    .collect(Collectors.toList());
-
-            for (Long courseId : userCourseIds) {
-                List<Message> courseMessages = messageRepository.findActiveMessagesByTargetType(
-                        now, Message.MessageTargetType.COURSE, courseId.toString());
-                userMessages.addAll(courseMessages);
+                classId = user.getSchoolClass().getId();
             }
         }
-
-        return userMessages;
+        return new TargetQuery(roleType, classId, studentId);
     }
 
-    // Get active messages (not expired and active flag is true)
-    public List<Message> getActiveMessages() {
-        return messageRepository.findActiveMessages(LocalDateTime.now());
+    /**
+     * 将 targetType + 逗号分隔的 targetIds 拆分为索引行
+     * 广播类消息(全体/按角色)只生成一行，targetId 为 0
+     */
+    private List<MessageTarget> buildTargets(Message message) {
+        List<MessageTarget> targets = new ArrayList<>();
+        Message.MessageTargetType targetType = message.getTargetType();
+        switch (targetType) {
+            case CLASS:
+            case COURSE:
+            case SPECIFIC:
+                for (Long targetId : parseTargetIds(message.getTargetIds())) {
+                    targets.add(new MessageTarget(message.getId(), targetType, targetId));
+                }
+                break;
+            default:
+                targets.add(new MessageTarget(message.getId(), targetType, 0L));
+                break;
+        }
+        return targets;
     }
 
-    // Toggle message active status
-    public Message toggleMessageStatus(Long id) {
-        Optional<Message> messageOpt = messageRepository.findById(id);
-        if (messageOpt.isPresent()) {
-            Message message = messageOpt.get();
-            message.setActive(!message.isActive());
-            return messageRepository.save(message);
+    private Set<Long> parseTargetIds(String targetIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (targetIds == null || targetIds.isBlank()) {
+            return ids;
         }
-        throw new RuntimeException("Message not found with id: " + id);
+        for (String part : targetIds.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                ids.add(Long.parseLong(trimmed));
+            } catch (NumberFormatException e) {
+                logger.warn("忽略无效的消息目标ID: {}", trimmed);
+            }
+        }
+        return ids;
+    }
+
+    private record TargetQuery(Message.MessageTargetType roleType, Long classId, Long studentId) {
     }
-}
\ No newline at end of file
+}
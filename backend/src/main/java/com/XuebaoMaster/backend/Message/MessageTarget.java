@@ -0,0 +1,41 @@
+package com.XuebaoMaster.backend.Message;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * 消息投递目标索引，每条消息按 targetType + targetIds 拆分为多行
+ * 面向角色或全体的消息 targetId 固定为 0
+ */
+@Entity
+@Table(name = "message_targets", indexes = {
+        @Index(name = "idx_message_targets_type_target", columnList = "target_type, target_id, message_id"),
+        @Index(name = "idx_message_targets_message", columnList = "message_id")
+})
+@Data
+public class MessageTarget {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "message_targets_id")
+    @TableGenerator(name = "message_targets_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "message_targets", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private Message.MessageTargetType targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    public MessageTarget() {
+    }
+
+    public MessageTarget(Long messageId, Message.MessageTargetType targetType, Long targetId) {
+        this.messageId = messageId;
+        this.targetType = targetType;
+        this.targetId = targetId;
+    }
+}
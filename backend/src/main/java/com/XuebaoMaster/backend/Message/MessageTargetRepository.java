@@ -0,0 +1,22 @@
+package com.XuebaoMaster.backend.Message;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MessageTargetRepository extends JpaRepository<MessageTarget, Long> {
+
+        List<MessageTarget> findByMessageId(Long messageId);
+
+        @Modifying
+        @Query("DELETE FROM MessageTarget t WHERE t.messageId = :messageId")
+        int deleteByMessageId(@Param("messageId") Long messageId);
+
+        // Messages created before the target index existed
+        @Query("SELECT m FROM Message m WHERE NOT EXISTS " +
+                        "(SELECT t.id FROM MessageTarget t WHERE t.messageId = m.id)")
+        List<Message> findMessagesWithoutTargets();
+}
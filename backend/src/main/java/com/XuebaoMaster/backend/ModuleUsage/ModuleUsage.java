@@ -6,11 +6,17 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "module_usage")
+@Table(name = "module_usage", indexes = {
+        @Index(name = "idx_module_usage_role_time", columnList = "user_role, access_time, module_type"),
+        @Index(name = "idx_module_usage_user_time", columnList = "user_id, access_time"),
+        @Index(name = "idx_module_usage_access_time", columnList = "access_time")
+})
 @Data
 public class ModuleUsage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "module_usage_id")
+    @TableGenerator(name = "module_usage_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "module_usage", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -3,12 +3,15 @@ package com.XuebaoMaster.backend.ModuleUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.XuebaoMaster.backend.User.User;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,10 +22,13 @@ public class ModuleUsageController {
     private static final Logger logger = LoggerFactory.getLogger(ModuleUsageController.class);
 
     private final ModuleUsageService moduleUsageService;
+    private final ModuleUsageRollupService moduleUsageRollupService;
 
     @Autowired
-    public ModuleUsageController(ModuleUsageService moduleUsageService) {
+    public ModuleUsageController(ModuleUsageService moduleUsageService,
+            ModuleUsageRollupService moduleUsageRollupService) {
         this.moduleUsageService = moduleUsageService;
+        this.moduleUsageRollupService = moduleUsageRollupService;
         logger.info("ModuleUsageController 初始化成功");
     }
 
@@ -62,6 +68,28 @@ public class ModuleUsageController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/range")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<Map<String, Long>> getRangeStats(
+            @RequestParam User.UserRoleType role,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        logger.info("请求获取角色 [{}] 在 {} ~ {} 的统计", role, startDate, endDate);
+        return ResponseEntity.ok(moduleUsageService.getUsageStats(role, startDate, endDate));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, String>> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        logger.info("请求重建 {} ~ {} 的模块使用汇总", startDate, endDate);
+        moduleUsageRollupService.rebuildRollups(startDate, endDate);
+        Map<String, String> result = new HashMap<>();
+        result.put("message", "模块使用汇总已重建");
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/summary")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     public ResponseEntity<Map<String, Object>> getAllStats() {
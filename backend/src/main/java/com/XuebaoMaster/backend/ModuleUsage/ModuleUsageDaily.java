@@ -0,0 +1,35 @@
+package com.XuebaoMaster.backend.ModuleUsage;
+
+import com.XuebaoMaster.backend.User.User;
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * 模块使用按(日期, 角色, 模块)汇总的计数
+ * 原始事件到达时累加，统计接口直接读取此表
+ */
+@Entity
+@Table(name = "module_usage_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_module_usage_daily", columnNames = { "usage_date", "user_role", "module_type" })
+})
+@Data
+public class ModuleUsageDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(name = "user_role", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private User.UserRoleType userRole;
+
+    @Column(name = "module_type", nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private ModuleUsage.ModuleType moduleType;
+
+    @Column(name = "usage_count", nullable = false)
+    private Long usageCount = 0L;
+}
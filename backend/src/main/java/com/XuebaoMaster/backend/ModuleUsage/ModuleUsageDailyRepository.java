@@ -0,0 +1,55 @@
+package com.XuebaoMaster.backend.ModuleUsage;
+
+import com.XuebaoMaster.backend.User.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ModuleUsageDailyRepository extends JpaRepository<ModuleUsageDaily, Long> {
+
+    // Add a delta to the (day, role, module) counter, creating the row if needed
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "module_usage_daily"))
+    @Transactional
+    @Query(value = "INSERT INTO module_usage_daily (usage_date, user_role, module_type, usage_count) " +
+            "VALUES (:usageDate, :userRole, :moduleType, :delta) " +
+            "ON DUPLICATE KEY UPDATE usage_count = usage_count + :delta", nativeQuery = true)
+    int addUsageCount(@Param("usageDate") LocalDate usageDate,
+            @Param("userRole") String userRole,
+            @Param("moduleType") String moduleType,
+            @Param("delta") long delta);
+
+    // Sum counters by module type for a role over an inclusive date range
+    @Query("SELECT d.moduleType, SUM(d.usageCount) FROM ModuleUsageDaily d " +
+            "WHERE d.userRole = :userRole AND d.usageDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY d.moduleType")
+    List<Object[]> sumUsageByRoleBetween(@Param("userRole") User.UserRoleType userRole,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Rebuild counters from the raw module_usage rows, hot and archived, for an inclusive date range
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "module_usage_daily"))
+    @Transactional
+    @Query(value = "DELETE FROM module_usage_daily WHERE usage_date BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int deleteByUsageDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "module_usage_daily"))
+    @Transactional
+    @Query(value = "INSERT INTO module_usage_daily (usage_date, user_role, module_type, usage_count) " +
+            "SELECT DATE(m.access_time), m.user_role, m.module_type, COUNT(*) FROM module_usage_all m " +
+            "WHERE m.access_time >= :startTime AND m.access_time < :endTime " +
+            "GROUP BY DATE(m.access_time), m.user_role, m.module_type", nativeQuery = true)
+    int insertFromRawUsage(@Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+}
@@ -23,4 +23,8 @@ public interface ModuleUsageRepository extends JpaRepository<ModuleUsage, Long>
 
     // Find all usages by user for a time range
     List<ModuleUsage> findByUserAndAccessTimeBetween(User user, LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+
+    // Earliest raw event still kept in the hot or archive table, used when rebuilding the daily rollups
+    @Query(value = "SELECT MIN(m.access_time) FROM module_usage_all m", nativeQuery = true)
+    LocalDateTime findEarliestAccessTime();
+}
@@ -0,0 +1,22 @@
+package com.XuebaoMaster.backend.ModuleUsage;
+
+import com.XuebaoMaster.backend.User.User;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface ModuleUsageRollupService {
+
+    // Save one raw usage event and fold it into the in-memory (day, role, module) counters;
+    // a concurrent rebuild sees either both or neither
+    ModuleUsage saveAndRecordUsage(ModuleUsage usage);
+
+    // Usage counts by module type for a role over an inclusive date range
+    Map<String, Long> getUsageStats(User.UserRoleType role, LocalDate startDate, LocalDate endDate);
+
+    // Persist pending in-memory counters to the rollup table
+    void flushPendingCounts();
+
+    // Rebuild rollups for a date range from the raw events, hot and archived
+    void rebuildRollups(LocalDate startDate, LocalDate endDate);
+}
@@ -2,6 +2,7 @@ package com.XuebaoMaster.backend.ModuleUsage;
 
 import com.XuebaoMaster.backend.User.User;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 public interface ModuleUsageService {
@@ -20,4 +21,7 @@ public interface ModuleUsageService {
 
     // Get module usage statistics for students for the current week
     Map<String, Long> getStudentWeekUsageStats();
-}
\ No newline at end of file
+
+    // Get module usage statistics for a role over an inclusive date range
+    Map<String, Long> getUsageStats(User.UserRoleType role, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,27 @@
+package com.XuebaoMaster.backend.ModuleUsage.config;
+
+import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 模块使用汇总定时任务配置
+ * 定期写入内存计数器；超过保留期的原始记录由 DataArchiveService 移入归档表
+ */
+@Configuration
+@EnableScheduling
+public class ModuleUsageRollupSchedulerConfig {
+
+    @Autowired
+    private ModuleUsageRollupService moduleUsageRollupService;
+
+    /**
+     * 定期把内存中的增量写入汇总表
+     */
+    @Scheduled(fixedDelayString = "${module-usage.rollup.flush-interval-ms:10000}")
+    public void scheduleRollupFlush() {
+        moduleUsageRollupService.flushPendingCounts();
+    }
+}
@@ -0,0 +1,181 @@
+package com.XuebaoMaster.backend.ModuleUsage.impl;
+
+import com.XuebaoMaster.backend.ModuleUsage.ModuleUsage;
+import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageDailyRepository;
+import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageRepository;
+import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageRollupService;
+import com.XuebaoMaster.backend.User.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 模块使用汇总服务
+ * 事件到达时累加到内存中的 LongAdder 计数器，定期合并写入 module_usage_daily，
+ * 统计查询读取汇总表并叠加尚未写入的增量；
+ * 写原始记录和累加计数持有读锁，重建持有写锁，重建读取的原始记录和内存增量不会重叠
+ */
+@Service
+public class ModuleUsageRollupServiceImpl implements ModuleUsageRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModuleUsageRollupServiceImpl.class);
+
+    private final ModuleUsageRepository moduleUsageRepository;
+    private final ModuleUsageDailyRepository moduleUsageDailyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 尚未写入汇总表的增量，LongAdder 内部分段，高并发点击时不会争用同一个计数器
+    private final ConcurrentHashMap<CounterKey, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public ModuleUsageRollupServiceImpl(ModuleUsageRepository moduleUsageRepository,
+            ModuleUsageDailyRepository moduleUsageDailyRepository, PlatformTransactionManager transactionManager) {
+        this.moduleUsageRepository = moduleUsageRepository;
+        this.moduleUsageDailyRepository = moduleUsageDailyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 首次启用汇总表时，用保留的原始记录补齐历史汇总
+     */
+    @PostConstruct
+    public void initializeRollups() {
+        if (moduleUsageDailyRepository.count() > 0) {
+            return;
+        }
+        LocalDateTime earliest = moduleUsageRepository.findEarliestAccessTime();
+        if (earliest == null) {
+            return;
+        }
+        logger.info("模块使用汇总表为空，从原始记录补齐 {} 至今的汇总", earliest.toLocalDate());
+        int rows = moduleUsageDailyRepository.insertFromRawUsage(earliest.toLocalDate().atStartOfDay(),
+                LocalDate.now().plusDays(1).atStartOfDay());
+        logger.info("模块使用汇总补齐完成，共 {} 行", rows);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPendingCounts();
+    }
+
+    @Override
+    public ModuleUsage saveAndRecordUsage(ModuleUsage usage) {
+        rebuildLock.readLock().lock();
+        try {
+            ModuleUsage saved = moduleUsageRepository.save(usage);
+            CounterKey key = new CounterKey(saved.getAccessTime().toLocalDate(), saved.getUserRole(),
+                    saved.getModuleType());
+            pendingCounts.computeIfAbsent(key, k -> new LongAdder()).increment();
+            return saved;
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Long> getUsageStats(User.UserRoleType role, LocalDate startDate, LocalDate endDate) {
+        Map<String, Long> stats = new HashMap<>();
+        for (ModuleUsage.ModuleType moduleType : ModuleUsage.ModuleType.values()) {
+            stats.put(moduleType.name(), 0L);
+        }
+
+        List<Object[]> results = moduleUsageDailyRepository.sumUsageByRoleBetween(role, startDate, endDate);
+        for (Object[] result : results) {
+            ModuleUsage.ModuleType moduleType = (ModuleUsage.ModuleType) result[0];
+            long count = ((Number) result[1]).longValue();
+            stats.merge(moduleType.name(), count, Long::sum);
+        }
+
+        // 叠加尚未写入汇总表的增量
+        pendingCounts.forEach((key, adder) -> {
+            if (key.role() == role && !key.day().isBefore(startDate) && !key.day().isAfter(endDate)) {
+                stats.merge(key.moduleType().name(), adder.sum(), Long::sum);
+            }
+        });
+
+        return stats;
+    }
+
+    @Override
+    public synchronized void flushPendingCounts() {
+        LocalDate today = LocalDate.now();
+        int flushed = 0;
+        for (Map.Entry<CounterKey, LongAdder> entry : pendingCounts.entrySet()) {
+            CounterKey key = entry.getKey();
+            LongAdder adder = entry.getValue();
+
+            long delta = adder.sumThenReset();
+            if (delta == 0) {
+                // 往日的计数器在一个写入周期内没有增长才移除；移除前已取到该计数器的累加再检查一次，移回映射
+                if (key.day().isBefore(today) && pendingCounts.remove(key, adder)) {
+                    long late = adder.sumThenReset();
+                    if (late > 0) {
+                        pendingCounts.computeIfAbsent(key, k -> new LongAdder()).add(late);
+                    }
+                }
+                continue;
+            }
+            try {
+                moduleUsageDailyRepository.addUsageCount(key.day(), key.role().name(), key.moduleType().name(),
+                        delta);
+                flushed++;
+            } catch (Exception e) {
+                logger.error("写入模块使用汇总失败 {}，增量 {} 将在下次重试", key, delta, e);
+                pendingCounts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            }
+        }
+        if (flushed > 0) {
+            logger.debug("模块使用汇总写入 {} 个计数器", flushed);
+        }
+    }
+
+    /**
+     * 持有写锁期间没有写到一半的事件：已写入的原始记录都已计入内存增量，先写入汇总表再整体重算；
+     * 重算在锁内提交，之后的事件只计入内存增量
+     */
+    @Override
+    public void rebuildRollups(LocalDate startDate, LocalDate endDate) {
+        LocalDateTime earliest = moduleUsageRepository.findEarliestAccessTime();
+        if (earliest == null) {
+            throw new RuntimeException("没有可用于重建的原始模块使用记录");
+        }
+        // 引入归档前已清理的日期只保留在汇总表中，不能被重建覆盖
+        LocalDate from = startDate.isBefore(earliest.toLocalDate()) ? earliest.toLocalDate() : startDate;
+        if (from.isAfter(endDate)) {
+            throw new RuntimeException("所选日期范围内的原始记录已被清理");
+        }
+
+        rebuildLock.writeLock().lock();
+        int rows;
+        try {
+            flushPendingCounts();
+            rows = transactionTemplate.execute(status -> {
+                moduleUsageDailyRepository.deleteByUsageDateBetween(from, endDate);
+                return moduleUsageDailyRepository.insertFromRawUsage(from.atStartOfDay(),
+                        endDate.plusDays(1).atStartOfDay());
+            });
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        logger.info("重建模块使用汇总 {} ~ {}，共 {} 行", from, endDate, rows);
+    }
+
+    private record CounterKey(LocalDate day, User.UserRoleType role, ModuleUsage.ModuleType moduleType) {
+    }
+}
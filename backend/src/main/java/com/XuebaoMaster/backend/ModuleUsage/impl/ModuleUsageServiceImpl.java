@@ -2,6 +2,7 @@ package com.XuebaoMaster.backend.ModuleUsage.impl;
 
 import com.XuebaoMaster.backend.ModuleUsage.ModuleUsage;
 import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageRepository;
+import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageRollupService;
 import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageService;
 import com.XuebaoMaster.backend.User.User;
 import org.slf4j.Logger;
@@ -13,8 +14,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.DayOfWeek;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
@@ -23,10 +22,13 @@ public class ModuleUsageServiceImpl implements ModuleUsageService {
     private static final Logger logger = LoggerFactory.getLogger(ModuleUsageServiceImpl.class);
 
     private final ModuleUsageRepository moduleUsageRepository;
+    private final ModuleUsageRollupService moduleUsageRollupService;
 
     @Autowired
-    public ModuleUsageServiceImpl(ModuleUsageRepository moduleUsageRepository) {
+    public ModuleUsageServiceImpl(ModuleUsageRepository moduleUsageRepository,
+            ModuleUsageRollupService moduleUsageRollupService) {
         this.moduleUsageRepository = moduleUsageRepository;
+        this.moduleUsageRollupService = moduleUsageRollupService;
         logger.info("ModuleUsageServiceImpl 初始化成功");
     }
 
@@ -39,7 +41,7 @@ public class ModuleUsageServiceImpl implements ModuleUsageService {
             ModuleUsage usage = new ModuleUsage(user, moduleType);
             logger.info("创建模块使用记录: {}", usage);
 
-            ModuleUsage savedUsage = moduleUsageRepository.save(usage);
+            ModuleUsage savedUsage = moduleUsageRollupService.saveAndRecordUsage(usage);
             logger.info("模块使用记录保存成功，ID: {}", savedUsage.getId());
         } catch (Exception e) {
             logger.error("保存模块使用记录时出错: {}", e.getMessage(), e);
@@ -71,36 +73,20 @@ public class ModuleUsageServiceImpl implements ModuleUsageService {
         return getUsageStatsByRole(User.UserRoleType.STUDENT, getStartOfWeek());
     }
 
-    private Map<String, Long> getUsageStatsByRole(User.UserRoleType role, LocalDateTime startTime) {
-        logger.info("查询角色 [{}] 从 [{}] 开始的使用统计", role, startTime);
-
-        Map<String, Long> stats = new HashMap<>();
-
-        // Initialize with zero counts for all module types
-        for (ModuleUsage.ModuleType moduleType : ModuleUsage.ModuleType.values()) {
-            stats.put(moduleType.name(), 0L);
-        }
-
-        // Get actual counts
-        List<Object[]> results;
-        if (startTime.equals(getStartOfToday())) {
-            logger.info("使用今日查询");
-            results = moduleUsageRepository.countTodayUsageByRole(role, startTime);
-        } else {
-            logger.info("使用本周查询");
-            results = moduleUsageRepository.countWeekUsageByRole(role, startTime);
-        }
-
-        logger.info("查询结果条数: {}", results.size());
-
-        // Process the results
-        for (Object[] result : results) {
-            ModuleUsage.ModuleType moduleType = (ModuleUsage.ModuleType) result[0];
-            Long count = (Long) result[1];
-            stats.put(moduleType.name(), count);
-            logger.info("模块 [{}] 使用次数: {}", moduleType, count);
+    @Override
+    public Map<String, Long> getUsageStats(User.UserRoleType role, LocalDate startDate, LocalDate endDate) {
+        logger.info("获取角色 [{}] 在 {} ~ {} 的使用统计", role, startDate, endDate);
+        if (startDate.isAfter(endDate)) {
+            throw new RuntimeException("开始日期不能晚于结束日期");
         }
+        return moduleUsageRollupService.getUsageStats(role, startDate, endDate);
+    }
 
+    private Map<String, Long> getUsageStatsByRole(User.UserRoleType role, LocalDateTime startTime) {
+        logger.info("查询角色 [{}] 从 [{}] 开始的使用统计", role, startTime);
+        Map<String, Long> stats = moduleUsageRollupService.getUsageStats(role, startTime.toLocalDate(),
+                LocalDate.now());
+        logger.info("角色 [{}] 使用统计: {}", role, stats);
         return stats;
     }
 
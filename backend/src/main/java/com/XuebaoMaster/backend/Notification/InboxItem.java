@@ -0,0 +1,36 @@
+package com.XuebaoMaster.backend.Notification;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 用户收件箱条目，消息创建时按投递目标展开写入
+ */
+@Entity
+@Table(name = "user_inbox", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_inbox_user_message", columnNames = { "user_id", "message_id" })
+}, indexes = {
+        @Index(name = "idx_user_inbox_message", columnList = "message_id")
+})
+@Data
+public class InboxItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read = false;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,69 @@
+package com.XuebaoMaster.backend.Notification;
+
+import com.XuebaoMaster.backend.Notification.dto.InboxEntryView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InboxItemRepository extends JpaRepository<InboxItem, Long> {
+
+    // Whether user u is a recipient of message m according to message_targets
+    String RECIPIENT_MATCH = "EXISTS (" +
+            "SELECT 1 FROM message_targets t WHERE t.message_id = m.id AND (" +
+            "t.target_type = 'ALL' " +
+            "OR (t.target_type = 'ADMINS' AND u.user_role = 'ADMIN') " +
+            "OR (t.target_type = 'TEACHERS' AND u.user_role = 'TEACHER') " +
+            "OR (t.target_type = 'STUDENTS' AND u.user_role = 'STUDENT') " +
+            "OR (t.target_type = 'SPECIFIC' AND t.target_id = u.id) " +
+            "OR (t.target_type = 'CLASS' AND u.user_role = 'STUDENT' AND t.target_id = u.class_id) " +
+            "OR (t.target_type = 'COURSE' AND u.user_role = 'STUDENT' AND EXISTS (" +
+            "SELECT 1 FROM student_courses sc WHERE sc.student_id = u.id AND sc.course_id = t.target_id)))) ";
+
+    // Recipients of a message resolved from message_targets, skipping users that already have the item
+    @Query(value = "SELECT u.id FROM users u JOIN messages m ON m.id = :messageId WHERE " + RECIPIENT_MATCH +
+            "AND NOT EXISTS (SELECT 1 FROM user_inbox i WHERE i.user_id = u.id AND i.message_id = :messageId)",
+            nativeQuery = true)
+    List<Number> findPendingRecipientIds(@Param("messageId") Long messageId);
+
+    // Add active, unexpired messages a user now qualifies for (e.g. after joining a class or course)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_inbox"))
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO user_inbox (user_id, message_id, is_read, created_at) " +
+            "SELECT u.id, m.id, 0, NOW() FROM users u JOIN messages m ON m.active = 1 " +
+            "AND (m.expires_at IS NULL OR m.expires_at > NOW()) WHERE u.id = :userId AND " + RECIPIENT_MATCH,
+            nativeQuery = true)
+    int insertMissingItemsForUser(@Param("userId") Long userId);
+
+    @Query("SELECT new com.XuebaoMaster.backend.Notification.dto.InboxEntryView(" +
+            "m.id, m.title, m.content, m.targetType, m.createdAt, m.expiresAt, i.read, i.readAt) " +
+            "FROM InboxItem i JOIN Message m ON m.id = i.messageId " +
+            "WHERE i.userId = :userId AND m.active = true " +
+            "AND (m.expiresAt IS NULL OR m.expiresAt > :currentTime) " +
+            "ORDER BY m.createdAt DESC")
+    List<InboxEntryView> findInboxViews(@Param("userId") Long userId,
+            @Param("currentTime") LocalDateTime currentTime);
+
+    @Modifying
+    @Query("UPDATE InboxItem i SET i.read = true, i.readAt = :readAt " +
+            "WHERE i.userId = :userId AND i.messageId = :messageId AND i.read = false")
+    int markRead(@Param("userId") Long userId, @Param("messageId") Long messageId,
+            @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("UPDATE InboxItem i SET i.read = true, i.readAt = :readAt " +
+            "WHERE i.userId = :userId AND i.read = false")
+    int markAllRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("DELETE FROM InboxItem i WHERE i.messageId = :messageId")
+    int deleteByMessageId(@Param("messageId") Long messageId);
+}
@@ -0,0 +1,7 @@
+package com.XuebaoMaster.backend.Notification;
+
+/**
+ * 消息创建或投递范围变更后发布，提交后异步展开到收件箱
+ */
+public record MessageCreatedEvent(Long messageId) {
+}
@@ -0,0 +1,17 @@
+package com.XuebaoMaster.backend.Notification;
+
+import java.util.function.Consumer;
+
+/**
+ * 通知发布/订阅通道
+ * 默认实现只在本进程内分发；多节点部署时替换为基于消息中间件的实现，
+ * 每个节点订阅后只向本节点上的连接投递
+ */
+public interface NotificationBroker {
+
+    // Publish an event to every subscriber on every node
+    void publish(NotificationEvent event);
+
+    // Register a local subscriber
+    void subscribe(Consumer<NotificationEvent> subscriber);
+}
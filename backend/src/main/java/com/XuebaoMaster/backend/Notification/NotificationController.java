@@ -0,0 +1,66 @@
+package com.XuebaoMaster.backend.Notification;
+
+import com.XuebaoMaster.backend.User.User;
+import com.XuebaoMaster.backend.User.UserService;
+import com.XuebaoMaster.backend.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/notifications")
+public class NotificationController {
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    @Autowired
+    private NotificationInboxService notificationInboxService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // Short-lived ticket for opening the stream; EventSource cannot send the Authorization header
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<Map<String, Object>> createStreamTicket() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Map<String, Object> response = new HashMap<>();
+        response.put("ticket", jwtUtil.generateStreamTicket(auth.getName()));
+        response.put("expiresInMs", jwtUtil.getStreamTicketExpiration());
+        return ResponseEntity.ok(response);
+    }
+
+    // Server-sent event stream for the current user; browsers pass a stream ticket as ?ticket=
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = userService.getUserByUsername(auth.getName());
+
+        SseEmitter emitter = notificationPushService.openStream(currentUser.getId());
+        // 连接建立后先推送一次未读数，客户端无需再轮询
+        notificationPushService.pushToUsers(NotificationEvent.TYPE_UNREAD_COUNTS, List.of(currentUser.getId()),
+                new HashMap<>(notificationInboxService.getUnreadCounts(currentUser.getId())));
+        return emitter;
+    }
+
+    // Open stream count on this node
+    @GetMapping("/connections")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getConnectionCount() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("connections", notificationPushService.getConnectionCount());
+        return ResponseEntity.ok(response);
+    }
+}
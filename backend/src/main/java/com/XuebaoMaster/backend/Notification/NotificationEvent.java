@@ -0,0 +1,19 @@
+package com.XuebaoMaster.backend.Notification;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 推送给在线用户的通知事件，经由 NotificationBroker 分发到各节点
+ *
+ * @param type    事件类型，对应 SSE 的 event 名称
+ * @param userIds 接收人
+ * @param payload 事件内容，序列化为 JSON
+ */
+public record NotificationEvent(String type, Set<Long> userIds, Map<String, Object> payload) {
+
+    public static final String TYPE_MESSAGE = "message";
+    public static final String TYPE_PRIVATE_MESSAGE = "private-message";
+    public static final String TYPE_HOMEWORK_GRADED = "homework-graded";
+    public static final String TYPE_UNREAD_COUNTS = "unread-counts";
+}
@@ -0,0 +1,39 @@
+package com.XuebaoMaster.backend.Notification;
+
+import com.XuebaoMaster.backend.Notification.dto.InboxEntryView;
+
+import java.util.List;
+import java.util.Map;
+
+public interface NotificationInboxService {
+
+    // Materialize a message into the inbox of every current recipient, returns inserted item count
+    int fanOutMessage(Long messageId);
+
+    // Add active messages a user newly qualifies for after a role, class or course change
+    int fanOutToUser(Long userId);
+
+    // Re-run fan-out of every active message, picking up recipients added since it was sent
+    void catchUpActiveMessages();
+
+    // Remove a message from all inboxes, adjusting unread counters
+    void removeMessage(Long messageId);
+
+    // Active, unexpired inbox entries for a user, newest first
+    List<InboxEntryView> getInbox(Long userId);
+
+    // Mark one inbox entry as read, returns false if it was already read or absent
+    boolean markMessageRead(Long userId, Long messageId);
+
+    // Mark all inbox entries as read, returns the number of entries changed
+    int markAllMessagesRead(Long userId);
+
+    // Single-row read of the unread counters: unreadMessages, unreadPrivateMessages
+    Map<String, Long> getUnreadCounts(Long userId);
+
+    // Adjust the private message counter when a private message is sent, read or deleted
+    void adjustUnreadPrivateMessages(Long userId, long delta);
+
+    // Recompute all counters from source tables to correct drift
+    void reconcileCounters();
+}
@@ -0,0 +1,21 @@
+package com.XuebaoMaster.backend.Notification;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface NotificationPushService {
+
+    // Open an SSE stream for a user on this node
+    SseEmitter openStream(Long userId);
+
+    // Push an event to users; deferred until commit when called inside a transaction
+    void pushToUsers(String type, Collection<Long> userIds, Map<String, Object> payload);
+
+    // Send a heartbeat to every open stream on this node, dropping dead ones
+    void sendHeartbeats();
+
+    // Number of open streams on this node
+    int getConnectionCount();
+}
@@ -0,0 +1,26 @@
+package com.XuebaoMaster.backend.Notification;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 用户未读计数，角标轮询只读取这一行
+ */
+@Entity
+@Table(name = "user_unread_counters")
+@Data
+public class UserUnreadCounter {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_messages", nullable = false)
+    private Long unreadMessages = 0L;
+
+    @Column(name = "unread_private_messages", nullable = false)
+    private Long unreadPrivateMessages = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
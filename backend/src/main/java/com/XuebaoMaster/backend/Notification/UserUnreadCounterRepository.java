@@ -0,0 +1,82 @@
+package com.XuebaoMaster.backend.Notification;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface UserUnreadCounterRepository extends JpaRepository<UserUnreadCounter, Long> {
+
+    // Unread, active and unexpired inbox items of user u
+    String UNREAD_MESSAGES_OF_USER = "(SELECT COUNT(*) FROM user_inbox i JOIN messages m ON m.id = i.message_id " +
+            "WHERE i.user_id = u.id AND i.is_read = 0 AND m.active = 1 " +
+            "AND (m.expires_at IS NULL OR m.expires_at > NOW()))";
+
+    // Adjust the unread announcement counter, creating the row if needed; never drops below zero
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_unread_counters"))
+    @Transactional
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_private_messages, updated_at) " +
+            "VALUES (:userId, GREATEST(:delta, 0), 0, NOW()) " +
+            "ON DUPLICATE KEY UPDATE unread_messages = GREATEST(unread_messages + :delta, 0), updated_at = NOW()",
+            nativeQuery = true)
+    int addUnreadMessages(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // Adjust the unread private message counter, creating the row if needed
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_unread_counters"))
+    @Transactional
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_private_messages, updated_at) " +
+            "VALUES (:userId, 0, GREATEST(:delta, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE unread_private_messages = GREATEST(unread_private_messages + :delta, 0), " +
+            "updated_at = NOW()",
+            nativeQuery = true)
+    int addUnreadPrivateMessages(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_unread_counters"))
+    @Transactional
+    @Query(value = "UPDATE user_unread_counters SET unread_messages = 0, updated_at = NOW() WHERE user_id = :userId",
+            nativeQuery = true)
+    int clearUnreadMessages(@Param("userId") Long userId);
+
+    // Decrement counters of users still holding an unread item for a message that is being removed
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_unread_counters"))
+    @Transactional
+    @Query(value = "UPDATE user_unread_counters c JOIN user_inbox i ON i.user_id = c.user_id " +
+            "SET c.unread_messages = GREATEST(c.unread_messages - 1, 0), c.updated_at = NOW() " +
+            "WHERE i.message_id = :messageId AND i.is_read = 0",
+            nativeQuery = true)
+    int decrementForMessage(@Param("messageId") Long messageId);
+
+    // Recompute the announcement counter of the given users from user_inbox
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_unread_counters"))
+    @Transactional
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_private_messages, updated_at) " +
+            "SELECT u.id, " + UNREAD_MESSAGES_OF_USER + ", 0, NOW() FROM users u WHERE u.id IN (:userIds) " +
+            "ON DUPLICATE KEY UPDATE unread_messages = VALUES(unread_messages), updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int reconcileUnreadMessages(@Param("userIds") Collection<Long> userIds);
+
+    // Recompute every user's counters from the inbox and private_messages tables
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_unread_counters"))
+    @Transactional
+    @Query(value = "INSERT INTO user_unread_counters (user_id, unread_messages, unread_private_messages, updated_at) " +
+            "SELECT u.id, " + UNREAD_MESSAGES_OF_USER + ", " +
+            "(SELECT COUNT(*) FROM private_messages pm " +
+            "WHERE pm.recipient_id = u.id AND pm.is_read = 0 AND pm.recipient_deleted = 0), " +
+            "NOW() FROM users u " +
+            "ON DUPLICATE KEY UPDATE unread_messages = VALUES(unread_messages), " +
+            "unread_private_messages = VALUES(unread_private_messages), updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int reconcileAll();
+}
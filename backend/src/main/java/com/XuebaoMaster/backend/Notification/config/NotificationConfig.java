@@ -0,0 +1,73 @@
+package com.XuebaoMaster.backend.Notification.config;
+
+import com.XuebaoMaster.backend.Notification.NotificationInboxService;
+import com.XuebaoMaster.backend.Notification.NotificationPushService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 收件箱展开、推送投递线程池，以及未读计数校正和推送心跳任务
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class NotificationConfig {
+
+    @Autowired
+    @Lazy
+    private NotificationInboxService notificationInboxService;
+
+    @Autowired
+    @Lazy
+    private NotificationPushService notificationPushService;
+
+    @Bean(name = "inboxFanoutExecutor")
+    public Executor inboxFanoutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("InboxFanout-");
+        // 队列满时由提交线程自己展开，保证消息不丢
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "pushDeliveryExecutor")
+    public Executor pushDeliveryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(2000);
+        executor.setThreadNamePrefix("PushDelivery-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 定期发送心跳，保持代理不断开空闲连接，同时清理已断开的连接
+     */
+    @Scheduled(fixedRateString = "${notification.push.heartbeat-ms:25000}")
+    public void schedulePushHeartbeat() {
+        notificationPushService.sendHeartbeats();
+    }
+
+    /**
+     * 每天把有效消息补发给发送后才加入的接收人(如批量导入的用户)，再校正未读计数，修正消息过期、停用带来的偏差
+     */
+    @Scheduled(cron = "${notification.counter-reconcile-cron:0 0 4 * * ?}")
+    public void scheduleCounterReconcile() {
+        notificationInboxService.catchUpActiveMessages();
+        notificationInboxService.reconcileCounters();
+    }
+}
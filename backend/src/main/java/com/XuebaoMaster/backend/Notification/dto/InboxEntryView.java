@@ -0,0 +1,19 @@
+package com.XuebaoMaster.backend.Notification.dto;
+
+import com.XuebaoMaster.backend.Message.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * 收件箱列表项：消息内容加上当前用户的已读状态
+ */
+public record InboxEntryView(
+        Long messageId,
+        String title,
+        String content,
+        Message.MessageTargetType targetType,
+        LocalDateTime createdAt,
+        LocalDateTime expiresAt,
+        boolean read,
+        LocalDateTime readAt) {
+}
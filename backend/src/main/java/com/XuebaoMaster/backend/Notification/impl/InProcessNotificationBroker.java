@@ -0,0 +1,40 @@
+package com.XuebaoMaster.backend.Notification.impl;
+
+import com.XuebaoMaster.backend.Notification.NotificationBroker;
+import com.XuebaoMaster.backend.Notification.NotificationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 单节点通知分发，直接回调本进程内的订阅者
+ */
+@Component
+@ConditionalOnProperty(name = "notification.push.broker", havingValue = "in-process", matchIfMissing = true)
+public class InProcessNotificationBroker implements NotificationBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessNotificationBroker.class);
+
+    private final List<Consumer<NotificationEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(NotificationEvent event) {
+        for (Consumer<NotificationEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (Exception e) {
+                logger.error("分发通知事件 {} 失败", event.type(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<NotificationEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
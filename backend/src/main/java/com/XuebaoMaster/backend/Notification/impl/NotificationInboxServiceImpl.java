@@ -0,0 +1,260 @@
+package com.XuebaoMaster.backend.Notification.impl;
+
+import com.XuebaoMaster.backend.Message.Message;
+import com.XuebaoMaster.backend.Message.MessageRepository;
+import com.XuebaoMaster.backend.Notification.InboxItemRepository;
+import com.XuebaoMaster.backend.Notification.MessageCreatedEvent;
+import com.XuebaoMaster.backend.Notification.NotificationEvent;
+import com.XuebaoMaster.backend.Notification.NotificationInboxService;
+import com.XuebaoMaster.backend.Notification.NotificationPushService;
+import com.XuebaoMaster.backend.Notification.UserUnreadCounter;
+import com.XuebaoMaster.backend.Notification.UserUnreadCounterRepository;
+import com.XuebaoMaster.backend.Notification.dto.InboxEntryView;
+import com.XuebaoMaster.backend.User.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * 通知收件箱服务
+ * 消息提交后在独立线程池中解析接收人，分批写入 user_inbox 并按收件箱重算这批用户的未读计数，
+ * 角标轮询只读取 user_unread_counters 的一行；
+ * 接收人在发送时确定，之后加入班级、课程或新建的用户由 fanOutToUser 和每天的补发任务补齐
+ */
+@Service
+public class NotificationInboxServiceImpl implements NotificationInboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationInboxServiceImpl.class);
+
+    private static final String INSERT_INBOX_SQL = "INSERT IGNORE INTO user_inbox " +
+            "(user_id, message_id, is_read, created_at) VALUES (?, ?, 0, ?)";
+
+    @Autowired
+    private InboxItemRepository inboxItemRepository;
+
+    @Autowired
+    private UserUnreadCounterRepository userUnreadCounterRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("inboxFanoutExecutor")
+    private Executor inboxFanoutExecutor;
+
+    @Value("${notification.fanout-batch-size:1000}")
+    private int fanoutBatchSize;
+
+    /**
+     * 消息事务提交后异步展开，班级/课程等大范围消息不阻塞发送请求
+     */
+    @Async("inboxFanoutExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        try {
+            fanOutMessage(event.messageId());
+        } catch (Exception e) {
+            // 未展开的接收人会在下次计数校正前缺少该条目，可通过重新保存消息补发
+            logger.error("展开消息 {} 到收件箱失败", event.messageId(), e);
+        }
+    }
+
+    /**
+     * 首次启用收件箱时，把现有有效消息展开并按源表初始化计数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeInboxes() {
+        if (userUnreadCounterRepository.count() > 0 || userRepository.count() == 0) {
+            return;
+        }
+        inboxFanoutExecutor.execute(() -> {
+            try {
+                List<Message> messages = messageRepository.findActiveMessages(LocalDateTime.now());
+                logger.info("收件箱为空，展开 {} 条现有消息", messages.size());
+                for (Message message : messages) {
+                    fanOutMessage(message.getId());
+                }
+                reconcileCounters();
+            } catch (Exception e) {
+                logger.error("初始化用户收件箱失败", e);
+            }
+        });
+    }
+
+    @Override
+    public int fanOutMessage(Long messageId) {
+        List<Number> recipients = inboxItemRepository.findPendingRecipientIds(messageId);
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+
+        Message message = messageRepository.findById(messageId).orElse(null);
+        if (message == null) {
+            return 0;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("messageId", message.getId());
+        payload.put("title", message.getTitle());
+        payload.put("targetType", message.getTargetType());
+        payload.put("createdAt", message.getCreatedAt());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int inserted = 0;
+        // 每批独立提交，避免一条全校消息长时间占用锁；提交后只推送给本批新写入条目的用户
+        for (int from = 0; from < recipients.size(); from += fanoutBatchSize) {
+            List<Number> batch = recipients.subList(from, Math.min(from + fanoutBatchSize, recipients.size()));
+            List<Long> added = transactionTemplate.execute(status -> insertBatch(messageId, batch, now));
+            if (added != null && !added.isEmpty()) {
+                inserted += added.size();
+                notificationPushService.pushToUsers(NotificationEvent.TYPE_MESSAGE, added, payload);
+            }
+        }
+        logger.debug("消息 {} 展开到 {} 个收件箱", messageId, inserted);
+        return inserted;
+    }
+
+    /**
+     * 批量改写后驱动对每行都返回 SUCCESS_NO_INFO，无法从插入结果区分新增和被忽略的行；
+     * 先锁住消息行使同一消息的展开串行执行，再查出本批中已有条目的用户，只插入和推送其余用户
+     */
+    private List<Long> insertBatch(Long messageId, List<Number> batch, Timestamp now) {
+        List<Long> locked = jdbcTemplate.queryForList("SELECT id FROM messages WHERE id = ? FOR UPDATE", Long.class,
+                messageId);
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(batch.size() + 1);
+        args.add(messageId);
+        for (Number userId : batch) {
+            args.add(userId.longValue());
+        }
+        Set<Long> delivered = new HashSet<>(jdbcTemplate.queryForList("SELECT user_id FROM user_inbox "
+                + "WHERE message_id = ? AND user_id IN (" + String.join(", ", Collections.nCopies(batch.size(), "?"))
+                + ")", Long.class, args.toArray()));
+
+        List<Long> userIds = new ArrayList<>(batch.size());
+        List<Object[]> inboxArgs = new ArrayList<>(batch.size());
+        for (Number userId : batch) {
+            if (!delivered.contains(userId.longValue())) {
+                userIds.add(userId.longValue());
+                inboxArgs.add(new Object[] { userId.longValue(), messageId, now });
+            }
+        }
+        if (userIds.isEmpty()) {
+            return userIds;
+        }
+        // 按用户加入收件箱的路径(fanOutToUser)不锁消息行，与它并发写入的条目仍由唯一键忽略
+        jdbcTemplate.batchUpdate(INSERT_INBOX_SQL, inboxArgs);
+        // 按 user_inbox 重算本批新增用户的计数，重复展开不会多计
+        userUnreadCounterRepository.reconcileUnreadMessages(userIds);
+        return userIds;
+    }
+
+    @Override
+    public int fanOutToUser(Long userId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer inserted = transactionTemplate.execute(status -> {
+            int added = inboxItemRepository.insertMissingItemsForUser(userId);
+            if (added > 0) {
+                userUnreadCounterRepository.reconcileUnreadMessages(List.of(userId));
+            }
+            return added;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    @Override
+    public void catchUpActiveMessages() {
+        int inserted = 0;
+        for (Message message : messageRepository.findActiveMessages(LocalDateTime.now())) {
+            inserted += fanOutMessage(message.getId());
+        }
+        logger.info("补发有效消息到新接收人的收件箱 {} 条", inserted);
+    }
+
+    @Override
+    @Transactional
+    public void removeMessage(Long messageId) {
+        userUnreadCounterRepository.decrementForMessage(messageId);
+        inboxItemRepository.deleteByMessageId(messageId);
+    }
+
+    @Override
+    public List<InboxEntryView> getInbox(Long userId) {
+        return inboxItemRepository.findInboxViews(userId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public boolean markMessageRead(Long userId, Long messageId) {
+        if (inboxItemRepository.markRead(userId, messageId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        userUnreadCounterRepository.addUnreadMessages(userId, -1);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public int markAllMessagesRead(Long userId) {
+        int updated = inboxItemRepository.markAllRead(userId, LocalDateTime.now());
+        userUnreadCounterRepository.clearUnreadMessages(userId);
+        return updated;
+    }
+
+    @Override
+    public Map<String, Long> getUnreadCounts(Long userId) {
+        Map<String, Long> counts = new HashMap<>();
+        UserUnreadCounter counter = userUnreadCounterRepository.findById(userId).orElse(null);
+        counts.put("unreadMessages", counter == null ? 0L : counter.getUnreadMessages());
+        counts.put("unreadPrivateMessages", counter == null ? 0L : counter.getUnreadPrivateMessages());
+        return counts;
+    }
+
+    @Override
+    public void adjustUnreadPrivateMessages(Long userId, long delta) {
+        userUnreadCounterRepository.addUnreadPrivateMessages(userId, delta);
+    }
+
+    @Override
+    public void reconcileCounters() {
+        int rows = userUnreadCounterRepository.reconcileAll();
+        logger.info("未读计数校正完成，共 {} 行", rows);
+    }
+}
@@ -0,0 +1,211 @@
+package com.XuebaoMaster.backend.Notification.impl;
+
+import com.XuebaoMaster.backend.Notification.NotificationBroker;
+import com.XuebaoMaster.backend.Notification.NotificationEvent;
+import com.XuebaoMaster.backend.Notification.NotificationPushService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SSE 通知推送
+ * 每个连接有独立的有界发送队列，满时丢弃最旧的事件；发送在 pushDeliveryExecutor 中进行，
+ * 慢客户端不会阻塞发布方或其他连接。事件先经过 NotificationBroker，再投递给本节点上的连接
+ */
+@Service
+public class NotificationPushServiceImpl implements NotificationPushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushServiceImpl.class);
+
+    @Autowired
+    private NotificationBroker notificationBroker;
+
+    @Autowired
+    @Qualifier("pushDeliveryExecutor")
+    private Executor pushDeliveryExecutor;
+
+    @Value("${notification.push.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${notification.push.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${notification.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    private final ConcurrentHashMap<Long, Deque<SseConnection>> connections = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribeToBroker() {
+        notificationBroker.subscribe(this::deliverLocally);
+    }
+
+    @Override
+    public SseEmitter openStream(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        SseConnection connection = new SseConnection(userId, emitter, queueCapacity);
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> unregister(connection));
+        emitter.onError(e -> unregister(connection));
+
+        Deque<SseConnection> userConnections = connections.computeIfAbsent(userId,
+                id -> new ConcurrentLinkedDeque<>());
+        userConnections.addLast(connection);
+        // 同一用户连接过多时关闭最早的连接
+        while (userConnections.size() > maxConnectionsPerUser) {
+            SseConnection oldest = userConnections.pollFirst();
+            if (oldest != null) {
+                oldest.close();
+            }
+        }
+        return emitter;
+    }
+
+    @Override
+    public void pushToUsers(String type, Collection<Long> userIds, Map<String, Object> payload) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        NotificationEvent event = new NotificationEvent(type, new LinkedHashSet<>(userIds), payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 事务回滚时不推送
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notificationBroker.publish(event);
+                }
+            });
+        } else {
+            notificationBroker.publish(event);
+        }
+    }
+
+    @Override
+    public void sendHeartbeats() {
+        if (connections.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (Deque<SseConnection> userConnections : connections.values()) {
+            for (SseConnection connection : userConnections) {
+                enqueue(connection, heartbeat);
+            }
+        }
+    }
+
+    @Override
+    public int getConnectionCount() {
+        int count = 0;
+        for (Deque<SseConnection> userConnections : connections.values()) {
+            count += userConnections.size();
+        }
+        return count;
+    }
+
+    private void deliverLocally(NotificationEvent event) {
+        Set<ResponseBodyEmitter.DataWithMediaType> data = null;
+        for (Long userId : event.userIds()) {
+            Deque<SseConnection> userConnections = connections.get(userId);
+            if (userConnections == null || userConnections.isEmpty()) {
+                continue;
+            }
+            if (data == null) {
+                // 同一事件只序列化一次，所有连接共用
+                data = SseEmitter.event().name(event.type()).data(event.payload(), MediaType.APPLICATION_JSON)
+                        .build();
+            }
+            for (SseConnection connection : userConnections) {
+                enqueue(connection, data);
+            }
+        }
+    }
+
+    private void enqueue(SseConnection connection, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        if (connection.closed) {
+            return;
+        }
+        while (!connection.queue.offer(data)) {
+            connection.queue.poll();
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                pushDeliveryExecutor.execute(() -> drain(connection));
+            } catch (Exception e) {
+                connection.draining.set(false);
+                logger.warn("推送线程池已满，用户 {} 的事件等待下次投递", connection.userId);
+            }
+        }
+    }
+
+    private void drain(SseConnection connection) {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> data;
+            while ((data = connection.queue.poll()) != null) {
+                try {
+                    connection.emitter.send(data);
+                } catch (Exception e) {
+                    // 客户端已断开
+                    logger.debug("用户 {} 的推送连接已断开", connection.userId);
+                    connection.closed = true;
+                    connection.queue.clear();
+                    unregister(connection);
+                    break;
+                }
+            }
+            connection.draining.set(false);
+            // 释放标记后再检查一次，避免和并发入队错过
+        } while (!connection.closed && !connection.queue.isEmpty() && connection.draining.compareAndSet(false, true));
+    }
+
+    private void unregister(SseConnection connection) {
+        connection.closed = true;
+        Deque<SseConnection> userConnections = connections.get(connection.userId);
+        if (userConnections != null) {
+            userConnections.remove(connection);
+            if (userConnections.isEmpty()) {
+                connections.remove(connection.userId, userConnections);
+            }
+        }
+    }
+
+    private static class SseConnection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private volatile boolean closed = false;
+
+        SseConnection(Long userId, SseEmitter emitter, int queueCapacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.XuebaoMaster.backend.PracticeRecord;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * 知识点掌握情况聚合表
+ * 按(学生, 题目, 课程, 日期)累加分数和、作答次数、答对次数，
+ * 知识点与班级随行冗余保存，看板按学生/班级/课程切片后直接汇总
+ */
+@Entity
+@Table(name = "knowledge_point_cube", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_knowledge_point_cube", columnNames = { "student_id", "question_id", "course_id",
+                "practice_date" })
+}, indexes = {
+        @Index(name = "idx_knowledge_point_cube_class", columnList = "class_id, knowledge_point"),
+        @Index(name = "idx_knowledge_point_cube_course", columnList = "course_id, knowledge_point"),
+        @Index(name = "idx_knowledge_point_cube_class_question", columnList = "class_id, question_id")
+})
+@Data
+public class KnowledgePointCube {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 知识点（题目生成时的 query），题目不存在时为空
+    @Column(name = "knowledge_point")
+    private String knowledgePoint;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // 学生所在班级，未分班为 0
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    // 作业所属课程，作业不存在时为 0
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "practice_date", nullable = false)
+    private LocalDate practiceDate;
+
+    @Column(name = "score_sum", nullable = false)
+    private Double scoreSum;
+
+    @Column(name = "attempt_count", nullable = false)
+    private Long attemptCount;
+
+    @Column(name = "correct_count", nullable = false)
+    private Long correctCount;
+}
@@ -0,0 +1,127 @@
+package com.XuebaoMaster.backend.PracticeRecord;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface KnowledgePointCubeRepository extends JpaRepository<KnowledgePointCube, Long> {
+
+        // 累加一个单元格的增量；知识点、班级、课程按主键子查询解析，一次往返完成
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "knowledge_point_cube"))
+        @Transactional
+        @Query(value = "INSERT INTO knowledge_point_cube (knowledge_point, question_id, student_id, class_id, " +
+                        "course_id, practice_date, score_sum, attempt_count, correct_count) VALUES (" +
+                        "(SELECT qg.query FROM question_generator qg WHERE qg.id = :questionId), :questionId, :studentId, " +
+                        "COALESCE((SELECT u.class_id FROM users u WHERE u.id = :studentId), 0), " +
+                        "COALESCE((SELECT hw.course_id FROM homeworks hw WHERE hw.id = :homeworkId), 0), " +
+                        ":practiceDate, :scoreDelta, :attemptDelta, :correctDelta) " +
+                        "ON DUPLICATE KEY UPDATE score_sum = score_sum + VALUES(score_sum), " +
+                        "attempt_count = attempt_count + VALUES(attempt_count), " +
+                        "correct_count = correct_count + VALUES(correct_count)", nativeQuery = true)
+        int applyDelta(@Param("studentId") Long studentId,
+                        @Param("homeworkId") Long homeworkId,
+                        @Param("questionId") Long questionId,
+                        @Param("practiceDate") LocalDate practiceDate,
+                        @Param("scoreDelta") double scoreDelta,
+                        @Param("attemptDelta") int attemptDelta,
+                        @Param("correctDelta") int correctDelta);
+
+        // 删除某作业的练习记录(包括已归档的)前，从对应单元格中扣除这些记录
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "knowledge_point_cube"))
+        @Transactional
+        @Query(value = "UPDATE knowledge_point_cube c JOIN (" +
+                        "SELECT pr.student_id, pr.question_id, DATE(pr.submitted_at) AS practice_date, " +
+                        "SUM(pr.score) AS score_sum, COUNT(*) AS attempt_count, " +
+                        "SUM(CASE WHEN pr.is_correct = 1 THEN 1 ELSE 0 END) AS correct_count " +
+                        "FROM practice_records_all pr WHERE pr.homework_id = :homeworkId " +
+                        "GROUP BY pr.student_id, pr.question_id, DATE(pr.submitted_at)) x " +
+                        "ON c.student_id = x.student_id AND c.question_id = x.question_id " +
+                        "AND c.practice_date = x.practice_date AND c.course_id = :courseId " +
+                        "SET c.score_sum = c.score_sum - x.score_sum, c.attempt_count = c.attempt_count - x.attempt_count, " +
+                        "c.correct_count = c.correct_count - x.correct_count", nativeQuery = true)
+        int subtractHomeworkRecords(@Param("homeworkId") Long homeworkId, @Param("courseId") Long courseId);
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "knowledge_point_cube"))
+        @Transactional
+        @Query(value = "DELETE FROM knowledge_point_cube WHERE attempt_count <= 0", nativeQuery = true)
+        int deleteEmptyCells();
+
+        // 全量重建(读取热表与归档表的合并视图)
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "knowledge_point_cube"))
+        @Transactional
+        @Query(value = "DELETE FROM knowledge_point_cube", nativeQuery = true)
+        int deleteAllCells();
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "knowledge_point_cube"))
+        @Transactional
+        @Query(value = "INSERT INTO knowledge_point_cube (knowledge_point, question_id, student_id, class_id, " +
+                        "course_id, practice_date, score_sum, attempt_count, correct_count) " +
+                        "SELECT MAX(qg.query), pr.question_id, pr.student_id, MAX(COALESCE(u.class_id, 0)), " +
+                        "COALESCE(hw.course_id, 0), DATE(pr.submitted_at), SUM(pr.score), COUNT(*), " +
+                        "SUM(CASE WHEN pr.is_correct = 1 THEN 1 ELSE 0 END) " +
+                        "FROM practice_records_all pr " +
+                        "LEFT JOIN question_generator qg ON qg.id = pr.question_id " +
+                        "LEFT JOIN users u ON u.id = pr.student_id " +
+                        "LEFT JOIN homeworks hw ON hw.id = pr.homework_id " +
+                        "GROUP BY pr.student_id, pr.question_id, COALESCE(hw.course_id, 0), DATE(pr.submitted_at)", nativeQuery = true)
+        int insertAllFromRecords();
+
+        // 切片：学生知识点掌握情况
+        @Query(value = "SELECT c.knowledge_point as knowledge_point, " +
+                        "SUM(c.score_sum) / SUM(c.attempt_count) as average_score, " +
+                        "SUM(c.attempt_count) as attempt_count " +
+                        "FROM knowledge_point_cube c " +
+                        "WHERE c.student_id = :studentId AND c.knowledge_point IS NOT NULL " +
+                        "AND c.practice_date BETWEEN :startDate AND :endDate " +
+                        "GROUP BY c.knowledge_point " +
+                        "ORDER BY average_score ASC", nativeQuery = true)
+        List<Map<String, Object>> findStudentKnowledgePointStats(@Param("studentId") Long studentId,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+        // 切片：班级知识点掌握情况
+        @Query(value = "SELECT c.knowledge_point as knowledge_point, " +
+                        "SUM(c.score_sum) / SUM(c.attempt_count) as average_score, " +
+                        "SUM(c.attempt_count) as attempt_count " +
+                        "FROM knowledge_point_cube c " +
+                        "WHERE c.class_id = :classId AND c.knowledge_point IS NOT NULL " +
+                        "AND c.practice_date BETWEEN :startDate AND :endDate " +
+                        "GROUP BY c.knowledge_point " +
+                        "ORDER BY average_score ASC", nativeQuery = true)
+        List<Map<String, Object>> findClassKnowledgePointStats(@Param("classId") Long classId,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+        // 切片：课程知识点掌握情况
+        @Query(value = "SELECT c.knowledge_point as knowledge_point, " +
+                        "SUM(c.score_sum) / SUM(c.attempt_count) as average_score, " +
+                        "SUM(c.attempt_count) as attempt_count " +
+                        "FROM knowledge_point_cube c " +
+                        "WHERE c.course_id = :courseId AND c.knowledge_point IS NOT NULL " +
+                        "AND c.practice_date BETWEEN :startDate AND :endDate " +
+                        "GROUP BY c.knowledge_point " +
+                        "ORDER BY average_score ASC", nativeQuery = true)
+        List<Map<String, Object>> findCourseKnowledgePointStats(@Param("courseId") Long courseId,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+        // 切片：班级内正确率最低的题目
+        @Query(value = "SELECT c.question_id, SUM(c.correct_count) / SUM(c.attempt_count) as correct_rate " +
+                        "FROM knowledge_point_cube c " +
+                        "WHERE c.class_id = :classId " +
+                        "GROUP BY c.question_id " +
+                        "ORDER BY correct_rate ASC " +
+                        "LIMIT :limit", nativeQuery = true)
+        List<Object[]> findClassWeakestQuestions(@Param("classId") Long classId, @Param("limit") int limit);
+}
@@ -0,0 +1,55 @@
+package com.XuebaoMaster.backend.PracticeRecord;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 练习记录按(学生, 作业, 题目)汇总
+ * 提交答案时原子更新，最高分、尝试次数等统计直接读取此表
+ */
+@Entity
+@Table(name = "practice_question_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_practice_question_summary", columnNames = { "student_id", "homework_id",
+                "question_id" })
+}, indexes = {
+        @Index(name = "idx_practice_question_summary_student_question", columnList = "student_id, question_id")
+})
+@Data
+public class PracticeQuestionSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "homework_id", nullable = false)
+    private Long homeworkId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    // 最高分
+    @Column(name = "best_score", nullable = false)
+    private Double bestScore;
+
+    // 最近一次提交的分数
+    @Column(name = "latest_score", nullable = false)
+    private Double latestScore;
+
+    // 尝试次数
+    @Column(name = "attempt_count", nullable = false)
+    private Integer attemptCount;
+
+    // 首次答对时间，未答对时为空
+    @Column(name = "first_correct_at")
+    private LocalDateTime firstCorrectAt;
+
+    // 最近一次提交时间
+    @Column(name = "latest_submitted_at", nullable = false)
+    private LocalDateTime latestSubmittedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,107 @@
+package com.XuebaoMaster.backend.PracticeRecord;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PracticeQuestionSummaryRepository extends JpaRepository<PracticeQuestionSummary, Long> {
+
+        // 从练习记录计算汇总行的 SELECT 部分，最近分数取最后一次提交
+        String SUMMARY_SELECT_COLUMNS = "SELECT p.student_id, p.homework_id, p.question_id, MAX(p.score), " +
+                        "(SELECT p2.score FROM ";
+        String SUMMARY_SELECT_REST = " p2 WHERE p2.student_id = p.student_id " +
+                        "AND p2.homework_id = p.homework_id AND p2.question_id = p.question_id " +
+                        "ORDER BY p2.submitted_at DESC, p2.id DESC LIMIT 1), " +
+                        "MAX(p.attempt_count), MIN(CASE WHEN p.is_correct = 1 THEN p.submitted_at END), " +
+                        "MAX(p.submitted_at), NOW() FROM ";
+
+        // 单个题目刷新和全量重建都读取热表与归档表的合并视图，归档后的历史尝试仍计入汇总
+        String SUMMARY_SELECT_ALL = SUMMARY_SELECT_COLUMNS + "practice_records_all" + SUMMARY_SELECT_REST +
+                        "practice_records_all p ";
+
+        String SUMMARY_INSERT = "INSERT INTO practice_question_summary (student_id, homework_id, question_id, " +
+                        "best_score, latest_score, attempt_count, first_correct_at, latest_submitted_at, updated_at) ";
+
+        // 记录一次提交：不存在则插入，存在则在行锁内累加尝试次数并更新最高分
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "practice_question_summary"))
+        @Transactional
+        @Query(value = SUMMARY_INSERT +
+                        "VALUES (:studentId, :homeworkId, :questionId, :score, :score, 1, " +
+                        "CASE WHEN :correct THEN :submittedAt END, :submittedAt, NOW()) " +
+                        "ON DUPLICATE KEY UPDATE best_score = GREATEST(best_score, VALUES(best_score)), " +
+                        "latest_score = VALUES(latest_score), attempt_count = attempt_count + 1, " +
+                        "first_correct_at = COALESCE(first_correct_at, VALUES(first_correct_at)), " +
+                        "latest_submitted_at = VALUES(latest_submitted_at), updated_at = NOW()", nativeQuery = true)
+        int recordAttempt(@Param("studentId") Long studentId,
+                        @Param("homeworkId") Long homeworkId,
+                        @Param("questionId") Long questionId,
+                        @Param("score") Double score,
+                        @Param("correct") boolean correct,
+                        @Param("submittedAt") LocalDateTime submittedAt);
+
+        // 当前尝试次数（在同一事务中紧跟 recordAttempt 读取）
+        @Query("SELECT s.attemptCount FROM PracticeQuestionSummary s " +
+                        "WHERE s.studentId = :studentId AND s.homeworkId = :homeworkId AND s.questionId = :questionId")
+        Integer findAttemptCount(@Param("studentId") Long studentId,
+                        @Param("homeworkId") Long homeworkId,
+                        @Param("questionId") Long questionId);
+
+        // 学生在作业中已作答的题目数和各题最高分之和
+        @Query("SELECT COUNT(s), COALESCE(SUM(s.bestScore), 0) FROM PracticeQuestionSummary s " +
+                        "WHERE s.studentId = :studentId AND s.homeworkId = :homeworkId")
+        List<Object[]> sumBestScores(@Param("studentId") Long studentId, @Param("homeworkId") Long homeworkId);
+
+        // 学生在某题目上的最高分（跨作业）
+        @Query("SELECT MAX(s.bestScore) FROM PracticeQuestionSummary s " +
+                        "WHERE s.studentId = :studentId AND s.questionId = :questionId")
+        Double findBestScore(@Param("studentId") Long studentId, @Param("questionId") Long questionId);
+
+        // 练习记录被修改或删除后，按记录重新计算单个汇总行
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "practice_question_summary"))
+        @Transactional
+        @Query(value = "DELETE FROM practice_question_summary WHERE student_id = :studentId " +
+                        "AND homework_id = :homeworkId AND question_id = :questionId", nativeQuery = true)
+        int deleteSummary(@Param("studentId") Long studentId,
+                        @Param("homeworkId") Long homeworkId,
+                        @Param("questionId") Long questionId);
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "practice_question_summary"))
+        @Transactional
+        @Query(value = SUMMARY_INSERT + SUMMARY_SELECT_ALL +
+                        "WHERE p.student_id = :studentId AND p.homework_id = :homeworkId AND p.question_id = :questionId " +
+                        "GROUP BY p.student_id, p.homework_id, p.question_id", nativeQuery = true)
+        int insertSummaryFromRecords(@Param("studentId") Long studentId,
+                        @Param("homeworkId") Long homeworkId,
+                        @Param("questionId") Long questionId);
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "practice_question_summary"))
+        @Transactional
+        @Query(value = "DELETE FROM practice_question_summary WHERE homework_id = :homeworkId", nativeQuery = true)
+        int deleteByHomeworkId(@Param("homeworkId") Long homeworkId);
+
+        // 全量重建
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "practice_question_summary"))
+        @Transactional
+        @Query(value = "DELETE FROM practice_question_summary", nativeQuery = true)
+        int deleteAllSummaries();
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "practice_question_summary"))
+        @Transactional
+        @Query(value = SUMMARY_INSERT + SUMMARY_SELECT_ALL +
+                        "GROUP BY p.student_id, p.homework_id, p.question_id", nativeQuery = true)
+        int insertAllFromRecords();
+}
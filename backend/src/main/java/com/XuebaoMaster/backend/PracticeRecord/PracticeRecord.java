@@ -1,5 +1,6 @@
 package com.XuebaoMaster.backend.PracticeRecord;
 
+import com.XuebaoMaster.backend.util.CompressedTextConverter;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -9,11 +10,18 @@ import java.time.LocalDateTime;
  * 记录学生的答题情况和得分
  */
 @Entity
-@Table(name = "practice_records")
+@Table(name = "practice_records", indexes = {
+        @Index(name = "idx_practice_records_student_submitted", columnList = "student_id, submitted_at"),
+        @Index(name = "idx_practice_records_student_homework_question", columnList = "student_id, homework_id, question_id, submitted_at"),
+        @Index(name = "idx_practice_records_homework_student", columnList = "homework_id, student_id"),
+        @Index(name = "idx_practice_records_question_correct", columnList = "question_id, is_correct")
+})
 @Data
 public class PracticeRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "practice_records_id")
+    @TableGenerator(name = "practice_records_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "practice_records", allocationSize = 50)
     private Long id;
 
     // 学生ID
@@ -33,6 +41,7 @@ public class PracticeRecord {
     private Double score;
 
     // 答案数据（JSON格式）
+    @Convert(converter = CompressedTextConverter.class)
     @Column(name = "answer_data", columnDefinition = "TEXT")
     private String answerData;
 
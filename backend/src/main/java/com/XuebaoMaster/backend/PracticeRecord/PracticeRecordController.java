@@ -3,6 +3,7 @@ package com.XuebaoMaster.backend.PracticeRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -160,6 +161,28 @@ public class PracticeRecordController {
         return ResponseEntity.ok(practiceRecordService.getStudentBestScoreOnQuestion(studentId, questionId));
     }
 
+    /**
+     * 从练习记录重建题目汇总表
+     */
+    @PostMapping("/summaries/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildQuestionSummaries() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("rows", practiceRecordService.rebuildQuestionSummaries());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 从练习记录重建知识点聚合表
+     */
+    @PostMapping("/knowledge-cube/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildKnowledgePointCube() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("rows", practiceRecordService.rebuildKnowledgePointCube());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 获取特定时间段内的练习记录
      */
@@ -1,13 +1,17 @@
 package com.XuebaoMaster.backend.PracticeRecord;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.Map;
 
 @Repository
 public interface PracticeRecordRepository extends JpaRepository<PracticeRecord, Long> {
@@ -23,6 +27,13 @@ public interface PracticeRecordRepository extends JpaRepository<PracticeRecord,
         // 根据题目ID查询练习记录
         List<PracticeRecord> findByQuestionId(Long questionId);
 
+        // 删除作业的已归档练习记录(热表中的记录通过实体删除)
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "practice_records_archive"))
+        @Transactional
+        @Query(value = "DELETE FROM practice_records_archive WHERE homework_id = :homeworkId", nativeQuery = true)
+        int deleteArchivedByHomeworkId(@Param("homeworkId") Long homeworkId);
+
         // 根据学生ID和作业ID查询练习记录
         List<PracticeRecord> findByStudentIdAndHomeworkId(Long studentId, Long homeworkId);
 
@@ -74,15 +85,6 @@ public interface PracticeRecordRepository extends JpaRepository<PracticeRecord,
                         "ORDER BY practice_date", nativeQuery = true)
         List<Object[]> getStudentPracticeTrend(@Param("studentId") Long studentId);
 
-        // 查询最薄弱的题目（正确率最低的题目）
-        @Query(value = "SELECT p.question_id, " +
-                        "SUM(CASE WHEN p.is_correct = true THEN 1 ELSE 0 END) / COUNT(*) as correct_rate " +
-                        "FROM practice_records p " +
-                        "GROUP BY p.question_id " +
-                        "ORDER BY correct_rate ASC " +
-                        "LIMIT :limit", nativeQuery = true)
-        List<Object[]> findWeakestQuestions(@Param("limit") int limit);
-
         // 查询学生最薄弱的题目
         @Query(value = "SELECT p.question_id, " +
                         "MIN(p.score) as min_score " +
@@ -92,42 +94,4 @@ public interface PracticeRecordRepository extends JpaRepository<PracticeRecord,
                         "ORDER BY min_score ASC " +
                         "LIMIT :limit", nativeQuery = true)
         List<Object[]> findStudentWeakestQuestions(@Param("studentId") Long studentId, @Param("limit") int limit);
-
-        // 学生知识点掌握情况
-        @Query(value = "SELECT qg.query as knowledge_point, " +
-                        "AVG(pr.score) as average_score, " +
-                        "COUNT(pr.id) as attempt_count " +
-                        "FROM practice_records pr " +
-                        "JOIN homework_questions hq ON pr.question_id = hq.question_id " +
-                        "JOIN question_generator qg ON hq.question_id = qg.id " +
-                        "WHERE pr.student_id = :studentId " +
-                        "GROUP BY qg.query " +
-                        "ORDER BY average_score ASC", nativeQuery = true)
-        List<Map<String, Object>> findStudentKnowledgePointStats(@Param("studentId") Long studentId);
-
-        // 班级知识点掌握情况
-        @Query(value = "SELECT qg.query as knowledge_point, " +
-                        "AVG(pr.score) as average_score, " +
-                        "COUNT(pr.id) as attempt_count " +
-                        "FROM practice_records pr " +
-                        "JOIN homework_questions hq ON pr.question_id = hq.question_id " +
-                        "JOIN question_generator qg ON hq.question_id = qg.id " +
-                        "JOIN users u ON pr.student_id = u.id " +
-                        "WHERE u.class_id = :classId " +
-                        "GROUP BY qg.query " +
-                        "ORDER BY average_score ASC", nativeQuery = true)
-        List<Map<String, Object>> findClassKnowledgePointStats(@Param("classId") Long classId);
-
-        // 课程知识点掌握情况
-        @Query(value = "SELECT qg.query as knowledge_point, " +
-                        "AVG(pr.score) as average_score, " +
-                        "COUNT(pr.id) as attempt_count " +
-                        "FROM practice_records pr " +
-                        "JOIN homework_questions hq ON pr.question_id = hq.question_id " +
-                        "JOIN question_generator qg ON hq.question_id = qg.id " +
-                        "JOIN homeworks hw ON pr.homework_id = hw.id " +
-                        "WHERE hw.course_id = :courseId " +
-                        "GROUP BY qg.query " +
-                        "ORDER BY average_score ASC", nativeQuery = true)
-        List<Map<String, Object>> findCourseKnowledgePointStats(@Param("courseId") Long courseId);
-}
\ No newline at end of file
+}
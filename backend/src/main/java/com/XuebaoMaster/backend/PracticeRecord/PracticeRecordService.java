@@ -135,4 +135,18 @@ public interface PracticeRecordService {
          * 获取课程知识点掌握情况
          */
         List<Map<String, Object>> getCourseKnowledgePointStats(Long courseId);
-}
\ No newline at end of file
+
+        /**
+         * 从练习记录全量重建(学生, 作业, 题目)汇总表
+         * 
+         * @return 重建的汇总行数
+         */
+        int rebuildQuestionSummaries();
+
+        /**
+         * 从练习记录全量重建知识点聚合表
+         * 
+         * @return 重建的单元格行数
+         */
+        int rebuildKnowledgePointCube();
+}
@@ -0,0 +1,33 @@
+package com.XuebaoMaster.backend.PracticeRecord.config;
+
+import com.XuebaoMaster.backend.config.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 练习报告各统计分区并行计算使用的线程池
+ * 线程数有上限，任务内的查询走分析副本连接池，报表高峰不会占用主库连接
+ */
+@Configuration
+public class PracticeReportConfig {
+
+    @Bean(name = "practiceReportExecutor")
+    public Executor practiceReportExecutor(@Value("${practice-report.pool-size:4}") int poolSize,
+            @Value("${practice-report.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PracticeReport-");
+        executor.setTaskDecorator(RoutingDataSource::analytics);
+        // 队列满时由请求线程自己计算，限制同时占用的数据库连接数
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -2,17 +2,23 @@ package com.XuebaoMaster.backend.PracticeRecord.impl;
 
 import com.XuebaoMaster.backend.Homework.Homework;
 import com.XuebaoMaster.backend.Homework.HomeworkRepository;
-import com.XuebaoMaster.backend.HomeworkQuestion.HomeworkQuestion;
 import com.XuebaoMaster.backend.HomeworkQuestion.HomeworkQuestionService;
+import com.XuebaoMaster.backend.PracticeRecord.KnowledgePointCubeRepository;
+import com.XuebaoMaster.backend.PracticeRecord.PracticeQuestionSummaryRepository;
 import com.XuebaoMaster.backend.PracticeRecord.PracticeRecord;
 import com.XuebaoMaster.backend.PracticeRecord.PracticeRecordRepository;
 import com.XuebaoMaster.backend.PracticeRecord.PracticeRecordService;
 import com.XuebaoMaster.backend.SchoolClass.SchoolClassService;
 import com.XuebaoMaster.backend.StudentCourse.StudentCourseRepository;
+import com.XuebaoMaster.backend.config.AnalyticsQuery;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,9 +26,24 @@ import java.util.stream.Collectors;
 @Service
 public class PracticeRecordServiceImpl implements PracticeRecordService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PracticeRecordServiceImpl.class);
+
+    // 知识点聚合表切片不限日期时使用的边界
+    private static final LocalDate CUBE_MIN_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate CUBE_MAX_DATE = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private PracticeRecordRepository practiceRecordRepository;
 
+    @Autowired
+    private PracticeQuestionSummaryRepository practiceQuestionSummaryRepository;
+
+    @Autowired
+    private KnowledgePointCubeRepository knowledgePointCubeRepository;
+
+    @Autowired
+    private PracticeReportEngine practiceReportEngine;
+
     @Autowired
     private HomeworkQuestionService homeworkQuestionService;
 
@@ -35,7 +56,34 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
     @Autowired
     private HomeworkRepository homeworkRepository;
 
+    /**
+     * 首次启用题目汇总表时，从已有练习记录补齐
+     */
+    @PostConstruct
+    public void initializeQuestionSummaries() {
+        if (practiceQuestionSummaryRepository.count() > 0 || practiceRecordRepository.count() == 0) {
+            return;
+        }
+        logger.info("练习题目汇总表为空，从练习记录补齐");
+        int rows = practiceQuestionSummaryRepository.insertAllFromRecords();
+        logger.info("练习题目汇总补齐完成，共 {} 行", rows);
+    }
+
+    /**
+     * 首次启用知识点聚合表时，从已有练习记录补齐
+     */
+    @PostConstruct
+    public void initializeKnowledgePointCube() {
+        if (knowledgePointCubeRepository.count() > 0 || practiceRecordRepository.count() == 0) {
+            return;
+        }
+        logger.info("知识点聚合表为空，从练习记录补齐");
+        int rows = knowledgePointCubeRepository.insertAllFromRecords();
+        logger.info("知识点聚合补齐完成，共 {} 行", rows);
+    }
+
     @Override
+    @Transactional
     public PracticeRecord createPracticeRecord(PracticeRecord practiceRecord) {
         // 验证分数范围
         validateScore(practiceRecord.getScore());
@@ -50,7 +98,12 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
             practiceRecord.setIsCorrect(practiceRecord.getScore() >= 60);
         }
 
-        return practiceRecordRepository.save(practiceRecord);
+        PracticeRecord saved = practiceRecordRepository.save(practiceRecord);
+        practiceQuestionSummaryRepository.recordAttempt(saved.getStudentId(), saved.getHomeworkId(),
+                saved.getQuestionId(), saved.getScore(), Boolean.TRUE.equals(saved.getIsCorrect()),
+                saved.getSubmittedAt());
+        applyCubeDelta(saved, saved.getScore(), 1, Boolean.TRUE.equals(saved.getIsCorrect()) ? 1 : 0);
+        return saved;
     }
 
     @Override
@@ -62,6 +115,8 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
         // 检查记录是否存在
         PracticeRecord existingRecord = practiceRecordRepository.findById(practiceRecord.getId())
                 .orElseThrow(() -> new RuntimeException("练习记录不存在，ID: " + practiceRecord.getId()));
+        double previousScore = existingRecord.getScore();
+        int previousCorrect = Boolean.TRUE.equals(existingRecord.getIsCorrect()) ? 1 : 0;
 
         // 更新记录信息
         existingRecord.setScore(practiceRecord.getScore());
@@ -70,7 +125,11 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
         existingRecord.setIsCorrect(practiceRecord.getScore() >= 60);
         existingRecord.setAttemptCount(practiceRecord.getAttemptCount());
 
-        return practiceRecordRepository.save(existingRecord);
+        PracticeRecord saved = practiceRecordRepository.saveAndFlush(existingRecord);
+        refreshQuestionSummary(saved);
+        applyCubeDelta(saved, saved.getScore() - previousScore, 0,
+                (Boolean.TRUE.equals(saved.getIsCorrect()) ? 1 : 0) - previousCorrect);
+        return saved;
     }
 
     @Override
@@ -87,10 +146,11 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
             throw new IllegalArgumentException("该题目不属于指定的作业");
         }
 
-        // 查找该学生该题目的最新练习记录
-        Optional<PracticeRecord> latestRecord = practiceRecordRepository
-                .findTopByStudentIdAndHomeworkIdAndQuestionIdOrderBySubmittedAtDesc(
-                        studentId, homeworkId, questionId);
+        // 先更新汇总行：并发提交在同一行锁上排队，尝试次数不会重复
+        LocalDateTime submittedAt = LocalDateTime.now();
+        practiceQuestionSummaryRepository.recordAttempt(studentId, homeworkId, questionId, score, score >= 60,
+                submittedAt);
+        Integer attemptCount = practiceQuestionSummaryRepository.findAttemptCount(studentId, homeworkId, questionId);
 
         PracticeRecord practiceRecord = new PracticeRecord();
         practiceRecord.setStudentId(studentId);
@@ -99,14 +159,13 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
         practiceRecord.setScore(score);
         practiceRecord.setAnswerData(answerData);
         practiceRecord.setTimeSpent(timeSpent);
-        practiceRecord.setSubmittedAt(LocalDateTime.now());
+        practiceRecord.setSubmittedAt(submittedAt);
         practiceRecord.setIsCorrect(score >= 60);
+        practiceRecord.setAttemptCount(attemptCount != null ? attemptCount : 1);
 
-        // 设置尝试次数
-        practiceRecord.setAttemptCount(
-                latestRecord.map(PracticeRecord::getAttemptCount).orElse(0) + 1);
-
-        return practiceRecordRepository.save(practiceRecord);
+        PracticeRecord saved = practiceRecordRepository.save(practiceRecord);
+        applyCubeDelta(saved, score, 1, score >= 60 ? 1 : 0);
+        return saved;
     }
 
     @Override
@@ -131,47 +190,48 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
     }
 
     @Override
+    @Transactional
     public void deletePracticeRecord(Long id) {
-        practiceRecordRepository.deleteById(id);
+        Optional<PracticeRecord> existing = practiceRecordRepository.findById(id);
+        if (existing.isEmpty()) {
+            return;
+        }
+        practiceRecordRepository.delete(existing.get());
+        practiceRecordRepository.flush();
+        refreshQuestionSummary(existing.get());
+        PracticeRecord record = existing.get();
+        applyCubeDelta(record, -record.getScore(), -1, Boolean.TRUE.equals(record.getIsCorrect()) ? -1 : 0);
+        knowledgePointCubeRepository.deleteEmptyCells();
     }
 
     @Override
     @Transactional
     public void deletePracticeRecordsByHomeworkId(Long homeworkId) {
+        // 先按作业扣除知识点聚合，再删除记录
+        Long courseId = homeworkRepository.findById(homeworkId).map(Homework::getCourseId).orElse(0L);
+        knowledgePointCubeRepository.subtractHomeworkRecords(homeworkId, courseId);
+        practiceReportEngine.invalidate(null, homeworkId);
+        knowledgePointCubeRepository.deleteEmptyCells();
+
         List<PracticeRecord> records = practiceRecordRepository.findByHomeworkId(homeworkId);
         practiceRecordRepository.deleteAll(records);
+        practiceRecordRepository.deleteArchivedByHomeworkId(homeworkId);
+        practiceQuestionSummaryRepository.deleteByHomeworkId(homeworkId);
     }
 
     @Override
     public Map<String, Object> calculateStudentHomeworkStats(Long studentId, Long homeworkId) {
         Map<String, Object> stats = new HashMap<>();
 
-        // 获取作业中的题目列表
-        List<HomeworkQuestion> homeworkQuestions = homeworkQuestionService.getQuestionsByHomeworkId(homeworkId);
-        int totalQuestions = homeworkQuestions.size();
-
-        // 获取学生在该作业中的所有练习记录
-        List<PracticeRecord> studentRecords = practiceRecordRepository
-                .findByStudentIdAndHomeworkId(studentId, homeworkId);
+        // 作业中的题目数量
+        Long questionCount = homeworkQuestionService.getQuestionCountByHomeworkId(homeworkId);
+        int totalQuestions = questionCount != null ? questionCount.intValue() : 0;
 
-        // 按题目ID分组，找出每个题目的最高分
-        Map<Long, PracticeRecord> bestRecords = new HashMap<>();
-
-        for (PracticeRecord record : studentRecords) {
-            Long questionId = record.getQuestionId();
-            if (!bestRecords.containsKey(questionId) ||
-                    bestRecords.get(questionId).getScore() < record.getScore()) {
-                bestRecords.put(questionId, record);
-            }
-        }
-
-        // 计算总分和完成题目数量
-        double totalScore = 0.0;
-        int completedCount = bestRecords.size();
-
-        for (PracticeRecord record : bestRecords.values()) {
-            totalScore += record.getScore();
-        }
+        // 从题目汇总表读取已作答题目数和各题最高分之和
+        List<Object[]> sums = practiceQuestionSummaryRepository.sumBestScores(studentId, homeworkId);
+        Object[] row = sums.isEmpty() ? new Object[] { 0L, 0.0 } : sums.get(0);
+        int completedCount = ((Number) row[0]).intValue();
+        double totalScore = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
 
         // 平均分（已完成的题目）
         double averageScore = completedCount > 0 ? totalScore / completedCount : 0;
@@ -221,6 +281,8 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public List<Map<String, Object>> getCourseHomeworkStats(Long courseId) {
         long totalStudentsInCourse = studentCourseRepository.countByCourseId(courseId);
 
@@ -248,6 +310,8 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public List<Map<String, Object>> getStudentPracticeTrend(Long studentId) {
         List<Object[]> trend = practiceRecordRepository.getStudentPracticeTrend(studentId);
 
@@ -263,6 +327,8 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public List<Map<String, Object>> getStudentWeakestQuestions(Long studentId, int limit) {
         List<Object[]> weakQuestions = practiceRecordRepository.findStudentWeakestQuestions(studentId, limit);
 
@@ -278,15 +344,17 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public List<Map<String, Object>> getClassWeakestQuestions(Long classId, int limit) {
-        // 获取所有习题的正确率
-        List<Object[]> weakQuestions = practiceRecordRepository.findWeakestQuestions(limit);
+        // 从知识点聚合表读取班级内各题正确率
+        List<Object[]> weakQuestions = knowledgePointCubeRepository.findClassWeakestQuestions(classId, limit);
 
         List<Map<String, Object>> result = new ArrayList<>();
         for (Object[] question : weakQuestions) {
             Map<String, Object> questionMap = new HashMap<>();
             questionMap.put("question_id", ((Number) question[0]).longValue());
-            questionMap.put("correct_rate", (Double) question[1]);
+            questionMap.put("correct_rate", question[1] != null ? ((Number) question[1]).doubleValue() : 0.0);
             result.add(questionMap);
         }
 
@@ -295,12 +363,8 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
 
     @Override
     public Double getStudentBestScoreOnQuestion(Long studentId, Long questionId) {
-        List<PracticeRecord> records = practiceRecordRepository.findByStudentIdAndQuestionId(studentId, questionId);
-
-        return records.stream()
-                .mapToDouble(PracticeRecord::getScore)
-                .max()
-                .orElse(0.0);
+        Double bestScore = practiceQuestionSummaryRepository.findBestScore(studentId, questionId);
+        return bestScore != null ? bestScore : 0.0;
     }
 
     @Override
@@ -310,85 +374,33 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
     }
 
     @Override
+    @AnalyticsQuery
     public Map<String, Object> generatePracticeReport(
             Long studentId, Long classId, Long courseId,
             LocalDateTime startDate, LocalDateTime endDate) {
-
-        Map<String, Object> report = new HashMap<>();
-
-        if (studentId != null) {
-            // 学生个人报告
-
-            // 基本信息
-            report.put("student_id", studentId);
-            report.put("report_type", "student");
-            report.put("period_start", startDate);
-            report.put("period_end", endDate);
-
-            // 练习次数
-            List<PracticeRecord> periodRecords = getPracticeRecordsByTimeRange(studentId, startDate, endDate);
-            report.put("practice_count", periodRecords.size());
-
-            // 平均分
-            double avgScore = periodRecords.stream()
-                    .mapToDouble(PracticeRecord::getScore)
-                    .average()
-                    .orElse(0.0);
-            report.put("average_score", avgScore);
-
-            // 练习趋势
-            report.put("trend", getStudentPracticeTrend(studentId));
-
-            // 薄弱环节
-            report.put("weak_questions", getStudentWeakestQuestions(studentId, 5));
-
-        } else if (classId != null) {
-            // 班级报告
-
-            // 基本信息
-            report.put("class_id", classId);
-            report.put("report_type", "class");
-            report.put("period_start", startDate);
-            report.put("period_end", endDate);
-
-            // 获取班级学生ID列表
-            List<Long> studentIds = schoolClassService.getStudentIdsByClassId(classId);
-            report.put("student_count", studentIds.size());
-
-            // TODO: 班级报告其他统计数据
-            // 班级平均分
-            // 完成度统计
-            // 薄弱环节
-
-        } else if (courseId != null) {
-            // 课程报告
-
-            // 基本信息
-            report.put("course_id", courseId);
-            report.put("report_type", "course");
-
-            // 作业统计
-            report.put("homework_stats", getCourseHomeworkStats(courseId));
-
-            // TODO: 课程报告其他统计数据
-        }
-
-        return report;
+        // 各统计分区由报告引擎并行计算并按(范围, 周期)缓存
+        return practiceReportEngine.generate(studentId, classId, courseId, startDate, endDate);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public List<Map<String, Object>> getStudentKnowledgePointStats(Long studentId) {
-        return practiceRecordRepository.findStudentKnowledgePointStats(studentId);
+        return knowledgePointCubeRepository.findStudentKnowledgePointStats(studentId, CUBE_MIN_DATE, CUBE_MAX_DATE);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public List<Map<String, Object>> getClassKnowledgePointStats(Long classId) {
-        return practiceRecordRepository.findClassKnowledgePointStats(classId);
+        return knowledgePointCubeRepository.findClassKnowledgePointStats(classId, CUBE_MIN_DATE, CUBE_MAX_DATE);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public List<Map<String, Object>> getCourseKnowledgePointStats(Long courseId) {
-        return practiceRecordRepository.findCourseKnowledgePointStats(courseId);
+        return knowledgePointCubeRepository.findCourseKnowledgePointStats(courseId, CUBE_MIN_DATE, CUBE_MAX_DATE);
     }
 
     /**
@@ -399,4 +411,41 @@ public class PracticeRecordServiceImpl implements PracticeRecordService {
             throw new IllegalArgumentException("分数必须在0-100之间");
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public int rebuildQuestionSummaries() {
+        practiceQuestionSummaryRepository.deleteAllSummaries();
+        int rows = practiceQuestionSummaryRepository.insertAllFromRecords();
+        logger.info("重建练习题目汇总，共 {} 行", rows);
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildKnowledgePointCube() {
+        knowledgePointCubeRepository.deleteAllCells();
+        int rows = knowledgePointCubeRepository.insertAllFromRecords();
+        logger.info("重建知识点聚合表，共 {} 行", rows);
+        return rows;
+    }
+
+    /**
+     * 把一条练习记录的变化累加到知识点聚合表对应单元格
+     */
+    private void applyCubeDelta(PracticeRecord record, double scoreDelta, int attemptDelta, int correctDelta) {
+        practiceReportEngine.invalidate(record.getStudentId(), record.getHomeworkId());
+        knowledgePointCubeRepository.applyDelta(record.getStudentId(), record.getHomeworkId(), record.getQuestionId(),
+                record.getSubmittedAt().toLocalDate(), scoreDelta, attemptDelta, correctDelta);
+    }
+
+    /**
+     * 练习记录被修改或删除后，按剩余记录重新计算对应的汇总行
+     */
+    private void refreshQuestionSummary(PracticeRecord record) {
+        practiceQuestionSummaryRepository.deleteSummary(record.getStudentId(), record.getHomeworkId(),
+                record.getQuestionId());
+        practiceQuestionSummaryRepository.insertSummaryFromRecords(record.getStudentId(), record.getHomeworkId(),
+                record.getQuestionId());
+    }
+}
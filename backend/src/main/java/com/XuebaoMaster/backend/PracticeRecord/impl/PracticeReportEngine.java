@@ -0,0 +1,417 @@
+package com.XuebaoMaster.backend.PracticeRecord.impl;
+
+import com.XuebaoMaster.backend.DataArchive.ArchivedTable;
+import com.XuebaoMaster.backend.DataArchive.DataArchiveService;
+import com.XuebaoMaster.backend.PracticeRecord.KnowledgePointCubeRepository;
+import com.XuebaoMaster.backend.PracticeRecord.PracticeRecordRepository;
+import com.XuebaoMaster.backend.StudentCourse.StudentCourseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 练习报告引擎
+ * 学生、班级、课程三种范围的报告由相互独立的统计分区组成，各分区在有界线程池上并行查询；
+ * 完成的报告按(范围, 周期)缓存，缓存和返回的都是不可变的报告，练习记录变更提交后失效相关范围；
+ * 周期开始早于归档分界时，练习记录从热表和归档表合并的视图读取
+ */
+@Component
+public class PracticeReportEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PracticeReportEngine.class);
+
+    private static final LocalDateTime EARLIEST_PERIOD_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // 分数分布区间下界，最后一档包含 100 分
+    private static final int[] DISTRIBUTION_BOUNDS = { 0, 60, 70, 80, 90 };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PracticeRecordRepository practiceRecordRepository;
+
+    @Autowired
+    private KnowledgePointCubeRepository knowledgePointCubeRepository;
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private DataArchiveService dataArchiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("practiceReportExecutor")
+    private Executor practiceReportExecutor;
+
+    @Value("${practice-report.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    @Value("${practice-report.cache-max-entries:500}")
+    private int cacheMaxEntries;
+
+    @Value("${practice-report.timeout-ms:30000}")
+    private long timeoutMs;
+
+    private final ConcurrentHashMap<ReportKey, CachedReport> cache = new ConcurrentHashMap<>();
+
+    // 每次失效加一；计算期间发生过失效的报告不写入缓存
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public Map<String, Object> generate(Long studentId, Long classId, Long courseId,
+            LocalDateTime startDate, LocalDateTime endDate) {
+        ReportKey key = keyFor(studentId, classId, courseId, startDate, endDate);
+
+        CachedReport cached = cache.get(key);
+        if (cached != null && cached.createdAt() + cacheTtlMs > System.currentTimeMillis()) {
+            return cached.report();
+        }
+
+        long generation = invalidations.get();
+        Map<String, Object> report = compute(key);
+        if (invalidations.get() == generation) {
+            if (cache.size() >= cacheMaxEntries) {
+                evictExpired();
+            }
+            if (cache.size() < cacheMaxEntries) {
+                cache.put(key, new CachedReport(report, System.currentTimeMillis()));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 练习记录变更后调用；事务提交后在报告线程池中失效学生本人、所在班级和作业所属课程的报告
+     */
+    public void invalidate(Long studentId, Long homeworkId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidations.incrementAndGet();
+                    practiceReportExecutor.execute(() -> evict(studentId, homeworkId));
+                }
+            });
+        } else {
+            invalidations.incrementAndGet();
+            practiceReportExecutor.execute(() -> evict(studentId, homeworkId));
+        }
+    }
+
+    private void evict(Long studentId, Long homeworkId) {
+        if (cache.isEmpty()) {
+            return;
+        }
+        Long classId = null;
+        Long courseId = null;
+        // 只有缓存了班级/课程报告时才需要解析学生班级和作业课程
+        if (studentId != null && hasCached(ReportScope.CLASS)) {
+            classId = queryForLong("SELECT class_id FROM users WHERE id = ?", studentId);
+        }
+        if (homeworkId != null && hasCached(ReportScope.COURSE)) {
+            courseId = queryForLong("SELECT course_id FROM homeworks WHERE id = ?", homeworkId);
+        }
+        Long resolvedClassId = classId;
+        Long resolvedCourseId = courseId;
+        cache.keySet().removeIf(key -> switch (key.scope()) {
+            case STUDENT -> studentId == null || key.scopeId().equals(studentId);
+            case CLASS -> resolvedClassId == null || key.scopeId().equals(resolvedClassId);
+            // 作业已删除时无法确定课程，失效全部课程报告
+            case COURSE -> resolvedCourseId == null || key.scopeId().equals(resolvedCourseId);
+        });
+    }
+
+    private Map<String, Object> compute(ReportKey key) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        Map<String, CompletableFuture<?>> sections = new LinkedHashMap<>();
+        sections.put("overview", submit(deadline, () -> overview(key)));
+        sections.put("trend", submit(deadline, () -> trend(key)));
+        sections.put("score_distribution", submit(deadline, () -> distribution(key)));
+        sections.put("knowledge_points", submit(deadline, () -> knowledgePoints(key)));
+        switch (key.scope()) {
+            case STUDENT -> sections.put("weak_questions",
+                    submit(deadline, () -> studentWeakQuestions(key.scopeId())));
+            case CLASS -> {
+                sections.put("weak_questions", submit(deadline, () -> classWeakQuestions(key.scopeId())));
+                sections.put("population", submit(deadline, () -> queryForLong(
+                        "SELECT COUNT(*) FROM users WHERE class_id = ?", key.scopeId())));
+            }
+            case COURSE -> {
+                sections.put("homework_stats", submit(deadline, () -> courseHomeworkStats(key)));
+                sections.put("population",
+                        submit(deadline, () -> studentCourseRepository.countByCourseId(key.scopeId())));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(sections.values().toArray(new CompletableFuture[0]))
+                    .get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // cancel 只能让还在排队的分区不再执行，不会中断已在执行的查询；
+            // 执行中的查询由各分区事务的超时在数据库端终止
+            sections.values().forEach(future -> future.cancel(false));
+            logger.error("生成练习报告失败 {}", key, e);
+            throw new RuntimeException("生成练习报告失败: " + e.getMessage());
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        String scopeName = key.scope().name().toLowerCase();
+        report.put(scopeName + "_id", key.scopeId());
+        report.put("report_type", scopeName);
+        report.put("period_start", key.periodStart());
+        report.put("period_end", key.periodEnd());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> overview = (Map<String, Object>) sections.remove("overview").join();
+        report.putAll(overview);
+
+        CompletableFuture<?> population = sections.remove("population");
+        if (population != null) {
+            long studentCount = population.join() != null ? ((Number) population.join()).longValue() : 0;
+            long activeStudents = ((Number) overview.get("active_student_count")).longValue();
+            report.put("student_count", studentCount);
+            report.put("completion_rate", studentCount > 0 ? (double) activeStudents / studentCount : 0);
+        }
+        sections.forEach((name, future) -> report.put(name, future.join()));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> frozen = (Map<String, Object>) freeze(report);
+        return frozen;
+    }
+
+    /**
+     * 每个分区在只读事务中执行，事务超时取报告剩余的时间；
+     * Spring 把它设为 JdbcTemplate 和 JPA 查询的语句超时，驱动在超时后取消数据库端的查询
+     */
+    private <T> CompletableFuture<T> submit(long deadline, Supplier<T> section) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            long remainingMs = Math.max(0, deadline - System.currentTimeMillis());
+            transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999)));
+            return transactionTemplate.execute(status -> section.get());
+        }, practiceReportExecutor);
+    }
+
+    /**
+     * 逐层复制为不可变的 Map/List，缓存中的报告不会被调用方修改
+     */
+    private static Object freeze(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((name, item) -> copy.put(name, freeze(item)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(freeze(item));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    // 练习次数、平均分、参与练习的学生数
+    private Map<String, Object> overview(ReportKey key) {
+        String sql = "SELECT COUNT(*), AVG(pr.score), COUNT(DISTINCT pr.student_id) FROM " + key.source()
+                + " WHERE " + key.scope().filter + " AND pr.submitted_at >= ? AND pr.submitted_at < ?";
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            Map<String, Object> overview = new HashMap<>();
+            overview.put("practice_count", rs.getLong(1));
+            overview.put("average_score", rs.getDouble(2));
+            overview.put("active_student_count", rs.getLong(3));
+            return overview;
+        }, periodArgs(key));
+    }
+
+    // 按天平均分
+    private List<Map<String, Object>> trend(ReportKey key) {
+        String sql = "SELECT DATE(pr.submitted_at) AS practice_date, AVG(pr.score) FROM " + key.source()
+                + " WHERE " + key.scope().filter + " AND pr.submitted_at >= ? AND pr.submitted_at < ?"
+                + " GROUP BY DATE(pr.submitted_at) ORDER BY practice_date";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> point = new HashMap<>();
+            point.put("date", rs.getDate(1).toString());
+            point.put("average_score", rs.getDouble(2));
+            return point;
+        }, periodArgs(key));
+    }
+
+    // 分数分布直方图
+    private List<Map<String, Object>> distribution(ReportKey key) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < DISTRIBUTION_BOUNDS.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("COALESCE(SUM(CASE WHEN pr.score >= ").append(DISTRIBUTION_BOUNDS[i]);
+            if (i + 1 < DISTRIBUTION_BOUNDS.length) {
+                sql.append(" AND pr.score < ").append(DISTRIBUTION_BOUNDS[i + 1]);
+            }
+            sql.append(" THEN 1 ELSE 0 END), 0)");
+        }
+        sql.append(" FROM ").append(key.source()).append(" WHERE ").append(key.scope().filter)
+                .append(" AND pr.submitted_at >= ? AND pr.submitted_at < ?");
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> {
+            List<Map<String, Object>> buckets = new ArrayList<>();
+            for (int i = 0; i < DISTRIBUTION_BOUNDS.length; i++) {
+                int upper = i + 1 < DISTRIBUTION_BOUNDS.length ? DISTRIBUTION_BOUNDS[i + 1] - 1 : 100;
+                Map<String, Object> bucket = new HashMap<>();
+                bucket.put("range", DISTRIBUTION_BOUNDS[i] + "-" + upper);
+                bucket.put("count", rs.getLong(i + 1));
+                buckets.add(bucket);
+            }
+            return buckets;
+        }, periodArgs(key));
+    }
+
+    // 知识点掌握情况，读取知识点聚合表（按天粒度）
+    private List<Map<String, Object>> knowledgePoints(ReportKey key) {
+        LocalDate startDay = key.periodStart().toLocalDate();
+        LocalDate endDay = key.periodEnd().minusNanos(1).toLocalDate();
+        return switch (key.scope()) {
+            case STUDENT -> knowledgePointCubeRepository.findStudentKnowledgePointStats(key.scopeId(), startDay, endDay);
+            case CLASS -> knowledgePointCubeRepository.findClassKnowledgePointStats(key.scopeId(), startDay, endDay);
+            case COURSE -> knowledgePointCubeRepository.findCourseKnowledgePointStats(key.scopeId(), startDay, endDay);
+        };
+    }
+
+    private List<Map<String, Object>> studentWeakQuestions(Long studentId) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] question : practiceRecordRepository.findStudentWeakestQuestions(studentId, 5)) {
+            Map<String, Object> questionMap = new HashMap<>();
+            questionMap.put("question_id", ((Number) question[0]).longValue());
+            questionMap.put("min_score", ((Number) question[1]).doubleValue());
+            result.add(questionMap);
+        }
+        return result;
+    }
+
+    private List<Map<String, Object>> classWeakQuestions(Long classId) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] question : knowledgePointCubeRepository.findClassWeakestQuestions(classId, 5)) {
+            Map<String, Object> questionMap = new HashMap<>();
+            questionMap.put("question_id", ((Number) question[0]).longValue());
+            questionMap.put("correct_rate", question[1] != null ? ((Number) question[1]).doubleValue() : 0.0);
+            result.add(questionMap);
+        }
+        return result;
+    }
+
+    // 课程下各作业的提交人数和平均分，与 getCourseHomeworkStats 字段一致，一次查询带出作业标题
+    private List<Map<String, Object>> courseHomeworkStats(ReportKey key) {
+        Long courseId = key.scopeId();
+        long enrolled = studentCourseRepository.countByCourseId(courseId);
+        String sql = "SELECT hw.id, hw.title, COUNT(DISTINCT pr.student_id), AVG(pr.score) FROM homeworks hw "
+                + "JOIN " + ArchivedTable.PRACTICE_RECORDS.source(key.includeArchive())
+                + " pr ON pr.homework_id = hw.id WHERE hw.course_id = ? GROUP BY hw.id, hw.title";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long studentCount = rs.getLong(3);
+            Map<String, Object> homeworkStat = new HashMap<>();
+            homeworkStat.put("homeworkId", rs.getLong(1));
+            homeworkStat.put("homeworkTitle", rs.getString(2));
+            homeworkStat.put("studentCount", studentCount);
+            homeworkStat.put("averageScore", rs.getDouble(4));
+            homeworkStat.put("completionRate", enrolled > 0 ? (double) studentCount / enrolled : 0);
+            return homeworkStat;
+        }, courseId);
+    }
+
+    private Object[] periodArgs(ReportKey key) {
+        return new Object[] { key.scopeId(), Timestamp.valueOf(key.periodStart()), Timestamp.valueOf(key.periodEnd()) };
+    }
+
+    private Long queryForLong(String sql, Long id) {
+        List<Long> values = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long value = rs.getLong(1);
+            return rs.wasNull() ? null : value;
+        }, id);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private boolean hasCached(ReportScope scope) {
+        return cache.keySet().stream().anyMatch(key -> key.scope() == scope);
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.entrySet().removeIf(entry -> entry.getValue().createdAt() + cacheTtlMs <= now);
+    }
+
+    /**
+     * 周期按分钟对齐（结束时间向上取整），使默认的“最近30天”请求在一分钟内命中同一缓存；
+     * 周期开始早于归档分界时查询合并视图，否则只查热表
+     */
+    private ReportKey keyFor(Long studentId, Long classId, Long courseId,
+            LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime start = (startDate != null ? startDate : EARLIEST_PERIOD_START).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = (endDate != null ? endDate : LocalDateTime.now()).truncatedTo(ChronoUnit.MINUTES)
+                .plusMinutes(1);
+        LocalDateTime cutoff = dataArchiveService.archiveCutoff(ArchivedTable.PRACTICE_RECORDS);
+        boolean includeArchive = cutoff != null && start.isBefore(cutoff);
+        if (studentId != null) {
+            return new ReportKey(ReportScope.STUDENT, studentId, start, end, includeArchive);
+        }
+        if (classId != null) {
+            return new ReportKey(ReportScope.CLASS, classId, start, end, includeArchive);
+        }
+        if (courseId != null) {
+            return new ReportKey(ReportScope.COURSE, courseId, start, end, includeArchive);
+        }
+        throw new IllegalArgumentException("至少需要提供studentId、classId或courseId其中一个参数");
+    }
+
+    private enum ReportScope {
+        // %s 为练习记录的表名，由 ReportKey.source 代入热表或合并视图
+        STUDENT("%s pr", "pr.student_id = ?"),
+        CLASS("%s pr JOIN users u ON u.id = pr.student_id", "u.class_id = ?"),
+        COURSE("%s pr JOIN homeworks hw ON hw.id = pr.homework_id", "hw.course_id = ?");
+
+        private final String source;
+        private final String filter;
+
+        ReportScope(String source, String filter) {
+            this.source = source;
+            this.filter = filter;
+        }
+    }
+
+    private record ReportKey(ReportScope scope, Long scopeId, LocalDateTime periodStart, LocalDateTime periodEnd,
+            boolean includeArchive) {
+
+        String source() {
+            return String.format(scope.source, ArchivedTable.PRACTICE_RECORDS.source(includeArchive));
+        }
+    }
+
+    private record CachedReport(Map<String, Object> report, long createdAt) {
+    }
+}
@@ -6,7 +6,10 @@ import lombok.Data;
 import com.XuebaoMaster.backend.User.User;
 
 @Entity
-@Table(name = "private_messages")
+@Table(name = "private_messages", indexes = {
+        @Index(name = "idx_private_messages_recipient_sent", columnList = "recipient_id, sent_at, id"),
+        @Index(name = "idx_private_messages_sender_sent", columnList = "sender_id, sent_at, id")
+})
 @Data
 public class PrivateMessage {
     @Id
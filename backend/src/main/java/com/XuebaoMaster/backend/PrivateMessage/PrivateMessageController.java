@@ -1,15 +1,19 @@
 package com.XuebaoMaster.backend.PrivateMessage;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import com.XuebaoMaster.backend.PrivateMessage.dto.PrivateMessageSummary;
 import com.XuebaoMaster.backend.User.User;
 import com.XuebaoMaster.backend.User.UserService;
 import com.XuebaoMaster.backend.util.JwtUtil;
+import com.XuebaoMaster.backend.util.KeysetPage;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -85,6 +89,21 @@ public class PrivateMessageController {
         return ResponseEntity.ok(privateMessageService.getAllMessagesForUser(currentUser.getId()));
     }
 
+    // Keyset-paginated message summaries for the current user (box: inbox, outbox, all)
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<PrivateMessageSummary>> getMessagePage(
+            @RequestParam(defaultValue = "inbox") String box,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTime,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(required = false) Integer limit) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
+        User currentUser = userService.getUserByUsername(username);
+
+        return ResponseEntity.ok(privateMessageService.getMessageSummaries(currentUser.getId(), box,
+                cursorTime, cursorId, limit));
+    }
+
     // Get inbox messages for the current user
     @GetMapping("/inbox")
     public ResponseEntity<List<PrivateMessage>> getInboxMessages() {
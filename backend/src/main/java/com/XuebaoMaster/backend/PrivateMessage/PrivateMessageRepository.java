@@ -1,10 +1,13 @@
 package com.XuebaoMaster.backend.PrivateMessage;
 
+import com.XuebaoMaster.backend.PrivateMessage.dto.PrivateMessageSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -39,4 +42,41 @@ public interface PrivateMessageRepository extends JpaRepository<PrivateMessage,
     @Query("SELECT COUNT(pm) FROM PrivateMessage pm " +
             "WHERE pm.recipient.id = :userId AND pm.read = false AND pm.recipientDeleted = false")
     Long countUnreadMessagesByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    String SUMMARY_SELECT = "SELECT new com.XuebaoMaster.backend.PrivateMessage.dto.PrivateMessageSummary(" +
+            "pm.id, pm.subject, s.id, s.username, r.id, r.username, pm.sentAt, pm.read) " +
+            "FROM PrivateMessage pm JOIN pm.sender s JOIN pm.recipient r ";
+
+    // Rows strictly after the (sentAt, id) cursor in descending order
+    String KEYSET_FILTER = "(pm.sentAt < :cursorTime OR (pm.sentAt = :cursorTime AND pm.id < :cursorId)) ";
+
+    String KEYSET_ORDER = "ORDER BY pm.sentAt DESC, pm.id DESC";
+
+    // Keyset page of received messages
+    @Query(SUMMARY_SELECT +
+            "WHERE pm.recipient.id = :userId AND pm.recipientDeleted = false AND " + KEYSET_FILTER +
+            KEYSET_ORDER)
+    List<PrivateMessageSummary> findInboxSummaries(@Param("userId") Long userId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // Keyset page of sent messages
+    @Query(SUMMARY_SELECT +
+            "WHERE pm.sender.id = :userId AND pm.senderDeleted = false AND " + KEYSET_FILTER +
+            KEYSET_ORDER)
+    List<PrivateMessageSummary> findOutboxSummaries(@Param("userId") Long userId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // Keyset page of sent and received messages
+    @Query(SUMMARY_SELECT +
+            "WHERE ((pm.sender.id = :userId AND pm.senderDeleted = false) " +
+            "OR (pm.recipient.id = :userId AND pm.recipientDeleted = false)) AND " + KEYSET_FILTER +
+            KEYSET_ORDER)
+    List<PrivateMessageSummary> findAllSummaries(@Param("userId") Long userId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+}
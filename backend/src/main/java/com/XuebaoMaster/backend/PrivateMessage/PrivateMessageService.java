@@ -4,22 +4,40 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.XuebaoMaster.backend.Notification.NotificationEvent;
+import com.XuebaoMaster.backend.Notification.NotificationInboxService;
+import com.XuebaoMaster.backend.Notification.NotificationPushService;
+import com.XuebaoMaster.backend.PrivateMessage.dto.PrivateMessageSummary;
 import com.XuebaoMaster.backend.User.User;
 import com.XuebaoMaster.backend.User.UserService;
+import com.XuebaoMaster.backend.util.KeysetPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class PrivateMessageService {
 
+    // 首页游标：早于它的都是有效数据，MySQL DATETIME 上限
+    private static final LocalDateTime FIRST_PAGE_CURSOR_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     @Autowired
     private PrivateMessageRepository privateMessageRepository;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private NotificationInboxService notificationInboxService;
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
     // Create a new message
     @Transactional
     public PrivateMessage sendMessage(Long senderId, Long recipientId, String subject, String content) {
@@ -32,7 +50,18 @@ public class PrivateMessageService {
         message.setSubject(subject);
         message.setContent(content);
 
-        return privateMessageRepository.save(message);
+        PrivateMessage saved = privateMessageRepository.save(message);
+        notificationInboxService.adjustUnreadPrivateMessages(recipientId, 1);
+
+        // 提交后推送给在线的收件人
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", saved.getId());
+        payload.put("subject", saved.getSubject());
+        payload.put("senderId", sender.getId());
+        payload.put("senderUsername", sender.getUsername());
+        payload.put("sentAt", saved.getSentAt());
+        notificationPushService.pushToUsers(NotificationEvent.TYPE_PRIVATE_MESSAGE, List.of(recipientId), payload);
+        return saved;
     }
 
     // Get a message by ID
@@ -51,6 +80,11 @@ public class PrivateMessageService {
             throw new RuntimeException("User not authorized to mark this message as read");
         }
 
+        // 重复标记不重复扣减计数
+        if (!message.isRead() && !message.isRecipientDeleted()) {
+            notificationInboxService.adjustUnreadPrivateMessages(userId, -1);
+        }
+
         message.setRead(true);
         message.setReadAt(LocalDateTime.now());
 
@@ -66,6 +100,9 @@ public class PrivateMessageService {
         if (message.getSender().getId().equals(userId)) {
             message.setSenderDeleted(true);
         } else if (message.getRecipient().getId().equals(userId)) {
+            if (!message.isRead() && !message.isRecipientDeleted()) {
+                notificationInboxService.adjustUnreadPrivateMessages(userId, -1);
+            }
             message.setRecipientDeleted(true);
         } else {
             throw new RuntimeException("User not authorized to delete this message");
@@ -101,6 +138,33 @@ public class PrivateMessageService {
 
     // Get count of unread messages for a user
     public Long getUnreadMessageCountForUser(Long userId) {
-        return privateMessageRepository.countUnreadMessagesByUserId(userId);
+        // 读取未读计数行，不再每次统计 private_messages
+        return notificationInboxService.getUnreadCounts(userId).get("unreadPrivateMessages");
+    }
+
+    // Keyset page of message summaries, box is inbox, outbox or all
+    public KeysetPage<PrivateMessageSummary> getMessageSummaries(Long userId, String box,
+            LocalDateTime cursorTime, Long cursorId, Integer limit) {
+        int pageSize = KeysetPage.normalizeLimit(limit);
+        // 多取一条判断是否还有下一页
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        LocalDateTime time = cursorTime != null ? cursorTime : FIRST_PAGE_CURSOR_TIME;
+        Long id = cursorId != null ? cursorId : Long.MAX_VALUE;
+
+        List<PrivateMessageSummary> rows;
+        switch (box == null ? "all" : box) {
+            case "inbox":
+                rows = privateMessageRepository.findInboxSummaries(userId, time, id, pageable);
+                break;
+            case "outbox":
+                rows = privateMessageRepository.findOutboxSummaries(userId, time, id, pageable);
+                break;
+            case "all":
+                rows = privateMessageRepository.findAllSummaries(userId, time, id, pageable);
+                break;
+            default:
+                throw new RuntimeException("不支持的信箱类型: " + box);
+        }
+        return KeysetPage.of(rows, pageSize, PrivateMessageSummary::sentAt, PrivateMessageSummary::id);
     }
-}
\ No newline at end of file
+}
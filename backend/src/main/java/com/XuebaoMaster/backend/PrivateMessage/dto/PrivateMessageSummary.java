@@ -0,0 +1,17 @@
+package com.XuebaoMaster.backend.PrivateMessage.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 私信列表摘要，不包含正文
+ */
+public record PrivateMessageSummary(
+        Long id,
+        String subject,
+        Long senderId,
+        String senderUsername,
+        Long recipientId,
+        String recipientUsername,
+        LocalDateTime sentAt,
+        boolean read) {
+}
@@ -1,5 +1,6 @@
 package com.XuebaoMaster.backend.QuestionGenerator;
 
+import com.XuebaoMaster.backend.util.CompressedTextConverter;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -23,6 +24,9 @@ public class QuestionGenerator {
     @Column(name = "question_type")
     private String questionType;
 
+    // 题目内容和设计内容只在详情、设计时读取，延迟加载(需要构建时字节码增强)
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
     @Column(name = "question_json", columnDefinition = "LONGTEXT")
     private String questionJson;
 
@@ -41,6 +45,7 @@ public class QuestionGenerator {
     @Column(name = "design_duration")
     private Long designDuration; // in seconds
 
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "design_content", columnDefinition = "LONGTEXT")
     private String designContent;
 
@@ -1,8 +1,13 @@
 package com.XuebaoMaster.backend.QuestionGenerator;
 
+import com.XuebaoMaster.backend.QuestionGenerator.dto.QuestionGeneratorListResponse;
+import com.XuebaoMaster.backend.QuestionGenerator.dto.QuestionGeneratorSummary;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.List;
@@ -110,6 +115,35 @@ public class QuestionGeneratorController {
         }
     }
 
+    /**
+     * 使用课程关联的RAG生成题目
+     * 
+     * @param request 包含query、courseId和可选的questionType的请求体
+     * @return 返回任务ID
+     */
+    @PostMapping("/generate-with-course")
+    public ResponseEntity<Map<String, Object>> generateQuestionWithCourse(@RequestBody Map<String, Object> request) {
+        String query = (String) request.get("query");
+        String questionType = (String) request.get("questionType");
+
+        try {
+            Object rawCourseId = request.get("courseId");
+            Long courseId = rawCourseId == null ? null : Long.valueOf(rawCourseId.toString());
+            Long taskId = questionGeneratorService.generateQuestionWithCourseId(query, courseId, questionType);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("taskId", taskId);
+            response.put("message", "题目生成任务已提交");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "题目生成任务提交失败: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * 使用指定的RAG名称生成题目
      * 
@@ -195,25 +229,31 @@ public class QuestionGeneratorController {
     }
 
     /**
-     * 获取所有题目生成任务
+     * 分页获取题目生成任务摘要，不返回题目内容，详情通过 /{id} 获取
      * 
-     * @return 返回所有题目生成任务列表
+     * @param page      页码，从 1 开始
+     * @param size      每页条数
+     * @param sort      排序字段，默认 createdAt
+     * @param direction 排序方向 asc/desc，默认 desc
+     * @param status    状态筛选
+     * @param keyword   检索词关键字
+     * @return 返回题目生成任务摘要分页
      */
     @GetMapping("/list")
-    public ResponseEntity<Map<String, Object>> getAllQuestions() {
+    public ResponseEntity<QuestionGeneratorListResponse> getAllQuestions(
+            @RequestParam(required = false, defaultValue = "1") Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false, defaultValue = "desc") String direction,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String keyword) {
         try {
-            List<QuestionGenerator> questions = questionGeneratorService.getAllQuestionGenerators();
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("questions", questions);
-            response.put("total", questions.size());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", "获取题目列表失败: " + e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            Page<QuestionGeneratorSummary> questions = questionGeneratorService.getQuestionGeneratorSummaries(
+                    status, keyword, page, size, sort, direction);
+            return ResponseEntity.ok(new QuestionGeneratorListResponse(true, questions.getContent(),
+                    questions.getTotalElements(), questions.getNumber() + 1, questions.getSize()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
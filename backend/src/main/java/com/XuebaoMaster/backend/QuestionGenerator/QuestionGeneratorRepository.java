@@ -1,8 +1,26 @@
 package com.XuebaoMaster.backend.QuestionGenerator;
 
+import com.XuebaoMaster.backend.QuestionGenerator.dto.QuestionGeneratorSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface QuestionGeneratorRepository extends JpaRepository<QuestionGenerator, Long> {
-}
\ No newline at end of file
+
+    // keyword 为 PageQuery.containsPattern 生成的已转义模式
+    String SUMMARY_FILTER = "WHERE (:status IS NULL OR q.status = :status) " +
+            "AND (:keyword IS NULL OR q.query LIKE :keyword ESCAPE '!')";
+
+    // 列表分页只查询摘要列，不读取题目 JSON 和设计内容
+    @Query(value = "SELECT new com.XuebaoMaster.backend.QuestionGenerator.dto.QuestionGeneratorSummary(" +
+            "q.id, q.query, q.ragId, q.ragName, q.questionType, q.status, q.statusMessage, " +
+            "q.designDuration, q.efficiencyIndex, q.createdAt, q.updatedAt) " +
+            "FROM QuestionGenerator q " + SUMMARY_FILTER,
+            countQuery = "SELECT COUNT(q) FROM QuestionGenerator q " + SUMMARY_FILTER)
+    Page<QuestionGeneratorSummary> findSummaries(@Param("status") String status,
+            @Param("keyword") String keyword, Pageable pageable);
+}
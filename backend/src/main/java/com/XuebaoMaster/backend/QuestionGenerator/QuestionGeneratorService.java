@@ -1,5 +1,8 @@
 package com.XuebaoMaster.backend.QuestionGenerator;
 
+import com.XuebaoMaster.backend.QuestionGenerator.dto.QuestionGeneratorSummary;
+import org.springframework.data.domain.Page;
+
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,6 +28,16 @@ public interface QuestionGeneratorService {
      */
     Long generateQuestionWithRagId(String query, Long ragId, String questionType);
 
+    /**
+     * 使用课程关联的RAG异步生成题目
+     * 
+     * @param query        检索词
+     * @param courseId     课程ID
+     * @param questionType 题目类型
+     * @return 返回题目生成任务ID
+     */
+    Long generateQuestionWithCourseId(String query, Long courseId, String questionType);
+
     /**
      * 使用指定的RAG名称异步生成题目
      * 
@@ -44,11 +57,18 @@ public interface QuestionGeneratorService {
     Optional<QuestionGenerator> getQuestionGeneratorById(Long id);
 
     /**
-     * 获取所有题目生成任务
+     * 分页查询题目生成任务摘要
      * 
-     * @return 所有题目生成任务列表
+     * @param status    状态筛选，为空时不筛选
+     * @param keyword   检索词关键字，为空时不筛选
+     * @param page      页码，从 1 开始
+     * @param size      每页条数
+     * @param sort      排序字段
+     * @param direction 排序方向 asc/desc
+     * @return 题目生成任务摘要分页
      */
-    List<QuestionGenerator> getAllQuestionGenerators();
+    Page<QuestionGeneratorSummary> getQuestionGeneratorSummaries(String status, String keyword, Integer page,
+            Integer size, String sort, String direction);
 
     /**
      * 获取所有可用的题目类型
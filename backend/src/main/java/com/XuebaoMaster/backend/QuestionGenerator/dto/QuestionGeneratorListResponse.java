@@ -0,0 +1,14 @@
+package com.XuebaoMaster.backend.QuestionGenerator.dto;
+
+import java.util.List;
+
+/**
+ * 题目生成任务分页列表，page 从 1 开始，total 为满足筛选条件的总数
+ */
+public record QuestionGeneratorListResponse(
+        boolean success,
+        List<QuestionGeneratorSummary> questions,
+        long total,
+        int page,
+        int size) {
+}
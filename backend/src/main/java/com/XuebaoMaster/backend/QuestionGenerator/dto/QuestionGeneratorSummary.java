@@ -0,0 +1,20 @@
+package com.XuebaoMaster.backend.QuestionGenerator.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 题目生成任务列表摘要，不包含题目 JSON 和设计内容
+ */
+public record QuestionGeneratorSummary(
+        Long id,
+        String query,
+        Long ragId,
+        String ragName,
+        String questionType,
+        String status,
+        String statusMessage,
+        Long designDuration,
+        Double efficiencyIndex,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -4,21 +4,28 @@ import com.XuebaoMaster.backend.QuestionGenerator.QuestionGenerator;
 import com.XuebaoMaster.backend.QuestionGenerator.QuestionGeneratorRepository;
 import com.XuebaoMaster.backend.QuestionGenerator.QuestionGeneratorService;
 import com.XuebaoMaster.backend.QuestionGenerator.config.QuestionGeneratorConfig;
+import com.XuebaoMaster.backend.QuestionGenerator.dto.QuestionGeneratorSummary;
 import com.XuebaoMaster.backend.QuestionGenerator.model.DeepSeekRequest;
 import com.XuebaoMaster.backend.QuestionGenerator.model.DeepSeekResponse;
+import com.XuebaoMaster.backend.RAG.Course.CourseRagMappingService;
 import com.XuebaoMaster.backend.RAG.RAG;
 import com.XuebaoMaster.backend.RAG.RAGRepository;
 import com.XuebaoMaster.backend.RAG.RAGResponse;
 import com.XuebaoMaster.backend.RAG.RAGService;
+import com.XuebaoMaster.backend.config.AnalyticsQuery;
+import com.XuebaoMaster.backend.util.PageQuery;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
@@ -31,6 +38,10 @@ public class QuestionGeneratorServiceImpl implements QuestionGeneratorService {
 
     private static final Logger logger = LoggerFactory.getLogger(QuestionGeneratorServiceImpl.class);
 
+    // 列表允许的排序字段
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "createdAt", "updatedAt", "status",
+            "questionType", "designDuration", "efficiencyIndex");
+
     @Autowired
     private QuestionGeneratorRepository questionGeneratorRepository;
 
@@ -40,6 +51,9 @@ public class QuestionGeneratorServiceImpl implements QuestionGeneratorService {
     @Autowired
     private RAGService ragService;
 
+    @Autowired
+    private CourseRagMappingService courseRagMappingService;
+
     @Autowired
     private QuestionGeneratorConfig config;
 
@@ -118,6 +132,26 @@ public class QuestionGeneratorServiceImpl implements QuestionGeneratorService {
         return savedEntity.getId();
     }
 
+    @Override
+    public Long generateQuestionWithCourseId(String query, Long courseId, String questionType) {
+        if (courseId == null) {
+            throw new IllegalArgumentException("课程ID不能为空");
+        }
+
+        // 课程关联的RAG ID来自内存索引，只需加载这些RAG判断状态
+        Set<Long> ragIds = courseRagMappingService.findRagIdsByCourseId(courseId);
+        if (ragIds.isEmpty()) {
+            throw new IllegalArgumentException("课程ID为" + courseId + "的课程尚未关联RAG");
+        }
+
+        RAG rag = ragRepository.findAllById(ragIds).stream()
+                .filter(candidate -> RAG.RAGStatus.COMPLETED.equals(candidate.getStatus()))
+                .min(Comparator.comparing(RAG::getId))
+                .orElseThrow(() -> new IllegalArgumentException("课程关联的RAG均未完成生成"));
+
+        return generateQuestionWithRagId(query, rag.getId(), questionType);
+    }
+
     @Override
     public Long generateQuestionWithRagName(String query, String ragName, String questionType) {
         if (query == null || query.trim().isEmpty()) {
@@ -167,8 +201,11 @@ public class QuestionGeneratorServiceImpl implements QuestionGeneratorService {
     }
 
     @Override
-    public List<QuestionGenerator> getAllQuestionGenerators() {
-        return questionGeneratorRepository.findAll();
+    public Page<QuestionGeneratorSummary> getQuestionGeneratorSummaries(String status, String keyword,
+            Integer page, Integer size, String sort, String direction) {
+        Pageable pageable = PageQuery.of(page, size, sort, direction, SORTABLE_FIELDS, "createdAt");
+        return questionGeneratorRepository.findSummaries(PageQuery.filter(status),
+                PageQuery.containsPattern(keyword), pageable);
     }
 
     @Override
@@ -501,6 +538,8 @@ public class QuestionGeneratorServiceImpl implements QuestionGeneratorService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public Map<String, Object> getEfficiencyStatistics() {
         Map<String, Object> response = new HashMap<>();
 
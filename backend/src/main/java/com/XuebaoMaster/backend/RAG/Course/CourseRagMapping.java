@@ -5,10 +5,16 @@ import com.XuebaoMaster.backend.RAG.RAG;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "course_rag_mappings")
+@Table(name = "course_rag_mappings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_rag_mapping", columnNames = { "course_id", "rag_id" })
+}, indexes = {
+        @Index(name = "idx_course_rag_mapping_rag", columnList = "rag_id")
+})
 public class CourseRagMapping {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "course_rag_mappings_id")
+    @TableGenerator(name = "course_rag_mappings_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "course_rag_mappings", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -44,6 +44,16 @@ public class CourseRagMappingController {
         }
     }
 
+    @PostMapping("/bulk-map")
+    public ResponseEntity<?> attachRags(@RequestBody Map<String, List<Long>> request) {
+        return bulkUpdate(request, true);
+    }
+
+    @PostMapping("/bulk-unmap")
+    public ResponseEntity<?> detachRags(@RequestBody Map<String, List<Long>> request) {
+        return bulkUpdate(request, false);
+    }
+
     @GetMapping("/course/{courseId}/rags")
     public ResponseEntity<List<RAG>> getRagsByCourse(@PathVariable Long courseId) {
         List<RAG> rags = courseRagMappingService.findRagsByCourseId(courseId);
@@ -61,4 +71,24 @@ public class CourseRagMappingController {
         boolean exists = courseRagMappingService.mappingExists(courseId, ragId);
         return new ResponseEntity<>(exists, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> bulkUpdate(Map<String, List<Long>> request, boolean attach) {
+        try {
+            List<Long> courseIds = request.get("courseIds");
+            List<Long> ragIds = request.get("ragIds");
+            if (courseIds == null || courseIds.isEmpty() || ragIds == null || ragIds.isEmpty()) {
+                throw new IllegalArgumentException("课程ID列表和RAG ID列表不能为空");
+            }
+            int affected = attach ? courseRagMappingService.attachRags(courseIds, ragIds)
+                    : courseRagMappingService.detachRags(courseIds, ragIds);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", attach ? "批量关联完成" : "批量解除关联完成");
+            response.put("affected", affected);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.XuebaoMaster.backend.RAG.Course;
 import com.XuebaoMaster.backend.Course.Course;
 import com.XuebaoMaster.backend.RAG.RAG;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,4 +22,26 @@ public interface CourseRagMappingRepository extends JpaRepository<CourseRagMappi
     List<CourseRagMapping> findByRag_Id(Long ragId);
 
     boolean existsByCourseAndRag(Course course, RAG rag);
-}
\ No newline at end of file
+
+    // 按 (course_id, rag_id) 唯一索引判断映射是否存在，不加载课程和RAG
+    boolean existsByCourse_CourseIdAndRag_Id(Long courseId, Long ragId);
+
+    // 全部映射的 (课程ID, RAG ID)，用于构建内存索引
+    @Query("SELECT m.course.courseId, m.rag.id FROM CourseRagMapping m")
+    List<Object[]> findAllCourseRagIds();
+
+    // 批量关联前查出已存在的 (课程ID, RAG ID)
+    @Query("SELECT m.course.courseId, m.rag.id FROM CourseRagMapping m " +
+            "WHERE m.course.courseId IN :courseIds AND m.rag.id IN :ragIds")
+    List<Object[]> findExistingPairs(@Param("courseIds") Collection<Long> courseIds,
+            @Param("ragIds") Collection<Long> ragIds);
+
+    @Modifying
+    @Query("DELETE FROM CourseRagMapping m WHERE m.course.courseId = :courseId AND m.rag.id = :ragId")
+    int deleteByCourseIdAndRagId(@Param("courseId") Long courseId, @Param("ragId") Long ragId);
+
+    @Modifying
+    @Query("DELETE FROM CourseRagMapping m WHERE m.course.courseId IN :courseIds AND m.rag.id IN :ragIds")
+    int deleteByCourseIdsAndRagIds(@Param("courseIds") Collection<Long> courseIds,
+            @Param("ragIds") Collection<Long> ragIds);
+}
@@ -4,6 +4,7 @@ import com.XuebaoMaster.backend.Course.Course;
 import com.XuebaoMaster.backend.RAG.RAG;
 
 import java.util.List;
+import java.util.Set;
 
 public interface CourseRagMappingService {
     CourseRagMapping createMapping(Long courseId, Long ragId);
@@ -14,8 +15,17 @@ public interface CourseRagMappingService {
 
     void deleteMappingByCourseAndRag(Long courseId, Long ragId);
 
+    // 批量把多个RAG关联到多门课程，已存在的映射跳过，返回新增数量
+    int attachRags(List<Long> courseIds, List<Long> ragIds);
+
+    // 批量解除多门课程与多个RAG的映射，返回删除数量
+    int detachRags(List<Long> courseIds, List<Long> ragIds);
+
     List<RAG> findRagsByCourseId(Long courseId);
 
+    // 从内存索引读取课程关联的RAG ID，不访问数据库
+    Set<Long> findRagIdsByCourseId(Long courseId);
+
     List<Course> findCoursesByRagId(Long ragId);
 
     boolean mappingExists(Long courseId, Long ragId);
@@ -0,0 +1,112 @@
+package com.XuebaoMaster.backend.RAG.Course.impl;
+
+import com.XuebaoMaster.backend.RAG.Course.CourseRagMappingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 课程 → RAG ID 的内存索引
+ * 读多写少，采用写时复制：读取直接访问不可变快照，映射变更在事务提交后复制出新快照再整体替换
+ */
+@Component
+public class CourseRagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseRagIndex.class);
+
+    @Autowired
+    private CourseRagMappingRepository courseRagMappingRepository;
+
+    private volatile Map<Long, Set<Long>> ragIdsByCourse = Collections.emptyMap();
+
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    /**
+     * 从数据库重新构建索引
+     */
+    public synchronized void reload() {
+        Map<Long, Set<Long>> mutable = new HashMap<>();
+        for (Object[] row : courseRagMappingRepository.findAllCourseRagIds()) {
+            Long courseId = ((Number) row[0]).longValue();
+            Long ragId = ((Number) row[1]).longValue();
+            mutable.computeIfAbsent(courseId, id -> new HashSet<>()).add(ragId);
+        }
+        ragIdsByCourse = freeze(mutable);
+        logger.info("加载课程RAG映射索引，{} 门课程", mutable.size());
+    }
+
+    /**
+     * 课程关联的RAG ID，返回的集合不可修改
+     */
+    public Set<Long> getRagIds(Long courseId) {
+        return ragIdsByCourse.getOrDefault(courseId, Collections.emptySet());
+    }
+
+    public boolean contains(Long courseId, Long ragId) {
+        return getRagIds(courseId).contains(ragId);
+    }
+
+    /**
+     * 登记新增的映射，事务提交后生效
+     */
+    public void attached(Collection<Long> courseIds, Collection<Long> ragIds) {
+        afterCommit(() -> apply(courseIds, ragIds, true));
+    }
+
+    /**
+     * 登记删除的映射，事务提交后生效
+     */
+    public void detached(Collection<Long> courseIds, Collection<Long> ragIds) {
+        afterCommit(() -> apply(courseIds, ragIds, false));
+    }
+
+    private synchronized void apply(Collection<Long> courseIds, Collection<Long> ragIds, boolean attach) {
+        Map<Long, Set<Long>> mutable = new HashMap<>(ragIdsByCourse);
+        for (Long courseId : courseIds) {
+            Set<Long> rags = new HashSet<>(mutable.getOrDefault(courseId, Collections.emptySet()));
+            if (attach) {
+                rags.addAll(ragIds);
+            } else {
+                rags.removeAll(ragIds);
+            }
+            if (rags.isEmpty()) {
+                mutable.remove(courseId);
+            } else {
+                mutable.put(courseId, Collections.unmodifiableSet(rags));
+            }
+        }
+        ragIdsByCourse = Collections.unmodifiableMap(mutable);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Map<Long, Set<Long>> freeze(Map<Long, Set<Long>> mutable) {
+        mutable.replaceAll((courseId, rags) -> Collections.unmodifiableSet(rags));
+        return Collections.unmodifiableMap(mutable);
+    }
+}
@@ -10,8 +10,16 @@ import com.XuebaoMaster.backend.RAG.RAGRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,7 +34,11 @@ public class CourseRagMappingServiceImpl implements CourseRagMappingService {
     @Autowired
     private RAGRepository ragRepository;
 
+    @Autowired
+    private CourseRagIndex courseRagIndex;
+
     @Override
+    @Transactional
     public CourseRagMapping createMapping(Long courseId, Long ragId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new EntityNotFoundException("课程不存在，ID: " + courseId));
@@ -38,45 +50,85 @@ public class CourseRagMappingServiceImpl implements CourseRagMappingService {
     }
 
     @Override
+    @Transactional
     public CourseRagMapping createMapping(Course course, RAG rag) {
-        if (courseRagMappingRepository.existsByCourseAndRag(course, rag)) {
+        if (courseRagMappingRepository.existsByCourse_CourseIdAndRag_Id(course.getCourseId(), rag.getId())) {
             throw new IllegalStateException("该课程和RAG的映射关系已存在");
         }
 
-        CourseRagMapping mapping = new CourseRagMapping(course, rag);
-        return courseRagMappingRepository.save(mapping);
+        CourseRagMapping mapping = courseRagMappingRepository.save(new CourseRagMapping(course, rag));
+        courseRagIndex.attached(List.of(course.getCourseId()), List.of(rag.getId()));
+        return mapping;
     }
 
     @Override
+    @Transactional
     public void deleteMapping(Long mappingId) {
-        if (!courseRagMappingRepository.existsById(mappingId)) {
-            throw new EntityNotFoundException("映射关系不存在，ID: " + mappingId);
-        }
-        courseRagMappingRepository.deleteById(mappingId);
+        CourseRagMapping mapping = courseRagMappingRepository.findById(mappingId)
+                .orElseThrow(() -> new EntityNotFoundException("映射关系不存在，ID: " + mappingId));
+        courseRagMappingRepository.delete(mapping);
+        courseRagIndex.detached(List.of(mapping.getCourse().getCourseId()), List.of(mapping.getRag().getId()));
     }
 
     @Override
+    @Transactional
     public void deleteMappingByCourseAndRag(Long courseId, Long ragId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new EntityNotFoundException("课程不存在，ID: " + courseId));
+        // 按唯一索引直接删除，不再加载全部映射
+        if (courseRagMappingRepository.deleteByCourseIdAndRagId(courseId, ragId) == 0) {
+            throw new EntityNotFoundException("映射关系不存在，课程ID: " + courseId + "，RAG ID: " + ragId);
+        }
+        courseRagIndex.detached(List.of(courseId), List.of(ragId));
+    }
 
-        RAG rag = ragRepository.findById(ragId)
-                .orElseThrow(() -> new EntityNotFoundException("RAG不存在，ID: " + ragId));
+    @Override
+    @Transactional
+    public int attachRags(List<Long> courseIds, List<Long> ragIds) {
+        Map<Long, Course> courses = loadAll(courseIds, courseRepository.findAllById(courseIds), Course::getCourseId,
+                "课程");
+        Map<Long, RAG> rags = loadAll(ragIds, ragRepository.findAllById(ragIds), RAG::getId, "RAG");
+
+        Set<String> existing = new HashSet<>();
+        for (Object[] row : courseRagMappingRepository.findExistingPairs(courses.keySet(), rags.keySet())) {
+            existing.add(row[0] + ":" + row[1]);
+        }
 
-        List<CourseRagMapping> mappings = courseRagMappingRepository.findAll().stream()
-                .filter(mapping -> mapping.getCourse().getCourseId().equals(courseId) &&
-                        mapping.getRag().getId().equals(ragId))
-                .collect(Collectors.toList());
+        List<CourseRagMapping> mappings = new ArrayList<>();
+        for (Course course : courses.values()) {
+            for (RAG rag : rags.values()) {
+                if (!existing.contains(course.getCourseId() + ":" + rag.getId())) {
+                    mappings.add(new CourseRagMapping(course, rag));
+                }
+            }
+        }
+        courseRagMappingRepository.saveAll(mappings);
+        courseRagIndex.attached(courses.keySet(), rags.keySet());
+        return mappings.size();
+    }
 
-        courseRagMappingRepository.deleteAll(mappings);
+    @Override
+    @Transactional
+    public int detachRags(List<Long> courseIds, List<Long> ragIds) {
+        Set<Long> courseIdSet = new LinkedHashSet<>(courseIds);
+        Set<Long> ragIdSet = new LinkedHashSet<>(ragIds);
+        int deleted = courseRagMappingRepository.deleteByCourseIdsAndRagIds(courseIdSet, ragIdSet);
+        courseRagIndex.detached(courseIdSet, ragIdSet);
+        return deleted;
     }
 
     @Override
     public List<RAG> findRagsByCourseId(Long courseId) {
-        List<CourseRagMapping> mappings = courseRagMappingRepository.findByCourse_CourseId(courseId);
-        return mappings.stream()
-                .map(CourseRagMapping::getRag)
-                .collect(Collectors.toList());
+        Set<Long> ragIds = courseRagIndex.getRagIds(courseId);
+        if (ragIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<RAG> rags = ragRepository.findAllById(ragIds);
+        rags.sort(Comparator.comparing(RAG::getId));
+        return rags;
+    }
+
+    @Override
+    public Set<Long> findRagIdsByCourseId(Long courseId) {
+        return courseRagIndex.getRagIds(courseId);
     }
 
     @Override
@@ -89,13 +141,16 @@ public class CourseRagMappingServiceImpl implements CourseRagMappingService {
 
     @Override
     public boolean mappingExists(Long courseId, Long ragId) {
-        Course course = courseRepository.findById(courseId).orElse(null);
-        RAG rag = ragRepository.findById(ragId).orElse(null);
+        return courseRagIndex.contains(courseId, ragId);
+    }
 
-        if (course == null || rag == null) {
-            return false;
+    private <T> Map<Long, T> loadAll(List<Long> ids, List<T> found, Function<T, Long> idOf, String name) {
+        Map<Long, T> byId = found.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        List<Long> missing = ids.stream().filter(id -> !byId.containsKey(id)).distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException(name + "不存在，ID: " + missing);
         }
-
-        return courseRagMappingRepository.existsByCourseAndRag(course, rag);
+        return byId;
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,16 @@
 package com.XuebaoMaster.backend.SchoolClass.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import com.XuebaoMaster.backend.SchoolClass.SchoolClass;
 import com.XuebaoMaster.backend.SchoolClass.SchoolClassRepository;
 import com.XuebaoMaster.backend.SchoolClass.SchoolClassService;
 import com.XuebaoMaster.backend.User.User;
+import com.XuebaoMaster.backend.config.CacheConfig;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 @Service
 public class SchoolClassServiceImpl implements SchoolClassService {
@@ -29,6 +31,7 @@ public class SchoolClassServiceImpl implements SchoolClassService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CLASS_STUDENT_IDS, key = "#id")
     public void deleteSchoolClass(Long id) {
         schoolClassRepository.deleteById(id);
     }
@@ -61,13 +64,14 @@ public class SchoolClassServiceImpl implements SchoolClassService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CLASS_STUDENT_IDS, key = "#classId")
     public List<Long> getStudentIdsByClassId(Long classId) {
         SchoolClass schoolClass = getSchoolClassById(classId);
 
-        // 获取班级中的所有学生列表并提取学生ID
+        // 获取班级中的所有学生列表并提取学生ID，结果会被缓存，返回不可修改的列表
         List<User> students = schoolClass.getStudents();
         return students.stream()
                 .map(User::getId)
-                .collect(Collectors.toList());
+                .toList();
     }
 }
@@ -2,6 +2,7 @@ package com.XuebaoMaster.backend.StudentCourse.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.XuebaoMaster.backend.Notification.NotificationInboxService;
 import com.XuebaoMaster.backend.StudentCourse.StudentCourse;
 import com.XuebaoMaster.backend.StudentCourse.StudentCourseRepository;
 import com.XuebaoMaster.backend.StudentCourse.StudentCourseService;
@@ -13,6 +14,9 @@ public class StudentCourseServiceImpl implements StudentCourseService {
     @Autowired
     private StudentCourseRepository studentCourseRepository;
 
+    @Autowired
+    private NotificationInboxService notificationInboxService;
+
     @Override
     public StudentCourse enrollCourse(Long studentId, Long courseId) {
         // 检查是否已经选过此课程
@@ -27,7 +31,10 @@ public class StudentCourseServiceImpl implements StudentCourseService {
         studentCourse.setProgress(0);
         studentCourse.setStatus("enrolled");
 
-        return studentCourseRepository.save(studentCourse);
+        StudentCourse saved = studentCourseRepository.save(studentCourse);
+        // 补发选课前已发布的课程消息
+        notificationInboxService.fanOutToUser(studentId);
+        return saved;
     }
 
     @Override
@@ -8,7 +8,9 @@ import lombok.Data;
 @Data
 public class StudentEmotion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "student_emotions_id")
+    @TableGenerator(name = "student_emotions_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "student_emotions", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false)
@@ -8,6 +8,7 @@ import com.XuebaoMaster.backend.DeepSeekChat.ChatMessageService;
 import com.XuebaoMaster.backend.DeepSeekChat.DeepSeekChatRequest;
 import com.XuebaoMaster.backend.DeepSeekChat.DeepSeekChatResponse;
 import com.XuebaoMaster.backend.DeepSeekChat.DeepSeekChatService;
+import com.XuebaoMaster.backend.LoginRecord.LoginActivityService;
 import com.XuebaoMaster.backend.LoginRecord.LoginRecord;
 import com.XuebaoMaster.backend.LoginRecord.LoginRecordService;
 import com.XuebaoMaster.backend.StudentEmotion.AutoEmotionScoreService;
@@ -21,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
@@ -34,6 +36,9 @@ public class AutoEmotionScoreServiceImpl implements AutoEmotionScoreService {
     @Autowired
     private LoginRecordService loginRecordService;
 
+    @Autowired
+    private LoginActivityService loginActivityService;
+
     @Autowired
     private StudyDurationService studyDurationService;
 
@@ -99,8 +104,7 @@ public class AutoEmotionScoreServiceImpl implements AutoEmotionScoreService {
 
     private List<User> getActiveUsers() {
         // 获取今日有活动的用户
-        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime tomorrow = today.plusDays(1);
+        LocalDate today = LocalDate.now();
 
         // 获取今天有登录记录或学习记录的所有用户
         List<User> allUsers = userService.getAllUsers();
@@ -108,8 +112,7 @@ public class AutoEmotionScoreServiceImpl implements AutoEmotionScoreService {
         return allUsers.stream()
                 .filter(user -> {
                     // 检查是否有登录记录
-                    boolean hasLogin = !loginRecordService.getLoginRecordsByUserIdAndTimeBetween(
-                            user.getId(), today, tomorrow).isEmpty();
+                    boolean hasLogin = loginActivityService.isActiveOn(user.getId(), today);
 
                     // 检查是否有学习记录
                     boolean hasStudy = !studyDurationService.getStudyDurationsByUserId(user.getId()).isEmpty();
@@ -191,26 +194,8 @@ public class AutoEmotionScoreServiceImpl implements AutoEmotionScoreService {
     }
 
     private int calculateConsecutiveLoginDays(Long userId) {
-        int consecutiveDays = 0;
-        LocalDateTime currentDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-
-        // 从今天开始向前检查每一天是否有登录
-        for (int i = 0; i < 30; i++) { // 最多检查30天
-            LocalDateTime dayStart = currentDay.minusDays(i);
-            LocalDateTime dayEnd = dayStart.plusDays(1);
-
-            List<LoginRecord> dayLogins = loginRecordService.getLoginRecordsByUserIdAndTimeBetween(
-                    userId, dayStart, dayEnd);
-
-            if (!dayLogins.isEmpty()) {
-                consecutiveDays++;
-            } else {
-                // 一旦发现没有登录的一天，就中断计数
-                break;
-            }
-        }
-
-        return consecutiveDays;
+        // 从今天开始向前的连续登录天数，最多计30天
+        return Math.min(loginActivityService.getCurrentStreak(userId, LocalDate.now()), 30);
     }
 
     private int calculateStudyScore(User user) {
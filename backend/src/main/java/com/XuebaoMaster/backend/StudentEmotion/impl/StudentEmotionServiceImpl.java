@@ -1,11 +1,13 @@
 package com.XuebaoMaster.backend.StudentEmotion.impl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.XuebaoMaster.backend.StudentEmotion.StudentEmotion;
 import com.XuebaoMaster.backend.StudentEmotion.StudentEmotionRepository;
 import com.XuebaoMaster.backend.StudentEmotion.StudentEmotionService;
 import com.XuebaoMaster.backend.User.User;
 import com.XuebaoMaster.backend.User.UserRepository;
+import com.XuebaoMaster.backend.config.AnalyticsQuery;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -112,6 +114,8 @@ public class StudentEmotionServiceImpl implements StudentEmotionService {
         return statistics;
     }
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public Map<String, Object> getOverallEmotionStatistics() {
         Map<String, Object> statistics = new HashMap<>();
         List<StudentEmotion> emotions = studentEmotionRepository.findAll();
@@ -9,14 +9,16 @@ import lombok.Data;
 @Data
 public class StudyDuration {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "study_durations_id")
+    @TableGenerator(name = "study_durations_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "study_durations", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private LocalDateTime currentTimeStamp;
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     @Column(nullable = false)
@@ -2,8 +2,12 @@ package com.XuebaoMaster.backend.StudyDuration;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationView;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,7 +27,11 @@ public class StudyDurationController {
      */
     @PostMapping
     public ResponseEntity<StudyDuration> createStudyDuration(@RequestBody StudyDuration studyDuration) {
-        return ResponseEntity.ok(studyDurationService.createStudyDuration(studyDuration));
+        try {
+            return ResponseEntity.ok(studyDurationService.createStudyDuration(studyDuration));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     /**
@@ -51,8 +59,8 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping
-    public ResponseEntity<List<StudyDuration>> getAllStudyDurations() {
-        return ResponseEntity.ok(studyDurationService.getAllStudyDurations());
+    public ResponseEntity<List<StudyDurationView>> getAllStudyDurations() {
+        return ResponseEntity.ok(studyDurationService.getAllStudyDurationViews());
     }
 
     /**
@@ -73,8 +81,8 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByUserId(userId));
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByUserId(@PathVariable Long userId) {
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByUserId(userId));
     }
 
     /**
@@ -84,8 +92,8 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByCourseId(@PathVariable Long courseId) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByCourseId(courseId));
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByCourseId(@PathVariable Long courseId) {
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByCourseId(courseId));
     }
 
     /**
@@ -95,8 +103,8 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/class/{classId}")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByClassId(@PathVariable Long classId) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByClassId(classId));
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByClassId(@PathVariable Long classId) {
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByClassId(classId));
     }
 
     /**
@@ -107,10 +115,10 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/class/{classId}/course/{courseId}")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByClassIdAndCourseId(
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByClassIdAndCourseId(
             @PathVariable Long classId,
             @PathVariable Long courseId) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByClassIdAndCourseId(classId, courseId));
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByClassIdAndCourseId(classId, courseId));
     }
 
     /**
@@ -121,10 +129,10 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/current-time")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByCurrentTimeStampBetween(
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByCurrentTimeStampBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByCurrentTimeStampBetween(startTime, endTime));
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByCurrentTimeStampBetween(startTime, endTime));
     }
 
     /**
@@ -135,11 +143,11 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/lesson-start-time")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByLessonStartTimeStampBetween(
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByLessonStartTimeStampBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
         return ResponseEntity
-                .ok(studyDurationService.getStudyDurationsByLessonStartTimeStampBetween(startTime, endTime));
+                .ok(studyDurationService.getStudyDurationViewsByLessonStartTimeStampBetween(startTime, endTime));
     }
 
     /**
@@ -149,9 +157,9 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/min-length/{minLength}")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByLengthGreaterThanEqual(
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByLengthGreaterThanEqual(
             @PathVariable Integer minLength) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByLengthGreaterThanEqual(minLength));
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByLengthGreaterThanEqual(minLength));
     }
 
     /**
@@ -161,8 +169,8 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/max-length/{maxLength}")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByLengthLessThanEqual(@PathVariable Integer maxLength) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByLengthLessThanEqual(maxLength));
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByLengthLessThanEqual(@PathVariable Integer maxLength) {
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByLengthLessThanEqual(maxLength));
     }
 
     /**
@@ -173,10 +181,10 @@ public class StudyDurationController {
      * @return 学习时长记录列表
      */
     @GetMapping("/length-range")
-    public ResponseEntity<List<StudyDuration>> getStudyDurationsByLengthBetween(
+    public ResponseEntity<List<StudyDurationView>> getStudyDurationsByLengthBetween(
             @RequestParam Integer minLength,
             @RequestParam Integer maxLength) {
-        return ResponseEntity.ok(studyDurationService.getStudyDurationsByLengthBetween(minLength, maxLength));
+        return ResponseEntity.ok(studyDurationService.getStudyDurationViewsByLengthBetween(minLength, maxLength));
     }
 
     /**
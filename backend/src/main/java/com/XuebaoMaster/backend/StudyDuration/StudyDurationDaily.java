@@ -0,0 +1,30 @@
+package com.XuebaoMaster.backend.StudyDuration;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import lombok.Data;
+/**
+ * 按(日期, 用户, 课程)汇总的学习时长，创建学习记录时增量维护
+ */
+@Entity
+@Table(name = "study_duration_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_study_duration_daily", columnNames = { "study_date", "user_id", "course_id" })
+}, indexes = {
+        @Index(name = "idx_study_duration_daily_course", columnList = "course_id"),
+        @Index(name = "idx_study_duration_daily_user", columnList = "user_id")
+})
+@Data
+public class StudyDurationDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "study_date", nullable = false)
+    private LocalDate studyDate;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+    @Column(name = "total_length", nullable = false)
+    private Long totalLength = 0L;
+    @Column(name = "session_count", nullable = false)
+    private Long sessionCount = 0L;
+}
@@ -0,0 +1,55 @@
+package com.XuebaoMaster.backend.StudyDuration;
+import com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationTotals;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+public interface StudyDurationDailyRepository extends JpaRepository<StudyDurationDaily, Long> {
+        // 记录删除或改到其他日期/用户/课程后原汇总行减到 0 但不删除，统计时跳过这些行
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "study_duration_daily"))
+        @Transactional
+        @Query(value = "INSERT INTO study_duration_daily (study_date, user_id, course_id, total_length, session_count) " +
+                        "VALUES (:studyDate, :userId, :courseId, :length, :sessions) " +
+                        "ON DUPLICATE KEY UPDATE total_length = total_length + :length, " +
+                        "session_count = session_count + :sessions", nativeQuery = true)
+        int addDuration(@Param("studyDate") LocalDate studyDate, @Param("userId") Long userId,
+                        @Param("courseId") Long courseId, @Param("length") long length,
+                        @Param("sessions") long sessions);
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "study_duration_daily"))
+        @Transactional
+        @Query(value = "INSERT INTO study_duration_daily (study_date, user_id, course_id, total_length, session_count) " +
+                        "SELECT DATE(s.current_time_stamp), s.user_id, s.course_id, SUM(s.length), COUNT(*) " +
+                        "FROM study_durations_all s GROUP BY DATE(s.current_time_stamp), s.user_id, s.course_id",
+                        nativeQuery = true)
+        int rebuildFromStudyDurations();
+        @Query("SELECT COALESCE(SUM(d.totalLength), 0) AS totalDuration, " +
+                        "COALESCE(SUM(d.sessionCount), 0) AS recordCount, " +
+                        "COUNT(DISTINCT d.userId) AS studentCount " +
+                        "FROM StudyDurationDaily d WHERE d.userId = :userId AND d.sessionCount > 0")
+        StudyDurationTotals getTotalsByUserId(@Param("userId") Long userId);
+        @Query("SELECT COALESCE(SUM(d.totalLength), 0) AS totalDuration, " +
+                        "COALESCE(SUM(d.sessionCount), 0) AS recordCount, " +
+                        "COUNT(DISTINCT d.userId) AS studentCount " +
+                        "FROM StudyDurationDaily d WHERE d.courseId = :courseId AND d.sessionCount > 0")
+        StudyDurationTotals getTotalsByCourseId(@Param("courseId") Long courseId);
+        @Query(value = "SELECT COALESCE(SUM(d.total_length), 0) AS totalDuration, " +
+                        "COALESCE(SUM(d.session_count), 0) AS recordCount, " +
+                        "COUNT(DISTINCT d.user_id) AS studentCount " +
+                        "FROM study_duration_daily d JOIN users u ON u.id = d.user_id " +
+                        "WHERE u.class_id = :classId AND d.session_count > 0", nativeQuery = true)
+        StudyDurationTotals getTotalsByClassId(@Param("classId") Long classId);
+        @Query(value = "SELECT COALESCE(SUM(d.total_length), 0) AS totalDuration, " +
+                        "COALESCE(SUM(d.session_count), 0) AS recordCount, " +
+                        "COUNT(DISTINCT d.user_id) AS studentCount " +
+                        "FROM study_duration_daily d JOIN users u ON u.id = d.user_id " +
+                        "WHERE u.class_id = :classId AND d.course_id = :courseId AND d.session_count > 0", nativeQuery = true)
+        StudyDurationTotals getTotalsByClassIdAndCourseId(@Param("classId") Long classId,
+                        @Param("courseId") Long courseId);
+}
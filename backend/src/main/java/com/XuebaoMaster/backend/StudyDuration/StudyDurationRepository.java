@@ -1,10 +1,45 @@
 package com.XuebaoMaster.backend.StudyDuration;
+import com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationTotals;
+import com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 public interface StudyDurationRepository extends JpaRepository<StudyDuration, Long> {
+        String VIEW_SELECT = "SELECT new com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationView(" +
+                        "s.id, s.currentTimeStamp, s.lessonStartTimeStamp, s.length, " +
+                        "u.id, u.username, u.name, c.courseId, c.name) " +
+                        "FROM StudyDuration s JOIN s.user u JOIN s.course c ";
+        @EntityGraph(attributePaths = { "user", "course" })
+        @Query("SELECT s FROM StudyDuration s WHERE s.id = :id")
+        Optional<StudyDuration> findWithUserAndCourseById(@Param("id") Long id);
+        @Query(VIEW_SELECT)
+        List<StudyDurationView> findAllViews();
+        @Query(VIEW_SELECT + "WHERE u.id = :userId")
+        List<StudyDurationView> findViewsByUserId(@Param("userId") Long userId);
+        @Query(VIEW_SELECT + "WHERE c.courseId = :courseId")
+        List<StudyDurationView> findViewsByCourseId(@Param("courseId") Long courseId);
+        @Query(VIEW_SELECT + "WHERE u.schoolClass.id = :classId")
+        List<StudyDurationView> findViewsByClassId(@Param("classId") Long classId);
+        @Query(VIEW_SELECT + "WHERE u.schoolClass.id = :classId AND c.courseId = :courseId")
+        List<StudyDurationView> findViewsByClassIdAndCourseId(@Param("classId") Long classId,
+                        @Param("courseId") Long courseId);
+        @Query(VIEW_SELECT + "WHERE s.currentTimeStamp BETWEEN :startTime AND :endTime")
+        List<StudyDurationView> findViewsByCurrentTimeStampBetween(@Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
+        @Query(VIEW_SELECT + "WHERE s.lessonStartTimeStamp BETWEEN :startTime AND :endTime")
+        List<StudyDurationView> findViewsByLessonStartTimeStampBetween(@Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
+        @Query(VIEW_SELECT + "WHERE s.length >= :minLength")
+        List<StudyDurationView> findViewsByLengthGreaterThanEqual(@Param("minLength") Integer minLength);
+        @Query(VIEW_SELECT + "WHERE s.length <= :maxLength")
+        List<StudyDurationView> findViewsByLengthLessThanEqual(@Param("maxLength") Integer maxLength);
+        @Query(VIEW_SELECT + "WHERE s.length BETWEEN :minLength AND :maxLength")
+        List<StudyDurationView> findViewsByLengthBetween(@Param("minLength") Integer minLength,
+                        @Param("maxLength") Integer maxLength);
         List<StudyDuration> findByCurrentTimeStampBetween(LocalDateTime startTime, LocalDateTime endTime);
         List<StudyDuration> findByLessonStartTimeStampBetween(LocalDateTime startTime, LocalDateTime endTime);
         List<StudyDuration> findByUser_Id(Long userId);
@@ -38,4 +73,9 @@ public interface StudyDurationRepository extends JpaRepository<StudyDuration, Lo
         Integer getStudentCountByClassId(@Param("classId") Long classId);
         @Query("SELECT COUNT(DISTINCT s.user.id) FROM StudyDuration s WHERE s.user.schoolClass.id = :classId AND s.course.courseId = :courseId")
         Integer getStudentCountByClassIdAndCourseId(@Param("classId") Long classId, @Param("courseId") Long courseId);
+        @Query("SELECT COALESCE(SUM(s.length), 0) AS totalDuration, COUNT(s) AS recordCount, " +
+                        "COUNT(DISTINCT s.user.id) AS studentCount " +
+                        "FROM StudyDuration s WHERE s.currentTimeStamp BETWEEN :startTime AND :endTime")
+        StudyDurationTotals getTotalsBetween(@Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
 }
@@ -1,4 +1,5 @@
 package com.XuebaoMaster.backend.StudyDuration;
+import com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationView;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,17 @@ public interface StudyDurationService {
     List<StudyDuration> getStudyDurationsByLengthLessThanEqual(Integer maxLength);
     List<StudyDuration> getStudyDurationsByLengthBetween(Integer minLength, Integer maxLength);
     List<StudyDuration> getAllStudyDurations();
+    List<StudyDurationView> getAllStudyDurationViews();
+    List<StudyDurationView> getStudyDurationViewsByUserId(Long userId);
+    List<StudyDurationView> getStudyDurationViewsByCourseId(Long courseId);
+    List<StudyDurationView> getStudyDurationViewsByClassId(Long classId);
+    List<StudyDurationView> getStudyDurationViewsByClassIdAndCourseId(Long classId, Long courseId);
+    List<StudyDurationView> getStudyDurationViewsByCurrentTimeStampBetween(LocalDateTime startTime, LocalDateTime endTime);
+    List<StudyDurationView> getStudyDurationViewsByLessonStartTimeStampBetween(LocalDateTime startTime,
+            LocalDateTime endTime);
+    List<StudyDurationView> getStudyDurationViewsByLengthGreaterThanEqual(Integer minLength);
+    List<StudyDurationView> getStudyDurationViewsByLengthLessThanEqual(Integer maxLength);
+    List<StudyDurationView> getStudyDurationViewsByLengthBetween(Integer minLength, Integer maxLength);
     Map<String, Object> getStudyStatistics();
     Map<String, Object> getStudyStatisticsBetween(LocalDateTime startTime, LocalDateTime endTime);
     Map<String, Object> getUserStudyStatistics(Long userId);
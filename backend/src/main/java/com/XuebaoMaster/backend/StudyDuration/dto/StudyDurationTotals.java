@@ -0,0 +1,12 @@
+package com.XuebaoMaster.backend.StudyDuration.dto;
+
+/**
+ * 学习时长聚合结果投影
+ */
+public interface StudyDurationTotals {
+    Number getTotalDuration();
+
+    Number getRecordCount();
+
+    Number getStudentCount();
+}
@@ -0,0 +1,27 @@
+package com.XuebaoMaster.backend.StudyDuration.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 学习时长列表投影，只携带时间、时长以及用户和课程的标识信息
+ */
+public record StudyDurationView(
+        Long id,
+        LocalDateTime currentTimeStamp,
+        LocalDateTime lessonStartTimeStamp,
+        Integer length,
+        UserRef user,
+        CourseRef course) {
+
+    public StudyDurationView(Long id, LocalDateTime currentTimeStamp, LocalDateTime lessonStartTimeStamp,
+            Integer length, Long userId, String username, String name, Long courseId, String courseName) {
+        this(id, currentTimeStamp, lessonStartTimeStamp, length,
+                new UserRef(userId, username, name), new CourseRef(courseId, courseName));
+    }
+
+    public record UserRef(Long id, String username, String name) {
+    }
+
+    public record CourseRef(Long courseId, String name) {
+    }
+}
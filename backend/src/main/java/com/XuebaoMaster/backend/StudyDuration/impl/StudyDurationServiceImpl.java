@@ -1,11 +1,17 @@
 package com.XuebaoMaster.backend.StudyDuration.impl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.XuebaoMaster.backend.StudyDuration.StudyDuration;
+import com.XuebaoMaster.backend.StudyDuration.StudyDurationDailyRepository;
 import com.XuebaoMaster.backend.StudyDuration.StudyDurationRepository;
 import com.XuebaoMaster.backend.StudyDuration.StudyDurationService;
+import com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationTotals;
+import com.XuebaoMaster.backend.StudyDuration.dto.StudyDurationView;
 import com.XuebaoMaster.backend.User.UserService;
 import com.XuebaoMaster.backend.Course.CourseService;
+import com.XuebaoMaster.backend.config.AnalyticsQuery;
+import jakarta.annotation.PostConstruct;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -15,15 +21,30 @@ public class StudyDurationServiceImpl implements StudyDurationService {
     @Autowired
     private StudyDurationRepository studyDurationRepository;
     @Autowired
+    private StudyDurationDailyRepository studyDurationDailyRepository;
+    @Autowired
     private UserService userService;
     @Autowired
     private CourseService courseService;
+    /**
+     * 首次启用日汇总表时，从已有学习记录补齐
+     */
+    @PostConstruct
+    public void initializeDailyRollup() {
+        if (studyDurationDailyRepository.count() == 0 && studyDurationRepository.count() > 0) {
+            studyDurationDailyRepository.rebuildFromStudyDurations();
+        }
+    }
     @Override
+    @Transactional
     public StudyDuration createStudyDuration(StudyDuration studyDuration) {
         if (studyDuration.getCurrentTimeStamp() == null) {
             studyDuration.setCurrentTimeStamp(LocalDateTime.now());
         }
-        return studyDurationRepository.save(studyDuration);
+        validate(studyDuration);
+        StudyDuration saved = studyDurationRepository.save(studyDuration);
+        applyToDailyRollup(saved, 1);
+        return saved;
     }
     @Override
     public StudyDuration createStudyDuration(LocalDateTime lessonStartTimeStamp, Integer length) {
@@ -31,6 +52,7 @@ public class StudyDurationServiceImpl implements StudyDurationService {
                 "This method is no longer supported. Please use createStudyDuration(LocalDateTime, Integer, Long, Long) instead.");
     }
     @Override
+    @Transactional
     public StudyDuration createStudyDuration(LocalDateTime lessonStartTimeStamp, Integer length, Long userId,
             Long courseId) {
         StudyDuration studyDuration = new StudyDuration();
@@ -39,12 +61,17 @@ public class StudyDurationServiceImpl implements StudyDurationService {
         studyDuration.setLength(length);
         studyDuration.setUser(userService.getUserById(userId));
         studyDuration.setCourse(courseService.getCourseById(courseId));
-        return studyDurationRepository.save(studyDuration);
+        validate(studyDuration);
+        StudyDuration saved = studyDurationRepository.save(studyDuration);
+        applyToDailyRollup(saved, 1);
+        return saved;
     }
     @Override
+    @Transactional
     public StudyDuration updateStudyDuration(StudyDuration studyDuration) {
-        StudyDuration existingDuration = studyDurationRepository.findById(studyDuration.getId())
+        StudyDuration existingDuration = studyDurationRepository.findWithUserAndCourseById(studyDuration.getId())
                 .orElseThrow(() -> new RuntimeException("Study duration not found"));
+        applyToDailyRollup(existingDuration, -1);
         existingDuration.setCurrentTimeStamp(studyDuration.getCurrentTimeStamp());
         existingDuration.setLessonStartTimeStamp(studyDuration.getLessonStartTimeStamp());
         existingDuration.setLength(studyDuration.getLength());
@@ -54,15 +81,61 @@ public class StudyDurationServiceImpl implements StudyDurationService {
         if (studyDuration.getCourse() != null) {
             existingDuration.setCourse(studyDuration.getCourse());
         }
-        return studyDurationRepository.save(existingDuration);
+        validate(existingDuration);
+        StudyDuration saved = studyDurationRepository.save(existingDuration);
+        applyToDailyRollup(saved, 1);
+        return saved;
     }
     @Override
+    @Transactional
     public void deleteStudyDuration(Long id) {
-        studyDurationRepository.deleteById(id);
+        studyDurationRepository.findById(id).ifPresent(existing -> {
+            applyToDailyRollup(existing, -1);
+            studyDurationRepository.delete(existing);
+        });
+    }
+    /**
+     * 日汇总按日期、用户、课程累加，写入前确认这些字段齐全
+     */
+    private void validate(StudyDuration studyDuration) {
+        if (studyDuration.getUser() == null || studyDuration.getCourse() == null) {
+            throw new IllegalArgumentException("学习记录必须指定用户和课程");
+        }
+        if (studyDuration.getLessonStartTimeStamp() == null || studyDuration.getLength() == null) {
+            throw new IllegalArgumentException("学习记录必须包含开始时间和时长");
+        }
+        if (studyDuration.getCurrentTimeStamp() == null) {
+            throw new IllegalArgumentException("学习记录必须包含记录时间");
+        }
+    }
+    /**
+     * 把一条学习记录计入(sign = 1)或移出(sign = -1)日汇总
+     */
+    private void applyToDailyRollup(StudyDuration studyDuration, int sign) {
+        studyDurationDailyRepository.addDuration(studyDuration.getCurrentTimeStamp().toLocalDate(),
+                studyDuration.getUser().getId(), studyDuration.getCourse().getCourseId(),
+                (long) sign * studyDuration.getLength(), sign);
+    }
+    private Map<String, Object> toStatistics(StudyDurationTotals totals) {
+        Map<String, Object> statistics = new HashMap<>();
+        long totalDuration = totals.getTotalDuration().longValue();
+        long recordCount = totals.getRecordCount().longValue();
+        statistics.put("totalDuration", totalDuration);
+        statistics.put("averageDuration", recordCount == 0 ? 0.0 : totalDuration / (double) recordCount);
+        statistics.put("recordCount", recordCount);
+        return statistics;
+    }
+    private Map<String, Object> toClassStatistics(StudyDurationTotals totals) {
+        Map<String, Object> statistics = toStatistics(totals);
+        long totalDuration = totals.getTotalDuration().longValue();
+        long studentCount = totals.getStudentCount().longValue();
+        statistics.put("studentCount", studentCount);
+        statistics.put("averageDurationPerStudent", studentCount > 0 ? totalDuration / (double) studentCount : 0.0);
+        return statistics;
     }
     @Override
     public StudyDuration getStudyDurationById(Long id) {
-        return studyDurationRepository.findById(id)
+        return studyDurationRepository.findWithUserAndCourseById(id)
                 .orElseThrow(() -> new RuntimeException("Study duration not found"));
     }
     @Override
@@ -108,6 +181,48 @@ public class StudyDurationServiceImpl implements StudyDurationService {
         return studyDurationRepository.findAll();
     }
     @Override
+    public List<StudyDurationView> getAllStudyDurationViews() {
+        return studyDurationRepository.findAllViews();
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByUserId(Long userId) {
+        return studyDurationRepository.findViewsByUserId(userId);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByCourseId(Long courseId) {
+        return studyDurationRepository.findViewsByCourseId(courseId);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByClassId(Long classId) {
+        return studyDurationRepository.findViewsByClassId(classId);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByClassIdAndCourseId(Long classId, Long courseId) {
+        return studyDurationRepository.findViewsByClassIdAndCourseId(classId, courseId);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByCurrentTimeStampBetween(LocalDateTime startTime,
+            LocalDateTime endTime) {
+        return studyDurationRepository.findViewsByCurrentTimeStampBetween(startTime, endTime);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByLessonStartTimeStampBetween(LocalDateTime startTime,
+            LocalDateTime endTime) {
+        return studyDurationRepository.findViewsByLessonStartTimeStampBetween(startTime, endTime);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByLengthGreaterThanEqual(Integer minLength) {
+        return studyDurationRepository.findViewsByLengthGreaterThanEqual(minLength);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByLengthLessThanEqual(Integer maxLength) {
+        return studyDurationRepository.findViewsByLengthLessThanEqual(maxLength);
+    }
+    @Override
+    public List<StudyDurationView> getStudyDurationViewsByLengthBetween(Integer minLength, Integer maxLength) {
+        return studyDurationRepository.findViewsByLengthBetween(minLength, maxLength);
+    }
+    @Override
     public Map<String, Object> getStudyStatistics() {
         Map<String, Object> statistics = new HashMap<>();
         Integer totalDuration = studyDurationRepository.getTotalStudyDuration();
@@ -119,70 +234,30 @@ public class StudyDurationServiceImpl implements StudyDurationService {
     }
     @Override
     public Map<String, Object> getStudyStatisticsBetween(LocalDateTime startTime, LocalDateTime endTime) {
-        Map<String, Object> statistics = new HashMap<>();
-        Integer totalDuration = studyDurationRepository.getTotalStudyDurationBetween(startTime, endTime);
-        List<StudyDuration> durations = studyDurationRepository.findByCurrentTimeStampBetween(startTime, endTime);
-        statistics.put("totalDuration", totalDuration != null ? totalDuration : 0);
-        statistics.put("recordCount", durations.size());
-        if (!durations.isEmpty()) {
-            double sum = durations.stream().mapToInt(StudyDuration::getLength).sum();
-            statistics.put("averageDuration", sum / durations.size());
-        } else {
-            statistics.put("averageDuration", 0.0);
-        }
-        return statistics;
+        return toStatistics(studyDurationRepository.getTotalsBetween(startTime, endTime));
     }
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public Map<String, Object> getUserStudyStatistics(Long userId) {
-        Map<String, Object> statistics = new HashMap<>();
-        List<StudyDuration> userDurations = studyDurationRepository.findByUser_Id(userId);
-        int totalDuration = userDurations.stream().mapToInt(StudyDuration::getLength).sum();
-        double averageDuration = userDurations.isEmpty() ? 0.0 : totalDuration / (double) userDurations.size();
-        statistics.put("totalDuration", totalDuration);
-        statistics.put("averageDuration", averageDuration);
-        statistics.put("recordCount", userDurations.size());
-        return statistics;
+        return toStatistics(studyDurationDailyRepository.getTotalsByUserId(userId));
     }
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public Map<String, Object> getCourseStudyStatistics(Long courseId) {
-        Map<String, Object> statistics = new HashMap<>();
-        List<StudyDuration> courseDurations = studyDurationRepository.findByCourse_CourseId(courseId);
-        int totalDuration = courseDurations.stream().mapToInt(StudyDuration::getLength).sum();
-        double averageDuration = courseDurations.isEmpty() ? 0.0 : totalDuration / (double) courseDurations.size();
-        statistics.put("totalDuration", totalDuration);
-        statistics.put("averageDuration", averageDuration);
-        statistics.put("recordCount", courseDurations.size());
-        return statistics;
+        return toStatistics(studyDurationDailyRepository.getTotalsByCourseId(courseId));
     }
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public Map<String, Object> getClassStudyStatistics(Long classId) {
-        Map<String, Object> statistics = new HashMap<>();
-        List<StudyDuration> classDurations = studyDurationRepository.findByUser_SchoolClass_Id(classId);
-        int totalDuration = classDurations.stream().mapToInt(StudyDuration::getLength).sum();
-        double averageDuration = classDurations.isEmpty() ? 0.0 : totalDuration / (double) classDurations.size();
-        Integer studentCount = studyDurationRepository.getStudentCountByClassId(classId);
-        statistics.put("totalDuration", totalDuration);
-        statistics.put("averageDuration", averageDuration);
-        statistics.put("recordCount", classDurations.size());
-        statistics.put("studentCount", studentCount != null ? studentCount : 0);
-        statistics.put("averageDurationPerStudent",
-                studentCount != null && studentCount > 0 ? totalDuration / (double) studentCount : 0.0);
-        return statistics;
+        return toClassStatistics(studyDurationDailyRepository.getTotalsByClassId(classId));
     }
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public Map<String, Object> getClassCourseStudyStatistics(Long classId, Long courseId) {
-        Map<String, Object> statistics = new HashMap<>();
-        List<StudyDuration> classDurations = studyDurationRepository
-                .findByUser_SchoolClass_IdAndCourse_CourseId(classId, courseId);
-        int totalDuration = classDurations.stream().mapToInt(StudyDuration::getLength).sum();
-        double averageDuration = classDurations.isEmpty() ? 0.0 : totalDuration / (double) classDurations.size();
-        Integer studentCount = studyDurationRepository.getStudentCountByClassIdAndCourseId(classId, courseId);
-        statistics.put("totalDuration", totalDuration);
-        statistics.put("averageDuration", averageDuration);
-        statistics.put("recordCount", classDurations.size());
-        statistics.put("studentCount", studentCount != null ? studentCount : 0);
-        statistics.put("averageDurationPerStudent",
-                studentCount != null && studentCount > 0 ? totalDuration / (double) studentCount : 0.0);
-        return statistics;
+        return toClassStatistics(studyDurationDailyRepository.getTotalsByClassIdAndCourseId(classId, courseId));
     }
 }
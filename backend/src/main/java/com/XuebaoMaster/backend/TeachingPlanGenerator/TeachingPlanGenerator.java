@@ -1,5 +1,6 @@
 package com.XuebaoMaster.backend.TeachingPlanGenerator;
 
+import com.XuebaoMaster.backend.util.CompressedTextConverter;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -38,6 +39,9 @@ public class TeachingPlanGenerator {
     @Column(name = "edit_duration")
     private Long editDuration; // in seconds
 
+    // 编辑内容只在编辑、导出时读取，延迟加载(需要构建时字节码增强)
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
     @Column(name = "edit_content", columnDefinition = "LONGTEXT")
     private String editContent;
 
@@ -1,11 +1,16 @@
 package com.XuebaoMaster.backend.TeachingPlanGenerator;
 
+import com.XuebaoMaster.backend.TeachingPlanGenerator.dto.TeachingPlanListResponse;
+import com.XuebaoMaster.backend.TeachingPlanGenerator.dto.TeachingPlanSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
@@ -13,9 +18,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/teaching-plan-generator")
@@ -191,49 +194,32 @@ public class TeachingPlanGeneratorController {
     }
 
     /**
-     * 获取所有教案生成任务
+     * 分页获取教案生成任务摘要，不返回编辑内容
      *
-     * @return 返回所有教案生成任务列表
+     * @param page      页码，从 1 开始
+     * @param size      每页条数
+     * @param sort      排序字段，默认 createdAt
+     * @param direction 排序方向 asc/desc，默认 desc
+     * @param status    状态筛选
+     * @param keyword   提示词关键字
+     * @return 返回教案生成任务摘要分页
      */
     @GetMapping("/list")
-    public ResponseEntity<Map<String, Object>> getAllTeachingPlans() {
-        List<TeachingPlanGenerator> teachingPlans = teachingPlanGeneratorService.getAllTeachingPlanGenerators();
-
-        List<Map<String, Object>> plansList = teachingPlans.stream().map(entity -> {
-            Map<String, Object> plan = new HashMap<>();
-            plan.put("id", entity.getId());
-            plan.put("prompt", entity.getPrompt());
-            plan.put("status", entity.getStatus());
-            plan.put("createdAt", entity.getCreatedAt());
-            plan.put("updatedAt", entity.getUpdatedAt());
-
-            if ("COMPLETED".equals(entity.getStatus())) {
-                plan.put("fileName", entity.getFileName());
-                plan.put("filePath", entity.getFilePath());
-                plan.put("conversationId", entity.getConversationId());
-                plan.put("messageId", entity.getMessageId());
-
-                // 添加编辑和效率相关字段
-                if (entity.getEditDuration() != null && entity.getEditDuration() > 0) {
-                    plan.put("editDuration", entity.getEditDuration());
-                    plan.put("editStartTime", entity.getEditStartTime());
-                    plan.put("editEndTime", entity.getEditEndTime());
-                    plan.put("efficiencyIndex", entity.getEfficiencyIndex());
-                    plan.put("hasBeenEdited", true);
-                } else {
-                    plan.put("hasBeenEdited", false);
-                }
-            }
-
-            return plan;
-        }).collect(Collectors.toList());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("teachingPlans", plansList);
-        response.put("count", plansList.size());
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<TeachingPlanListResponse> getAllTeachingPlans(
+            @RequestParam(required = false, defaultValue = "1") Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false, defaultValue = "desc") String direction,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String keyword) {
+        try {
+            Page<TeachingPlanSummary> plans = teachingPlanGeneratorService.getTeachingPlanSummaries(
+                    status, keyword, page, size, sort, direction);
+            return ResponseEntity.ok(new TeachingPlanListResponse(true, plans.getContent(),
+                    plans.getTotalElements(), plans.getNumber() + 1, plans.getSize()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     /**
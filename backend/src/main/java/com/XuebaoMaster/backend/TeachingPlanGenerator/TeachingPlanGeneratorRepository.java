@@ -1,9 +1,26 @@
 package com.XuebaoMaster.backend.TeachingPlanGenerator;
 
+import com.XuebaoMaster.backend.TeachingPlanGenerator.dto.TeachingPlanSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface TeachingPlanGeneratorRepository extends JpaRepository<TeachingPlanGenerator, Long> {
-    // 可以根据需要添加自定义查询方法
-}
\ No newline at end of file
+
+    // keyword 为 PageQuery.containsPattern 生成的已转义模式
+    String SUMMARY_FILTER = "WHERE (:status IS NULL OR t.status = :status) " +
+            "AND (:keyword IS NULL OR t.prompt LIKE :keyword ESCAPE '!')";
+
+    // 列表分页只查询摘要列，不读取编辑内容和优化建议
+    @Query(value = "SELECT new com.XuebaoMaster.backend.TeachingPlanGenerator.dto.TeachingPlanSummary(" +
+            "t.id, t.prompt, t.status, t.fileName, t.filePath, t.conversationId, t.messageId, " +
+            "t.editStartTime, t.editEndTime, t.editDuration, t.efficiencyIndex, t.createdAt, t.updatedAt) " +
+            "FROM TeachingPlanGenerator t " + SUMMARY_FILTER,
+            countQuery = "SELECT COUNT(t) FROM TeachingPlanGenerator t " + SUMMARY_FILTER)
+    Page<TeachingPlanSummary> findSummaries(@Param("status") String status,
+            @Param("keyword") String keyword, Pageable pageable);
+}
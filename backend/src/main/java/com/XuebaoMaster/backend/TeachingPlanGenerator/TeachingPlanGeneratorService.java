@@ -1,6 +1,8 @@
 package com.XuebaoMaster.backend.TeachingPlanGenerator;
 
-import java.util.List;
+import com.XuebaoMaster.backend.TeachingPlanGenerator.dto.TeachingPlanSummary;
+import org.springframework.data.domain.Page;
+
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -42,11 +44,18 @@ public interface TeachingPlanGeneratorService {
     TeachingPlanGenerator getTeachingPlanGeneratorById(Long id);
 
     /**
-     * 获取所有教案生成任务
+     * 分页查询教案生成任务摘要
      * 
-     * @return 所有教案生成任务列表
+     * @param status    状态筛选，为空时不筛选
+     * @param keyword   提示词关键字，为空时不筛选
+     * @param page      页码，从 1 开始
+     * @param size      每页条数
+     * @param sort      排序字段
+     * @param direction 排序方向 asc/desc
+     * @return 教案生成任务摘要分页
      */
-    List<TeachingPlanGenerator> getAllTeachingPlanGenerators();
+    Page<TeachingPlanSummary> getTeachingPlanSummaries(String status, String keyword, Integer page,
+            Integer size, String sort, String direction);
 
     /**
      * 开始在线编辑教案
@@ -0,0 +1,14 @@
+package com.XuebaoMaster.backend.TeachingPlanGenerator.dto;
+
+import java.util.List;
+
+/**
+ * 教案生成任务分页列表，page 从 1 开始，count 为满足筛选条件的总数
+ */
+public record TeachingPlanListResponse(
+        boolean success,
+        List<TeachingPlanSummary> teachingPlans,
+        long count,
+        int page,
+        int size) {
+}
@@ -0,0 +1,29 @@
+package com.XuebaoMaster.backend.TeachingPlanGenerator.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * 教案生成任务列表摘要，不包含编辑内容和优化建议
+ */
+public record TeachingPlanSummary(
+        Long id,
+        String prompt,
+        String status,
+        String fileName,
+        String filePath,
+        String conversationId,
+        String messageId,
+        LocalDateTime editStartTime,
+        LocalDateTime editEndTime,
+        Long editDuration,
+        Double efficiencyIndex,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    @JsonProperty("hasBeenEdited")
+    public boolean hasBeenEdited() {
+        return editDuration != null && editDuration > 0;
+    }
+}
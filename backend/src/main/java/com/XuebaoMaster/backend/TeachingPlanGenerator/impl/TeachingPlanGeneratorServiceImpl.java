@@ -6,16 +6,22 @@ import com.XuebaoMaster.backend.TeachingPlanGenerator.TeachingPlanGenerator;
 import com.XuebaoMaster.backend.TeachingPlanGenerator.TeachingPlanGeneratorRepository;
 import com.XuebaoMaster.backend.TeachingPlanGenerator.TeachingPlanGeneratorService;
 import com.XuebaoMaster.backend.TeachingPlanGenerator.config.TeachingPlanGeneratorConfig;
+import com.XuebaoMaster.backend.TeachingPlanGenerator.dto.TeachingPlanSummary;
 import com.XuebaoMaster.backend.TeachingPlanGenerator.model.ChatMessageRequest;
 import com.XuebaoMaster.backend.TeachingPlanGenerator.model.ChatMessageResponse;
+import com.XuebaoMaster.backend.config.AnalyticsQuery;
+import com.XuebaoMaster.backend.util.PageQuery;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.BufferedInputStream;
@@ -32,6 +38,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 // Apache POI 依赖
@@ -47,6 +54,10 @@ public class TeachingPlanGeneratorServiceImpl implements TeachingPlanGeneratorSe
 
     private static final Logger logger = LoggerFactory.getLogger(TeachingPlanGeneratorServiceImpl.class);
 
+    // 列表允许的排序字段
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "createdAt", "updatedAt", "status",
+            "editDuration", "efficiencyIndex");
+
     @Autowired
     private TeachingPlanGeneratorRepository teachingPlanGeneratorRepository;
 
@@ -130,8 +141,11 @@ public class TeachingPlanGeneratorServiceImpl implements TeachingPlanGeneratorSe
     }
 
     @Override
-    public List<TeachingPlanGenerator> getAllTeachingPlanGenerators() {
-        return teachingPlanGeneratorRepository.findAll();
+    public Page<TeachingPlanSummary> getTeachingPlanSummaries(String status, String keyword,
+            Integer page, Integer size, String sort, String direction) {
+        Pageable pageable = PageQuery.of(page, size, sort, direction, SORTABLE_FIELDS, "createdAt");
+        return teachingPlanGeneratorRepository.findSummaries(PageQuery.filter(status),
+                PageQuery.containsPattern(keyword), pageable);
     }
 
     @Override
@@ -358,6 +372,8 @@ public class TeachingPlanGeneratorServiceImpl implements TeachingPlanGeneratorSe
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @AnalyticsQuery
     public Map<String, Object> getEfficiencyStatistics() {
         Map<String, Object> response = new HashMap<>();
 
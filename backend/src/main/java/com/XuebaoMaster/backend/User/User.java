@@ -1,9 +1,13 @@
 package com.XuebaoMaster.backend.User;
 import com.XuebaoMaster.backend.SchoolClass.SchoolClass;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import lombok.Data;
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users")
 @Data
 public class User {
@@ -2,7 +2,9 @@ package com.XuebaoMaster.backend.User;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import com.XuebaoMaster.backend.util.JwtUtil;
 import com.XuebaoMaster.backend.LoginRecord.LoginRecordService;
 
@@ -26,6 +28,9 @@ public class UserController {
     @Autowired
     private LoginRecordService loginRecordService;
 
+    @Autowired
+    private UserImportService userImportService;
+
     /**
      * 
      * @param user
@@ -119,4 +124,22 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * 从 Excel(.xlsx) 或 CSV 批量导入用户
+     * 
+     * @param file 第一行为表头，必需列：用户名、密码；可选列：姓名、班级、学号、邮箱、电话、角色
+     * @return 导入数量和逐行错误
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(file));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.XuebaoMaster.backend.User;
+
+import com.XuebaoMaster.backend.User.dto.UserImportResult;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface UserImportService {
+
+    // Import users from an .xlsx or .csv sheet, returns counts and per-row errors;
+    // rows past user-import.max-rows are skipped and reported as truncated
+    UserImportResult importUsers(MultipartFile file);
+}
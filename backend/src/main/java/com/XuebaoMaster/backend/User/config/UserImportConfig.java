@@ -0,0 +1,29 @@
+package com.XuebaoMaster.backend.User.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 批量导入用户时并行计算密码哈希的线程池，线程数与 CPU 核数一致
+ */
+@Configuration
+public class UserImportConfig {
+
+    @Bean(name = "passwordHashExecutor")
+    public Executor passwordHashExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("PasswordHash-");
+        // 队列满时由导入线程自己计算
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
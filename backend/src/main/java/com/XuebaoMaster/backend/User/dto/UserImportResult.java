@@ -0,0 +1,19 @@
+package com.XuebaoMaster.backend.User.dto;
+
+import java.util.List;
+
+/**
+ * 批量导入用户的结果，rowNumber 为文件中的行号（从1开始，含表头）
+ * 超过行数上限时 truncated 为 true，之前的行已写入，firstSkippedRow 起的行未处理
+ */
+public record UserImportResult(
+        int totalRows,
+        int importedCount,
+        int failedCount,
+        List<RowError> errors,
+        boolean truncated,
+        Integer firstSkippedRow) {
+
+    public record RowError(int rowNumber, String username, String message) {
+    }
+}
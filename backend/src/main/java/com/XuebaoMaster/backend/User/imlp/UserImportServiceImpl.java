@@ -0,0 +1,504 @@
+package com.XuebaoMaster.backend.User.imlp;
+
+import com.XuebaoMaster.backend.User.User;
+import com.XuebaoMaster.backend.User.UserImportService;
+import com.XuebaoMaster.backend.User.dto.UserImportResult;
+import com.XuebaoMaster.backend.config.CacheConfig;
+import com.XuebaoMaster.backend.util.EntityCacheEvictor;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 批量导入用户
+ * xlsx 使用 POI 事件 API 逐行解析，csv 逐行读取；用户名与一次性预加载的集合比对，
+ * 每攒满一批在 CPU 线程池上并行计算 BCrypt 哈希，再用 JDBC 批量插入
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (username, password, name, class_id, " +
+            "student_number, email, phone, user_role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 表头别名 -> 字段
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias("username", "username", "用户名", "账号");
+        alias("password", "password", "密码", "初始密码");
+        alias("name", "name", "姓名");
+        alias("class", "class", "classid", "classname", "班级", "班级id");
+        alias("studentNumber", "studentnumber", "student_number", "学号");
+        alias("email", "email", "邮箱");
+        alias("phone", "phone", "电话", "手机号");
+        alias("role", "role", "userrole", "角色");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private Executor passwordHashExecutor;
+
+    @Value("${user-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${user-import.max-rows:20000}")
+    private int maxRows;
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CLASS_STUDENT_IDS, allEntries = true)
+    public UserImportResult importUsers(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("导入文件不能为空");
+        }
+        String filename = file.getOriginalFilename() != null
+                ? file.getOriginalFilename().toLowerCase(Locale.ROOT)
+                : "";
+        long startTime = System.currentTimeMillis();
+        if (!filename.endsWith(".csv") && !filename.endsWith(".xlsx")) {
+            throw new IllegalArgumentException("仅支持 .xlsx 或 .csv 文件");
+        }
+        ImportJob job = new ImportJob(loadUsernames(), loadClasses());
+        try {
+            if (filename.endsWith(".csv")) {
+                readCsv(file, job);
+            } else {
+                readXlsx(file, job);
+            }
+        } catch (RowLimitReached e) {
+            // 已写入的批次保留，结果中标明截断位置
+            logger.warn("导入行数超过上限 {}，从第 {} 行起未处理", maxRows, e.rowNumber);
+        } catch (IOException e) {
+            throw new RuntimeException("读取导入文件失败: " + e.getMessage());
+        }
+        job.finish();
+        // JDBC 插入绕过了 Hibernate，按用户名缓存的查询结果需要手动失效
+        entityCacheEvictor.evictQueryResultsAfterCommit();
+
+        UserImportResult result = job.result();
+        logger.info("批量导入用户完成：共 {} 行，成功 {}，失败 {}，耗时 {} ms", result.totalRows(),
+                result.importedCount(), result.failedCount(), System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private void readCsv(MultipartFile file, ImportJob job) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                job.onRow(lineNumber, parseCsvLine(line));
+            }
+        }
+    }
+
+    /**
+     * 用事件 API 解析第一个工作表，只保留当前行，不构建整个工作簿对象
+     */
+    private void readXlsx(MultipartFile file, ImportJob job) throws IOException {
+        // 从临时文件打开，避免 OPCPackage 把整个压缩包读进内存
+        File tempFile = File.createTempFile("user-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+            try (OPCPackage pkg = OPCPackage.open(tempFile, PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    throw new IllegalArgumentException("导入文件中没有工作表");
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                            new SheetRowCollector(job), new DataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (IllegalArgumentException | IOException | RowLimitReached e) {
+            throw e;
+        } catch (Exception e) {
+            if (e.getCause() instanceof RowLimitReached limit) {
+                throw limit;
+            }
+            throw new RuntimeException("解析 Excel 文件失败: " + e.getMessage());
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    private Set<String> loadUsernames() {
+        Set<String> usernames = new HashSet<>();
+        jdbcTemplate.query("SELECT username FROM users", rs -> {
+            usernames.add(rs.getString(1));
+        });
+        return usernames;
+    }
+
+    private Map<String, Long> loadClasses() {
+        Map<String, Long> classes = new HashMap<>();
+        jdbcTemplate.query("SELECT id, class_name FROM school_classes", rs -> {
+            long id = rs.getLong(1);
+            classes.put(String.valueOf(id), id);
+            classes.putIfAbsent(rs.getString(2), id);
+        });
+        return classes;
+    }
+
+    private static void alias(String field, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(name, field);
+        }
+    }
+
+    /**
+     * 解析一行 CSV，支持双引号包裹和 "" 转义
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+
+    /**
+     * 一次导入的状态：表头映射、已占用用户名、待写入批次和错误列表
+     */
+    private class ImportJob {
+
+        private final Set<String> usernames;
+        private final Map<String, Long> classes;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final List<PendingUser> batch = new ArrayList<>();
+        private final List<UserImportResult.RowError> errors = new ArrayList<>();
+        private boolean headerSeen;
+        private int totalRows;
+        private int importedCount;
+        private Integer firstSkippedRow;
+
+        ImportJob(Set<String> usernames, Map<String, Long> classes) {
+            this.usernames = usernames;
+            this.classes = classes;
+        }
+
+        void onRow(int rowNumber, List<String> cells) {
+            if (cells.stream().allMatch(cell -> cell == null || cell.isBlank())) {
+                return;
+            }
+            if (!headerSeen) {
+                readHeader(cells);
+                headerSeen = true;
+                return;
+            }
+            if (totalRows >= maxRows) {
+                // 流式导入无法预知总行数，到达上限即停止读取，已攒的批次由 finish 写入
+                firstSkippedRow = rowNumber;
+                throw new RowLimitReached(rowNumber);
+            }
+            totalRows++;
+
+            String username = cell(cells, "username");
+            String error = validate(cells, username);
+            if (error != null) {
+                errors.add(new UserImportResult.RowError(rowNumber, username, error));
+                return;
+            }
+            String classValue = cell(cells, "class");
+            batch.add(new PendingUser(rowNumber, username, cell(cells, "password"), cell(cells, "name"),
+                    classValue != null ? classes.get(classValue) : null, cell(cells, "studentNumber"),
+                    cell(cells, "email"), cell(cells, "phone"), parseRole(cell(cells, "role"))));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void finish() {
+            if (!headerSeen) {
+                throw new IllegalArgumentException("导入文件为空");
+            }
+            flush();
+        }
+
+        UserImportResult result() {
+            errors.sort((a, b) -> Integer.compare(a.rowNumber(), b.rowNumber()));
+            return new UserImportResult(totalRows, importedCount, errors.size(), errors,
+                    firstSkippedRow != null, firstSkippedRow);
+        }
+
+        private void readHeader(List<String> cells) {
+            for (int i = 0; i < cells.size(); i++) {
+                String header = cells.get(i) == null ? ""
+                        : cells.get(i).trim().replace(" ", "").toLowerCase(Locale.ROOT);
+                String field = HEADER_ALIASES.get(header);
+                if (field != null) {
+                    columns.putIfAbsent(field, i);
+                }
+            }
+            if (!columns.containsKey("username") || !columns.containsKey("password")) {
+                throw new IllegalArgumentException("缺少必需的列：用户名、密码");
+            }
+        }
+
+        private String validate(List<String> cells, String username) {
+            if (username == null) {
+                return "用户名不能为空";
+            }
+            if (username.length() > 50) {
+                return "用户名不能超过50个字符";
+            }
+            if (cell(cells, "password") == null) {
+                return "密码不能为空";
+            }
+            String classValue = cell(cells, "class");
+            if (classValue != null && !classes.containsKey(classValue)) {
+                return "班级不存在: " + classValue;
+            }
+            String role = cell(cells, "role");
+            if (role != null && parseRole(role) == null) {
+                return "无法识别的角色: " + role;
+            }
+            if (exceeds(cell(cells, "name"), 100) || exceeds(cell(cells, "studentNumber"), 100)
+                    || exceeds(cell(cells, "email"), 100) || exceeds(cell(cells, "phone"), 20)) {
+                return "字段长度超出限制";
+            }
+            // 同时拦截库中已有的和文件内重复的用户名
+            if (!usernames.add(username)) {
+                return "用户名已存在";
+            }
+            return null;
+        }
+
+        private String cell(List<String> cells, String field) {
+            Integer index = columns.get(field);
+            if (index == null || index >= cells.size() || cells.get(index) == null) {
+                return null;
+            }
+            String value = cells.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private boolean exceeds(String value, int maxLength) {
+            return value != null && value.length() > maxLength;
+        }
+
+        private User.UserRoleType parseRole(String role) {
+            if (role == null) {
+                return User.UserRoleType.STUDENT;
+            }
+            switch (role.trim()) {
+                case "学生":
+                    return User.UserRoleType.STUDENT;
+                case "教师":
+                case "老师":
+                    return User.UserRoleType.TEACHER;
+                case "管理员":
+                    return User.UserRoleType.ADMIN;
+                default:
+                    try {
+                        return User.UserRoleType.valueOf(role.trim().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+            }
+        }
+
+        /**
+         * 并行哈希本批密码后批量插入；批量失败（如并发创建了同名用户）时逐行重试以定位出错行
+         */
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<PendingUser> users = new ArrayList<>(batch);
+            batch.clear();
+
+            List<CompletableFuture<String>> hashes = new ArrayList<>(users.size());
+            for (PendingUser user : users) {
+                hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(user.rawPassword()),
+                        passwordHashExecutor));
+            }
+            String[] encoded = new String[users.size()];
+            for (int i = 0; i < users.size(); i++) {
+                encoded[i] = hashes.get(i).join();
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                jdbcTemplate.batchUpdate(INSERT_USER_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, users.get(i), encoded[i], now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                });
+                importedCount += users.size();
+            } catch (DataAccessException e) {
+                logger.warn("批量插入用户失败，逐行重试: {}", e.getMessage());
+                for (int i = 0; i < users.size(); i++) {
+                    PendingUser user = users.get(i);
+                    String password = encoded[i];
+                    try {
+                        jdbcTemplate.update(INSERT_USER_SQL, ps -> bind(ps, user, password, now));
+                        importedCount++;
+                    } catch (DataAccessException rowError) {
+                        errors.add(new UserImportResult.RowError(user.rowNumber(), user.username(),
+                                "写入失败: " + rowError.getMostSpecificCause().getMessage()));
+                    }
+                }
+            }
+        }
+
+        private void bind(PreparedStatement ps, PendingUser user, String password, Timestamp now)
+                throws SQLException {
+            ps.setString(1, user.username());
+            ps.setString(2, password);
+            ps.setString(3, user.name());
+            if (user.classId() != null) {
+                ps.setLong(4, user.classId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setString(5, user.studentNumber());
+            ps.setString(6, user.email());
+            ps.setString(7, user.phone());
+            ps.setString(8, user.role().name());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        }
+    }
+
+    /**
+     * 把事件 API 回调的单元格按列号组装成行，空单元格补 null
+     */
+    private static class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ImportJob job;
+        private final List<String> cells = new ArrayList<>();
+        private int currentColumn;
+
+        SheetRowCollector(ImportJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            currentColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            job.onRow(rowNum + 1, new ArrayList<>(cells));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : currentColumn + 1;
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+            currentColumn = column;
+        }
+    }
+
+    /**
+     * 到达行数上限时中止解析，xlsx 事件解析只能通过异常退出
+     */
+    private static class RowLimitReached extends RuntimeException {
+
+        private final int rowNumber;
+
+        RowLimitReached(int rowNumber) {
+            super(null, null, false, false);
+            this.rowNumber = rowNumber;
+        }
+    }
+
+    private record PendingUser(int rowNumber, String username, String rawPassword, String name, Long classId,
+            String studentNumber, String email, String phone, User.UserRoleType role) {
+    }
+}
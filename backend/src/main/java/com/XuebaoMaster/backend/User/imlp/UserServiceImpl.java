@@ -1,12 +1,15 @@
 package com.XuebaoMaster.backend.User.imlp;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.XuebaoMaster.backend.User.User;
 import com.XuebaoMaster.backend.User.UserRepository;
 import com.XuebaoMaster.backend.User.UserService;
 import com.XuebaoMaster.backend.LoginRecord.LoginRecordService;
+import com.XuebaoMaster.backend.Notification.NotificationInboxService;
+import com.XuebaoMaster.backend.config.CacheConfig;
 import java.util.List;
 
 @Service
@@ -17,14 +20,22 @@ public class UserServiceImpl implements UserService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private LoginRecordService loginRecordService;
+    @Autowired
+    private NotificationInboxService notificationInboxService;
 
+    // 用户所属班级可能变化，班级学生列表缓存整体失效
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CLASS_STUDENT_IDS, allEntries = true)
     public User createUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // 按角色、班级补发发送时还不存在的接收人
+        notificationInboxService.fanOutToUser(saved.getId());
+        return saved;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CLASS_STUDENT_IDS, allEntries = true)
     public User updateUser(User user) {
         User existingUser = getUserById(user.getId());
         if (user.getUsername() != null) {
@@ -49,10 +60,14 @@ public class UserServiceImpl implements UserService {
         if (user.getStudentNumber() != null) {
             existingUser.setStudentNumber(user.getStudentNumber());
         }
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        // 角色或班级变化后补发新范围内的有效消息
+        notificationInboxService.fanOutToUser(saved.getId());
+        return saved;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CLASS_STUDENT_IDS, allEntries = true)
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
     }
@@ -0,0 +1,15 @@
+package com.XuebaoMaster.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记统计分析类服务方法，配合 @Transactional(readOnly = true) 使用，
+ * 方法内的查询路由到分析副本的连接池
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AnalyticsQuery {
+}
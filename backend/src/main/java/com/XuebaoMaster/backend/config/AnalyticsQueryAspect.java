@@ -0,0 +1,27 @@
+package com.XuebaoMaster.backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 在事务切面之外设置路由标记，事务内第一条语句取连接时据此选择分析副本
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AnalyticsQueryAspect {
+
+    @Around("@annotation(com.XuebaoMaster.backend.config.AnalyticsQuery)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = RoutingDataSource.markAnalytics();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RoutingDataSource.restore(previous);
+        }
+    }
+}
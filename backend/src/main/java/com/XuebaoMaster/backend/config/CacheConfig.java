@@ -0,0 +1,112 @@
+package com.XuebaoMaster.backend.config;
+
+import com.XuebaoMaster.backend.Course.Course;
+import com.XuebaoMaster.backend.Homework.Homework;
+import com.XuebaoMaster.backend.HomeworkQuestion.HomeworkQuestion;
+import com.XuebaoMaster.backend.RAG.RAG;
+import com.XuebaoMaster.backend.SchoolClass.SchoolClass;
+import com.XuebaoMaster.backend.User.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存配置
+ * Caffeine 作为 JCache 实现，同一个 CacheManager 同时提供 Hibernate 二级缓存区域和 Spring 服务缓存，
+ * 所有缓存实例在这里显式创建，统一设置容量、过期时间并开启命中统计
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // 题目是否属于作业，key 为 "作业ID:题目ID"
+    public static final String HOMEWORK_QUESTION_MEMBERSHIP = "homeworkQuestionMembership";
+    // 作业题目数量，key 为作业ID
+    public static final String HOMEWORK_QUESTION_COUNT = "homeworkQuestionCount";
+    // 班级学生ID列表，key 为班级ID
+    public static final String CLASS_STUDENT_IDS = "classStudentIds";
+
+    // 开启二级缓存的实体，区域名为实体类全名
+    static final List<Class<?>> CACHED_ENTITIES = List.of(
+            Course.class, SchoolClass.class, User.class, RAG.class, Homework.class, HomeworkQuestion.class);
+
+    static final List<String> SERVICE_CACHES = List.of(
+            HOMEWORK_QUESTION_MEMBERSHIP, HOMEWORK_QUESTION_COUNT, CLASS_STUDENT_IDS);
+
+    @Value("${cache.entity.max-entries:10000}")
+    private long entityMaxEntries;
+
+    @Value("${cache.entity.ttl-ms:3600000}")
+    private long entityTtlMs;
+
+    @Value("${cache.service.max-entries:20000}")
+    private long serviceMaxEntries;
+
+    @Value("${cache.service.ttl-ms:600000}")
+    private long serviceTtlMs;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        for (Class<?> entity : CACHED_ENTITIES) {
+            createCache(cacheManager, entity.getName(), entityMaxEntries, entityTtlMs);
+        }
+        createCache(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                entityMaxEntries, entityTtlMs);
+        // 时间戳区域记录各表最后修改时间，用于判断查询缓存是否失效，不能过期或被淘汰
+        createCache(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, 0);
+        for (String name : SERVICE_CACHES) {
+            createCache(cacheManager, name, serviceMaxEntries, serviceTtlMs);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Hibernate 使用上面创建的 CacheManager，而不是自行按默认配置创建缓存
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager jCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, jCacheManager);
+    }
+
+    /**
+     * 服务缓存的写入和清除在事务提交后执行，避免并发请求在提交前把旧值重新放回缓存
+     */
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager(CacheManager jCacheManager) {
+        JCacheCacheManager cacheManager = new JCacheCacheManager(jCacheManager);
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    private void createCache(CacheManager cacheManager, String name, long maxEntries, long ttlMs) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // 按引用存取，避免每次读写都序列化复制
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setNativeStatisticsEnabled(true);
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttlMs > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,83 @@
+package com.XuebaoMaster.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * 主库与分析副本数据源
+ * 两者各自使用独立的连接池和语句超时，分析报表占满副本连接池时不会影响提交练习、登录等写操作；
+ * 未配置副本地址时(开发环境)副本连接池连到主库地址
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+            @Value("${datasource.primary.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${datasource.primary.connection-timeout-ms:30000}") long connectionTimeoutMs,
+            @Value("${datasource.primary.statement-timeout-ms:30000}") long statementTimeoutMs) {
+        return createPool("primary", properties.determineDriverClassName(), properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(),
+                maximumPoolSize, connectionTimeoutMs, statementTimeoutMs);
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+            @Value("${analytics.datasource.url:}") String url,
+            @Value("${analytics.datasource.username:}") String username,
+            @Value("${analytics.datasource.password:}") String password,
+            @Value("${analytics.datasource.maximum-pool-size:5}") int maximumPoolSize,
+            @Value("${analytics.datasource.connection-timeout-ms:5000}") long connectionTimeoutMs,
+            @Value("${analytics.datasource.statement-timeout-ms:120000}") long statementTimeoutMs) {
+        if (!StringUtils.hasText(url)) {
+            logger.info("未配置分析副本地址，分析查询使用连到主库的独立连接池");
+            url = properties.determineUrl();
+        }
+        return createPool("replica", properties.determineDriverClassName(), url,
+                StringUtils.hasText(username) ? username : properties.determineUsername(),
+                StringUtils.hasText(password) ? password : properties.determinePassword(),
+                maximumPoolSize, connectionTimeoutMs, statementTimeoutMs);
+    }
+
+    /**
+     * JPA、JdbcTemplate、Flyway 使用的数据源，连接在第一条语句执行时才按路由规则获取
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        RoutingDataSource routingDataSource = new RoutingDataSource(primaryDataSource, replicaDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource createPool(String name, String driverClassName, String url, String username,
+            String password, int maximumPoolSize, long connectionTimeoutMs, long statementTimeoutMs) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setDriverClassName(driverClassName);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        // MySQL 的 max_execution_time 限制单条 SELECT 的执行时间(毫秒)，流式导出等长查询由 StatementTimeout 临时取消
+        if (statementTimeoutMs > 0 && url.startsWith("jdbc:mysql:")) {
+            dataSource.setConnectionInitSql("SET SESSION max_execution_time = " + statementTimeoutMs);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,72 @@
+package com.XuebaoMaster.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * 池化ID生成配置
+ * 写入频繁且只经由 JPA 插入的表使用 id_generators 表分段取号(pooled-lo，每次 50 个)，
+ * 这样 Hibernate 可以批量插入；由 JDBC 直接插入的表仍保留自增主键。
+ * 实体管理器创建前先把各表的取号起点校准到现有最大ID之后
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    // 与实体上 @TableGenerator 的 pkColumnValue 一致
+    static final List<String> POOLED_TABLES = List.of(
+            "practice_records", "module_usage", "login_records", "files", "chat_messages",
+            "chat_conversations", "study_durations", "student_emotions", "homework_questions",
+            "message_targets", "course_rag_mappings");
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor idGeneratorSeederDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("idGeneratorSeeder");
+    }
+
+    @Bean(name = "idGeneratorSeeder")
+    public IdGeneratorSeeder idGeneratorSeeder(JdbcTemplate jdbcTemplate) {
+        return new IdGeneratorSeeder(jdbcTemplate);
+    }
+
+    static class IdGeneratorSeeder implements InitializingBean {
+
+        private static final Logger logger = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+        private final JdbcTemplate jdbcTemplate;
+
+        IdGeneratorSeeder(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS id_generators ("
+                    + "gen_name VARCHAR(255) NOT NULL PRIMARY KEY, next_val BIGINT)");
+            for (String table : POOLED_TABLES) {
+                long nextId = findMaxId(table) + 1;
+                // 只会调高，不会把已经分配出去的号段收回
+                jdbcTemplate.update("INSERT INTO id_generators (gen_name, next_val) VALUES (?, ?) "
+                        + "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))", table, nextId);
+            }
+            logger.info("校准 {} 个表的池化ID起点", POOLED_TABLES.size());
+        }
+
+        private long findMaxId(String table) {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+                return maxId == null ? 0 : maxId;
+            } catch (DataAccessException e) {
+                // 表尚不存在(迁移未启用)时从 1 开始
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.XuebaoMaster.backend.config;
+
+import com.XuebaoMaster.backend.util.BatchOrderUpdater;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 排序键重新编号定时任务配置
+ * 移动后间隔变小的作业题目、课程文件范围在后台恢复稀疏间隔
+ */
+@Configuration
+@EnableScheduling
+public class OrderCompactionSchedulerConfig {
+
+    @Autowired
+    private BatchOrderUpdater batchOrderUpdater;
+
+    @Scheduled(fixedDelayString = "${ordering.compaction-interval-ms:60000}")
+    public void scheduleOrderCompaction() {
+        batchOrderUpdater.compactCrowdedScopes();
+    }
+}
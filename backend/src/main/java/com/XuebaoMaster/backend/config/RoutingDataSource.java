@@ -0,0 +1,73 @@
+package com.XuebaoMaster.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 读写路由数据源
+ * 标记为分析查询的线程在只读事务中(或不在事务中)取连接时路由到分析副本，其余一律走主库；
+ * 需要包在 LazyConnectionDataSourceProxy 里，保证事务开始后、第一条语句执行时才决定目标库
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> ANALYTICS = new ThreadLocal<>();
+
+    public RoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isAnalytics()) {
+            return PRIMARY;
+        }
+        // 分析方法里如果加入了外层的读写事务，仍然留在主库
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    public static boolean isAnalytics() {
+        return Boolean.TRUE.equals(ANALYTICS.get());
+    }
+
+    /**
+     * 把当前线程标记为分析查询，返回之前的标记，用于 restore
+     */
+    public static boolean markAnalytics() {
+        boolean previous = isAnalytics();
+        ANALYTICS.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        if (previous) {
+            ANALYTICS.set(Boolean.TRUE);
+        } else {
+            ANALYTICS.remove();
+        }
+    }
+
+    /**
+     * 包装报告线程池里的任务，使任务内的查询走分析副本
+     */
+    public static Runnable analytics(Runnable task) {
+        return () -> {
+            boolean previous = markAnalytics();
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.XuebaoMaster.backend.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 连接池在会话上设置了 max_execution_time，流式导出、位图重建这类逐行读取全表的查询耗时取决于数据量，
+ * 在当前事务的连接上临时取消该限制，结束后恢复原值；必须在事务中调用，保证设置和查询使用同一连接
+ */
+public final class StatementTimeout {
+
+    private StatementTimeout() {
+    }
+
+    public static <T> T unlimited(JdbcTemplate jdbcTemplate, Supplier<T> work) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("取消语句超时需要在事务中执行");
+        }
+        Long previous = jdbcTemplate.queryForObject("SELECT @@SESSION.max_execution_time", Long.class);
+        jdbcTemplate.execute("SET SESSION max_execution_time = 0");
+        try {
+            return work.get();
+        } finally {
+            jdbcTemplate.execute("SET SESSION max_execution_time = " + (previous != null ? previous : 0));
+        }
+    }
+
+    public static void unlimited(JdbcTemplate jdbcTemplate, Runnable work) {
+        unlimited(jdbcTemplate, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
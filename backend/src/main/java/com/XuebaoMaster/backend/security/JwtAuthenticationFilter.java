@@ -36,6 +36,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             "/users/login",
             "/api/files/**");
 
+    // EventSource 无法设置请求头，这些路径允许通过 ticket 参数携带推送流票据；
+    // 票据只在这些路径有效，URL 中的登录令牌不被接受
+    private final List<String> queryTicketPaths = Arrays.asList(
+            "/notifications/stream");
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -48,8 +53,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
             return;
         }
-        final String authorizationHeader = request.getHeader("Authorization");
+        String authorizationHeader = request.getHeader("Authorization");
         logger.debug("Authorization 头部: " + (authorizationHeader != null ? "存在" : "不存在"));
+        boolean fromTicket = false;
+        if (authorizationHeader == null && request.getParameter("ticket") != null
+                && queryTicketPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, requestPath))) {
+            authorizationHeader = "Bearer " + request.getParameter("ticket");
+            fromTicket = true;
+        }
         if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
             logger.debug("没有找到有效的 Bearer token，继续过滤链");
             filterChain.doFilter(request, response);
@@ -68,7 +79,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
                 logger.debug("用户详细信息加载成功，类型: " + userDetails.getClass().getName());
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (fromTicket != jwtUtil.isStreamTicket(jwt)) {
+                    logger.warn("用户 " + username + " 的令牌用途与请求方式不符");
+                } else if (jwtUtil.validateToken(jwt, userDetails)) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
 
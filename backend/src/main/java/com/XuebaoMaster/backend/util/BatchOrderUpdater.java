@@ -0,0 +1,248 @@
+package com.XuebaoMaster.backend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 稀疏排序键的批量更新
+ * 整体重排用一条 UPDATE ... SET col = CASE id WHEN ? THEN ? ... END 写入，
+ * 间隔变小的范围登记后由定时任务在后台重新编号；JDBC 写入后清除对应实体的二级缓存。
+ * 读取范围内排序键时加 FOR UPDATE，在 (范围, 排序列) 索引上锁住整个范围，
+ * 后台重新编号与同一范围的移动、插入在事务内串行执行，不会基于过期的排序键写入
+ */
+@Component
+public class BatchOrderUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchOrderUpdater.class);
+
+    // 单条 CASE 语句包含的最大行数
+    private static final int CASE_BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityCacheEvictor entityCacheEvictor;
+
+    // 等待后台重新编号的范围
+    private final Set<PendingScope> crowdedScopes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 带排序列的表，表名与列名只能来自代码中的常量，entityClass 为映射到该表的实体
+     */
+    public record OrderedTable(Class<?> entityClass, String table, String idColumn, String orderColumn,
+            String scopeColumn) {
+    }
+
+    /**
+     * 目标位置前后两个元素的排序键，null 表示位于开头或末尾
+     */
+    public record Neighbours(Integer before, Integer after) {
+    }
+
+    /**
+     * 查询把某一行移动到 position(从 0 开始)时的前后相邻键，只读取至多两行
+     */
+    public Neighbours findNeighbours(OrderedTable table, Long scopeId, Long movingId, int position) {
+        String sql = "SELECT " + table.orderColumn() + " FROM " + table.table()
+                + " WHERE " + table.scopeColumn() + " = ? AND " + table.idColumn() + " <> ?"
+                + " ORDER BY " + table.orderColumn() + ", " + table.idColumn() + " LIMIT ? OFFSET ? FOR UPDATE";
+        if (position <= 0) {
+            List<Integer> keys = jdbcTemplate.queryForList(sql, Integer.class, scopeId, movingId, 1, 0);
+            return new Neighbours(null, keys.isEmpty() ? null : keys.get(0));
+        }
+        List<Integer> keys = jdbcTemplate.queryForList(sql, Integer.class, scopeId, movingId, 2, position - 1);
+        if (keys.isEmpty()) {
+            // 超出末尾时放到最后
+            return new Neighbours(findMaxKey(table, scopeId, movingId), null);
+        }
+        return new Neighbours(keys.get(0), keys.size() > 1 ? keys.get(1) : null);
+    }
+
+    /**
+     * 计算把某一行移动到 position 后的排序键，调用方只需写入这一行；
+     * 前后两个键之间没有间隔时，当场把整个范围重新编号(被移动的行也一并写入)
+     */
+    public int keyForPosition(OrderedTable table, Long scopeId, Long movingId, int position) {
+        Neighbours neighbours = findNeighbours(table, scopeId, movingId, position);
+        Integer key = SparseOrderKeys.keyBetween(neighbours.before(), neighbours.after());
+        if (key != null) {
+            if (SparseOrderKeys.isCrowded(neighbours.before(), key, neighbours.after())) {
+                markCrowded(table, scopeId);
+            }
+            return key;
+        }
+
+        List<Long> ids = findOrderedIds(table, scopeId);
+        ids.remove(movingId);
+        ids.add(Math.max(0, Math.min(position, ids.size())), movingId);
+        Map<Long, Integer> keys = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            keys.put(ids.get(i), SparseOrderKeys.keyAt(i));
+        }
+        applyKeys(table, scopeId, keys);
+        return keys.get(movingId);
+    }
+
+    /**
+     * 为追加到范围末尾的 count 个新行分配递增的排序键；
+     * 末尾的键接近上限时先把整个范围重新编号，再从新的末尾继续追加
+     */
+    public List<Integer> keysForAppend(OrderedTable table, Long scopeId, int count) {
+        Integer max = findMaxKey(table, scopeId);
+        List<Integer> keys = keysAfter(max != null ? max : 0, count);
+        if (keys == null) {
+            Map<Long, Integer> renumbered = renumber(table, scopeId, List.of());
+            keys = keysAfter(renumbered.isEmpty() ? 0 : SparseOrderKeys.keyAt(renumbered.size() - 1), count);
+            if (keys == null) {
+                throw new IllegalStateException("排序范围 " + table.table() + " " + table.scopeColumn() + "="
+                        + scopeId + " 的行数超出排序键上限");
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 按给定顺序重新编号整个范围，未列出的行按原顺序排在后面，返回每行的新排序键
+     */
+    public Map<Long, Integer> renumber(OrderedTable table, Long scopeId, List<Long> leadingIds) {
+        List<Long> existing = findOrderedIds(table, scopeId);
+
+        Set<Long> ordered = new LinkedHashSet<>();
+        Set<Long> existingIds = new LinkedHashSet<>(existing);
+        for (Long id : leadingIds) {
+            if (existingIds.contains(id)) {
+                ordered.add(id);
+            }
+        }
+        ordered.addAll(existing);
+
+        Map<Long, Integer> keys = new LinkedHashMap<>();
+        int position = 0;
+        for (Long id : ordered) {
+            keys.put(id, SparseOrderKeys.keyAt(position++));
+        }
+        applyKeys(table, scopeId, keys);
+        return keys;
+    }
+
+    /**
+     * 以 CASE 语句批量写入排序键
+     */
+    public int applyKeys(OrderedTable table, Long scopeId, Map<Long, Integer> keysById) {
+        if (keysById.isEmpty()) {
+            return 0;
+        }
+        int updated = 0;
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(keysById.entrySet());
+        for (int from = 0; from < entries.size(); from += CASE_BATCH_SIZE) {
+            List<Map.Entry<Long, Integer>> chunk = entries.subList(from,
+                    Math.min(from + CASE_BATCH_SIZE, entries.size()));
+            StringBuilder sql = new StringBuilder("UPDATE ").append(table.table()).append(" SET ")
+                    .append(table.orderColumn()).append(" = CASE ").append(table.idColumn());
+            List<Object> args = new ArrayList<>(chunk.size() * 3 + 1);
+            for (Map.Entry<Long, Integer> entry : chunk) {
+                sql.append(" WHEN ? THEN ?");
+                args.add(entry.getKey());
+                args.add(entry.getValue());
+            }
+            sql.append(" END WHERE ").append(table.scopeColumn()).append(" = ? AND ")
+                    .append(table.idColumn()).append(" IN (")
+                    .append(String.join(",", Collections.nCopies(chunk.size(), "?"))).append(")");
+            args.add(scopeId);
+            for (Map.Entry<Long, Integer> entry : chunk) {
+                args.add(entry.getKey());
+            }
+            updated += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        if (updated > 0) {
+            entityCacheEvictor.evictAfterCommit(table.entityClass());
+        }
+        return updated;
+    }
+
+    /**
+     * 登记间隔过小的范围，等待后台重新编号
+     */
+    public void markCrowded(OrderedTable table, Long scopeId) {
+        crowdedScopes.add(new PendingScope(table, scopeId));
+    }
+
+    /**
+     * 对登记过的范围逐个重新编号，每个范围单独一个事务；
+     * 读取顺序和写入新键在同一事务内，读取时锁住该范围的行
+     */
+    public int compactCrowdedScopes() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int compacted = 0;
+        Iterator<PendingScope> iterator = crowdedScopes.iterator();
+        while (iterator.hasNext()) {
+            PendingScope scope = iterator.next();
+            iterator.remove();
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> renumber(scope.table(), scope.scopeId(), List.of()));
+                compacted++;
+            } catch (Exception e) {
+                logger.error("重新编号 {} {}={} 失败", scope.table().table(), scope.table().scopeColumn(),
+                        scope.scopeId(), e);
+            }
+        }
+        if (compacted > 0) {
+            logger.debug("后台重新编号 {} 个排序范围", compacted);
+        }
+        return compacted;
+    }
+
+    private List<Long> findOrderedIds(OrderedTable table, Long scopeId) {
+        return new ArrayList<>(jdbcTemplate.queryForList("SELECT " + table.idColumn() + " FROM " + table.table()
+                + " WHERE " + table.scopeColumn() + " = ? ORDER BY " + table.orderColumn() + ", "
+                + table.idColumn() + " FOR UPDATE", Long.class, scopeId));
+    }
+
+    private static List<Integer> keysAfter(int max, int count) {
+        List<Integer> keys = new ArrayList<>(count);
+        int last = max;
+        for (int i = 0; i < count; i++) {
+            Integer key = SparseOrderKeys.keyAfter(last);
+            if (key == null) {
+                return null;
+            }
+            keys.add(key);
+            last = key;
+        }
+        return keys;
+    }
+
+    private Integer findMaxKey(OrderedTable table, Long scopeId) {
+        return jdbcTemplate.queryForObject("SELECT MAX(" + table.orderColumn() + ") FROM " + table.table()
+                + " WHERE " + table.scopeColumn() + " = ? FOR UPDATE", Integer.class, scopeId);
+    }
+
+    private Integer findMaxKey(OrderedTable table, Long scopeId, Long excludeId) {
+        return jdbcTemplate.queryForObject("SELECT MAX(" + table.orderColumn() + ") FROM " + table.table()
+                + " WHERE " + table.scopeColumn() + " = ? AND " + table.idColumn() + " <> ? FOR UPDATE",
+                Integer.class, scopeId, excludeId);
+    }
+
+    private record PendingScope(OrderedTable table, Long scopeId) {
+    }
+}
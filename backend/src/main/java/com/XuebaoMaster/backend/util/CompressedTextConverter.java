@@ -0,0 +1,84 @@
+package com.XuebaoMaster.backend.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 大文本字段透明压缩
+ * 超过阈值的文本用 Deflate 压缩后以 Base64 存入原来的 TEXT 列，并加前缀标记；
+ * 读取时没有前缀的旧数据和直接用 JDBC 写入的数据原样返回，因此不需要迁移已有数据
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    // 压缩数据的前缀标记
+    public static final String PREFIX = "DFL1:";
+
+    // 小于该字符数的文本不压缩
+    public static final int THRESHOLD = 1024;
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return compress(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return decompress(dbData);
+    }
+
+    public static String compress(String text) {
+        // 以前缀开头的原文也要压缩，否则读取时会被误认为压缩数据
+        if (text == null || (text.length() < THRESHOLD && !text.startsWith(PREFIX))) {
+            return text;
+        }
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            String compressed = PREFIX + Base64.getEncoder().encodeToString(out.toByteArray());
+            // 压缩后反而更长(已压缩或随机内容)时保存原文
+            return compressed.length() < text.length() || text.startsWith(PREFIX) ? compressed : text;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String decompress(String data) {
+        if (data == null || !data.startsWith(PREFIX)) {
+            return data;
+        }
+        byte[] input = Base64.getDecoder().decode(data.substring(PREFIX.length()));
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("压缩文本数据不完整");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("压缩文本数据格式错误", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.XuebaoMaster.backend.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 绕过 Hibernate 的 JDBC 写入不会更新二级缓存，写入方在这里登记需要清除的缓存，
+ * 事务提交后清除(没有事务时立即清除)，避免提交前被并发读取用旧数据重新填充
+ */
+@Component
+public class EntityCacheEvictor {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 清除实体的二级缓存区域，实体未开启缓存时不做任何事
+     */
+    public void evictAfterCommit(Class<?> entityClass) {
+        afterCommit(() -> entityManagerFactory.getCache().evict(entityClass));
+    }
+
+    /**
+     * 清除查询缓存，用于 JDBC 插入了可能被缓存查询命中的新行
+     */
+    public void evictQueryResultsAfterCommit() {
+        afterCommit(() -> entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
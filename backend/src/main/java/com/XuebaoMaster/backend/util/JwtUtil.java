@@ -16,10 +16,15 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+    // 票据的用途声明，登录令牌没有该声明
+    private static final String PURPOSE_CLAIM = "purpose";
+    private static final String STREAM_TICKET_PURPOSE = "notification-stream";
     @Value("${jwt.secret:defaultSecretKeyWhichShouldBeAtLeast256BitsLongForHS256Algorithm}")
     private String secret;
     @Value("${jwt.expiration:86400000}")
     private long expiration; 
+    @Value("${jwt.stream-ticket-expiration:60000}")
+    private long streamTicketExpiration;
     private Key getSigningKey() {
         byte[] keyBytes = secret.getBytes();
         return Keys.hmacShaKeyFor(keyBytes);
@@ -75,13 +80,27 @@ public class JwtUtil {
     }
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        String token = createToken(claims, userDetails.getUsername());
+        String token = createToken(claims, userDetails.getUsername(), expiration);
         logger.debug("Generated new token for user: {}", userDetails.getUsername());
         return token;
     }
-    private String createToken(Map<String, Object> claims, String subject) {
+    /**
+     * 生成只能用于打开通知推送流的短期票据，URL 中不再出现登录令牌
+     */
+    public String generateStreamTicket(String username) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(PURPOSE_CLAIM, STREAM_TICKET_PURPOSE);
+        return createToken(claims, username, streamTicketExpiration);
+    }
+    public long getStreamTicketExpiration() {
+        return streamTicketExpiration;
+    }
+    public boolean isStreamTicket(String token) {
+        return STREAM_TICKET_PURPOSE.equals(extractClaim(token, claims -> claims.get(PURPOSE_CLAIM, String.class)));
+    }
+    private String createToken(Map<String, Object> claims, String subject, long validityMs) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
+        Date expiryDate = new Date(now.getTime() + validityMs);
         logger.debug("Creating token for subject: {} with expiry: {}", subject, expiryDate);
         return Jwts.builder()
                 .setClaims(claims)
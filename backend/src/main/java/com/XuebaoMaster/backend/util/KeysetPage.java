@@ -0,0 +1,36 @@
+package com.XuebaoMaster.backend.util;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 按 (时间, ID) 倒序的游标分页结果
+ * 下一页以 nextCursorTime + nextCursorId 作为起点，无需 OFFSET 扫描
+ */
+public record KeysetPage<T>(List<T> items, LocalDateTime nextCursorTime, Long nextCursorId, boolean hasMore) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * 由多取一条的查询结果构造分页，多出的一条只用于判断是否还有下一页
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int limit, Function<T, LocalDateTime> timeOf,
+            Function<T, Long> idOf) {
+        boolean hasMore = fetched.size() > limit;
+        List<T> items = hasMore ? fetched.subList(0, limit) : fetched;
+        if (!hasMore || items.isEmpty()) {
+            return new KeysetPage<>(items, null, null, false);
+        }
+        T last = items.get(items.size() - 1);
+        return new KeysetPage<>(items, timeOf.apply(last), idOf.apply(last), true);
+    }
+}
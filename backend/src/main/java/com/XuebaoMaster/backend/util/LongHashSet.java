@@ -0,0 +1,95 @@
+package com.XuebaoMaster.backend.util;
+
+/**
+ * 基本类型 long 的开放寻址哈希集合
+ * 用于成千上万个 ID 的集合差运算，避免 HashSet<Long> 的装箱和节点开销
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // 0 作为空槽标记，值 0 单独记录
+    private long[] slots;
+    private boolean containsZero;
+    private int size;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        slots = new long[capacity];
+    }
+
+    /**
+     * 加入一个值，已存在时返回 false
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != 0) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+        if (size > slots.length * LOAD_FACTOR) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != 0) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void resize() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int index = mix(value) & mask;
+                while (slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,60 @@
+package com.XuebaoMaster.backend.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * 页码分页参数，页码从 1 开始与前端分页组件一致，每页条数沿用 KeysetPage 的默认值和上限
+ * 排序字段只允许白名单内的实体属性，非 id 排序时追加 id 保证翻页顺序稳定
+ */
+public final class PageQuery {
+
+    // containsPattern 使用的 LIKE 转义符，查询中写 ESCAPE '!'
+    public static final char LIKE_ESCAPE = '!';
+
+    private PageQuery() {
+    }
+
+    public static Pageable of(Integer page, Integer size, String sort, String direction,
+            Set<String> sortableFields, String defaultSort) {
+        String property = sort == null || sort.isBlank() ? defaultSort : sort;
+        if (!sortableFields.contains(property)) {
+            throw new IllegalArgumentException("不支持的排序字段: " + property);
+        }
+        Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort order = Sort.by(dir, property);
+        if (!"id".equals(property)) {
+            order = order.and(Sort.by(dir, "id"));
+        }
+        int pageIndex = page == null || page < 1 ? 0 : page - 1;
+        return PageRequest.of(pageIndex, KeysetPage.normalizeLimit(size), order);
+    }
+
+    /**
+     * 空白的筛选条件视为不筛选
+     */
+    public static String filter(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * 关键字包含匹配的 LIKE 模式，% 和 _ 按字面匹配；空白的关键字视为不筛选
+     */
+    public static String containsPattern(String keyword) {
+        String value = filter(keyword);
+        if (value == null) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder(value.length() + 2).append('%');
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.XuebaoMaster.backend.util;
+
+/**
+ * 稀疏排序键计算
+ * 相邻元素的排序键之间预留间隔，移动时取前后两个键的中点，只需改写被移动的一行；
+ * 间隔用尽时返回 null，由调用方对整个范围重新编号
+ */
+public final class SparseOrderKeys {
+
+    // 重新编号后相邻两个键之间的间隔
+    public static final int GAP = 1024;
+
+    // 插入后剩余间隔小于该值时，安排后台重新编号
+    public static final int MIN_GAP = 8;
+
+    private SparseOrderKeys() {
+    }
+
+    /**
+     * 重新编号时第 position 个元素(从 0 开始)的排序键
+     */
+    public static int keyAt(int position) {
+        return (position + 1) * GAP;
+    }
+
+    /**
+     * 追加到末尾时使用的排序键，max 为当前最大键(没有元素时为 0)；接近 int 上限时返回 null
+     */
+    public static Integer keyAfter(int max) {
+        long key = (long) max + GAP;
+        return key < Integer.MAX_VALUE / 2 ? (int) key : null;
+    }
+
+    /**
+     * 计算位于 before 与 after 之间的排序键，两者为 null 表示位于开头或末尾；没有可用间隔时返回 null
+     */
+    public static Integer keyBetween(Integer before, Integer after) {
+        if (before == null && after == null) {
+            return keyAt(0);
+        }
+        if (before == null) {
+            // 放到开头时保留与下一个元素相同的间隔，直到接近 int 下限
+            long key = (long) after - GAP;
+            return key > Integer.MIN_VALUE / 2 ? (int) key : null;
+        }
+        if (after == null) {
+            return keyAfter(before);
+        }
+        long gap = (long) after - before;
+        if (gap < 2) {
+            return null;
+        }
+        return (int) (before + gap / 2);
+    }
+
+    /**
+     * 新键与相邻键之间的剩余间隔是否已经过小
+     */
+    public static boolean isCrowded(Integer before, int key, Integer after) {
+        return (before != null && (long) key - before < MIN_GAP)
+                || (after != null && (long) after - key < MIN_GAP);
+    }
+}
@@ -0,0 +1,15 @@
+-- 作业事件发件箱：事件与提交/评分在同一事务内写入，进程崩溃或重启后仍可继续投递
+create table homework_event_outbox (
+    id bigint not null auto_increment,
+    event_type varchar(30) not null,
+    submission_id bigint not null,
+    homework_id bigint,
+    student_id bigint,
+    occurred_at datetime(6) not null,
+    attempts integer not null default 0,
+    available_at datetime(6) not null,
+    last_error varchar(1000),
+    created_at datetime(6) not null,
+    primary key (id),
+    key idx_homework_event_outbox_available (available_at, id)
+) engine=InnoDB;
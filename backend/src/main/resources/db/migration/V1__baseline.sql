@@ -0,0 +1,336 @@
+-- 基线结构：与引入迁移前由 Hibernate ddl-auto=update 生成的表结构一致
+-- 已有数据库通过 baseline-on-migrate 标记为版本 1，不会执行本脚本；之后的结构变更都放在 V2 及以后的脚本里
+
+create table chat_conversations (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    title varchar(255),
+    updated_at datetime(6) not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table chat_messages (
+    id bigint not null auto_increment,
+    content TEXT not null,
+    created_at datetime(6) not null,
+    message_index integer not null,
+    role varchar(255) not null,
+    user_id bigint not null,
+    conversation_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table course_files (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    description varchar(255),
+    display_order integer not null,
+    is_visible bit not null,
+    resource_type varchar(50),
+    updated_at datetime(6) not null,
+    course_id bigint not null,
+    file_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table course_rag_mappings (
+    id bigint not null auto_increment,
+    course_id bigint not null,
+    rag_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table courses (
+    course_id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    description varchar(500),
+    name varchar(100) not null,
+    status varchar(20),
+    teacher_id bigint,
+    updated_at datetime(6) not null,
+    primary key (course_id)
+) engine=InnoDB;
+
+create table files (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    file_name varchar(255) not null,
+    file_path varchar(500) not null,
+    file_size bigint,
+    is_directory bit not null,
+    mime_type varchar(100) not null,
+    parent_path varchar(500),
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table homework_questions (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    homework_id bigint not null,
+    order_index integer not null,
+    question_id bigint not null,
+    updated_at datetime(6) not null,
+    weight float(53) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table homework_submissions (
+    id bigint not null auto_increment,
+    content TEXT,
+    created_at datetime(6) not null,
+    feedback TEXT,
+    file_id bigint,
+    homework_id bigint not null,
+    is_late bit,
+    score integer,
+    status varchar(20),
+    student_id bigint not null,
+    submission_date datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table homeworks (
+    id bigint not null auto_increment,
+    course_id bigint not null,
+    created_at datetime(6) not null,
+    description varchar(1000),
+    due_date datetime(6),
+    status varchar(20) not null,
+    title varchar(200) not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table login_records (
+    id bigint not null auto_increment,
+    time datetime(6) not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table messages (
+    id bigint not null auto_increment,
+    active bit not null,
+    content varchar(1000) not null,
+    created_at datetime(6) not null,
+    expires_at datetime(6),
+    target_ids varchar(100),
+    target_type enum ('ADMINS','ALL','CLASS','COURSE','SPECIFIC','STUDENTS','TEACHERS') not null,
+    title varchar(255) not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table module_usage (
+    id bigint not null auto_increment,
+    access_time datetime(6) not null,
+    module_type enum ('COURSE','DEEP_SEEK_CHAT','SCHOOL_CLASS','TEACHING_PLAN_GENERATOR') not null,
+    user_role enum ('ADMIN','STUDENT','TEACHER') not null,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table practice_records (
+    id bigint not null auto_increment,
+    answer_data TEXT,
+    attempt_count integer not null,
+    created_at datetime(6) not null,
+    homework_id bigint not null,
+    is_correct bit,
+    question_id bigint not null,
+    score float(53) not null,
+    student_id bigint not null,
+    submitted_at datetime(6) not null,
+    time_spent integer,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table private_messages (
+    id bigint not null auto_increment,
+    content varchar(2000) not null,
+    deleted bit not null,
+    is_read bit not null,
+    read_at datetime(6),
+    recipient_deleted bit not null,
+    sender_deleted bit not null,
+    sent_at datetime(6) not null,
+    subject varchar(255) not null,
+    recipient_id bigint not null,
+    sender_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table question_generator (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    design_content LONGTEXT,
+    design_duration bigint,
+    design_end_time datetime(6),
+    design_start_time datetime(6),
+    efficiency_index float(53),
+    optimization_suggestions TEXT,
+    query varchar(255) not null,
+    question_json LONGTEXT,
+    question_type varchar(255),
+    rag_id bigint,
+    rag_name varchar(255),
+    status varchar(255),
+    status_message varchar(255),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table rag (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    knowledge_graph_path varchar(1024) not null,
+    name varchar(255) not null,
+    rag_path varchar(1024) not null,
+    status enum ('COMPLETED','FAILED','GENERATING','PENDING') not null,
+    status_message varchar(1024),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table school_classes (
+    id bigint not null auto_increment,
+    class_name varchar(100) not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table student_courses (
+    id bigint not null auto_increment,
+    course_id bigint not null,
+    enroll_date datetime(6) not null,
+    last_access_date datetime(6),
+    progress integer,
+    status varchar(20),
+    student_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table student_emotions (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    mark integer not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table study_durations (
+    id bigint not null auto_increment,
+    current_time_stamp datetime(6) not null,
+    length integer not null,
+    lesson_start_time_stamp datetime(6) not null,
+    course_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table teaching_plan_generator (
+    id bigint not null auto_increment,
+    conversation_id varchar(255),
+    created_at datetime(6),
+    edit_content LONGTEXT,
+    edit_duration bigint,
+    edit_end_time datetime(6),
+    edit_start_time datetime(6),
+    efficiency_index float(53),
+    file_name varchar(255),
+    file_path varchar(255),
+    message_id varchar(255),
+    optimization_suggestions TEXT,
+    prompt varchar(255) not null,
+    status varchar(255),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    email varchar(100),
+    name varchar(100),
+    password varchar(255) not null,
+    phone varchar(20),
+    student_number varchar(100),
+    updated_at datetime(6) not null,
+    user_role enum ('ADMIN','STUDENT','TEACHER') not null,
+    username varchar(50) not null,
+    class_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table chat_messages
+   add constraint FKqgkanrr90j46564w4ww63jcna
+   foreign key (conversation_id)
+   references chat_conversations (id);
+
+alter table course_files
+   add constraint FKd46x3jcvj2ckiu60j6e83bybo
+   foreign key (course_id)
+   references courses (course_id);
+
+alter table course_files
+   add constraint FKc1cbthpngxunmwuqtwnncn6jk
+   foreign key (file_id)
+   references files (id);
+
+alter table course_rag_mappings
+   add constraint FKsppiutxbg41oal7kxi6dilako
+   foreign key (course_id)
+   references courses (course_id);
+
+alter table course_rag_mappings
+   add constraint FKe243dgumw2xqfwfxpb5lls7to
+   foreign key (rag_id)
+   references rag (id);
+
+alter table login_records
+   add constraint FKhahil5ikkymki7li2o4s8ksq2
+   foreign key (user_id)
+   references users (id);
+
+alter table module_usage
+   add constraint FKon08v6aq0e4otsg2b9lhuydku
+   foreign key (user_id)
+   references users (id);
+
+alter table private_messages
+   add constraint FKgcbl84at3nepldlyfy96lodes
+   foreign key (recipient_id)
+   references users (id);
+
+alter table private_messages
+   add constraint FK1kix63i73ln942n697wudh9sj
+   foreign key (sender_id)
+   references users (id);
+
+alter table student_emotions
+   add constraint FKruyq6rbf34vuhcqaycfavstgk
+   foreign key (user_id)
+   references users (id);
+
+alter table study_durations
+   add constraint FKqdsf6etpc302nt2vssifc7rnc
+   foreign key (course_id)
+   references courses (course_id);
+
+alter table study_durations
+   add constraint FKl26f6rwrisgphe1f7jgn5c5ak
+   foreign key (user_id)
+   references users (id);
+
+alter table users
+   add constraint FKnn16x6b0t9rgy795hsj5h8cry
+   foreign key (class_id)
+   references school_classes (id);
@@ -0,0 +1,9 @@
+-- 池化ID：写入频繁的表改为从 id_generators 分段取号(见 IdGeneratorConfig)，起点由 IdGeneratorConfig 按现有最大ID写入
+-- 这些表的 id 列保留原有的 auto_increment 属性：Hibernate 插入时总会给出 id，该属性不再起作用，
+-- 去掉它要重建 practice_records、login_records 等大表
+
+create table id_generators (
+    gen_name varchar(255) not null,
+    next_val bigint,
+    primary key (gen_name)
+) engine=InnoDB;
@@ -0,0 +1,87 @@
+-- 汇总表：模块使用、学习时长、登录活跃位图、练习题目汇总和知识点立方体
+-- 首次启动时由各服务的初始化方法从原始记录回填
+
+create table module_usage_daily (
+    id bigint not null auto_increment,
+    module_type enum ('COURSE','DEEP_SEEK_CHAT','SCHOOL_CLASS','TEACHING_PLAN_GENERATOR') not null,
+    usage_count bigint not null,
+    usage_date date not null,
+    user_role enum ('ADMIN','STUDENT','TEACHER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table module_usage_daily
+   add constraint uk_module_usage_daily unique (usage_date, user_role, module_type);
+
+create table study_duration_daily (
+    id bigint not null auto_increment,
+    course_id bigint not null,
+    session_count bigint not null,
+    study_date date not null,
+    total_length bigint not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_study_duration_daily_course
+   on study_duration_daily (course_id);
+
+create index idx_study_duration_daily_user
+   on study_duration_daily (user_id);
+
+alter table study_duration_daily
+   add constraint uk_study_duration_daily unique (study_date, user_id, course_id);
+
+create table login_activity (
+    user_id bigint not null,
+    bits BLOB not null,
+    origin_word bigint not null,
+    updated_at datetime(6),
+    primary key (user_id)
+) engine=InnoDB;
+
+create table practice_question_summary (
+    id bigint not null auto_increment,
+    attempt_count integer not null,
+    best_score float(53) not null,
+    first_correct_at datetime(6),
+    homework_id bigint not null,
+    latest_score float(53) not null,
+    latest_submitted_at datetime(6) not null,
+    question_id bigint not null,
+    student_id bigint not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_practice_question_summary_student_question
+   on practice_question_summary (student_id, question_id);
+
+alter table practice_question_summary
+   add constraint uk_practice_question_summary unique (student_id, homework_id, question_id);
+
+create table knowledge_point_cube (
+    id bigint not null auto_increment,
+    attempt_count bigint not null,
+    class_id bigint not null,
+    correct_count bigint not null,
+    course_id bigint not null,
+    knowledge_point varchar(255),
+    practice_date date not null,
+    question_id bigint not null,
+    score_sum float(53) not null,
+    student_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_knowledge_point_cube_class
+   on knowledge_point_cube (class_id, knowledge_point);
+
+create index idx_knowledge_point_cube_course
+   on knowledge_point_cube (course_id, knowledge_point);
+
+create index idx_knowledge_point_cube_class_question
+   on knowledge_point_cube (class_id, question_id);
+
+alter table knowledge_point_cube
+   add constraint uk_knowledge_point_cube unique (student_id, question_id, course_id, practice_date);
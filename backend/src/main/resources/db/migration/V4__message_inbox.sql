@@ -0,0 +1,40 @@
+-- 系统消息的目标展开表、用户收件箱和未读计数
+-- 已有消息的目标由 MessageService 启动时补齐，收件箱和未读计数由 NotificationInboxService 首次启动时初始化
+
+create table message_targets (
+    id bigint not null,
+    message_id bigint not null,
+    target_id bigint not null,
+    target_type enum ('ADMINS','ALL','CLASS','COURSE','SPECIFIC','STUDENTS','TEACHERS') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_message_targets_type_target
+   on message_targets (target_type, target_id, message_id);
+
+create index idx_message_targets_message
+   on message_targets (message_id);
+
+create table user_inbox (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    message_id bigint not null,
+    is_read bit not null,
+    read_at datetime(6),
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_user_inbox_message
+   on user_inbox (message_id);
+
+alter table user_inbox
+   add constraint uk_user_inbox_user_message unique (user_id, message_id);
+
+create table user_unread_counters (
+    user_id bigint not null,
+    unread_messages bigint not null,
+    unread_private_messages bigint not null,
+    updated_at datetime(6) not null,
+    primary key (user_id)
+) engine=InnoDB;
@@ -0,0 +1,8 @@
+-- 会话列表的摘要列，已有会话的摘要由 ChatConversationService 启动时回填
+
+alter table chat_conversations
+    add column last_message_preview varchar(200),
+    add column message_count integer;
+
+create index idx_chat_conversations_user_created
+   on chat_conversations (user_id, created_at, id);
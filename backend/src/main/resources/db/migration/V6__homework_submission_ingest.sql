@@ -0,0 +1,21 @@
+-- 作业提交批量写入：幂等键、每个学生每份作业一条提交，以及投递失败事件的死信表
+-- 原有的创建接口已拒绝重复提交，唯一约束不会与现有数据冲突
+
+alter table homework_submissions
+    add column idempotency_key varchar(64);
+
+alter table homework_submissions
+   add constraint uk_homework_submissions_student_homework unique (student_id, homework_id);
+
+create table homework_event_dead_letters (
+    id bigint not null auto_increment,
+    attempts integer not null,
+    created_at datetime(6) not null,
+    event_type enum ('SUBMISSION_CREATED','SUBMISSION_GRADED','SUBMISSION_UPDATED') not null,
+    homework_id bigint,
+    last_error varchar(1000),
+    occurred_at datetime(6) not null,
+    student_id bigint,
+    submission_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
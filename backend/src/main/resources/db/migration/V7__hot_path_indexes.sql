@@ -0,0 +1,64 @@
+-- 热点查询的组合索引
+
+-- 练习记录：按学生/作业/题目查最新记录、按作业统计人数、按题目统计正确率
+create index idx_practice_records_student_homework_question
+    on practice_records (student_id, homework_id, question_id, submitted_at);
+create index idx_practice_records_homework_student
+    on practice_records (homework_id, student_id);
+create index idx_practice_records_question_correct
+    on practice_records (question_id, is_correct);
+
+-- 登录记录：按用户和时间段查询、按时间段统计
+create index idx_login_records_user_time
+    on login_records (user_id, time);
+create index idx_login_records_time
+    on login_records (time);
+
+-- 模块使用：按角色统计当日/当周使用量、按用户查询、按时间清理原始记录
+create index idx_module_usage_role_time
+    on module_usage (user_role, access_time, module_type);
+create index idx_module_usage_user_time
+    on module_usage (user_id, access_time);
+create index idx_module_usage_access_time
+    on module_usage (access_time);
+
+-- 文件：按父目录列出、按路径和文件名查找、按路径前缀查找
+create index idx_files_parent_path
+    on files (parent_path);
+create index idx_files_path_name
+    on files (file_path, file_name);
+
+-- 聊天消息：按会话顺序加载、按用户和时间段查询
+create index idx_chat_messages_conversation_index
+    on chat_messages (conversation_id, message_index);
+create index idx_chat_messages_user_created
+    on chat_messages (user_id, created_at);
+create index idx_chat_messages_created
+    on chat_messages (created_at);
+
+-- 作业、作业题目、课程文件：按课程/作业取列表及排序
+create index idx_homeworks_course
+    on homeworks (course_id);
+create index idx_homework_questions_homework_order
+    on homework_questions (homework_id, order_index);
+create index idx_course_files_course_order
+    on course_files (course_id, display_order);
+
+-- 按学生取最近的练习记录
+create index idx_practice_records_student_submitted
+    on practice_records (student_id, submitted_at);
+
+-- 私信：收件箱、发件箱按时间倒序分页
+create index idx_private_messages_recipient_sent
+    on private_messages (recipient_id, sent_at, id);
+create index idx_private_messages_sender_sent
+    on private_messages (sender_id, sent_at, id);
+
+-- 课程与知识库关联：按知识库反查课程；同一关联只保留最早的一行后加唯一约束
+create index idx_course_rag_mapping_rag
+    on course_rag_mappings (rag_id);
+delete m from course_rag_mappings m
+    join course_rag_mappings earlier
+        on earlier.course_id = m.course_id and earlier.rag_id = m.rag_id and earlier.id < m.id;
+alter table course_rag_mappings
+    add constraint uk_course_rag_mapping unique (course_id, rag_id);
@@ -0,0 +1,32 @@
+-- 冷数据归档：超过保留期的行由 DataArchiveService 分批移入 *_archive 表
+-- 归档表用 LIKE 复制热表的列和索引(不复制外键)；以后给热表加列时要同时修改归档表并重建视图
+
+create table practice_records_archive like practice_records;
+create table module_usage_archive like module_usage;
+create table login_records_archive like login_records;
+create table study_durations_archive like study_durations;
+create table chat_messages_archive like chat_messages;
+
+-- 热表与归档表合并的视图，重建汇总表和历史报表显式查询这些视图
+create view practice_records_all as
+    select * from practice_records union all select * from practice_records_archive;
+create view module_usage_all as
+    select * from module_usage union all select * from module_usage_archive;
+create view login_records_all as
+    select * from login_records union all select * from login_records_archive;
+create view study_durations_all as
+    select * from study_durations union all select * from study_durations_archive;
+create view chat_messages_all as
+    select * from chat_messages union all select * from chat_messages_archive;
+
+-- 按时间挑选待归档行
+create index idx_practice_records_submitted
+    on practice_records (submitted_at);
+create index idx_study_durations_time
+    on study_durations (current_time_stamp);
+
+-- 聊天消息按会话整体归档，读取时查询合并视图，继续对话时移回热表
+alter table chat_conversations
+    add column messages_archived bit not null default 0;
+create index idx_chat_conversations_updated
+    on chat_conversations (updated_at);
@@ -0,0 +1,12 @@
+-- 作业提交用过的幂等键；提交行上只保存最后一次的键，较早请求的重试需要查这张表才能识别为重复
+create table homework_submission_keys (
+    student_id bigint not null,
+    homework_id bigint not null,
+    idempotency_key varchar(64) not null,
+    created_at datetime(6) not null,
+    primary key (student_id, homework_id, idempotency_key)
+) engine=InnoDB;
+
+insert into homework_submission_keys (student_id, homework_id, idempotency_key, created_at)
+    select student_id, homework_id, idempotency_key, updated_at
+    from homework_submissions where idempotency_key is not null;
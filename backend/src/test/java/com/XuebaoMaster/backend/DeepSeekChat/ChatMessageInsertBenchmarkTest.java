@@ -0,0 +1,120 @@
+package com.XuebaoMaster.backend.DeepSeekChat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 批量插入吞吐对比，需要可用的数据库
+ * 改造前: 自增主键，每行一次 INSERT 并取回生成的主键(Hibernate 在 IDENTITY 下的行为)
+ * 改造后: 池化ID + hibernate.jdbc.batch_size + rewriteBatchedStatements，saveAll 批量写入
+ * 运行: mvn test -Dtest=ChatMessageInsertBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ChatMessageInsertBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatMessageInsertBenchmarkTest.class);
+
+    private static final int ROWS = 5000;
+    private static final long USER_ID = -44L;
+    private static final String IDENTITY_TABLE = "chat_messages_identity_bench";
+
+    @Autowired
+    private ChatMessageService chatMessageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void createIdentityTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + IDENTITY_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + IDENTITY_TABLE + " (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "user_id BIGINT NOT NULL, content TEXT NOT NULL, role VARCHAR(255) NOT NULL, "
+                + "message_index INT NOT NULL, created_at DATETIME(6) NOT NULL)");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + IDENTITY_TABLE);
+        jdbcTemplate.update("DELETE FROM chat_messages WHERE user_id = ?", USER_ID);
+    }
+
+    @Test
+    void pooledIdsBatchInsertsFasterThanIdentity() {
+        List<Map<String, String>> messages = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Map<String, String> message = new HashMap<>();
+            message.put("role", i % 2 == 0 ? "user" : "assistant");
+            message.put("content", "benchmark message " + i);
+            messages.add(message);
+        }
+
+        long identityMs = insertRowByRow(messages);
+
+        long begin = System.nanoTime();
+        List<ChatMessageEntity> saved = chatMessageService.saveChatMessages(USER_ID, messages);
+        long pooledMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        assertEquals(ROWS, saved.size());
+        saved.forEach(message -> assertNotNull(message.getId()));
+        assertEquals(ROWS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chat_messages WHERE user_id = ?", Integer.class, USER_ID));
+
+        logger.info("{} rows: identity row-by-row {} ms ({} rows/s), pooled batched {} ms ({} rows/s)",
+                ROWS, identityMs, ROWS * 1000L / Math.max(1, identityMs),
+                pooledMs, ROWS * 1000L / Math.max(1, pooledMs));
+        assertTrue(pooledMs < identityMs,
+                "pooled batched insert took " + pooledMs + " ms, identity row-by-row took " + identityMs + " ms");
+    }
+
+    private long insertRowByRow(List<Map<String, String>> messages) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO " + IDENTITY_TABLE
+                + " (user_id, content, role, message_index, created_at) VALUES (?, ?, ?, 0, ?)";
+        long begin = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Map<String, String> message : messages) {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                    ps.setLong(1, USER_ID);
+                    ps.setString(2, message.get("content"));
+                    ps.setString(3, message.get("role"));
+                    ps.setTimestamp(4, now);
+                    return ps;
+                }, keyHolder);
+                assertNotNull(keyHolder.getKey());
+            }
+        });
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+    }
+}
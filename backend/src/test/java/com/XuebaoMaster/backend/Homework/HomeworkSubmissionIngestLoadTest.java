@@ -0,0 +1,193 @@
+package com.XuebaoMaster.backend.Homework;
+
+import com.XuebaoMaster.backend.Homework.dto.SubmissionIngestResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 截止前 500 名学生同时提交的压力测试，需要可用的数据库
+ * 运行: mvn test -Dtest=HomeworkSubmissionIngestLoadTest -DloadTest=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class HomeworkSubmissionIngestLoadTest {
+
+    private static final int STUDENTS = 500;
+    private static final int RETRIES = 100;
+    private static final long STUDENT_ID_BASE = 9_000_000L;
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeworkSubmissionIngestLoadTest.class);
+
+    @Autowired
+    private HomeworkSubmissionIngestService submissionIngestService;
+
+    @Autowired
+    private HomeworkRepository homeworkRepository;
+
+    @Autowired
+    private HomeworkSubmissionRepository submissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${homework.ingest.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    private Homework homework;
+
+    @BeforeEach
+    void createHomework() {
+        homework = new Homework();
+        homework.setTitle("压力测试作业");
+        homework.setCourseId(-1L);
+        homework.setDueDate(LocalDateTime.now().plusMinutes(5));
+        homework.setCreatedAt(LocalDateTime.now());
+        homework.setUpdatedAt(LocalDateTime.now());
+        homework = homeworkRepository.save(homework);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM homework_event_outbox WHERE homework_id = ?", homework.getId());
+        jdbcTemplate.update("DELETE FROM homework_submission_keys WHERE homework_id = ?", homework.getId());
+        submissionRepository.deleteAll(submissionRepository.findByHomeworkId(homework.getId()));
+        homeworkRepository.deleteById(homework.getId());
+    }
+
+    @Test
+    void deadlineSpikeCreatesExactlyOneSubmissionPerStudent() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            keys.add(UUID.randomUUID().toString());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(200);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Future<SubmissionIngestResult>> results = new ArrayList<>();
+
+        // 每个学生提交一次，另有一部分学生因网络重试用相同的幂等键再发一次
+        for (int i = 0; i < STUDENTS + RETRIES; i++) {
+            int student = i % STUDENTS;
+            results.add(pool.submit(() -> {
+                start.await();
+                HomeworkSubmission submission = new HomeworkSubmission();
+                submission.setStudentId(STUDENT_ID_BASE + student);
+                submission.setHomeworkId(homework.getId());
+                submission.setContent("answer of student " + student);
+                long begin = System.nanoTime();
+                SubmissionIngestResult result = submissionIngestService.submit(submission, keys.get(student));
+                latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+                return result;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        int created = 0;
+        int duplicates = 0;
+        for (Future<SubmissionIngestResult> future : results) {
+            SubmissionIngestResult result = future.get(60, TimeUnit.SECONDS);
+            assertTrue(result.submissionId() != null);
+            if (result.outcome() == SubmissionIngestResult.Outcome.CREATED) {
+                created++;
+            } else if (result.outcome() == SubmissionIngestResult.Outcome.DUPLICATE) {
+                duplicates++;
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        pool.shutdown();
+
+        assertEquals(STUDENTS, created);
+        assertEquals(RETRIES, duplicates);
+        assertEquals(STUDENTS, submissionRepository.findByHomeworkId(homework.getId()).size());
+
+        Collections.sort(latencies);
+        long p99 = latencies.get(latencies.size() * 99 / 100);
+        logger.info("{} requests in {} ms, p50={} ms, p99={} ms, max={} ms", latencies.size(), elapsedMs,
+                latencies.get(latencies.size() / 2), p99, latencies.get(latencies.size() - 1));
+        assertTrue(p99 < requestTimeoutMs, "p99 latency " + p99 + " ms reached the request timeout");
+    }
+
+    @Test
+    void retryOfAnOlderKeyIsReportedAsDuplicate() {
+        HomeworkSubmission submission = new HomeworkSubmission();
+        submission.setStudentId(STUDENT_ID_BASE);
+        submission.setHomeworkId(homework.getId());
+        submission.setContent("first answer");
+
+        assertEquals(SubmissionIngestResult.Outcome.CREATED,
+                submissionIngestService.submit(submission, "key-1").outcome());
+        submission.setContent("second answer");
+        assertEquals(SubmissionIngestResult.Outcome.UPDATED,
+                submissionIngestService.submit(submission, "key-2").outcome());
+        // 第一次请求的迟到重试不能覆盖第二次的内容
+        submission.setContent("first answer");
+        assertEquals(SubmissionIngestResult.Outcome.DUPLICATE,
+                submissionIngestService.submit(submission, "key-1").outcome());
+        assertEquals("second answer", submissionRepository.findByHomeworkId(homework.getId()).get(0).getContent());
+    }
+
+    @Test
+    void oversizedSubmissionOnlyFailsItsOwnRow() throws Exception {
+        StringBuilder oversized = new StringBuilder();
+        while (oversized.length() < 400_000) {
+            oversized.append(UUID.randomUUID());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SubmissionIngestResult>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int student = i;
+            results.add(pool.submit(() -> {
+                start.await();
+                HomeworkSubmission submission = new HomeworkSubmission();
+                submission.setStudentId(STUDENT_ID_BASE + student);
+                submission.setHomeworkId(homework.getId());
+                submission.setContent(student == 0 ? oversized.toString() : "answer of student " + student);
+                return submissionIngestService.submit(submission, null);
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        int failed = 0;
+        for (Future<SubmissionIngestResult> future : results) {
+            try {
+                assertEquals(SubmissionIngestResult.Outcome.CREATED, future.get(60, TimeUnit.SECONDS).outcome());
+                created++;
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(9, created);
+        assertEquals(1, failed);
+        assertEquals(9, submissionRepository.findByHomeworkId(homework.getId()).size());
+    }
+}
@@ -0,0 +1,212 @@
+package com.XuebaoMaster.backend;
+
+import com.XuebaoMaster.backend.CourseFile.CourseFileRepository;
+import com.XuebaoMaster.backend.DataArchive.ArchivedTable;
+import com.XuebaoMaster.backend.DataArchive.impl.DataArchiveServiceImpl;
+import com.XuebaoMaster.backend.DeepSeekChat.ChatConversation;
+import com.XuebaoMaster.backend.DeepSeekChat.ChatMessageRepository;
+import com.XuebaoMaster.backend.File.FileRepository;
+import com.XuebaoMaster.backend.HomeworkQuestion.HomeworkQuestionRepository;
+import com.XuebaoMaster.backend.LoginRecord.LoginRecordRepository;
+import com.XuebaoMaster.backend.ModuleUsage.ModuleUsageRepository;
+import com.XuebaoMaster.backend.PracticeRecord.PracticeRecordRepository;
+import com.XuebaoMaster.backend.User.User;
+import com.XuebaoMaster.backend.User.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 对热点仓库查询执行 EXPLAIN，出现没有可用索引的全表扫描时失败，需要已执行迁移的 MySQL 数据库
+ * 仓库查询通过实际调用仓库方法、由驱动拦截器记录 Hibernate 生成并发出的 SQL 得到；归档批次查询直接使用服务中的语句常量
+ * 表中数据很少时优化器可能仍选择全表扫描，因此只要求存在可用索引(possible_keys 非空)
+ * 运行: mvn test -Dtest=RepositoryQueryExplainTest -DexplainTest=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "explainTest", matches = "true")
+class RepositoryQueryExplainTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        // 连接池在首次取连接时才创建连接，此时加上的驱动属性对所有连接生效
+        @Bean
+        static BeanPostProcessor statementCapturePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof HikariDataSource dataSource) {
+                        dataSource.addDataSourceProperty("queryInterceptors",
+                                StatementCaptureInterceptor.class.getName());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(ApplicationContext context);
+    }
+
+    static Stream<Arguments> repositoryCalls() {
+        return Stream.of(
+                call("PracticeRecordRepository.findByStudentIdAndHomeworkId",
+                        c -> c.getBean(PracticeRecordRepository.class).findByStudentIdAndHomeworkId(1L, 1L)),
+                call("PracticeRecordRepository.findTopByStudentIdAndHomeworkIdAndQuestionIdOrderBySubmittedAtDesc",
+                        c -> c.getBean(PracticeRecordRepository.class)
+                                .findTopByStudentIdAndHomeworkIdAndQuestionIdOrderBySubmittedAtDesc(1L, 1L, 1L)),
+                call("PracticeRecordRepository.findByHomeworkId",
+                        c -> c.getBean(PracticeRecordRepository.class).findByHomeworkId(1L)),
+                call("PracticeRecordRepository.findByQuestionId",
+                        c -> c.getBean(PracticeRecordRepository.class).findByQuestionId(1L)),
+                call("PracticeRecordRepository.countDistinctStudentsByHomeworkId",
+                        c -> c.getBean(PracticeRecordRepository.class).countDistinctStudentsByHomeworkId(1L)),
+                call("PracticeRecordRepository.countCorrectAnswersByQuestionId",
+                        c -> c.getBean(PracticeRecordRepository.class).countCorrectAnswersByQuestionId(1L)),
+                call("PracticeRecordRepository.getHomeworkStatsByCourseId",
+                        c -> c.getBean(PracticeRecordRepository.class).getHomeworkStatsByCourseId(1L)),
+                call("PracticeRecordRepository.findByStudentIdAndSubmittedAtBetween",
+                        c -> c.getBean(PracticeRecordRepository.class)
+                                .findByStudentIdAndSubmittedAtBetween(1L, FROM, TO)),
+                call("PracticeRecordRepository.getStudentPracticeTrend",
+                        c -> c.getBean(PracticeRecordRepository.class).getStudentPracticeTrend(1L)),
+                call("PracticeRecordRepository.findStudentWeakestQuestions",
+                        c -> c.getBean(PracticeRecordRepository.class).findStudentWeakestQuestions(1L, 5)),
+                call("LoginRecordRepository.findByUserIdAndTimeBetween",
+                        c -> c.getBean(LoginRecordRepository.class).findByUserIdAndTimeBetween(1L, FROM, TO)),
+                call("LoginRecordRepository.findByTimeBetween",
+                        c -> c.getBean(LoginRecordRepository.class).findByTimeBetween(FROM, TO)),
+                call("LoginRecordRepository.countByUserId",
+                        c -> c.getBean(LoginRecordRepository.class).countByUserId(1L)),
+                call("LoginRecordRepository.findRecentViews",
+                        c -> c.getBean(LoginRecordRepository.class).findRecentViews(PageRequest.of(0, 20))),
+                call("ModuleUsageRepository.countTodayUsageByRole",
+                        c -> c.getBean(ModuleUsageRepository.class)
+                                .countTodayUsageByRole(User.UserRoleType.STUDENT, FROM)),
+                call("ModuleUsageRepository.findByUserAndAccessTimeBetween",
+                        c -> c.getBean(ModuleUsageRepository.class).findByUserAndAccessTimeBetween(
+                                c.getBean(UserRepository.class).getReferenceById(1L), FROM, TO)),
+                call("FileRepository.findByParentPathOrderByIsDirectoryDescFileNameAsc",
+                        c -> c.getBean(FileRepository.class).findByParentPathOrderByIsDirectoryDescFileNameAsc("/")),
+                call("FileRepository.findByFilePathAndFileName",
+                        c -> c.getBean(FileRepository.class).findByFilePathAndFileName("/docs", "a.pdf")),
+                call("FileRepository.findByFilePathStartingWith",
+                        c -> c.getBean(FileRepository.class).findByFilePathStartingWith("/docs")),
+                call("FileRepository.findByMimeTypeStartingWithAndParentPathStartingWith",
+                        c -> c.getBean(FileRepository.class)
+                                .findByMimeTypeStartingWithAndParentPathStartingWith("image", "/docs")),
+                call("ChatMessageRepository.findByUserIdAndCreatedAtBetween",
+                        c -> c.getBean(ChatMessageRepository.class).findByUserIdAndCreatedAtBetween(1L, FROM, TO)),
+                call("ChatMessageRepository.findByCreatedAtBetween",
+                        c -> c.getBean(ChatMessageRepository.class).findByCreatedAtBetween(FROM, TO)),
+                call("HomeworkQuestionRepository.findByHomeworkIdOrderByOrderIndexAsc",
+                        c -> c.getBean(HomeworkQuestionRepository.class).findByHomeworkIdOrderByOrderIndexAsc(1L)),
+                call("CourseFileRepository.findByCourse_CourseIdOrderByDisplayOrderAsc",
+                        c -> c.getBean(CourseFileRepository.class).findByCourse_CourseIdOrderByDisplayOrderAsc(1L)));
+    }
+
+    // 归档批次查询，与 DataArchiveServiceImpl 执行的语句相同
+    static Stream<Arguments> archiveQueries() {
+        return Stream.of(ArchivedTable.values()).map(table -> Arguments.of(
+                "DataArchiveService.archiveTable(" + table.name() + ")",
+                table == ArchivedTable.CHAT_MESSAGES
+                        ? DataArchiveServiceImpl.CONVERSATION_BATCH_IDS_SQL
+                        : String.format(DataArchiveServiceImpl.BATCH_IDS_SQL, table.table(), table.timeColumn())));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void repositoryQueryUsesIndex(String repositoryMethod, RepositoryCall call) {
+        List<String> statements = StatementCaptureInterceptor.capture(() -> call.run(context));
+        assertUsesIndex(repositoryMethod, statements);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("archiveQueries")
+    void archiveQueryUsesIndex(String query, String sql) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql,
+                Timestamp.valueOf(FROM), 5000);
+        assertPlanUsesIndex(query, plan);
+    }
+
+    // 会话消息集合的懒加载语句，在回滚的事务内建一个空会话触发加载
+    @Test
+    void conversationMessagesUseIndex() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> statements = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            ChatConversation conversation = new ChatConversation();
+            conversation.setUserId(-45L);
+            entityManager.persist(conversation);
+            entityManager.flush();
+            entityManager.clear();
+            ChatConversation loaded = entityManager.find(ChatConversation.class, conversation.getId());
+            return StatementCaptureInterceptor.capture(() -> loaded.getMessages().size());
+        });
+        assertUsesIndex("ChatConversation.messages", statements);
+    }
+
+    private void assertUsesIndex(String repositoryMethod, List<String> statements) {
+        List<String> selects = statements.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertFalse(selects.isEmpty(), repositoryMethod + " 没有发出查询: " + statements);
+        for (String sql : selects) {
+            assertPlanUsesIndex(repositoryMethod, jdbcTemplate.queryForList("EXPLAIN " + sql));
+        }
+    }
+
+    private void assertPlanUsesIndex(String query, List<Map<String, Object>> plan) {
+        for (Map<String, Object> row : plan) {
+            if ("ALL".equals(row.get("type")) && row.get("possible_keys") == null) {
+                fail(query + " 对表 " + row.get("table") + " 执行全表扫描: " + plan);
+            }
+        }
+    }
+
+    private static Arguments call(String repositoryMethod, RepositoryCall call) {
+        return Arguments.of(repositoryMethod, call);
+    }
+}
@@ -0,0 +1,65 @@
+package com.XuebaoMaster.backend;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * 记录当前线程发给 MySQL 的语句，驱动在客户端代入参数，记录的是实际执行的 SQL 文本
+ * 通过连接属性 queryInterceptors 注册，驱动按类名反射创建
+ */
+public class StatementCaptureInterceptor implements QueryInterceptor {
+
+    private static final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+    /**
+     * 执行 action 并返回期间当前线程发出的全部语句
+     */
+    public static List<String> capture(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        captured.set(statements);
+        try {
+            action.run();
+        } finally {
+            captured.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        List<String> statements = captured.get();
+        if (statements != null) {
+            statements.add(sql.get());
+        }
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+            ServerSession serverSession) {
+        return null;
+    }
+}
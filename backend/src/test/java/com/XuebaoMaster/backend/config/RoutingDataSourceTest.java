@@ -0,0 +1,111 @@
+package com.XuebaoMaster.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 读写路由规则，主库和副本用两个模拟数据源代替，不需要数据库
+ */
+class RoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private RoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routingDataSource = new RoutingDataSource(primary, replica);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingDataSource.restore(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void ordinaryQueriesUsePrimary() throws SQLException {
+        beginTransaction(true);
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void analyticsInReadOnlyTransactionUsesReplica() throws SQLException {
+        RoutingDataSource.markAnalytics();
+        beginTransaction(true);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void analyticsWithoutTransactionUsesReplica() throws SQLException {
+        RoutingDataSource.markAnalytics();
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void analyticsJoiningReadWriteTransactionStaysOnPrimary() throws SQLException {
+        RoutingDataSource.markAnalytics();
+        beginTransaction(false);
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void reportTasksRouteToReplicaAndRestoreTheThread() throws SQLException {
+        Connection[] used = new Connection[1];
+        RoutingDataSource.analytics(() -> {
+            try {
+                used[0] = routingDataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }).run();
+
+        assertSame(replicaConnection, used[0]);
+        assertFalse(RoutingDataSource.isAnalytics());
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void lazyProxyDecidesTargetAtFirstStatement() throws SQLException {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routingDataSource);
+        RoutingDataSource.markAnalytics();
+
+        // 事务管理器开始事务时先拿到连接，此时还没有只读标记
+        Connection connection = proxy.getConnection();
+        beginTransaction(true);
+        connection.createStatement();
+
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
@@ -0,0 +1,49 @@
+package com.XuebaoMaster.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 大文本压缩格式：阈值以下保存原文，旧数据不带前缀时原样读出
+ */
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void shortTextIsStoredAsIs() {
+        String text = "{\"type\":\"选择题\",\"answer\":\"A\"}";
+        assertSame(text, converter.convertToDatabaseColumn(text));
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void longTextRoundTripsCompressed() {
+        String text = "教案内容：函数的单调性与导数。".repeat(500);
+        String stored = converter.convertToDatabaseColumn(text);
+
+        assertTrue(stored.startsWith(CompressedTextConverter.PREFIX));
+        assertTrue(stored.length() < text.length() / 4);
+        assertEquals(text, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void legacyRowsAreReadUnchanged() {
+        String legacy = "x".repeat(CompressedTextConverter.THRESHOLD * 2);
+        assertSame(legacy, converter.convertToEntityAttribute(legacy));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void textThatLooksCompressedIsStillEscaped() {
+        String text = CompressedTextConverter.PREFIX + "用户输入";
+        String stored = converter.convertToDatabaseColumn(text);
+
+        assertTrue(stored.startsWith(CompressedTextConverter.PREFIX));
+        assertEquals(text, converter.convertToEntityAttribute(stored));
+    }
+}
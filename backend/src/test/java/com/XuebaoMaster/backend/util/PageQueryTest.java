@@ -0,0 +1,57 @@
+package com.XuebaoMaster.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 页码从 1 开始，每页条数有上限，排序字段只接受白名单，关键字中的通配符按字面匹配
+ */
+class PageQueryTest {
+
+    private static final Set<String> SORTABLE = Set.of("id", "createdAt", "status");
+
+    @Test
+    void defaultsToFirstPageNewestFirst() {
+        Pageable pageable = PageQuery.of(null, null, null, null, SORTABLE, "createdAt");
+
+        assertEquals(0, pageable.getPageNumber());
+        assertEquals(KeysetPage.DEFAULT_LIMIT, pageable.getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")),
+                pageable.getSort());
+    }
+
+    @Test
+    void pageIsOneBasedAndSizeIsCapped() {
+        Pageable pageable = PageQuery.of(3, 1000, "id", "asc", SORTABLE, "createdAt");
+
+        assertEquals(2, pageable.getPageNumber());
+        assertEquals(KeysetPage.MAX_LIMIT, pageable.getPageSize());
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), pageable.getSort());
+    }
+
+    @Test
+    void rejectsUnknownSortField() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PageQuery.of(1, 20, "questionJson", "desc", SORTABLE, "createdAt"));
+    }
+
+    @Test
+    void blankFilterMeansNoFilter() {
+        assertNull(PageQuery.filter("  "));
+        assertEquals("导数", PageQuery.filter(" 导数 "));
+    }
+
+    @Test
+    void keywordPatternMatchesWildcardsLiterally() {
+        assertNull(PageQuery.containsPattern(" "));
+        assertEquals("%导数%", PageQuery.containsPattern(" 导数 "));
+        assertEquals("%100!%!_a!!b%", PageQuery.containsPattern("100%_a!b"));
+    }
+}